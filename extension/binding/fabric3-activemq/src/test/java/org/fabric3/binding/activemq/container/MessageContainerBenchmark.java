@@ -0,0 +1,150 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.activemq.container;
+
+import javax.jms.Connection;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.jms.model.ConsumerMode;
+import org.fabric3.api.binding.jms.model.DestinationType;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.binding.jms.runtime.container.ContainerConfiguration;
+import org.fabric3.binding.jms.runtime.container.MessageContainer;
+import org.fabric3.binding.jms.runtime.container.MessageContainerFactoryImpl;
+import org.fabric3.binding.jms.runtime.container.MessageContainerMonitor;
+import org.fabric3.binding.jms.spi.provision.SessionType;
+
+/**
+ * Compares the polling and listener message containers against an embedded broker.
+ *
+ * This is a harness rather than a test case so that it is not run as part of the build. Run it from the test classpath using {@link #main(String[])}.
+ */
+public class MessageContainerBenchmark {
+    private static final int MESSAGES = 2000;
+
+    private BrokerService broker;
+    private ActiveMQConnectionFactory factory;
+    private ExecutorService executorService;
+    private MessageContainerFactoryImpl containerFactory;
+
+    public static void main(String[] args) throws Exception {
+        MessageContainerBenchmark benchmark = new MessageContainerBenchmark();
+        benchmark.start();
+        try {
+            long time = benchmark.consume(ConsumerMode.POLLING, SessionType.LOCAL_TRANSACTED, "polling");
+            System.out.println("Polling container consumed " + MESSAGES + " messages in " + time + " ms");
+
+            time = benchmark.consume(ConsumerMode.LISTENER, SessionType.LOCAL_TRANSACTED, "listener");
+            System.out.println("Listener container consumed " + MESSAGES + " messages in " + time + " ms");
+
+            time = benchmark.consume(ConsumerMode.LISTENER, SessionType.AUTO_ACKNOWLEDGE, "listener.auto");
+            System.out.println("Listener container (auto acknowledge) consumed " + MESSAGES + " messages in " + time + " ms");
+        } finally {
+            benchmark.stop();
+        }
+    }
+
+    /**
+     * Sends messages to a queue and consumes them using a container in the given mode.
+     *
+     * @param mode      the consumer mode
+     * @param type      the session type
+     * @param queueName the queue name
+     * @return the time taken to consume the messages in milliseconds
+     * @throws Exception if the messages cannot be sent or are not consumed
+     */
+    private long consume(ConsumerMode mode, SessionType type, String queueName) throws Exception {
+        Queue queue = send(queueName);
+
+        CountDownLatch latch = new CountDownLatch(MESSAGES);
+
+        ContainerConfiguration configuration = new ContainerConfiguration();
+        configuration.setUri(URI.create("container/" + queueName));
+        configuration.setFactory(factory);
+        configuration.setDestination(queue);
+        configuration.setDestinationType(DestinationType.QUEUE);
+        configuration.setSessionType(type);
+        configuration.setConsumerMode(mode);
+        configuration.setMinReceivers(4);
+        configuration.setMaxReceivers(4);
+        configuration.setMessageListener(message -> latch.countDown());
+
+        MessageContainer container = containerFactory.create(configuration);
+        long start = System.currentTimeMillis();
+        container.initialize();
+        try {
+            if (!latch.await(60, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out consuming messages from " + queueName);
+            }
+            return System.currentTimeMillis() - start;
+        } finally {
+            container.shutdown();
+        }
+    }
+
+    private Queue send(String queueName) throws Exception {
+        Connection connection = factory.createConnection();
+        try {
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue(queueName);
+            MessageProducer producer = session.createProducer(queue);
+            for (int i = 0; i < MESSAGES; i++) {
+                producer.send(session.createTextMessage("message" + i));
+            }
+            return queue;
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void start() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName("benchmark");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+        factory = new ActiveMQConnectionFactory("vm://benchmark?create=false");
+
+        executorService = Executors.newCachedThreadPool();
+        HostInfo info = EasyMock.createMock(HostInfo.class);
+        EasyMock.expect(info.isJavaEEXAEnabled()).andReturn(false).anyTimes();
+        MessageContainerMonitor monitor = EasyMock.createNiceMock(MessageContainerMonitor.class);
+        EasyMock.replay(info, monitor);
+
+        containerFactory = new MessageContainerFactoryImpl(executorService, null, info, monitor);
+        // use a short transaction timeout so polling receivers shut down promptly
+        containerFactory.setTransactionTimeout(2);
+    }
+
+    private void stop() throws Exception {
+        executorService.shutdownNow();
+        broker.stop();
+    }
+}
@@ -21,6 +21,8 @@ package org.fabric3.api.binding.file;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Implementations adapt the reference-side binding infrastructure to a particular file system-based transport protocol.
@@ -36,5 +38,16 @@ public interface ReferenceAdapter {
      */
     OutputStream createOutputStream(File file) throws IOException;
 
+    /**
+     * Creates a channel for writing a file. Used when the bound reference returns a {@link FileChannel}, which allows large files to be written without copying
+     * through heap buffers, for example using {@link FileChannel#transferFrom} or a mapped region.
+     *
+     * @param file the file to write
+     * @return the channel
+     * @throws IOException if the channel cannot be created
+     */
+    default FileChannel createChannel(File file) throws IOException {
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+    }
 
 }
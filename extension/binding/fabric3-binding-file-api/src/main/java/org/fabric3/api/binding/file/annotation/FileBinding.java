@@ -92,6 +92,20 @@ public @interface FileBinding {
      */
     long delay() default -1;
 
+    /**
+     * Specifies the maximum number of files processed concurrently when {@link Ordering#NONE} is used.
+     *
+     * @return the maximum number of files processed concurrently
+     */
+    int workers() default 1;
+
+    /**
+     * Specifies the order in which received files are dispatched.
+     *
+     * @return the order in which received files are dispatched
+     */
+    Ordering ordering() default Ordering.NONE;
+
     /**
      * Specifies the binding name.
      *
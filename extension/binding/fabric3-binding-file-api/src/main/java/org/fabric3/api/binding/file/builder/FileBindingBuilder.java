@@ -16,6 +16,7 @@
  */
 package org.fabric3.api.binding.file.builder;
 
+import org.fabric3.api.binding.file.annotation.Ordering;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.api.binding.file.model.FileBinding;
 import org.fabric3.api.model.type.builder.AbstractBuilder;
@@ -68,6 +69,12 @@ public class FileBindingBuilder extends AbstractBuilder {
         return this;
     }
 
+    public FileBindingBuilder ordering(Ordering ordering) {
+        checkState();
+        binding.setOrdering(ordering);
+        return this;
+    }
+
     public FileBindingBuilder pattern(String pattern) {
         checkState();
         binding.setPattern(pattern);
@@ -80,6 +87,12 @@ public class FileBindingBuilder extends AbstractBuilder {
         return this;
     }
 
+    public FileBindingBuilder workers(int workers) {
+        checkState();
+        binding.setWorkers(workers);
+        return this;
+    }
+
     public FileBinding build() {
         checkState();
         freeze();
@@ -16,6 +16,7 @@
  */
 package org.fabric3.api.binding.file.model;
 
+import org.fabric3.api.binding.file.annotation.Ordering;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.api.model.type.component.Binding;
 
@@ -33,6 +34,8 @@ public class FileBinding extends Binding {
     private String adapterClass;
     private String adapterUri;
     private long delay;
+    private int workers = 1;
+    private Ordering ordering = Ordering.NONE;
 
     /**
      * Constructor.
@@ -166,6 +169,24 @@ public class FileBinding extends Binding {
         return delay;
     }
 
+    /**
+     * Returns the maximum number of files processed concurrently when {@link Ordering#NONE} is used.
+     *
+     * @return the maximum number of files processed concurrently
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Returns the order in which received files are dispatched.
+     *
+     * @return the order in which received files are dispatched
+     */
+    public Ordering getOrdering() {
+        return ordering;
+    }
+
     public void setPattern(String pattern) {
         this.pattern = pattern;
     }
@@ -197,4 +218,12 @@ public class FileBinding extends Binding {
     public void setDelay(long delay) {
         this.delay = delay;
     }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public void setOrdering(Ordering ordering) {
+        this.ordering = ordering;
+    }
 }
@@ -22,9 +22,12 @@ import javax.activation.DataHandler;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.List;
 
 import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.api.binding.file.annotation.Ordering;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.api.binding.file.model.FileBinding;
 import org.fabric3.api.host.Fabric3Exception;
@@ -34,6 +37,7 @@ import org.fabric3.api.model.type.contract.Operation;
 import org.fabric3.api.model.type.contract.ServiceContract;
 import org.fabric3.binding.file.provision.FileBindingWireSource;
 import org.fabric3.binding.file.provision.FileBindingWireTarget;
+import org.fabric3.binding.file.provision.PayloadType;
 import org.fabric3.spi.domain.generator.WireBindingGenerator;
 import org.fabric3.spi.model.instance.LogicalBinding;
 import org.fabric3.spi.model.instance.LogicalOperation;
@@ -65,7 +69,7 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
 
     public FileBindingWireSource generateSource(LogicalBinding<FileBinding> binding, ServiceContract contract, List<LogicalOperation> operations) {
         validateServiceContract(contract);
-        boolean dataHandler = isDataHandler(contract);
+        PayloadType payloadType = getPayloadType(contract);
         FileBinding definition = binding.getDefinition();
         String pattern = definition.getPattern();
         if (pattern == null) {
@@ -86,7 +90,20 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
         if (delay == -1) {
             delay = defaultDelay;
         }
-        return new FileBindingWireSource(uri, pattern, location, strategy, archiveLocation, errorLocation, adapterClass, adaptorUri, delay, dataHandler);
+        int workers = definition.getWorkers();
+        Ordering ordering = definition.getOrdering();
+        return new FileBindingWireSource(uri,
+                                         pattern,
+                                         location,
+                                         strategy,
+                                         archiveLocation,
+                                         errorLocation,
+                                         adapterClass,
+                                         adaptorUri,
+                                         delay,
+                                         workers,
+                                         ordering,
+                                         payloadType);
     }
 
     public FileBindingWireTarget generateTarget(LogicalBinding<FileBinding> binding, ServiceContract contract, List<LogicalOperation> operations) {
@@ -95,7 +112,8 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
         String location = definition.getLocation();
         String adapterClass = definition.getAdapterClass();
         URI adaptorUri = getAdaptorUri(definition);
-        return new FileBindingWireTarget(location, adapterClass, adaptorUri);
+        boolean channel = FileChannel.class.isAssignableFrom(contract.getOperations().get(0).getOutputType().getType());
+        return new FileBindingWireTarget(location, adapterClass, adaptorUri, channel);
     }
 
     /**
@@ -103,13 +121,17 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
      * <pre>
      * OutputStream openStream(String id);
      * </pre>
+     * or:
+     * <pre>
+     * FileChannel openChannel(String id);
+     * </pre>
      *
      * @param contract the service contract to validate
      * @throws Fabric3Exception if the contract is invalid
      */
     private void validateReferenceContract(ServiceContract contract) throws Fabric3Exception {
         if (contract.getOperations().size() != 1) {
-            throw new Fabric3Exception("File transfer binding contracts must contain one operation of the form openStream(String id)");
+            throw new Fabric3Exception("File transfer binding contracts must contain one operation of the form openStream(String id) or openChannel(String id)");
         }
         Operation operation = contract.getOperations().get(0);
         DataType dataType = operation.getInputTypes().get(0);
@@ -126,8 +148,9 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
             throw new Fabric3Exception("Unsupported output type on binding contract: " + outputType);
         }
         JavaType javaOutputType = (JavaType) outputType;
-        if (!(OutputStream.class.isAssignableFrom(javaOutputType.getType()))) {
-            throw new Fabric3Exception("Output type on binding contract must be a java.io.OutputStream: " + dataType);
+        Class<?> type = javaOutputType.getType();
+        if (!(OutputStream.class.isAssignableFrom(type)) && !FileChannel.class.isAssignableFrom(type)) {
+            throw new Fabric3Exception("Output type on binding contract must be a java.io.OutputStream or java.nio.channels.FileChannel: " + dataType);
         }
     }
 
@@ -144,20 +167,26 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
     }
 
     /**
-     * Determines if the contract takes the Java Activation Framework {@link DataHandler} type as a parameter.
+     * Determines the parameter type the contract receives files as: the Java Activation Framework {@link DataHandler}, a {@link FileChannel}, a mapped {@link
+     * ByteBuffer}, or by default an input stream.
      *
      * @param contract the contract
-     * @return true if the contract takes the Java Activation Framework {@link DataHandler} type as a parameter
+     * @return the parameter type
      */
-    private boolean isDataHandler(ServiceContract contract) {
+    private PayloadType getPayloadType(ServiceContract contract) {
         for (Operation operation : contract.getOperations()) {
             for (DataType dataType : operation.getInputTypes()) {
-                if (DataHandler.class.isAssignableFrom(dataType.getType())) {
-                    return true;
+                Class<?> type = dataType.getType();
+                if (DataHandler.class.isAssignableFrom(type)) {
+                    return PayloadType.DATA_HANDLER;
+                } else if (FileChannel.class.isAssignableFrom(type)) {
+                    return PayloadType.CHANNEL;
+                } else if (ByteBuffer.class.isAssignableFrom(type)) {
+                    return PayloadType.MAPPED;
                 }
             }
         }
-        return false;
+        return PayloadType.STREAM;
     }
 
     private URI getAdaptorUri(FileBinding definition) throws Fabric3Exception {
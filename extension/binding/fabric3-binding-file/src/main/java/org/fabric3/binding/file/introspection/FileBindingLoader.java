@@ -22,6 +22,7 @@ import javax.xml.stream.XMLStreamReader;
 
 import org.fabric3.api.Namespaces;
 import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.api.binding.file.annotation.Ordering;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.api.binding.file.model.FileBinding;
 import org.fabric3.spi.introspection.IntrospectionContext;
@@ -49,7 +50,9 @@ public class FileBindingLoader extends AbstractValidatingTypeLoader<FileBinding>
                       "adapter",
                       "adapter.component",
                       "policySets",
-                      "delay");
+                      "delay",
+                      "workers",
+                      "ordering");
     }
 
     public FileBinding load(XMLStreamReader reader, IntrospectionContext context) throws XMLStreamException {
@@ -80,6 +83,8 @@ public class FileBindingLoader extends AbstractValidatingTypeLoader<FileBinding>
 
         long delay = parseDelay(reader, context);
         FileBinding binding = new FileBinding(bindingName, pattern, location, strategy, archiveLocation, errorLocation, adapterClass, adapterUri, delay);
+        parseWorkers(reader, binding, context);
+        parseOrdering(reader, binding, context);
 
         validateAttributes(reader, context, binding);
 
@@ -111,4 +116,39 @@ public class FileBindingLoader extends AbstractValidatingTypeLoader<FileBinding>
         return delay;
     }
 
+    private void parseWorkers(XMLStreamReader reader, FileBinding binding, IntrospectionContext context) {
+        String workersStr = reader.getAttributeValue(null, "workers");
+        if (workersStr == null) {
+            return;
+        }
+        try {
+            int workers = Integer.parseInt(workersStr);
+            if (workers < 1) {
+                Location location = reader.getLocation();
+                InvalidValue error = new InvalidValue("Workers must be greater than zero: " + workersStr, location);
+                context.addError(error);
+                return;
+            }
+            binding.setWorkers(workers);
+        } catch (NumberFormatException e) {
+            Location location = reader.getLocation();
+            InvalidValue error = new InvalidValue("Invalid workers value", location, e);
+            context.addError(error);
+        }
+    }
+
+    private void parseOrdering(XMLStreamReader reader, FileBinding binding, IntrospectionContext context) {
+        String orderingStr = reader.getAttributeValue(null, "ordering");
+        if (orderingStr == null) {
+            return;
+        }
+        try {
+            binding.setOrdering(Ordering.valueOf(orderingStr.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            Location location = reader.getLocation();
+            InvalidValue error = new InvalidValue("Invalid ordering value: " + orderingStr, location, e);
+            context.addError(error);
+        }
+    }
+
 }
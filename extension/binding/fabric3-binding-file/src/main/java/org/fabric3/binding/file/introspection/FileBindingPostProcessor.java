@@ -96,7 +96,15 @@ public class FileBindingPostProcessor extends AbstractBindingPostProcessor<org.f
             InvalidAnnotation error = new InvalidAnnotation("Invalid delay value specified on file binding", implClass, annotation, implClass);
             context.addError(error);
         }
-        return new FileBinding(name, pattern, location, strategy, archiveLocation, errorLocation, null, adapterUri, delay);
+        int workers = annotation.workers();
+        if (workers < 1) {
+            InvalidAnnotation error = new InvalidAnnotation("Invalid workers value specified on file binding", implClass, annotation, implClass);
+            context.addError(error);
+        }
+        FileBinding binding = new FileBinding(name, pattern, location, strategy, archiveLocation, errorLocation, null, adapterUri, delay);
+        binding.setWorkers(workers);
+        binding.setOrdering(annotation.ordering());
+        return binding;
 
     }
 
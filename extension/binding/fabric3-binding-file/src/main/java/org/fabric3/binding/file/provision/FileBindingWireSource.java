@@ -18,9 +18,9 @@
  */
 package org.fabric3.binding.file.provision;
 
-import javax.activation.DataHandler;
 import java.net.URI;
 
+import org.fabric3.api.binding.file.annotation.Ordering;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.spi.model.physical.PhysicalWireSource;
 
@@ -36,7 +36,9 @@ public class FileBindingWireSource extends PhysicalWireSource {
     private URI adapterUri;
     private String pattern;
     private long delay;
-    private boolean dataHandler;
+    private int workers;
+    private Ordering ordering;
+    private PayloadType payloadType;
 
     public FileBindingWireSource(URI uri,
                                  String pattern,
@@ -47,7 +49,9 @@ public class FileBindingWireSource extends PhysicalWireSource {
                                  String adapterClass,
                                  URI adapterUri,
                                  long delay,
-                                 boolean dataHandler) {
+                                 int workers,
+                                 Ordering ordering,
+                                 PayloadType payloadType) {
         this.pattern = pattern;
         this.location = location;
         this.strategy = strategy;
@@ -56,7 +60,9 @@ public class FileBindingWireSource extends PhysicalWireSource {
         this.adapterClass = adapterClass;
         this.adapterUri = adapterUri;
         this.delay = delay;
-        this.dataHandler = dataHandler;
+        this.workers = workers;
+        this.ordering = ordering;
+        this.payloadType = payloadType;
         setUri(uri);
     }
 
@@ -133,11 +139,29 @@ public class FileBindingWireSource extends PhysicalWireSource {
     }
 
     /**
-     * Returns true if the contract takes the Java Activation Framework {@link DataHandler} type as a parameter.
+     * Returns the maximum number of files processed concurrently when {@link Ordering#NONE} is used.
      *
-     * @return true if the contract takes the Java Activation Framework {@link DataHandler} type as a parameter
+     * @return the maximum number of files processed concurrently
      */
-    public boolean isDataHandler() {
-        return dataHandler;
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Returns the order in which received files are dispatched.
+     *
+     * @return the order in which received files are dispatched
+     */
+    public Ordering getOrdering() {
+        return ordering;
+    }
+
+    /**
+     * Returns the parameter type received files are passed to the service as.
+     *
+     * @return the parameter type
+     */
+    public PayloadType getPayloadType() {
+        return payloadType;
     }
 }
@@ -29,11 +29,17 @@ public class FileBindingWireTarget extends PhysicalWireTarget {
     private String location;
     private String adapterClass;
     private URI adapterUri;
+    private boolean channel;
 
     public FileBindingWireTarget(String location, String adapterClass, URI adapterUri) {
+        this(location, adapterClass, adapterUri, false);
+    }
+
+    public FileBindingWireTarget(String location, String adapterClass, URI adapterUri, boolean channel) {
         this.location = location;
         this.adapterClass = adapterClass;
         this.adapterUri = adapterUri;
+        this.channel = channel;
         setUri(null);
     }
 
@@ -65,4 +71,13 @@ public class FileBindingWireTarget extends PhysicalWireTarget {
         return adapterUri;
     }
 
+    /**
+     * Returns true if the reference contract returns a {@link java.nio.channels.FileChannel} instead of an output stream.
+     *
+     * @return true if the reference contract returns a file channel
+     */
+    public boolean isChannel() {
+        return channel;
+    }
+
 }
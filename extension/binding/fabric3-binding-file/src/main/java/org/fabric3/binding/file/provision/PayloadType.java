@@ -0,0 +1,47 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.file.provision;
+
+/**
+ * The parameter type a received file is passed to a bound service as.
+ */
+public enum PayloadType {
+
+    /**
+     * A buffered {@link java.io.InputStream}.
+     */
+    STREAM,
+
+    /**
+     * A Java Activation Framework {@link javax.activation.DataHandler}.
+     */
+    DATA_HANDLER,
+
+    /**
+     * A read-only {@link java.nio.channels.FileChannel}, which allows large files to be read or transferred without copying through heap buffers.
+     */
+    CHANNEL,
+
+    /**
+     * A read-only {@link java.nio.MappedByteBuffer} of the entire file.
+     */
+    MAPPED
+
+}
@@ -20,19 +20,25 @@ package org.fabric3.binding.file.runtime;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 import org.fabric3.api.binding.file.ServiceAdapter;
-import org.fabric3.api.host.util.FileHelper;
 
 /**
- *
+ * Base {@link ServiceAdapter} implementation. Files sent to the error or archive directory are renamed when the directory is on the same file system;
+ * otherwise their contents are transferred using {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which avoids copying
+ * through heap buffers.
  */
 @SuppressWarnings({"ResultOfMethodCallIgnored"})
 public abstract class AbstractFileServiceAdapter implements ServiceAdapter {
 
     public void error(File file, File errorDirectory, Exception e) throws IOException {
-        FileHelper.copyFile(file, new File(errorDirectory, file.getName()));
-        file.delete();
+        move(file, new File(errorDirectory, file.getName()));
     }
 
     public void delete(File file) {
@@ -40,8 +46,46 @@ public abstract class AbstractFileServiceAdapter implements ServiceAdapter {
     }
 
     public void archive(File file, File archiveDirectory) throws IOException {
-        File destFile = new File(archiveDirectory, file.getName());
-        FileHelper.copyFile(file, destFile);
-        file.delete();
+        move(file, new File(archiveDirectory, file.getName()));
+    }
+
+    /**
+     * Moves a file, replacing the destination if it exists.
+     *
+     * @param source      the file to move
+     * @param destination the destination file
+     * @throws IOException if the file cannot be moved
+     */
+    protected void move(File source, File destination) throws IOException {
+        Path sourcePath = source.toPath();
+        Path destinationPath = destination.toPath();
+        Files.createDirectories(destinationPath.getParent());
+        try {
+            Files.move(sourcePath, destinationPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // the destination is on a different file store
+            transfer(sourcePath, destinationPath);
+            Files.setLastModifiedTime(destinationPath, Files.getLastModifiedTime(sourcePath));
+            Files.delete(sourcePath);
+        }
+    }
+
+    /**
+     * Copies the contents of a file using channel transfers.
+     *
+     * @param source      the file to copy
+     * @param destination the destination file
+     * @throws IOException if the file cannot be copied
+     */
+    protected void transfer(Path source, Path destination) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
     }
+
 }
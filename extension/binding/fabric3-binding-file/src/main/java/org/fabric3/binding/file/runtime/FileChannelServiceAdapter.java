@@ -0,0 +1,55 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.file.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.fabric3.api.binding.file.InvalidDataException;
+import org.fabric3.api.binding.file.ServiceAdapter;
+import org.fabric3.api.host.util.IOHelper;
+
+/**
+ * A {@link ServiceAdapter} implementation that passes a read-only {@link FileChannel} to the target service. Services can map regions of the file or transfer
+ * its contents to another channel without copying through heap buffers, which makes this adapter suitable for files too large to map in a single buffer.
+ */
+public class FileChannelServiceAdapter extends AbstractFileServiceAdapter {
+
+    public Object[] beforeInvoke(File file) throws InvalidDataException {
+        try {
+            return new Object[]{FileChannel.open(file.toPath(), StandardOpenOption.READ)};
+        } catch (IOException e) {
+            throw new InvalidDataException(e);
+        }
+    }
+
+    public void afterInvoke(File file, Object[] payload) {
+        if (payload.length != 1) {
+            throw new AssertionError("Invalid payload length: " + payload.length);
+        }
+        if (!(payload[0] instanceof FileChannel)) {
+            throw new AssertionError("Invalid payload type: " + payload[0]);
+        }
+        IOHelper.closeQuietly((FileChannel) payload[0]);
+    }
+
+}
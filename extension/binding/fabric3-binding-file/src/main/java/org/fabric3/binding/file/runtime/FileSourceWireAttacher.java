@@ -52,6 +52,8 @@ import org.oasisopen.sca.annotation.Reference;
 public class FileSourceWireAttacher implements SourceWireAttacher<FileBindingWireSource> {
     private static final ServiceAdapter ADAPTER = new DefaultServiceAdapter();
     private static final ServiceAdapter JAF_ADAPTER = new DataHandlerServiceAdapter();
+    private static final ServiceAdapter CHANNEL_ADAPTER = new FileChannelServiceAdapter();
+    private static final ServiceAdapter MAPPED_ADAPTER = new MappedServiceAdapter();
 
     private ReceiverManager receiverManager;
     private ComponentManager manager;
@@ -97,6 +99,8 @@ public class FileSourceWireAttacher implements SourceWireAttacher<FileBindingWir
                                                                         adapter,
                                                                         delay,
                                                                         monitor);
+        configuration.setWorkers(source.getWorkers());
+        configuration.setOrdering(source.getOrdering());
         receiverManager.create(configuration);
     }
 
@@ -154,7 +158,16 @@ public class FileSourceWireAttacher implements SourceWireAttacher<FileBindingWir
         if (adapterClass == null) {
             URI adapterUri = source.getAdapterUri();
             if (adapterUri == null) {
-                return source.isDataHandler() ? JAF_ADAPTER : ADAPTER;
+                switch (source.getPayloadType()) {
+                    case DATA_HANDLER:
+                        return JAF_ADAPTER;
+                    case CHANNEL:
+                        return CHANNEL_ADAPTER;
+                    case MAPPED:
+                        return MAPPED_ADAPTER;
+                    default:
+                        return ADAPTER;
+                }
             }
             Component component = manager.getComponent(adapterUri);
             if (component == null) {
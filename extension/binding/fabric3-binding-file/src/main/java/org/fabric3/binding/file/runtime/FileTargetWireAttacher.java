@@ -60,7 +60,7 @@ public class FileTargetWireAttacher implements TargetWireAttacher<FileBindingWir
         location.mkdirs();
 
         ReferenceAdapter adapter = getAdaptor(target);
-        FileSystemInterceptor interceptor = new FileSystemInterceptor(location, adapter);
+        FileSystemInterceptor interceptor = new FileSystemInterceptor(location, adapter, target.isChannel());
         for (InvocationChain chain : wire.getInvocationChains()) {
             chain.addInterceptor(interceptor);
         }
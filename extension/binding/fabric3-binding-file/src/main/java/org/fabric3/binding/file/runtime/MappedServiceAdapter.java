@@ -0,0 +1,66 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.file.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.fabric3.api.binding.file.InvalidDataException;
+import org.fabric3.api.binding.file.ServiceAdapter;
+
+/**
+ * A {@link ServiceAdapter} implementation that passes a read-only {@link MappedByteBuffer} of the entire file to the target service. The file contents are paged
+ * in by the operating system as they are accessed rather than copied onto the heap.
+ *
+ * A single buffer can map at most {@link Integer#MAX_VALUE} bytes; larger files are rejected and services receiving them should take a {@link FileChannel}
+ * instead. The mapping remains valid until the buffer is garbage collected, including after the file has been archived or deleted on platforms that permit it.
+ */
+public class MappedServiceAdapter extends AbstractFileServiceAdapter {
+
+    public Object[] beforeInvoke(File file) throws InvalidDataException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new InvalidDataException("File is too large to map into a single buffer: " + file.getName());
+            }
+            // the mapping remains valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new Object[]{buffer};
+        } catch (InvalidDataException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InvalidDataException(e);
+        }
+    }
+
+    public void afterInvoke(File file, Object[] payload) {
+        if (payload.length != 1) {
+            throw new AssertionError("Invalid payload length: " + payload.length);
+        }
+        if (!(payload[0] instanceof MappedByteBuffer)) {
+            throw new AssertionError("Invalid payload type: " + payload[0]);
+        }
+        // nothing to release as the channel was closed after mapping
+    }
+
+}
@@ -3,6 +3,7 @@ package org.fabric3.binding.file.runtime;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 
 import org.fabric3.api.binding.file.ReferenceAdapter;
 import org.fabric3.api.host.Fabric3Exception;
@@ -24,6 +25,10 @@ public class ReferenceAdaptorWrapper implements ReferenceAdapter {
         return getInstance().createOutputStream(file);
     }
 
+    public FileChannel createChannel(File file) throws IOException {
+        return getInstance().createChannel(file);
+    }
+
     private ReferenceAdapter getInstance() {
         try {
             Object instance = component.getInstance();
@@ -0,0 +1,117 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.file.runtime.receiver;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on a backing executor with bounded concurrency. Tasks are started in the order they are submitted; when the concurrency is one, tasks execute
+ * serially in submission order.
+ *
+ * Rather than occupying threads of the backing executor while idle, a drain task is scheduled only when work is queued and fewer than the maximum number of
+ * drain tasks are active.
+ */
+public class BoundedExecutor implements Executor {
+    private Executor executor;
+    private int concurrency;
+
+    private Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param executor    the backing executor
+     * @param concurrency the maximum number of tasks to run concurrently
+     */
+    public BoundedExecutor(Executor executor, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be greater than zero: " + concurrency);
+        }
+        this.executor = executor;
+        this.concurrency = concurrency;
+    }
+
+    public void execute(Runnable task) {
+        queue.offer(task);
+        try {
+            schedule();
+        } catch (RejectedExecutionException e) {
+            // withdraw the task so it is not run after the rejection is reported; if an active drain task has already taken it, the task will run
+            if (queue.remove(task)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting to be run.
+     *
+     * @return the number of tasks waiting to be run
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the maximum number of tasks run concurrently.
+     *
+     * @return the maximum number of tasks run concurrently
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    private void schedule() {
+        while (!queue.isEmpty()) {
+            int current = active.get();
+            if (current >= concurrency) {
+                return;
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    active.decrementAndGet();
+                    throw e;
+                }
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            while ((task = queue.poll()) != null) {
+                task.run();
+            }
+        } finally {
+            active.decrementAndGet();
+            // a task may have been queued after the last poll but before the active count was decremented
+            schedule();
+        }
+    }
+
+}
@@ -26,9 +26,20 @@ import java.io.File;
 public class FileEntry {
     private File file;
     private long checkPoint = -1;
+    private long detected;
 
     public FileEntry(File file) {
         this.file = file;
+        this.detected = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the time the file was first detected.
+     *
+     * @return the time the file was first detected
+     */
+    public long getDetected() {
+        return detected;
     }
 
     public boolean isChanged() {
@@ -24,18 +24,34 @@ import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
 import org.fabric3.api.binding.file.InvalidDataException;
 import org.fabric3.api.binding.file.ServiceAdapter;
+import org.fabric3.api.binding.file.annotation.Ordering;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.api.host.util.IOHelper;
 import org.fabric3.spi.container.invocation.Message;
@@ -43,14 +59,26 @@ import org.fabric3.spi.container.invocation.MessageCache;
 import org.fabric3.spi.container.invocation.WorkContext;
 import org.fabric3.spi.container.invocation.WorkContextCache;
 import org.fabric3.spi.container.wire.Interceptor;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 
 /**
- * Periodically scans a directory for new files. When a new file is detected, the service bound to the directory is invoked with expected data types associated
- * with each file. After an invocation completes, the detected file is either archived or deleted according to the configured {@link Strategy} value. If an
- * error is encountered, the file will be moved to the configured error location.
+ * Watches a directory for new files. When a new file is detected, the service bound to the directory is invoked with expected data types associated with each
+ * file. After an invocation completes, the detected file is either archived or deleted according to the configured {@link Strategy} value. If an error is
+ * encountered, the file will be moved to the configured error location.
+ *
+ * Directories are watched using a native {@link WatchService}. A file is considered complete once no changes have been reported for it during the configured
+ * delay. If the file system does not support watching, the directory is periodically scanned instead and a file is considered complete once it is unchanged
+ * between two scans.
+ *
+ * Completed files are dispatched to an executor which determines the {@link Ordering} and concurrency of processing. A file is claimed by a single dispatch in
+ * this runtime and is skipped if it is already queued or being processed.
  *
  * This receiver is non-transactional but supports clustered locking through the use of file locks placed in the &lt;location&gt;/locks directory.
  */
+@Management
 @SuppressWarnings({"ResultOfMethodCallIgnored"})
 public class FileSystemReceiver implements Runnable {
     private File location;
@@ -70,7 +98,39 @@ public class FileSystemReceiver implements Runnable {
     private Map<String, FileEntry> cache = new ConcurrentHashMap<>();
     private ScheduledFuture<?> future;
 
+    private Executor dispatcher;
+    private WatchService watchService;
+    private volatile boolean watching;
+
+    // files waiting for their quiet period to expire, accessed only by the watch thread
+    private Map<String, PendingFile> pending = new LinkedHashMap<>();
+    private volatile int pendingCount;
+    private Queue<File> retries = new ConcurrentLinkedQueue<>();
+
+    // files queued for or undergoing processing
+    private Set<String> claimed = ConcurrentHashMap.newKeySet();
+
+    private AtomicLong processed = new AtomicLong();
+    private AtomicLong totalLatency = new AtomicLong();
+    private AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * Constructor for a receiver that processes files on the scanning thread.
+     *
+     * @param configuration the receiver configuration
+     */
     public FileSystemReceiver(ReceiverConfiguration configuration) {
+        this(configuration, Runnable::run);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param configuration the receiver configuration
+     * @param dispatcher    the executor to process received files on
+     */
+    public FileSystemReceiver(ReceiverConfiguration configuration, Executor dispatcher) {
+        this.dispatcher = dispatcher;
         this.location = configuration.getLocation();
         this.strategy = configuration.getStrategy();
         this.errorDirectory = configuration.getErrorLocation();
@@ -84,12 +144,20 @@ public class FileSystemReceiver implements Runnable {
     }
 
     public void start() {
-        executorService = Executors.newSingleThreadScheduledExecutor();
-        future = executorService.scheduleWithFixedDelay(this, delay, delay, TimeUnit.MILLISECONDS);
         createDirectories();
+        executorService = Executors.newSingleThreadScheduledExecutor();
+        if (startWatching()) {
+            executorService.execute(this::watch);
+        } else {
+            future = executorService.scheduleWithFixedDelay(this, delay, delay, TimeUnit.MILLISECONDS);
+        }
     }
 
     public void stop() {
+        watching = false;
+        if (watchService != null) {
+            IOHelper.closeQuietly(watchService);
+        }
         if (future != null) {
             future.cancel(true);
         }
@@ -125,6 +193,37 @@ public class FileSystemReceiver implements Runnable {
         }
     }
 
+    @ManagementOperation(description = "True if the directory is watched for changes, false if it is polled")
+    public boolean isWatching() {
+        return watching;
+    }
+
+    @ManagementOperation(description = "The number of files detected and waiting to become stable")
+    public int getPending() {
+        return pendingCount;
+    }
+
+    @ManagementOperation(description = "The number of files queued for or undergoing processing")
+    public int getBacklog() {
+        return claimed.size();
+    }
+
+    @ManagementOperation(description = "The number of files processed")
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    @ManagementOperation(description = "The average time in milliseconds between detecting and completing processing of a file")
+    public long getAverageLatency() {
+        long count = processed.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
+
+    @ManagementOperation(description = "The maximum time in milliseconds between detecting and completing processing of a file")
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
     void createDirectories() {
         lockDirectory.mkdirs();
         errorDirectory.mkdirs();
@@ -144,10 +243,188 @@ public class FileSystemReceiver implements Runnable {
                 cache.put(name, cached);
             } else {
                 if (!cached.isChanged()) {
-                    // file has finished being updated, process it
-                    processFile(file);
+                    // file has finished being updated, remove it from the cache as it will either be processed by this runtime or skipped
+                    cache.remove(name);
+                    dispatch(file, cached.getDetected());
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers the directory with a watch service.
+     *
+     * @return true if the directory is watched; false if the file system does not support watching and the directory must be polled
+     */
+    private boolean startWatching() {
+        try {
+            Path path = location.toPath();
+            watchService = path.getFileSystem().newWatchService();
+            path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            watching = true;
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            if (watchService != null) {
+                IOHelper.closeQuietly(watchService);
+                watchService = null;
+            }
+            monitor.watchNotSupported(location.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Processes watch events until the receiver is stopped. Files are tracked until they have been unchanged for the configured delay and then dispatched.
+     */
+    private void watch() {
+        // process files received while the receiver was stopped
+        rescan();
+        try {
+            while (watching) {
+                long wait = delay;
+                if (!pending.isEmpty()) {
+                    wait = Math.max(0, pending.values().iterator().next().expires - System.currentTimeMillis());
                 }
+                WatchKey key = watchService.poll(wait, TimeUnit.MILLISECONDS);
+                try {
+                    if (key != null && !processEvents(key)) {
+                        // the directory is no longer accessible, revert to polling
+                        watching = false;
+                        IOHelper.closeQuietly(watchService);
+                        monitor.watchNotSupported(location.toString());
+                        future = executorService.scheduleWithFixedDelay(this, delay, delay, TimeUnit.MILLISECONDS);
+                        return;
+                    }
+                    File retry;
+                    while ((retry = retries.poll()) != null) {
+                        track(retry);
+                    }
+                    dispatchStable();
+                } catch (RuntimeException e) {
+                    monitor.error(e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tracks files for the events of a watch key.
+     *
+     * @param key the watch key
+     * @return true if the key remains valid
+     */
+    private boolean processEvents(WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // events were lost
+                rescan();
+                continue;
+            }
+            File file = new File(location, event.context().toString());
+            if (event.kind() == ENTRY_DELETE) {
+                pending.remove(file.getName());
+            } else if (!ignore(file)) {
+                track(file);
+            }
+        }
+        pendingCount = pending.size();
+        return key.reset();
+    }
+
+    /**
+     * Tracks all files in the directory.
+     */
+    private void rescan() {
+        File[] pathFiles = location.listFiles();
+        if (pathFiles == null) {
+            return;
+        }
+        for (File file : pathFiles) {
+            if (!ignore(file)) {
+                track(file);
+            }
+        }
+        pendingCount = pending.size();
+    }
+
+    /**
+     * Tracks a changed file, resetting its quiet period.
+     *
+     * @param file the file
+     */
+    private void track(File file) {
+        long now = System.currentTimeMillis();
+        // re-insert to keep files ordered by their quiet period expiration
+        PendingFile previous = pending.remove(file.getName());
+        long detected = previous == null ? now : previous.detected;
+        pending.put(file.getName(), new PendingFile(file, detected, now + delay));
+    }
+
+    /**
+     * Dispatches files whose quiet period has expired.
+     */
+    private void dispatchStable() {
+        long now = System.currentTimeMillis();
+        for (Iterator<PendingFile> iterator = pending.values().iterator(); iterator.hasNext(); ) {
+            PendingFile file = iterator.next();
+            if (file.expires > now) {
+                break;
             }
+            iterator.remove();
+            dispatch(file.file, file.detected);
+        }
+        pendingCount = pending.size();
+    }
+
+    /**
+     * Claims a file and dispatches it for processing. If the file is already claimed, it is skipped.
+     *
+     * @param file     the file
+     * @param detected the time the file was detected
+     */
+    private void dispatch(File file, long detected) {
+        String name = file.getName();
+        if (!claimed.add(name)) {
+            // already queued or being processed
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    if (processFile(file)) {
+                        long latency = System.currentTimeMillis() - detected;
+                        processed.incrementAndGet();
+                        totalLatency.addAndGet(latency);
+                        maxLatency.accumulateAndGet(latency, Math::max);
+                    }
+                } catch (RuntimeException e) {
+                    monitor.error(e);
+                    retry(file);
+                } catch (Error e) {
+                    monitor.error(e);
+                    throw e;
+                } finally {
+                    claimed.remove(name);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            claimed.remove(name);
+            monitor.error(e);
+            retry(file);
+        }
+    }
+
+    /**
+     * Schedules a file that could not be processed or was locked by another runtime to be tracked again. Once tracked, the file is dispatched after the
+     * configured delay and skipped if it no longer exists. When polling, the file will be detected by the next scan.
+     *
+     * @param file the file
+     */
+    private void retry(File file) {
+        if (watching) {
+            retries.offer(file);
         }
     }
 
@@ -156,11 +433,18 @@ public class FileSystemReceiver implements Runnable {
         return name.startsWith(".") || file.isDirectory() || !filePattern.matcher(name).matches();
     }
 
+    /**
+     * Processes a file.
+     *
+     * @param file the file
+     * @return true if the file was dispatched to the service; false if it was skipped
+     */
     @SuppressWarnings({"ResultOfMethodCallIgnored"})
-    private void processFile(File file) {
-        String name = file.getName();
-        // remove file from the cache as it will either be processed by this runtime or skipped
-        cache.remove(name);
+    private boolean processFile(File file) {
+        if (!file.exists()) {
+            // processed by another runtime or removed
+            return false;
+        }
         // attempt to lock the file
         FileChannel lockChannel;
         FileLock fileLock;
@@ -171,16 +455,20 @@ public class FileSystemReceiver implements Runnable {
             lockChannel = new RandomAccessFile(lockFile, "rw").getChannel();
             fileLock = lockChannel.tryLock();
             if (fileLock == null) {
-                // file lock is held bu another VM. ignore
-                return;
+                // file lock is held by another VM. track the file again in case the other VM fails before processing completes
+                IOHelper.closeQuietly(lockChannel);
+                retry(file);
+                return false;
             }
         } catch (OverlappingFileLockException e) {
-            // already being processed by this VM, ignore
-            return;
+            // locked by another receiver in this VM, track the file again as it is not claimed by this receiver
+            retry(file);
+            return false;
         } catch (IOException e) {
-            // error acquiring the lock, skip processing
+            // error acquiring the lock, skip processing and try again later
             monitor.error(e);
-            return;
+            retry(file);
+            return false;
         }
         try {
             Object[] payload;
@@ -190,7 +478,7 @@ public class FileSystemReceiver implements Runnable {
                 monitor.error(e);
                 // invalid file, return and send it the the error directory
                 handleError(file, e);
-                return;
+                return true;
             }
             WorkContext workContext = WorkContextCache.getAndResetThreadWorkContext();
             Message message = MessageCache.getAndResetMessage();
@@ -210,6 +498,7 @@ public class FileSystemReceiver implements Runnable {
                         deleteFile(file);
                     }
                 }
+                return true;
             } catch (RuntimeException e) {
                 // an unexpected runtime error, try and close the resources and retry
                 afterInvoke(file, payload);
@@ -274,4 +563,16 @@ public class FileSystemReceiver implements Runnable {
         }
     }
 
+    private static class PendingFile {
+        private File file;
+        private long detected;
+        private long expires;
+
+        private PendingFile(File file, long detected, long expires) {
+            this.file = file;
+            this.detected = detected;
+            this.expires = expires;
+        }
+    }
+
 }
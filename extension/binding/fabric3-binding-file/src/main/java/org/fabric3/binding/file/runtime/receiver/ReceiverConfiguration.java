@@ -22,6 +22,7 @@ import java.io.File;
 import java.util.regex.Pattern;
 
 import org.fabric3.api.binding.file.ServiceAdapter;
+import org.fabric3.api.binding.file.annotation.Ordering;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.spi.container.wire.Interceptor;
 
@@ -38,6 +39,8 @@ public class ReceiverConfiguration {
     File archiveLocation;
 
     private long delay;
+    private int workers = 1;
+    private Ordering ordering = Ordering.NONE;
 
     private Interceptor interceptor;
     private ReceiverMonitor monitor;
@@ -98,6 +101,22 @@ public class ReceiverConfiguration {
         return delay;
     }
 
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public Ordering getOrdering() {
+        return ordering;
+    }
+
+    public void setOrdering(Ordering ordering) {
+        this.ordering = ordering;
+    }
+
     public Interceptor getInterceptor() {
         return interceptor;
     }
@@ -18,30 +18,73 @@
  */
 package org.fabric3.binding.file.runtime.receiver;
 
+import java.net.URI;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import org.fabric3.api.binding.file.annotation.Ordering;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.spi.management.ManagementService;
+import org.fabric3.spi.util.UriHelper;
+import org.oasisopen.sca.annotation.Reference;
 
 /**
- *
+ * Creates and manages file system receivers. Received files are processed on the runtime executor; receivers configured with {@link Ordering#GLOBAL} share a
+ * single serial dispatcher.
  */
 public class ReceiverManagerImpl implements ReceiverManager {
     private Map<String, FileSystemReceiver> receivers = new ConcurrentHashMap<>();
+    private ExecutorService executorService;
+    private ManagementService managementService;
+    private Executor globalDispatcher;
+
+    public ReceiverManagerImpl(@Reference(name = "executorService") ExecutorService executorService, @Reference ManagementService managementService) {
+        this.executorService = executorService;
+        this.managementService = managementService;
+        this.globalDispatcher = new BoundedExecutor(executorService, 1);
+    }
 
     public void create(ReceiverConfiguration configuration) {
         String id = configuration.getId();
         if (receivers.containsKey(id)) {
             throw new AssertionError("Duplicate receiver: " + id);
         }
-        FileSystemReceiver receiver = new FileSystemReceiver(configuration);
+        FileSystemReceiver receiver = new FileSystemReceiver(configuration, getDispatcher(configuration));
         receiver.start();
         receivers.put(id, receiver);
+        try {
+            managementService.export(encodeName(id), "file binding/receivers", "File binding receiver", receiver);
+        } catch (Fabric3Exception e) {
+            configuration.getMonitor().error(e);
+        }
     }
 
     public void remove(String id) {
         FileSystemReceiver receiver = receivers.remove(id);
         if (receiver != null) {
             receiver.stop();
+            try {
+                managementService.remove(encodeName(id), "file binding/receivers");
+            } catch (Fabric3Exception e) {
+                // ignore
+            }
         }
     }
 
+    private Executor getDispatcher(ReceiverConfiguration configuration) {
+        Ordering ordering = configuration.getOrdering();
+        if (Ordering.GLOBAL == ordering) {
+            return globalDispatcher;
+        } else if (Ordering.DIRECTORY == ordering) {
+            return new BoundedExecutor(executorService, 1);
+        }
+        return new BoundedExecutor(executorService, configuration.getWorkers());
+    }
+
+    private String encodeName(String id) {
+        return "bindings/file/receivers/" + UriHelper.getBaseName(URI.create(id)).replace("#", "/").toLowerCase();
+    }
+
 }
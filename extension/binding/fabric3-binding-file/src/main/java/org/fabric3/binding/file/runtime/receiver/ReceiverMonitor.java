@@ -19,6 +19,7 @@
 package org.fabric3.binding.file.runtime.receiver;
 
 import org.fabric3.api.annotation.monitor.Severe;
+import org.fabric3.api.annotation.monitor.Warning;
 
 /**
  *
@@ -30,5 +31,8 @@ public interface ReceiverMonitor {
 
     @Severe
     void error(String message, Throwable error);
+
+    @Warning("Directory cannot be watched for changes, polling will be used instead: {0}")
+    void watchNotSupported(String location);
 }
 
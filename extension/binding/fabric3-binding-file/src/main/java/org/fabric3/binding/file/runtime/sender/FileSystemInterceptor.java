@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
+import java.nio.channels.FileChannel;
 
 import org.fabric3.api.binding.file.ReferenceAdapter;
 import org.fabric3.spi.container.invocation.Message;
@@ -29,15 +30,28 @@ import org.fabric3.spi.container.wire.Interceptor;
 import org.oasisopen.sca.ServiceRuntimeException;
 
 /**
- * Attached to bound reference invocation chains. Provides a non-transactional output stream for writing a file to the configured location.
+ * Attached to bound reference invocation chains. Provides a non-transactional output stream or file channel for writing a file to the configured location.
  */
 public class FileSystemInterceptor implements Interceptor {
     private File outputDirectory;
     private ReferenceAdapter adapter;
+    private boolean channel;
 
     public FileSystemInterceptor(File outputDirectory, ReferenceAdapter adapter) {
+        this(outputDirectory, adapter, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param outputDirectory the directory to write files to
+     * @param adapter         the reference adapter
+     * @param channel         true if a {@link FileChannel} is returned instead of an output stream
+     */
+    public FileSystemInterceptor(File outputDirectory, ReferenceAdapter adapter, boolean channel) {
         this.outputDirectory = outputDirectory;
         this.adapter = adapter;
+        this.channel = channel;
     }
 
     public Message invoke(Message msg) {
@@ -55,8 +69,13 @@ public class FileSystemInterceptor implements Interceptor {
         }
         File file = new File(outputDirectory, (String) element);
         try {
-            OutputStream stream = adapter.createOutputStream(file);
-            msg.setBody(stream);
+            if (channel) {
+                FileChannel fileChannel = adapter.createChannel(file);
+                msg.setBody(fileChannel);
+            } else {
+                OutputStream stream = adapter.createOutputStream(file);
+                msg.setBody(stream);
+            }
             return msg;
         } catch (IOException e) {
             throw new ServiceRuntimeException(e);
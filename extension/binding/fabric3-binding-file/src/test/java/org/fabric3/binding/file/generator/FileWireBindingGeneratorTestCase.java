@@ -21,6 +21,7 @@ package org.fabric3.binding.file.generator;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
 import java.util.Collections;
 import java.util.List;
 
@@ -35,6 +36,7 @@ import org.fabric3.api.model.type.contract.Operation;
 import org.fabric3.api.model.type.contract.ServiceContract;
 import org.fabric3.binding.file.provision.FileBindingWireSource;
 import org.fabric3.binding.file.provision.FileBindingWireTarget;
+import org.fabric3.binding.file.provision.PayloadType;
 import org.fabric3.spi.model.instance.LogicalBinding;
 import org.fabric3.spi.model.instance.LogicalOperation;
 import org.fabric3.spi.model.instance.LogicalService;
@@ -58,6 +60,26 @@ public class FileWireBindingGeneratorTestCase extends TestCase {
         assertNotNull(source.getLocation());
         assertNotNull(source.getArchiveLocation());
         assertEquals(Strategy.ARCHIVE, source.getStrategy());
+        assertEquals(PayloadType.STREAM, source.getPayloadType());
+    }
+
+    public void testChannelSourceGeneration() throws Exception {
+        ServiceContract contract = createServiceContract(FileChannel.class);
+        FileBinding definition = new FileBinding("binding", null, "location", Strategy.ARCHIVE, "archiveLocation", "error", null, null, 10);
+        LogicalService service = new LogicalService(URI.create("service"), null, null);
+        LogicalBinding<FileBinding> logicalBinding = new LogicalBinding<>(definition, service);
+
+        FileBindingWireSource source = generator.generateSource(logicalBinding, contract, Collections.<LogicalOperation>emptyList());
+        assertEquals(PayloadType.CHANNEL, source.getPayloadType());
+    }
+
+    public void testChannelReferenceGeneration() throws Exception {
+        ServiceContract contract = createReferenceContract(FileChannel.class);
+        FileBinding definition = new FileBinding("binding", "location", "error");
+        LogicalBinding<FileBinding> logicalBinding = new LogicalBinding<>(definition, null);
+
+        FileBindingWireTarget target = generator.generateTarget(logicalBinding, contract, Collections.<LogicalOperation>emptyList());
+        assertTrue(target.isChannel());
     }
 
     public void testInvalidServiceContractGeneration() throws Exception {
@@ -86,8 +108,12 @@ public class FileWireBindingGeneratorTestCase extends TestCase {
     }
 
     private ServiceContract createServiceContract() {
+        return createServiceContract(InputStream.class);
+    }
+
+    private ServiceContract createServiceContract(Class<?> parameterType) {
         ServiceContract contract = new JavaServiceContract(FileTransport.class);
-        DataType inputType = new JavaType(InputStream.class);
+        DataType inputType = new JavaType(parameterType);
         List<DataType> input = Collections.<DataType>singletonList(inputType);
         List<DataType> faultType = Collections.emptyList();
         DataType outputType = new JavaType(Void.class);
@@ -96,11 +122,15 @@ public class FileWireBindingGeneratorTestCase extends TestCase {
     }
 
     private ServiceContract createReferenceContract() {
+        return createReferenceContract(OutputStream.class);
+    }
+
+    private ServiceContract createReferenceContract(Class<?> returnType) {
         ServiceContract contract = new JavaServiceContract(FileReferenceTransport.class);
         DataType inputType = new JavaType(String.class);
         List<DataType> input = Collections.<DataType>singletonList(inputType);
         List<DataType> faultType = Collections.emptyList();
-        DataType outputType = new JavaType(OutputStream.class);
+        DataType outputType = new JavaType(returnType);
         contract.setOperations(Collections.singletonList(new Operation("name", input, outputType, faultType)));
         return contract;
     }
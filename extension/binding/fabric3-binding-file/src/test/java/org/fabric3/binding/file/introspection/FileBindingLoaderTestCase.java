@@ -26,6 +26,7 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 
 import junit.framework.TestCase;
+import org.fabric3.api.binding.file.annotation.Ordering;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.api.binding.file.model.FileBinding;
 import org.fabric3.spi.introspection.DefaultIntrospectionContext;
@@ -38,6 +39,9 @@ public class FileBindingLoaderTestCase extends TestCase {
     private static final String STRATEGY_BINDING_CONFIG
             = "<binding.file name='file' location='/dir/subdir' strategy='archive' archive.location='/dir/output' error.location='/dir/error'/>";
 
+    private static final String WORKERS_BINDING_CONFIG
+            = "<binding.file name='file' location='/dir/subdir' error.location='/dir/error' workers='4' ordering='directory'/>";
+
     private static final String NO_ARCHIVE_BINDING_CONFIG = "<binding.file name='file' location='/dir/subdir' strategy='archive'/>";
 
     private XMLInputFactory xmlFactory;
@@ -68,6 +72,16 @@ public class FileBindingLoaderTestCase extends TestCase {
         assertEquals("/dir/output", definition.getArchiveLocation());
     }
 
+    public void testLoadWorkersAndOrdering() throws Exception {
+        XMLStreamReader reader = createReader(WORKERS_BINDING_CONFIG);
+        IntrospectionContext context = new DefaultIntrospectionContext();
+        FileBinding definition = loader.load(reader, context);
+        assertFalse(context.hasErrors());
+
+        assertEquals(4, definition.getWorkers());
+        assertEquals(Ordering.DIRECTORY, definition.getOrdering());
+    }
+
     public void testLoadNoArchive() throws Exception {
         XMLStreamReader reader = createReader(NO_ARCHIVE_BINDING_CONFIG);
         IntrospectionContext context = new DefaultIntrospectionContext();
@@ -0,0 +1,83 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.file.runtime;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+import org.fabric3.api.host.util.FileHelper;
+
+/**
+ *
+ */
+public class MappedServiceAdapterTestCase extends TestCase {
+    private static final byte[] CONTENTS = "test contents".getBytes(StandardCharsets.UTF_8);
+
+    private File directory;
+    private File file;
+
+    public void testMappedPayload() throws Exception {
+        MappedServiceAdapter adapter = new MappedServiceAdapter();
+        Object[] payload = adapter.beforeInvoke(file);
+        MappedByteBuffer buffer = (MappedByteBuffer) payload[0];
+        byte[] read = new byte[buffer.remaining()];
+        buffer.get(read);
+        assertEquals(new String(CONTENTS, StandardCharsets.UTF_8), new String(read, StandardCharsets.UTF_8));
+        adapter.afterInvoke(file, payload);
+    }
+
+    public void testChannelPayload() throws Exception {
+        FileChannelServiceAdapter adapter = new FileChannelServiceAdapter();
+        Object[] payload = adapter.beforeInvoke(file);
+        FileChannel channel = (FileChannel) payload[0];
+        assertEquals(CONTENTS.length, channel.size());
+        adapter.afterInvoke(file, payload);
+        assertFalse(channel.isOpen());
+    }
+
+    public void testArchive() throws Exception {
+        File archive = new File(directory, "archive");
+        new FileChannelServiceAdapter().archive(file, archive);
+        assertFalse(file.exists());
+        assertTrue(new File(archive, file.getName()).exists());
+    }
+
+    public void testTransfer() throws Exception {
+        File copy = new File(directory, "copy.dat");
+        new MappedServiceAdapter().transfer(file.toPath(), copy.toPath());
+        assertEquals(new String(CONTENTS, StandardCharsets.UTF_8), new String(Files.readAllBytes(copy.toPath()), StandardCharsets.UTF_8));
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("adapter").toFile();
+        file = new File(directory, "test.dat");
+        Files.write(file.toPath(), CONTENTS);
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        FileHelper.deleteDirectory(directory);
+    }
+}
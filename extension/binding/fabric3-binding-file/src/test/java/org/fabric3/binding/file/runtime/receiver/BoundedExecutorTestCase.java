@@ -0,0 +1,141 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.file.runtime.receiver;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class BoundedExecutorTestCase extends TestCase {
+    private ExecutorService executorService;
+
+    public void testSerialOrdering() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(executorService, 1);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            executor.execute(() -> {
+                order.add(value);
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, order.get(i).intValue());
+        }
+    }
+
+    public void testConcurrencyBounded() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(executorService, 2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            executor.execute(() -> {
+                max.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(2, max.get());
+    }
+
+    public void testConcurrentSubmission() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(executorService, 2);
+        AtomicIntegerArray runs = new AtomicIntegerArray(1000);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1000);
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            int offset = i * 250;
+            producers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = offset; j < offset + 250; j++) {
+                    int index = j;
+                    executor.execute(() -> {
+                        max.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        runs.incrementAndGet(index);
+                        active.decrementAndGet();
+                        latch.countDown();
+                    });
+                }
+            });
+            producers[i].start();
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < runs.length(); i++) {
+            assertEquals(1, runs.get(i));
+        }
+        assertTrue(max.get() <= 2);
+        assertEquals(0, executor.getQueued());
+    }
+
+    public void testRejectedTaskWithdrawn() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(task -> {
+            throw new RejectedExecutionException();
+        }, 1);
+        try {
+            executor.execute(() -> fail("Rejected task run"));
+            fail("Expected rejection");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertEquals(0, executor.getQueued());
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        executorService.shutdownNow();
+    }
+}
@@ -21,6 +21,20 @@ package org.fabric3.binding.file.runtime.receiver;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -144,6 +158,155 @@ public class FileSystemReceiverTestCase extends TestCase {
         EasyMock.verify(adapter, interceptor);
     }
 
+    public void testWatchedFileReceived() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        // count down once the task has completed and statistics are recorded
+        Executor dispatcher = task -> {
+            task.run();
+            latch.countDown();
+        };
+        ReceiverConfiguration configuration =
+                new ReceiverConfiguration("id", location, "header.*\\.xml", Strategy.DELETE, errorDirectory, archiveDirectory, interceptor, adapter, 10, monitor);
+        FileSystemReceiver receiver = new FileSystemReceiver(configuration, dispatcher);
+
+        File file = new File(location, DEFAULT_HEADER);
+        EasyMock.expect(adapter.beforeInvoke(EasyMock.eq(file))).andReturn(new Object[]{});
+        EasyMock.expect(interceptor.invoke(EasyMock.isA(Message.class))).andReturn(new MessageImpl());
+        adapter.afterInvoke(EasyMock.eq(file), EasyMock.isA(Object[].class));
+        adapter.delete(EasyMock.eq(file));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            file.delete();
+            return null;
+        });
+
+        EasyMock.replay(adapter, interceptor);
+        receiver.start();
+        try {
+            createFile(DEFAULT_HEADER);
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            receiver.stop();
+        }
+        EasyMock.verify(adapter, interceptor);
+        assertEquals(1, receiver.getProcessed());
+    }
+
+    public void testWatchedFileRetriedWhenLocked() throws Exception {
+        File file = new File(location, DEFAULT_HEADER);
+        CountDownLatch skipped = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        // count down once a dispatch completes; the file is deleted only when it is processed
+        Executor dispatcher = task -> {
+            task.run();
+            if (file.exists()) {
+                skipped.countDown();
+            } else {
+                latch.countDown();
+            }
+        };
+        ReceiverConfiguration configuration =
+                new ReceiverConfiguration("id", location, "header.*\\.xml", Strategy.DELETE, errorDirectory, archiveDirectory, interceptor, adapter, 10, monitor);
+        FileSystemReceiver receiver = new FileSystemReceiver(configuration, dispatcher);
+
+        EasyMock.expect(adapter.beforeInvoke(EasyMock.eq(file))).andReturn(new Object[]{});
+        EasyMock.expect(interceptor.invoke(EasyMock.isA(Message.class))).andReturn(new MessageImpl());
+        adapter.afterInvoke(EasyMock.eq(file), EasyMock.isA(Object[].class));
+        adapter.delete(EasyMock.eq(file));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            file.delete();
+            return null;
+        });
+
+        EasyMock.replay(adapter, interceptor);
+        receiver.start();
+        // hold the lock as another runtime would while processing the file
+        FileChannel channel = new RandomAccessFile(new File(configuration.getLockDirectory(), DEFAULT_HEADER + ".f3"), "rw").getChannel();
+        FileLock lock = channel.lock();
+        try {
+            createFile(DEFAULT_HEADER);
+            assertTrue(skipped.await(10, TimeUnit.SECONDS));
+            assertEquals(0, receiver.getProcessed());
+
+            // the lock is released without the file being processed, for example if the other runtime fails
+            lock.release();
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            IOHelper.closeQuietly(channel);
+            receiver.stop();
+        }
+        EasyMock.verify(adapter, interceptor);
+        assertEquals(1, receiver.getProcessed());
+    }
+
+    public void testFilesDispatchedConcurrently() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            BoundedExecutor executor = new BoundedExecutor(executorService, 2);
+            Executor dispatcher = task -> executor.execute(() -> {
+                task.run();
+                latch.countDown();
+            });
+            // each invocation waits for the other, which completes only if both files are processed at the same time
+            BarrierInterceptor barrierInterceptor = new BarrierInterceptor(2);
+            interceptor = barrierInterceptor;
+            FileSystemReceiver receiver = createReceiver("header.*\\.xml", Strategy.DELETE, dispatcher);
+
+            EasyMock.expect(adapter.beforeInvoke(EasyMock.isA(File.class))).andReturn(new Object[]{}).times(2);
+            adapter.afterInvoke(EasyMock.isA(File.class), EasyMock.isA(Object[].class));
+            EasyMock.expectLastCall().times(2);
+            adapter.delete(EasyMock.isA(File.class));
+            EasyMock.expectLastCall().times(2);
+
+            EasyMock.replay(adapter);
+            createFile("header1.xml");
+            createFile("header2.xml");
+            receiver.run();    // invoke twice because the file entries are cached on the first run
+            receiver.run();
+            assertTrue(latch.await(20, TimeUnit.SECONDS));
+            EasyMock.verify(adapter);
+            assertEquals(2, barrierInterceptor.getInvocations());
+            assertEquals(2, receiver.getProcessed());
+            assertEquals(0, receiver.getBacklog());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public void testFileClaimedUntilProcessed() throws Exception {
+        // queue dispatched tasks without running them so the file remains claimed
+        List<Runnable> tasks = new ArrayList<>();
+        FileSystemReceiver receiver = createReceiver("header.*\\.xml", Strategy.DELETE, tasks::add);
+
+        File file = new File(location, DEFAULT_HEADER);
+        EasyMock.expect(adapter.beforeInvoke(EasyMock.eq(file))).andReturn(new Object[]{});
+        EasyMock.expect(interceptor.invoke(EasyMock.isA(Message.class))).andReturn(new MessageImpl());
+        adapter.afterInvoke(EasyMock.eq(file), EasyMock.isA(Object[].class));
+        adapter.delete(EasyMock.eq(file));
+
+        EasyMock.replay(adapter, interceptor);
+        createFile(DEFAULT_HEADER);
+        receiver.run();    // invoke twice because the file entry is cached on the first run
+        receiver.run();
+        assertEquals(1, tasks.size());
+        assertEquals(1, receiver.getBacklog());
+
+        // the file is detected again while queued but is not dispatched a second time
+        receiver.run();
+        receiver.run();
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        assertEquals(0, receiver.getBacklog());
+        assertEquals(1, receiver.getProcessed());
+
+        // the claim is released once the file is processed
+        receiver.run();
+        receiver.run();
+        assertEquals(2, tasks.size());
+        EasyMock.verify(adapter, interceptor);
+    }
+
     @Override
     public void setUp() throws Exception {
         super.setUp();
@@ -166,9 +329,13 @@ public class FileSystemReceiverTestCase extends TestCase {
     }
 
     private FileSystemReceiver createReceiver(String filter, Strategy strategy) {
+        return createReceiver(filter, strategy, Runnable::run);
+    }
+
+    private FileSystemReceiver createReceiver(String filter, Strategy strategy, Executor dispatcher) {
         ReceiverConfiguration configuration =
                 new ReceiverConfiguration("id", location, filter, strategy, errorDirectory, archiveDirectory, interceptor, adapter, 10, monitor);
-        FileSystemReceiver receiver = new FileSystemReceiver(configuration);
+        FileSystemReceiver receiver = new FileSystemReceiver(configuration, dispatcher);
         receiver.createDirectories();
         return receiver;
     }
@@ -182,5 +349,35 @@ public class FileSystemReceiverTestCase extends TestCase {
         }
     }
 
+    private class BarrierInterceptor implements Interceptor {
+        private CyclicBarrier barrier;
+        private AtomicInteger invocations = new AtomicInteger();
+
+        public BarrierInterceptor(int parties) {
+            barrier = new CyclicBarrier(parties);
+        }
+
+        public Message invoke(Message msg) {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new AssertionError("Files not processed concurrently", e);
+            }
+            invocations.incrementAndGet();
+            return new MessageImpl();
+        }
+
+        public int getInvocations() {
+            return invocations.get();
+        }
+
+        public void setNext(Interceptor next) {
+        }
+
+        public Interceptor getNext() {
+            return null;
+        }
+    }
+
 
 }
@@ -24,6 +24,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import org.fabric3.api.binding.jms.model.CacheLevel;
+import org.fabric3.api.binding.jms.model.ConsumerMode;
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
 import org.fabric3.api.binding.jms.model.CreateOption;
 import org.fabric3.api.binding.jms.model.DestinationType;
@@ -100,6 +101,13 @@ public @interface JMSConfiguration {
      */
     String responseConnectionFactory() default "";
 
+    /**
+     * Specifies if responses for request-reply operations are received on a temporary queue created for the reference.
+     *
+     * @return true if responses are received on a temporary queue
+     */
+    boolean temporaryResponse() default false;
+
     /**
      * Specifies the minimum number of JMS receivers to keep active.
      *
@@ -142,6 +150,28 @@ public @interface JMSConfiguration {
      */
     int maxMessagesToProcess() default -1;
 
+    /**
+     * Specifies the maximum number of messages a JMS receiver dispatches in a single unit of work. Messages in a batch are committed or acknowledged together.
+     * The default of one disables batching.
+     *
+     * @return the maximum number of messages in a batch
+     */
+    int batchSize() default 1;
+
+    /**
+     * Specifies the maximum time in milliseconds a JMS receiver waits for additional messages after the first message of a batch is received.
+     *
+     * @return the batch timeout in milliseconds
+     */
+    long batchTimeout() default 100;
+
+    /**
+     * Specifies if messages are received by polling the destination or pushed to a message listener by the JMS provider.
+     *
+     * @return the consumer mode
+     */
+    ConsumerMode consumerMode() default ConsumerMode.POLLING;
+
     /**
      * Specifies the recovery interval.
      *
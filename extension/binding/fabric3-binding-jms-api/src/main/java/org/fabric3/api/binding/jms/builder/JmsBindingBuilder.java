@@ -19,6 +19,7 @@ package org.fabric3.api.binding.jms.builder;
 import java.net.URI;
 
 import org.fabric3.api.binding.jms.model.CacheLevel;
+import org.fabric3.api.binding.jms.model.ConsumerMode;
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
 import org.fabric3.api.binding.jms.model.CreateOption;
 import org.fabric3.api.binding.jms.model.Destination;
@@ -151,6 +152,24 @@ public class JmsBindingBuilder extends AbstractBuilder {
         return this;
     }
 
+    public JmsBindingBuilder batchSize(int size) {
+        checkState();
+        binding.getJmsMetadata().setBatchSize(size);
+        return this;
+    }
+
+    public JmsBindingBuilder batchTimeout(long timeout) {
+        checkState();
+        binding.getJmsMetadata().setBatchTimeout(timeout);
+        return this;
+    }
+
+    public JmsBindingBuilder consumerMode(ConsumerMode mode) {
+        checkState();
+        binding.getJmsMetadata().setConsumerMode(mode);
+        return this;
+    }
+
     public JmsBindingBuilder maxReceivers(int max) {
         checkState();
         binding.getJmsMetadata().setMaxReceivers(max);
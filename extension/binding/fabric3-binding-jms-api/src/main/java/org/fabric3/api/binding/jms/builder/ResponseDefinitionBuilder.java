@@ -39,7 +39,7 @@ public class ResponseDefinitionBuilder extends AbstractBuilder {
     public ResponseDefinition build() {
         checkState();
         freeze();
-        if (responseDefinition.getDestination() == null) {
+        if (responseDefinition.getDestination() == null && !responseDefinition.isTemporary()) {
             throw new IllegalArgumentException("Response destination not defined for JMS binding");
         }
         return responseDefinition;
@@ -64,6 +64,12 @@ public class ResponseDefinitionBuilder extends AbstractBuilder {
         return this;
     }
 
+    public ResponseDefinitionBuilder temporary() {
+        checkState();
+        responseDefinition.setTemporary(true);
+        return this;
+    }
+
     public ResponseDefinitionBuilder connectionFactoryName(String name) {
         checkState();
         responseDefinition.getConnectionFactory().setName(name);
@@ -51,6 +51,9 @@ public class JmsBindingMetadata extends ModelObject {
     private int receiveTimeout = 15000;  // set the timeout in milliseconds
     private int responseTimeout = 600000;  // set the default response wait to 10 minutes
     private int maxMessagesToProcess = -1;
+    private int batchSize = 1;
+    private long batchTimeout = 100;  // in milliseconds
+    private ConsumerMode consumerMode = ConsumerMode.POLLING;
     private long recoveryInterval = 5000;   // default 5 seconds
     private boolean durable = false;
     private boolean localDelivery;
@@ -213,6 +216,30 @@ public class JmsBindingMetadata extends ModelObject {
         this.maxMessagesToProcess = maxMessagesToProcess;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public ConsumerMode getConsumerMode() {
+        return consumerMode;
+    }
+
+    public void setConsumerMode(ConsumerMode consumerMode) {
+        this.consumerMode = consumerMode;
+    }
+
     public long getRecoveryInterval() {
         return recoveryInterval;
     }
@@ -304,6 +331,9 @@ public class JmsBindingMetadata extends ModelObject {
         copy.receiveTimeout = this.receiveTimeout;
         copy.responseTimeout = this.responseTimeout;
         copy.maxMessagesToProcess = this.maxMessagesToProcess;
+        copy.batchSize = this.batchSize;
+        copy.batchTimeout = this.batchTimeout;
+        copy.consumerMode = this.consumerMode;
         copy.recoveryInterval = this.recoveryInterval;
         copy.durable = this.durable;
         copy.localDelivery = this.localDelivery;
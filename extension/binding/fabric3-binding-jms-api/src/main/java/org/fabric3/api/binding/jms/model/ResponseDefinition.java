@@ -28,6 +28,7 @@ public class ResponseDefinition extends ModelObject {
     private Destination destination;
     private ConnectionFactoryDefinition connectionFactory = new ConnectionFactoryDefinition();
     private ActivationSpec activationSpec;
+    private boolean temporary;
 
     public ConnectionFactoryDefinition getConnectionFactory() {
         return connectionFactory;
@@ -52,4 +53,17 @@ public class ResponseDefinition extends ModelObject {
     public void setActivationSpec(ActivationSpec activationSpec) {
         this.activationSpec = activationSpec;
     }
+
+    /**
+     * Returns true if responses are received on a temporary queue created for the reference wire instead of a configured destination.
+     *
+     * @return true if a temporary response queue is used
+     */
+    public boolean isTemporary() {
+        return temporary;
+    }
+
+    public void setTemporary(boolean temporary) {
+        this.temporary = temporary;
+    }
 }
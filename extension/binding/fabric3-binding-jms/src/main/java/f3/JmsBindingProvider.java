@@ -24,6 +24,7 @@ import org.fabric3.binding.jms.runtime.container.MessageContainerFactoryImpl;
 import org.fabric3.binding.jms.runtime.container.MessageContainerManagerImpl;
 import org.fabric3.binding.jms.runtime.jndi.JndiAdministeredObjectResolver;
 import org.fabric3.binding.jms.runtime.jndi.JndiClassLoaderUpdater;
+import org.fabric3.binding.jms.runtime.pool.SessionPoolManagerImpl;
 import org.fabric3.binding.jms.runtime.resolver.AdministeredObjectResolverImpl;
 import org.fabric3.binding.jms.runtime.resolver.connectionfactory.AlwaysConnectionFactoryStrategy;
 import org.fabric3.binding.jms.runtime.resolver.connectionfactory.IfNotExistConnectionFactoryStrategy;
@@ -47,6 +48,7 @@ public class JmsBindingProvider {
         builder.reference("executorService", "RuntimeThreadPoolExecutor");
         compositeBuilder.component(builder.build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(MessageContainerManagerImpl.class).build());
+        compositeBuilder.component(SystemComponentBuilder.newBuilder(SessionPoolManagerImpl.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(JmsSourceWireAttacher.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(JmsTargetWireAttacher.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(JmsConnectionSourceAttacher.class).build());
@@ -32,6 +32,7 @@ import org.fabric3.api.annotation.Source;
 import org.fabric3.api.annotation.wire.Key;
 import org.fabric3.api.binding.jms.model.ActivationSpec;
 import org.fabric3.api.binding.jms.model.CacheLevel;
+import org.fabric3.api.binding.jms.model.ConsumerMode;
 import org.fabric3.api.binding.jms.model.ConnectionFactoryDefinition;
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
 import org.fabric3.api.binding.jms.model.CreateOption;
@@ -110,6 +111,9 @@ public class JmsBindingLoader extends AbstractValidatingTypeLoader<JmsBinding> {
                       "receive.timeout",
                       "response.timeout",
                       "max.messages",
+                      "batch.size",
+                      "batch.timeout",
+                      "consumer",
                       "recovery.interval",
                       "max.receivers",
                       "min.receivers",
@@ -292,6 +296,38 @@ public class JmsBindingLoader extends AbstractValidatingTypeLoader<JmsBinding> {
             }
         }
 
+        String batchSize = reader.getAttributeValue(null, "batch.size");
+        if (batchSize != null) {
+            try {
+                int val = Integer.parseInt(batchSize);
+                metadata.setBatchSize(val);
+            } catch (NumberFormatException e) {
+                InvalidValue error = new InvalidValue("Invalid batch.size attribute", startLocation, e);
+                context.addError(error);
+            }
+        }
+
+        String batchTimeout = reader.getAttributeValue(null, "batch.timeout");
+        if (batchTimeout != null) {
+            try {
+                long val = Long.parseLong(batchTimeout);
+                metadata.setBatchTimeout(val);
+            } catch (NumberFormatException e) {
+                InvalidValue error = new InvalidValue("Invalid batch.timeout attribute", startLocation, e);
+                context.addError(error);
+            }
+        }
+
+        String consumer = reader.getAttributeValue(null, "consumer");
+        if ("listener".equalsIgnoreCase(consumer)) {
+            metadata.setConsumerMode(ConsumerMode.LISTENER);
+        } else if ("polling".equalsIgnoreCase(consumer)) {
+            metadata.setConsumerMode(ConsumerMode.POLLING);
+        } else if (consumer != null) {
+            InvalidValue error = new InvalidValue("Invalid consumer attribute", startLocation);
+            context.addError(error);
+        }
+
         String recoveryInterval = reader.getAttributeValue(null, "recovery.interval");
         if (recoveryInterval != null) {
             try {
@@ -338,6 +374,7 @@ public class JmsBindingLoader extends AbstractValidatingTypeLoader<JmsBinding> {
 
     private ResponseDefinition loadResponse(XMLStreamReader reader, IntrospectionContext context) throws XMLStreamException {
         ResponseDefinition response = new ResponseDefinition();
+        response.setTemporary(Boolean.parseBoolean(reader.getAttributeValue(null, "temporary")));
         String name;
         while (true) {
             switch (reader.next()) {
@@ -565,6 +602,18 @@ public class JmsBindingLoader extends AbstractValidatingTypeLoader<JmsBinding> {
                 context.addError(error);
             }
             Destination responseDestination = response.getDestination();
+            if (response.isTemporary() && (responseDestination != null || responseSpec != null)) {
+                Location location = reader.getLocation();
+                InvalidJmsBinding error = new InvalidJmsBinding("A destination or activation spec cannot be specified for a temporary response",
+                                                                location,
+                                                                definition);
+                context.addError(error);
+            }
+            if (response.isTemporary() && metadata.getCorrelationScheme() == CorrelationScheme.NONE) {
+                Location location = reader.getLocation();
+                InvalidJmsBinding error = new InvalidJmsBinding("A correlation scheme must be specified for a temporary response", location, definition);
+                context.addError(error);
+            }
             if (responseDestination != null && responseSpec != null) {
                 if (responseDestination.getName() != null && !responseDestination.getName().equals(responseSpec.getName())) {
                     Location location = reader.getLocation();
@@ -112,6 +112,9 @@ public class JmsBindingPostProcessor extends AbstractBindingPostProcessor<JMS> {
         metadata.setIdleLimit(configuration.idleLimit());
         metadata.setLocalDelivery(configuration.localDelivery());
         metadata.setMaxMessagesToProcess(configuration.maxMessagesToProcess());
+        metadata.setBatchSize(configuration.batchSize());
+        metadata.setBatchTimeout(configuration.batchTimeout());
+        metadata.setConsumerMode(configuration.consumerMode());
         metadata.setMaxReceivers(configuration.maxReceivers());
         metadata.setMessageSelection(new MessageSelection(configuration.selector()));
         metadata.setMinReceivers(configuration.minReceivers());
@@ -129,23 +132,37 @@ public class JmsBindingPostProcessor extends AbstractBindingPostProcessor<JMS> {
                                AnnotatedElement element,
                                Class<?> implClass,
                                IntrospectionContext context) {
-        if (configuration.responseConnectionFactory().isEmpty() && configuration.responseDestination().isEmpty()) {
+        boolean temporary = configuration.temporaryResponse();
+        if (configuration.responseConnectionFactory().isEmpty() && configuration.responseDestination().isEmpty() && !temporary) {
             return;
         }
 
-        if (!configuration.responseConnectionFactory().isEmpty() && configuration.responseDestination().isEmpty()) {
+        if (!configuration.responseConnectionFactory().isEmpty() && configuration.responseDestination().isEmpty() && !temporary) {
             InvalidAnnotation error = new InvalidAnnotation("A response destination was not specified", element, configuration, implClass);
             context.addError(error);
         }
+        if (temporary && !configuration.responseDestination().isEmpty()) {
+            InvalidAnnotation error = new InvalidAnnotation("A response destination cannot be specified for a temporary response", element, configuration, implClass);
+            context.addError(error);
+        }
 
         ResponseDefinition response = new ResponseDefinition();
-        Destination responseDestination = new Destination();
-        responseDestination.setName(configuration.responseDestination());
-        response.setDestination(responseDestination);
+        if (temporary) {
+            response.setTemporary(true);
+        } else {
+            Destination responseDestination = new Destination();
+            responseDestination.setName(configuration.responseDestination());
+            response.setDestination(responseDestination);
+        }
 
-        ConnectionFactoryDefinition responseFactory = new ConnectionFactoryDefinition();
-        responseFactory.setName(configuration.responseConnectionFactory());
-        response.setConnectionFactory(responseFactory);
+        if (configuration.responseConnectionFactory().isEmpty()) {
+            // temporary response queue without a configured factory, use the request connection factory
+            response.setConnectionFactory(metadata.getConnectionFactory());
+        } else {
+            ConnectionFactoryDefinition responseFactory = new ConnectionFactoryDefinition();
+            responseFactory.setName(configuration.responseConnectionFactory());
+            response.setConnectionFactory(responseFactory);
+        }
         metadata.setResponse(response);
     }
 
@@ -31,7 +31,7 @@ import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.binding.jms.runtime.channel.EventStreamListener;
 import org.fabric3.binding.jms.runtime.common.ListenerMonitor;
-import org.fabric3.binding.jms.runtime.container.AdaptiveMessageContainer;
+import org.fabric3.binding.jms.runtime.container.MessageContainer;
 import org.fabric3.binding.jms.runtime.container.ContainerConfiguration;
 import org.fabric3.binding.jms.runtime.container.MessageContainerFactory;
 import org.fabric3.binding.jms.runtime.container.MessageContainerManager;
@@ -93,7 +93,7 @@ public class JmsConnectionSourceAttacher implements SourceConnectionAttacher<Jms
             // the wire has changed and it is being re-provisioned
             containerManager.unregister(serviceUri);
         }
-        AdaptiveMessageContainer container = containerFactory.create(configuration);
+        MessageContainer container = containerFactory.create(configuration);
         containerManager.register(container);
     }
 
@@ -113,6 +113,9 @@ public class JmsConnectionSourceAttacher implements SourceConnectionAttacher<Jms
         }
         configuration.setIdleLimit(metadata.getIdleLimit());
         configuration.setMaxMessagesToProcess(metadata.getMaxMessagesToProcess());
+        configuration.setBatchSize(metadata.getBatchSize());
+        configuration.setBatchTimeout(metadata.getBatchTimeout());
+        configuration.setConsumerMode(metadata.getConsumerMode());
         configuration.setMaxReceivers(metadata.getMaxReceivers());
         configuration.setMinReceivers(metadata.getMinReceivers());
         configuration.setReceiveTimeout(metadata.getReceiveTimeout());
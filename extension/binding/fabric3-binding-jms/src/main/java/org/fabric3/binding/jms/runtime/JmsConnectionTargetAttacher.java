@@ -20,6 +20,8 @@
 package org.fabric3.binding.jms.runtime;
 
 import javax.jms.ConnectionFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.api.annotation.wire.Key;
 import org.fabric3.api.binding.jms.model.ConnectionFactoryDefinition;
@@ -28,6 +30,8 @@ import org.fabric3.api.binding.jms.model.Destination;
 import org.fabric3.api.binding.jms.model.HeadersDefinition;
 import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
 import org.fabric3.binding.jms.runtime.channel.JmsEventStreamHandler;
+import org.fabric3.binding.jms.runtime.pool.SessionPool;
+import org.fabric3.binding.jms.runtime.pool.SessionPoolManager;
 import org.fabric3.binding.jms.runtime.resolver.AdministeredObjectResolver;
 import org.fabric3.binding.jms.spi.provision.JmsConnectionTarget;
 import org.fabric3.spi.container.builder.TargetConnectionAttacher;
@@ -42,9 +46,12 @@ import org.oasisopen.sca.annotation.Reference;
 @Key("org.fabric3.binding.jms.spi.provision.JmsConnectionTarget")
 public class JmsConnectionTargetAttacher implements TargetConnectionAttacher<JmsConnectionTarget> {
     private AdministeredObjectResolver resolver;
+    private SessionPoolManager poolManager;
+    private Map<String, SessionPool> pools = new ConcurrentHashMap<>();
 
-    public JmsConnectionTargetAttacher(@Reference AdministeredObjectResolver resolver) {
+    public JmsConnectionTargetAttacher(@Reference AdministeredObjectResolver resolver, @Reference SessionPoolManager poolManager) {
         this.resolver = resolver;
+        this.poolManager = poolManager;
     }
 
     public void attach(PhysicalConnectionSource source, JmsConnectionTarget target, ChannelConnection connection) {
@@ -56,13 +63,23 @@ public class JmsConnectionTargetAttacher implements TargetConnectionAttacher<Jms
         ConnectionFactory connectionFactory = resolver.resolve(connectionFactoryDefinition);
         Destination destinationDefinition = metadata.getDestination();
         javax.jms.Destination destination = resolver.resolve(destinationDefinition, connectionFactory);
+        SessionPool sessionPool = poolManager.getPool(connectionFactoryDefinition, connectionFactory);
+        pools.put(getKey(source, target), sessionPool);
         EventStream stream = connection.getEventStream();
-        JmsEventStreamHandler handler = new JmsEventStreamHandler(destination, connectionFactory, persistent);
+        JmsEventStreamHandler handler = new JmsEventStreamHandler(destination, connectionFactory, sessionPool, persistent);
         stream.addHandler(handler);
     }
 
     public void detach(PhysicalConnectionSource source, JmsConnectionTarget target) {
+        SessionPool pool = pools.remove(getKey(source, target));
+        if (pool != null) {
+            poolManager.release(pool);
+        }
         resolver.release(target.getMetadata().getConnectionFactory());
     }
 
+    private String getKey(PhysicalConnectionSource source, JmsConnectionTarget target) {
+        return source.getUri() + "::" + target.getUri();
+    }
+
 }
\ No newline at end of file
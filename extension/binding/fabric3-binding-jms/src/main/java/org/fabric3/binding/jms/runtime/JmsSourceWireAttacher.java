@@ -38,7 +38,7 @@ import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.model.type.contract.DataType;
 import org.fabric3.binding.jms.runtime.common.ListenerMonitor;
-import org.fabric3.binding.jms.runtime.container.AdaptiveMessageContainer;
+import org.fabric3.binding.jms.runtime.container.MessageContainer;
 import org.fabric3.binding.jms.runtime.container.ContainerConfiguration;
 import org.fabric3.binding.jms.runtime.container.MessageContainerFactory;
 import org.fabric3.binding.jms.runtime.container.MessageContainerManager;
@@ -121,7 +121,7 @@ public class JmsSourceWireAttacher implements SourceWireAttacher<JmsWireSource>
             // the wire has changed and it is being reprovisioned
             containerManager.unregister(serviceUri);
         }
-        AdaptiveMessageContainer container = containerFactory.create(configuration);
+        MessageContainer container = containerFactory.create(configuration);
         containerManager.register(container);
     }
 
@@ -142,6 +142,9 @@ public class JmsSourceWireAttacher implements SourceWireAttacher<JmsWireSource>
         }
         configuration.setIdleLimit(metadata.getIdleLimit());
         configuration.setMaxMessagesToProcess(metadata.getMaxMessagesToProcess());
+        configuration.setBatchSize(metadata.getBatchSize());
+        configuration.setBatchTimeout(metadata.getBatchTimeout());
+        configuration.setConsumerMode(metadata.getConsumerMode());
         configuration.setMaxReceivers(metadata.getMaxReceivers());
         configuration.setMinReceivers(metadata.getMinReceivers());
         configuration.setReceiveTimeout(metadata.getReceiveTimeout());
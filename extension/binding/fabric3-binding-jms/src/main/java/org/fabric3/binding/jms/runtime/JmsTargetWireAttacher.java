@@ -28,6 +28,7 @@ import javax.transaction.TransactionManager;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.api.annotation.wire.Key;
 import org.fabric3.api.binding.jms.model.ConnectionFactoryDefinition;
@@ -40,6 +41,8 @@ import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
 import org.fabric3.api.binding.jms.model.OperationPropertiesDefinition;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.model.type.contract.DataType;
+import org.fabric3.binding.jms.runtime.pool.SessionPool;
+import org.fabric3.binding.jms.runtime.pool.SessionPoolManager;
 import org.fabric3.binding.jms.runtime.resolver.AdministeredObjectResolver;
 import org.fabric3.binding.jms.runtime.wire.InterceptorConfiguration;
 import org.fabric3.binding.jms.runtime.wire.JmsInterceptor;
@@ -69,12 +72,17 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
     private TransactionManager tm;
     private BindingHandlerRegistry handlerRegistry;
     private TransformerInterceptorFactory interceptorFactory;
+    private SessionPoolManager poolManager;
+    private Map<String, ResponseListener> listeners = new ConcurrentHashMap<>();
+    private Map<String, SessionPool> pools = new ConcurrentHashMap<>();
 
     public JmsTargetWireAttacher(@Reference AdministeredObjectResolver resolver,
                                  @Reference TransactionManager tm,
                                  @Reference BindingHandlerRegistry handlerRegistry,
-                                 @Reference TransformerInterceptorFactory interceptorFactory) {
+                                 @Reference TransformerInterceptorFactory interceptorFactory,
+                                 @Reference SessionPoolManager poolManager) {
         this.resolver = resolver;
+        this.poolManager = poolManager;
         this.tm = tm;
         this.handlerRegistry = handlerRegistry;
         this.interceptorFactory = interceptorFactory;
@@ -96,7 +104,7 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
         wireConfiguration.setPersistent(persistent);
 
         // resolve the connection factories and destinations for the wire
-        resolveAdministeredObjects(target, wireConfiguration);
+        resolveAdministeredObjects(source, target, wireConfiguration);
 
         List<BindingHandler<Message>> handlers = createHandlers(target);
 
@@ -121,6 +129,14 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
     }
 
     public void detach(PhysicalWireSource source, JmsWireTarget target) {
+        ResponseListener listener = listeners.remove(getKey(source, target));
+        if (listener != null) {
+            listener.stop();
+        }
+        SessionPool pool = pools.remove(getKey(source, target));
+        if (pool != null) {
+            poolManager.release(pool);
+        }
         resolver.release(target.getMetadata().getConnectionFactory());
     }
 
@@ -224,7 +240,7 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
         chain.addInterceptor(jaxbInterceptor);
     }
 
-    private void resolveAdministeredObjects(JmsWireTarget target, WireConfiguration wireConfiguration) {
+    private void resolveAdministeredObjects(PhysicalWireSource source, JmsWireTarget target, WireConfiguration wireConfiguration) {
         JmsBindingMetadata metadata = target.getMetadata();
 
         ConnectionFactoryDefinition connectionFactoryDefinition = metadata.getConnectionFactory();
@@ -234,18 +250,33 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
             Destination destination = metadata.getDestination();
             javax.jms.Destination requestDestination = resolver.resolve(destination, requestConnectionFactory);
             wireConfiguration.setRequestConnectionFactory(requestConnectionFactory);
+            SessionPool pool = poolManager.getPool(connectionFactoryDefinition, requestConnectionFactory);
+            pools.put(getKey(source, target), pool);
+            wireConfiguration.setSessionPool(pool);
             wireConfiguration.setRequestDestination(requestDestination);
             validateDestination(requestDestination, destination);
             if (metadata.isResponse()) {
                 connectionFactoryDefinition = metadata.getResponseConnectionFactory();
 
                 ConnectionFactory responseConnectionFactory = resolver.resolve(connectionFactoryDefinition);
-                destination = metadata.getResponseDestination();
-                javax.jms.Destination responseDestination = resolver.resolve(destination, responseConnectionFactory);
                 CorrelationScheme scheme = metadata.getCorrelationScheme();
-                ResponseListener listener = new ResponseListener(responseDestination, scheme);
+                long timeout = metadata.getResponseTimeout();
+                ResponseListener listener;
+                if (metadata.getResponse().isTemporary()) {
+                    if (CorrelationScheme.NONE == scheme) {
+                        throw new Fabric3Exception("A correlation scheme must be specified for a temporary response: " + target.getUri());
+                    }
+                    // the temporary queue is created by the listener
+                    listener = new ResponseListener(null, responseConnectionFactory, scheme, timeout);
+                } else {
+                    destination = metadata.getResponseDestination();
+                    javax.jms.Destination responseDestination = resolver.resolve(destination, responseConnectionFactory);
+                    validateDestination(responseDestination, destination);
+                    listener = new ResponseListener(responseDestination, responseConnectionFactory, scheme, timeout);
+                }
+                listener.start();
+                listeners.put(getKey(source, target), listener);
                 wireConfiguration.setResponseListener(listener);
-                validateDestination(responseDestination, destination);
             }
             Destination callbackDestinationDefinition = target.getCallbackDestination();
             if (callbackDestinationDefinition != null) {
@@ -268,6 +299,10 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
 
     }
 
+    private String getKey(PhysicalWireSource source, JmsWireTarget target) {
+        return source.getUri() + "::" + target.getUri();
+    }
+
     private void validateDestination(javax.jms.Destination requestDestination, Destination requestDestinationDefinition) {
         DestinationType requestDestinationType = requestDestinationDefinition.geType();
         if (DestinationType.QUEUE == requestDestinationType && !(requestDestination instanceof Queue)) {
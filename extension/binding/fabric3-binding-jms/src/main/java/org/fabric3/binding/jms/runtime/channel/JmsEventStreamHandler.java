@@ -19,17 +19,16 @@
  */
 package org.fabric3.binding.jms.runtime.channel;
 
-import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
 import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageProducer;
-import javax.jms.Session;
 import java.io.Serializable;
 
-import org.fabric3.binding.jms.runtime.common.JmsHelper;
+import org.fabric3.binding.jms.runtime.pool.PooledSession;
+import org.fabric3.binding.jms.runtime.pool.SessionPool;
 import org.fabric3.spi.container.channel.EventStreamHandler;
 import org.oasisopen.sca.ServiceRuntimeException;
 
@@ -39,11 +38,13 @@ import org.oasisopen.sca.ServiceRuntimeException;
 public class JmsEventStreamHandler implements EventStreamHandler {
     private Destination destination;
     private ConnectionFactory connectionFactory;
+    private SessionPool sessionPool;
     private boolean persistent;
 
-    public JmsEventStreamHandler(Destination destination, ConnectionFactory connectionFactory, boolean persistent) {
+    public JmsEventStreamHandler(Destination destination, ConnectionFactory connectionFactory, SessionPool sessionPool, boolean persistent) {
         this.destination = destination;
         this.connectionFactory = connectionFactory;
+        this.sessionPool = sessionPool;
         this.persistent = persistent;
     }
 
@@ -52,28 +53,26 @@ public class JmsEventStreamHandler implements EventStreamHandler {
             throw new ServiceRuntimeException("Event type must be serializable: " + event.getClass().getName());
         }
         Serializable payload = (Serializable) event;
-        Connection connection = null;
-        Session session = null;
+        PooledSession pooledSession = null;
+        boolean invalid = false;
         ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
         try {
             // set the context classloader to the one that loaded the connection factory implementation.
             // this is required by some JMS providers
             Thread.currentThread().setContextClassLoader(connectionFactory.getClass().getClassLoader());
-            connection = connectionFactory.createConnection();
-            connection.start();
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            MessageProducer producer = session.createProducer(destination);
-            if (!persistent) {
-                producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
-            }
-            Message jmsMessage = session.createObjectMessage(payload);
+            pooledSession = sessionPool.borrow(false);
+            MessageProducer producer = pooledSession.getProducer(destination);
+            producer.setDeliveryMode(persistent ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT);
+            Message jmsMessage = pooledSession.getSession().createObjectMessage(payload);
             // enqueue the message
             producer.send(jmsMessage);
         } catch (JMSException ex) {
+            invalid = true;
             throw new ServiceRuntimeException("Unable to receive response", ex);
         } finally {
-            JmsHelper.closeQuietly(session);
-            JmsHelper.closeQuietly(connection);
+            if (pooledSession != null) {
+                sessionPool.release(pooledSession, invalid);
+            }
             Thread.currentThread().setContextClassLoader(oldCl);
         }
     }
@@ -32,6 +32,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.fabric3.api.annotation.management.Management;
 import org.fabric3.api.annotation.management.ManagementOperation;
@@ -50,7 +51,7 @@ import static org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants.CACHE_N
  * implementation supports dispatching transactional and non-transactional messages.
  */
 @Management
-public class AdaptiveMessageContainer {
+public class AdaptiveMessageContainer implements MessageContainer {
     private static final int BACKOFF_RETRIES = 5;
 
     private final ConnectionManager connectionManager;
@@ -71,6 +72,8 @@ public class AdaptiveMessageContainer {
     private int maxReceivers;
     private int idleLimit;
     private int maxMessagesToProcess;
+    private int batchSize;
+    private long batchTimeout;
     private String subscriptionId;
     private boolean localDelivery;
     private String messageSelector;
@@ -131,6 +134,8 @@ public class AdaptiveMessageContainer {
         setMinReceivers(configuration.getMinReceivers());
         setRecoveryInterval(configuration.getRecoveryInterval());
         setIdleLimit(configuration.getIdleLimit());
+        setBatchSize(configuration.getBatchSize());
+        setBatchTimeout(configuration.getBatchTimeout());
 
         setRecoveryInterval(configuration.getRecoveryInterval());
 
@@ -334,6 +339,56 @@ public class AdaptiveMessageContainer {
         }
     }
 
+    /**
+     * Sets the maximum number of messages a receiver dispatches in a single unit of work. Messages in a batch are committed or acknowledged together and a
+     * failure rolls back the entire batch. The default of one disables batching.
+     *
+     * @param size the maximum number of messages in a batch
+     */
+    @ManagementOperation(description = "The maximum number of messages dispatched in a single unit of work")
+    public void setBatchSize(int size) {
+        synchronized (syncMonitor) {
+            batchSize = size;
+        }
+    }
+
+    /**
+     * Returns the maximum number of messages a receiver dispatches in a single unit of work.
+     *
+     * @return the maximum number of messages in a batch
+     */
+    @ManagementOperation(description = "The maximum number of messages dispatched in a single unit of work")
+    public int getBatchSize() {
+        synchronized (syncMonitor) {
+            return batchSize;
+        }
+    }
+
+    /**
+     * Sets the maximum time in milliseconds a receiver waits for additional messages after the first message of a batch is received. Note the timeout should
+     * be shorter than the transaction timeout when global transactions are used.
+     *
+     * @param timeout the batch timeout in milliseconds
+     */
+    @ManagementOperation(description = "The maximum time to wait for additional messages in a batch")
+    public void setBatchTimeout(long timeout) {
+        synchronized (syncMonitor) {
+            batchTimeout = timeout;
+        }
+    }
+
+    /**
+     * Returns the maximum time in milliseconds a receiver waits for additional messages in a batch.
+     *
+     * @return the batch timeout in milliseconds
+     */
+    @ManagementOperation(description = "The maximum time to wait for additional messages in a batch")
+    public long getBatchTimeout() {
+        synchronized (syncMonitor) {
+            return batchTimeout;
+        }
+    }
+
     /**
      * Returns if durable topic subscriptions will be used.
      *
@@ -424,6 +479,34 @@ public class AdaptiveMessageContainer {
         return statistics.getTransactionsRolledBack();
     }
 
+    @ManagementOperation(description = "The total number of completed batches")
+    public long getBatchesCompleted() {
+        return statistics.getBatches();
+    }
+
+    @ManagementOperation(description = "The total number of rolled back batches")
+    public long getBatchesRolledBack() {
+        return statistics.getBatchesRolledBack();
+    }
+
+    @ManagementOperation(description = "The average number of messages in a completed batch")
+    public double getAverageBatchSize() {
+        long batches = statistics.getBatches();
+        return batches == 0 ? 0 : (double) statistics.getBatchedMessages() / batches;
+    }
+
+    @ManagementOperation(description = "The average time in milliseconds to dispatch and complete a batch")
+    public double getAverageBatchTime() {
+        long batches = statistics.getBatches();
+        return batches == 0 ? 0 : (double) statistics.getBatchTime() / batches / 1000000;
+    }
+
+    @ManagementOperation(description = "The number of messages per second dispatched in batches")
+    public double getBatchThroughput() {
+        long time = statistics.getBatchTime();
+        return time == 0 ? 0 : (double) statistics.getBatchedMessages() * 1000000000 / time;
+    }
+
     /**
      * Starts the container. Once started, messages will be received.
      *
@@ -800,10 +883,15 @@ public class AdaptiveMessageContainer {
          * @throws Fabric3Exception if a transaction exception occurred during thr receive
          */
         private boolean doReceive() throws JMSException, Fabric3Exception {
+            int size;
+            long timeout;
             synchronized (syncMonitor) {
                 if (!isRunning()) {
                     return false;
                 }
+                // read the batch settings together as they may be changed through management operations
+                size = batchSize;
+                timeout = batchTimeout;
                 work.begin();
                 connection = connectionManager.getConnection();
             }
@@ -814,16 +902,9 @@ public class AdaptiveMessageContainer {
                 consumer = createConsumer(session);
             }
             // wait for a message, blocking for the timeout period, which, if 0, will be indefinitely
-            Message message = null;
-            try {
-                message = consumer.receive(receiveTimeout);
-            } catch (JMSException e) {
-                if (e.getCause() instanceof InterruptedException) {
-                    // some providers may throw an InterruptedException if the receiver is blocking when the runtime is signalled to shutdown
-                    // ignore the exception
-                } else {
-                    throw e;
-                }
+            Message message = receiveMessage(receiveTimeout);
+            if (message != null && size > 1) {
+                return dispatchBatch(message, size, timeout);
             }
             if (message != null) {
                 if (!isRunning()) {
@@ -857,6 +938,83 @@ public class AdaptiveMessageContainer {
 
         }
 
+        /**
+         * Dispatches a batch of messages starting with the given message. Additional messages are received until the batch size is reached or the batch timeout
+         * expires. The unit of work is committed once for the batch. If dispatching a message fails, the entire batch is rolled back.
+         *
+         * @param first   the first message in the batch
+         * @param size    the maximum number of messages in the batch
+         * @param timeout the time in milliseconds to wait for the batch to fill
+         * @return true if the batch was dispatched and committed
+         * @throws JMSException     if there was an error receiving a message
+         * @throws Fabric3Exception if a transaction operation fails
+         */
+        private boolean dispatchBatch(Message first, int size, long timeout) throws JMSException, Fabric3Exception {
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+            idle = false;
+            resizePool();
+            Message message = first;
+            Message last = null;
+            int count = 0;
+            try {
+                while (message != null) {
+                    if (!isRunning()) {
+                        // container is shutting down.
+                        rollbackBatch();
+                        idle = true;
+                        return false;
+                    }
+                    messageListener.onMessage(message);
+                    last = message;
+                    count++;
+                    if (count >= size) {
+                        break;
+                    }
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    message = remaining > 0 ? receiveMessage(remaining) : consumer.receiveNoWait();
+                }
+            } catch (InvocationRuntimeException e) {
+                // report original exception
+                monitor.receiveError(containerUri, e.getCause());
+                rollbackBatch();
+                return false;
+            } catch (RuntimeException | Error e) {
+                monitor.receiveError(containerUri, e);
+                rollbackBatch();
+                return false;
+            }
+            work.end(session, last);
+            statistics.addMessagesReceived(count);
+            statistics.batchCompleted(count, System.nanoTime() - start);
+            return true;
+        }
+
+        private void rollbackBatch() throws Fabric3Exception {
+            work.rollback(session);
+            statistics.incrementBatchesRolledBack();
+        }
+
+        /**
+         * Performs a blocking receive on the JMS destination.
+         *
+         * @param timeout the time to wait in milliseconds
+         * @return the message or null if the timeout expired
+         * @throws JMSException if there was an error receiving the message
+         */
+        private Message receiveMessage(long timeout) throws JMSException {
+            try {
+                return consumer.receive(timeout);
+            } catch (JMSException e) {
+                if (e.getCause() instanceof InterruptedException) {
+                    // some providers may throw an InterruptedException if the receiver is blocking when the runtime is signalled to shutdown
+                    // ignore the exception
+                    return null;
+                }
+                throw e;
+            }
+        }
+
         private void closeSession() {
             synchronized (connectionManager) {
                 JmsHelper.closeQuietly(session);
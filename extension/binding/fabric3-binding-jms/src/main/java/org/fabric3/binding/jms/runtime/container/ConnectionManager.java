@@ -25,7 +25,7 @@ import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.binding.jms.runtime.common.JmsHelper;
 
 /**
- * Maintains shared JMS connection state for an {@link AdaptiveMessageContainer}.
+ * Maintains shared JMS connection state for a {@link MessageContainer}.
  */
 public class ConnectionManager {
     private URI listenerUri;
@@ -22,6 +22,7 @@ import javax.jms.ExceptionListener;
 import javax.jms.MessageListener;
 import java.net.URI;
 
+import org.fabric3.api.binding.jms.model.ConsumerMode;
 import org.fabric3.api.binding.jms.model.DestinationType;
 import org.fabric3.binding.jms.spi.provision.SessionType;
 
@@ -47,6 +48,9 @@ public class ContainerConfiguration {
     private int receiveTimeout = -1;
 
     private int maxMessagesToProcess = -1;
+    private int batchSize = 1;
+    private long batchTimeout = 100;
+    private ConsumerMode consumerMode = ConsumerMode.POLLING;
     private long recoveryInterval = 5000;   // default 5 seconds
     private boolean durable;
     private boolean localDelivery;
@@ -184,6 +188,30 @@ public class ContainerConfiguration {
         this.maxMessagesToProcess = maxMessagesToProcess;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public ConsumerMode getConsumerMode() {
+        return consumerMode;
+    }
+
+    public void setConsumerMode(ConsumerMode consumerMode) {
+        this.consumerMode = consumerMode;
+    }
+
     public long getRecoveryInterval() {
         return recoveryInterval;
     }
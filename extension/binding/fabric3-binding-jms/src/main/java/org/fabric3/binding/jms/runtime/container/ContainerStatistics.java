@@ -20,7 +20,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Tracks statistics for an {@link AdaptiveMessageContainer}.
+ * Tracks statistics for a {@link MessageContainer}.
  */
 public class ContainerStatistics {
     private long start;
@@ -28,6 +28,10 @@ public class ContainerStatistics {
     private AtomicInteger maxReceivers = new AtomicInteger();
     private AtomicInteger transactions = new AtomicInteger();
     private AtomicInteger transactionsRolledBack = new AtomicInteger();
+    private AtomicLong batches = new AtomicLong();
+    private AtomicLong batchedMessages = new AtomicLong();
+    private AtomicLong batchTime = new AtomicLong();
+    private AtomicLong batchesRolledBack = new AtomicLong();
 
     public ContainerStatistics() {
         start = System.currentTimeMillis();
@@ -45,6 +49,10 @@ public class ContainerStatistics {
         messagesReceived.incrementAndGet();
     }
 
+    public void addMessagesReceived(int count) {
+        messagesReceived.addAndGet(count);
+    }
+
     public int getMaxReceivers() {
         return maxReceivers.get();
     }
@@ -68,4 +76,41 @@ public class ContainerStatistics {
     public void incrementTransactionsRolledBack() {
         transactionsRolledBack.incrementAndGet();
     }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getBatchedMessages() {
+        return batchedMessages.get();
+    }
+
+    /**
+     * Returns the total time spent dispatching and completing batches in nanoseconds.
+     *
+     * @return the total batch time in nanoseconds
+     */
+    public long getBatchTime() {
+        return batchTime.get();
+    }
+
+    /**
+     * Records a completed batch.
+     *
+     * @param count the number of messages in the batch
+     * @param time  the time taken to dispatch and complete the batch in nanoseconds
+     */
+    public void batchCompleted(int count, long time) {
+        batches.incrementAndGet();
+        batchedMessages.addAndGet(count);
+        batchTime.addAndGet(time);
+    }
+
+    public long getBatchesRolledBack() {
+        return batchesRolledBack.get();
+    }
+
+    public void incrementBatchesRolledBack() {
+        batchesRolledBack.incrementAndGet();
+    }
 }
\ No newline at end of file
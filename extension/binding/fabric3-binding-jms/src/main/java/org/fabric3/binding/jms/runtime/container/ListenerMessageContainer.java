@@ -0,0 +1,442 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.container;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import javax.jms.Topic;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
+import org.fabric3.api.binding.jms.model.DestinationType;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.binding.jms.runtime.common.JmsHelper;
+import org.fabric3.binding.jms.spi.provision.SessionType;
+import org.fabric3.spi.container.wire.InvocationRuntimeException;
+
+/**
+ * A container that registers MessageListeners with the JMS provider instead of polling a destination. Messages pushed by the provider are handed off to the
+ * runtime executor for dispatch, which avoids blocking idle threads in receive calls.
+ *
+ * The number of messages dispatched concurrently for the destination is limited by the configured maximum number of receivers. When the limit is reached, the
+ * provider delivery thread blocks until a dispatch completes. For queues, one session is created per concurrent dispatch. Topics use a single session since a
+ * subscription may only have one consumer.
+ *
+ * When messages are auto-acknowledged, the provider delivery thread returns as soon as the message is handed off and the unit of work is completed by the
+ * dispatching thread. For client acknowledgement and local transactions, the delivery thread waits for the dispatch to complete and then commits or
+ * acknowledges the message on its session, or rolls back or recovers the session if the dispatch failed. Global transactions are not supported since the
+ * provider delivers the message before a transaction can be started.
+ */
+@Management
+public class ListenerMessageContainer implements MessageContainer {
+    private URI containerUri;
+    private DestinationType destinationType;
+    private Destination destination;
+    private SessionType sessionType;
+    private String messageSelector;
+    private String subscriptionId;
+    private boolean localDelivery;
+    private long recoveryInterval;
+    private int concurrency;
+
+    private MessageListener messageListener;
+    private ExceptionListener exceptionListener;
+
+    private ConnectionManager connectionManager;
+    private UnitOfWork work;
+    private ContainerStatistics statistics;
+    private ExecutorService executorService;
+    private MessageContainerMonitor monitor;
+
+    private final Object syncMonitor = new Object();
+    private Semaphore permits;
+    private Connection connection;
+    private List<Session> sessions = new ArrayList<>();
+    private volatile boolean initialized;
+    private volatile boolean running;
+
+    /**
+     * Constructor.
+     *
+     * @param configuration     the container configuration
+     * @param connectionManager the connection manager
+     * @param work              the unit of work
+     * @param statistics        the message statistics tracker
+     * @param executorService   the executor messages are dispatched on
+     * @param monitor           the monitor for reporting events and errors
+     */
+    public ListenerMessageContainer(ContainerConfiguration configuration,
+                                    ConnectionManager connectionManager,
+                                    UnitOfWork work,
+                                    ContainerStatistics statistics,
+                                    ExecutorService executorService,
+                                    MessageContainerMonitor monitor) {
+        if (SessionType.GLOBAL_TRANSACTED == configuration.getSessionType()) {
+            throw new IllegalArgumentException("Global transactions are not supported by listener consumers: " + configuration.getUri());
+        }
+        containerUri = configuration.getUri();
+        destinationType = configuration.getDestinationType();
+        destination = configuration.getDestination();
+        sessionType = configuration.getSessionType();
+        messageSelector = configuration.getMessageSelector();
+        subscriptionId = configuration.getSubscriptionId();
+        localDelivery = configuration.isLocalDelivery();
+        recoveryInterval = configuration.getRecoveryInterval();
+        concurrency = Math.max(1, configuration.getMaxReceivers());
+        messageListener = configuration.getMessageListener();
+        exceptionListener = configuration.getExceptionListener();
+        this.connectionManager = connectionManager;
+        this.work = work;
+        this.statistics = statistics;
+        this.executorService = executorService;
+        this.monitor = monitor;
+        permits = new Semaphore(concurrency);
+    }
+
+    public URI getContainerUri() {
+        return containerUri;
+    }
+
+    @ManagementOperation(description = "The maximum number of messages dispatched concurrently")
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @ManagementOperation(description = "The number of messages currently being dispatched")
+    public int getActiveCount() {
+        return concurrency - permits.availablePermits();
+    }
+
+    @ManagementOperation(description = "The number of sessions messages are delivered on")
+    public int getSessionCount() {
+        synchronized (syncMonitor) {
+            return sessions.size();
+        }
+    }
+
+    @ManagementOperation(description = "The session type")
+    public String getSessionType() {
+        return sessionType.toString();
+    }
+
+    @ManagementOperation(description = "True if the container is running")
+    public boolean isRunning() {
+        return running;
+    }
+
+    @ManagementOperation(description = "The time this container has been running")
+    public long getTotalTime() {
+        return statistics.getTotalTime();
+    }
+
+    @ManagementOperation(description = "The number of messages received")
+    public long getMessagesReceived() {
+        return statistics.getMessagesReceived();
+    }
+
+    @ManagementOperation(description = "The total number of committed transactions")
+    public int getTransactions() {
+        return statistics.getTransactions();
+    }
+
+    @ManagementOperation(description = "The total number of rolled back transactions")
+    public int getTransactionsRolledBack() {
+        return statistics.getTransactionsRolledBack();
+    }
+
+    public void initialize() throws Fabric3Exception {
+        synchronized (syncMonitor) {
+            initialized = true;
+            try {
+                connect();
+            } catch (JMSException e) {
+                closeResources();
+                throw new Fabric3Exception("Error initializing container " + containerUri, e);
+            }
+        }
+        start();
+    }
+
+    @ManagementOperation(description = "Starts the containing processing messages")
+    public void start() throws Fabric3Exception {
+        synchronized (syncMonitor) {
+            running = true;
+            if (connection != null) {
+                try {
+                    connection.start();
+                } catch (JMSException e) {
+                    throw new Fabric3Exception("Error starting container " + containerUri, e);
+                }
+            }
+        }
+    }
+
+    @ManagementOperation(description = "Stops the containing processing messages")
+    public void stop() {
+        synchronized (syncMonitor) {
+            running = false;
+            if (connection != null) {
+                try {
+                    connection.stop();
+                } catch (JMSException e) {
+                    monitor.stopConnectionError(containerUri, e);
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        synchronized (syncMonitor) {
+            running = false;
+            initialized = false;
+            closeResources();
+        }
+        // wait for in-flight dispatches to complete
+        permits.acquireUninterruptibly(concurrency);
+        permits.release(concurrency);
+    }
+
+    /**
+     * Creates the connection and registers a listener for each session. Must be called while holding the sync monitor.
+     *
+     * @throws JMSException     if there is an error creating the sessions or consumers
+     * @throws Fabric3Exception if there is an error creating the connection
+     */
+    private void connect() throws JMSException, Fabric3Exception {
+        connection = connectionManager.getConnection();
+        connection.setExceptionListener(this::onException);
+        int count = DestinationType.TOPIC == destinationType ? 1 : concurrency;
+        for (int i = 0; i < count; i++) {
+            Session session = createSession(connection);
+            sessions.add(session);
+            MessageConsumer consumer = createConsumer(session);
+            consumer.setMessageListener(new SessionListener(session));
+        }
+        if (!running) {
+            connection.stop();
+        }
+    }
+
+    /**
+     * Closes all sessions and the connection. Must be called while holding the sync monitor.
+     */
+    private void closeResources() {
+        for (Session session : sessions) {
+            JmsHelper.closeQuietly(session);
+        }
+        sessions.clear();
+        JmsHelper.closeQuietly(connection);
+        connection = null;
+    }
+
+    /**
+     * Handles a connection failure by releasing resources and scheduling recovery.
+     *
+     * @param e the connection exception
+     */
+    private void onException(JMSException e) {
+        if (exceptionListener != null) {
+            exceptionListener.onException(e);
+        }
+        monitor.listenerError(containerUri.toString(), e);
+        synchronized (syncMonitor) {
+            closeResources();
+        }
+        try {
+            executorService.execute(this::recover);
+        } catch (RejectedExecutionException ex) {
+            monitor.reject(ex);
+        }
+    }
+
+    /**
+     * Re-establishes the connection and sessions, waiting for the recovery interval between attempts.
+     */
+    private void recover() {
+        while (initialized) {
+            try {
+                Thread.sleep(recoveryInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            synchronized (syncMonitor) {
+                if (!initialized || connection != null) {
+                    return;
+                }
+                try {
+                    connect();
+                    if (running) {
+                        connection.start();
+                    }
+                    return;
+                } catch (JMSException | Fabric3Exception e) {
+                    closeResources();
+                    monitor.connectionError(containerUri.toString(), e);
+                }
+            }
+        }
+    }
+
+    private Session createSession(Connection connection) throws JMSException {
+        if (SessionType.LOCAL_TRANSACTED == sessionType) {
+            return connection.createSession(true, Session.AUTO_ACKNOWLEDGE);
+        } else if (SessionType.CLIENT_ACKNOWLEDGE == sessionType) {
+            return connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+        }
+        return connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+    }
+
+    private MessageConsumer createConsumer(Session session) throws JMSException {
+        if (DestinationType.TOPIC == destinationType) {
+            if (connectionManager.isDurable()) {
+                return session.createDurableSubscriber((Topic) destination, subscriptionId, messageSelector, localDelivery);
+            } else {
+                return session.createConsumer(destination, messageSelector, localDelivery);
+            }
+        } else {
+            return session.createConsumer(destination, messageSelector);
+        }
+    }
+
+    /**
+     * Receives messages pushed by the provider for a session and hands them off to the runtime executor.
+     */
+    private class SessionListener implements MessageListener {
+        private Session session;
+
+        public SessionListener(Session session) {
+            this.session = session;
+        }
+
+        public void onMessage(Message message) {
+            try {
+                work.begin();
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rollback();
+                return;
+            } catch (Fabric3Exception e) {
+                monitor.receiveError(containerUri, e);
+                return;
+            }
+            Dispatch dispatch = new Dispatch(session, message);
+            try {
+                executorService.execute(dispatch);
+            } catch (RejectedExecutionException e) {
+                // dispatch on the provider thread
+                monitor.reject(e);
+                dispatch.run();
+            }
+            if (SessionType.AUTO_ACKNOWLEDGE == sessionType) {
+                return;
+            }
+            try {
+                dispatch.await();
+                dispatch.complete();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rollback();
+            }
+        }
+
+        private void rollback() {
+            try {
+                work.rollback(session);
+            } catch (Fabric3Exception e) {
+                monitor.receiveError(containerUri, e);
+            }
+        }
+    }
+
+    /**
+     * Dispatches a message to the listener on a runtime thread.
+     */
+    private class Dispatch implements Runnable {
+        private Session session;
+        private Message message;
+        private CountDownLatch latch = new CountDownLatch(1);
+        private volatile boolean succeeded;
+
+        public Dispatch(Session session, Message message) {
+            this.session = session;
+            this.message = message;
+        }
+
+        public void run() {
+            try {
+                messageListener.onMessage(message);
+                statistics.incrementMessagesReceived();
+                succeeded = true;
+            } catch (InvocationRuntimeException e) {
+                // report original exception
+                monitor.receiveError(containerUri, e.getCause());
+            } catch (RuntimeException | Error e) {
+                monitor.receiveError(containerUri, e);
+            } finally {
+                if (SessionType.AUTO_ACKNOWLEDGE == sessionType) {
+                    // the provider delivery thread has returned; auto-acknowledged units of work do not use the session
+                    complete();
+                }
+                permits.release();
+                latch.countDown();
+            }
+        }
+
+        /**
+         * Waits for the dispatch to complete.
+         *
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        public void await() throws InterruptedException {
+            latch.await();
+        }
+
+        /**
+         * Ends the unit of work if the message was dispatched successfully, otherwise rolls it back.
+         */
+        public void complete() {
+            try {
+                if (succeeded) {
+                    work.end(session, message);
+                } else {
+                    work.rollback(session);
+                }
+            } catch (Fabric3Exception e) {
+                monitor.receiveError(containerUri, e);
+            }
+        }
+    }
+
+}
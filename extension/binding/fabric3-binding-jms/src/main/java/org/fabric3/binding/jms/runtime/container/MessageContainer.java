@@ -0,0 +1,62 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.container;
+
+import java.net.URI;
+
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ * A container that receives messages from a JMS destination and dispatches them to a MessageListener.
+ */
+public interface MessageContainer {
+
+    /**
+     * Returns the container URI.
+     *
+     * @return the container URI
+     */
+    URI getContainerUri();
+
+    /**
+     * Initializes and starts the container. Once started, messages will be received.
+     *
+     * @throws Fabric3Exception if an initialization error occurs
+     */
+    void initialize() throws Fabric3Exception;
+
+    /**
+     * Starts the container. Once started, messages will be received.
+     *
+     * @throws Fabric3Exception if an error during start-up occurs
+     */
+    void start() throws Fabric3Exception;
+
+    /**
+     * Stops the container processing messages.
+     */
+    void stop();
+
+    /**
+     * Stops the container from receiving message and releases all resources.
+     */
+    void shutdown();
+
+}
@@ -17,16 +17,16 @@
 package org.fabric3.binding.jms.runtime.container;
 
 /**
- * Creates {@link AdaptiveMessageContainer} instances.
+ * Creates {@link MessageContainer} instances.
  */
 public interface MessageContainerFactory {
 
     /**
-     * Create an {@link AdaptiveMessageContainer} from the given configuration.
+     * Create a {@link MessageContainer} from the given configuration.
      *
      * @param configuration the configuration
      * @return the container
      */
-    AdaptiveMessageContainer create(ContainerConfiguration configuration);
+    MessageContainer create(ContainerConfiguration configuration);
 
 }
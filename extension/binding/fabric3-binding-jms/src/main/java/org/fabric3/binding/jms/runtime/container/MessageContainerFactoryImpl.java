@@ -23,6 +23,7 @@ import java.util.concurrent.ExecutorService;
 
 import org.fabric3.api.annotation.Source;
 import org.fabric3.api.annotation.monitor.Monitor;
+import org.fabric3.api.binding.jms.model.ConsumerMode;
 import org.fabric3.api.host.runtime.HostInfo;
 import org.fabric3.binding.jms.spi.provision.SessionType;
 import org.oasisopen.sca.annotation.Property;
@@ -61,7 +62,7 @@ public class MessageContainerFactoryImpl implements MessageContainerFactory {
         this.containerMonitor = containerMonitor;
     }
 
-    public AdaptiveMessageContainer create(ContainerConfiguration configuration) {
+    public MessageContainer create(ContainerConfiguration configuration) {
         ConnectionFactory factory = configuration.getFactory();
         SessionType type = configuration.getSessionType();
         boolean durable = configuration.isDurable();
@@ -73,8 +74,16 @@ public class MessageContainerFactoryImpl implements MessageContainerFactory {
 
         ContainerStatistics statistics = new ContainerStatistics();
         URI uri = configuration.getUri();
-        ConnectionManager connectionManager = new ConnectionManager(factory, uri, cacheConnection, durable, containerMonitor);
         UnitOfWork work = createWork(uri, type, statistics);
+        if (ConsumerMode.LISTENER == configuration.getConsumerMode()) {
+            if (SessionType.GLOBAL_TRANSACTED != type) {
+                // listener consumers use a dedicated connection
+                ConnectionManager connectionManager = new ConnectionManager(factory, uri, false, durable, containerMonitor);
+                return new ListenerMessageContainer(configuration, connectionManager, work, statistics, executorService, containerMonitor);
+            }
+            containerMonitor.listenerNotSupported(uri);
+        }
+        ConnectionManager connectionManager = new ConnectionManager(factory, uri, cacheConnection, durable, containerMonitor);
         boolean javaEE = hostInfo.isJavaEEXAEnabled();
         return new AdaptiveMessageContainer(configuration, receiveTimeout, connectionManager, work, statistics, executorService, javaEE, containerMonitor);
     }
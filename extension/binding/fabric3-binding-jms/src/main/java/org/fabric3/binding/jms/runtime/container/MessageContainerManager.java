@@ -21,7 +21,7 @@ import java.net.URI;
 import org.fabric3.api.host.Fabric3Exception;
 
 /**
- * Manages {@link AdaptiveMessageContainer}s used to receive messages from a JMS provider.
+ * Manages {@link MessageContainer}s used to receive messages from a JMS provider.
  */
 public interface MessageContainerManager {
 
@@ -39,7 +39,7 @@ public interface MessageContainerManager {
      * @param container the container
      * @throws Fabric3Exception if an error registering the container is encountered
      */
-    void register(AdaptiveMessageContainer container) throws Fabric3Exception;
+    void register(MessageContainer container) throws Fabric3Exception;
 
     /**
      * Unregister a container.
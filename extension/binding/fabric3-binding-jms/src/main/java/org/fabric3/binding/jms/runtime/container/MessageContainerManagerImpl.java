@@ -47,7 +47,7 @@ import org.oasisopen.sca.annotation.Service;
 @EagerInit
 @Service({MessageContainerManager.class, Transport.class})
 public class MessageContainerManagerImpl implements MessageContainerManager, Transport {
-    private Map<URI, AdaptiveMessageContainer> containers = new ConcurrentHashMap<>();
+    private Map<URI, MessageContainer> containers = new ConcurrentHashMap<>();
     private boolean started;
     private boolean pausedOnStart;
     private EventService eventService;
@@ -84,7 +84,7 @@ public class MessageContainerManagerImpl implements MessageContainerManager, Tra
         if (!started) {
             return;
         }
-        for (Map.Entry<URI, AdaptiveMessageContainer> entry : containers.entrySet()) {
+        for (Map.Entry<URI, MessageContainer> entry : containers.entrySet()) {
             entry.getValue().stop();
         }
         started = false;
@@ -94,7 +94,7 @@ public class MessageContainerManagerImpl implements MessageContainerManager, Tra
         if (started) {
             return;
         }
-        for (Map.Entry<URI, AdaptiveMessageContainer> entry : containers.entrySet()) {
+        for (Map.Entry<URI, MessageContainer> entry : containers.entrySet()) {
             try {
                 if (pausedOnStart) {
                     entry.getValue().initialize();
@@ -113,7 +113,7 @@ public class MessageContainerManagerImpl implements MessageContainerManager, Tra
         return containers.containsKey(serviceUri);
     }
 
-    public void register(AdaptiveMessageContainer container) throws Fabric3Exception {
+    public void register(MessageContainer container) throws Fabric3Exception {
         URI uri = container.getContainerUri();
         containers.put(uri, container);
 
@@ -127,7 +127,7 @@ public class MessageContainerManagerImpl implements MessageContainerManager, Tra
     }
 
     public void unregister(URI uri) throws Fabric3Exception {
-        AdaptiveMessageContainer container = containers.remove(uri);
+        MessageContainer container = containers.remove(uri);
         if (container != null) {
             container.shutdown();
             String encodedName = encodeName(uri);
@@ -153,7 +153,7 @@ public class MessageContainerManagerImpl implements MessageContainerManager, Tra
 
         public void onEvent(TransportStart event) {
             // start receiving messages after the runtime has started
-            for (Map.Entry<URI, AdaptiveMessageContainer> entry : containers.entrySet()) {
+            for (Map.Entry<URI, MessageContainer> entry : containers.entrySet()) {
                 try {
                     if (!pausedOnStart) {
                         entry.getValue().initialize();
@@ -173,10 +173,10 @@ public class MessageContainerManagerImpl implements MessageContainerManager, Tra
     private class StopEventListener implements Fabric3EventListener<TransportStop> {
 
         public void onEvent(TransportStop event) {
-            for (Map.Entry<URI, AdaptiveMessageContainer> entry : containers.entrySet()) {
+            for (Map.Entry<URI, MessageContainer> entry : containers.entrySet()) {
                 entry.getValue().stop();
             }
-            for (Map.Entry<URI, AdaptiveMessageContainer> entry : containers.entrySet()) {
+            for (Map.Entry<URI, MessageContainer> entry : containers.entrySet()) {
                 entry.getValue().shutdown();
             }
 
@@ -20,6 +20,7 @@ import java.net.URI;
 
 import org.fabric3.api.annotation.monitor.Debug;
 import org.fabric3.api.annotation.monitor.Severe;
+import org.fabric3.api.annotation.monitor.Warning;
 
 /**
  *
@@ -47,6 +48,9 @@ public interface MessageContainerMonitor {
     @Severe("Error receiving message for {0}")
     void receiveError(URI uri, Throwable e);
 
+    @Warning("Listener consumers do not support global transactions. A polling consumer will be used for {0}")
+    void listenerNotSupported(URI uri);
+
     @Debug("Receiver scheduled: {0}")
     void scheduledReceiver(String name);
 
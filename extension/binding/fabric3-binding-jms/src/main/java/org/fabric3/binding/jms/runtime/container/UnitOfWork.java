@@ -35,10 +35,10 @@ public interface UnitOfWork {
     void begin() throws Fabric3Exception;
 
     /**
-     * Commits the unit of work.
+     * Commits the unit of work. When messages are received in batches, the unit of work is committed once for the batch.
      *
      * @param session the session the work is associated with
-     * @param message the message the work is associated with
+     * @param message the message the work is associated with or the last message received if the work spans a batch
      * @throws Fabric3Exception if there is an exception committing the work
      */
     void end(Session session, Message message) throws Fabric3Exception;
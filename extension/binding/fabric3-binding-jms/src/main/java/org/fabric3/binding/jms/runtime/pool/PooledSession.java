@@ -0,0 +1,139 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.pool;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.transaction.Transaction;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fabric3.binding.jms.runtime.common.JmsHelper;
+
+/**
+ * A session borrowed from a {@link SessionPool}. Message producers created for a destination are cached with the session and reused by subsequent borrowers.
+ *
+ * A pooled session must only be used by the thread that borrowed it until it is returned to the pool.
+ */
+public class PooledSession {
+    private SessionPool.ConnectionHolder holder;
+    private Session session;
+    private boolean transacted;
+    private boolean pooled;
+    private volatile boolean invalid;
+
+    private Map<Destination, MessageProducer> producers = new HashMap<>();
+    private Transaction transaction;
+
+    /**
+     * Constructor.
+     *
+     * @param holder     the holder of the connection the session was created with
+     * @param session    the session
+     * @param transacted true if the session is used for global transactions
+     * @param pooled     true if the session is returned to the pool or false if it is closed after it has been used
+     */
+    PooledSession(SessionPool.ConnectionHolder holder, Session session, boolean transacted, boolean pooled) {
+        this.holder = holder;
+        this.session = session;
+        this.transacted = transacted;
+        this.pooled = pooled;
+    }
+
+    /**
+     * Returns the underlying JMS session.
+     *
+     * @return the session
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Returns a producer for the destination, creating one if a producer has not been cached for the session.
+     *
+     * @param destination the destination
+     * @return the producer
+     * @throws JMSException if there is an error creating the producer
+     */
+    public MessageProducer getProducer(Destination destination) throws JMSException {
+        MessageProducer producer = producers.get(destination);
+        if (producer == null) {
+            producer = session.createProducer(destination);
+            producers.put(destination, producer);
+        }
+        return producer;
+    }
+
+    /**
+     * Returns true if the session can be reused, i.e. it has not been invalidated and the connection it was created with has not reported an error.
+     *
+     * @return true if the session can be reused
+     */
+    public boolean isValid() {
+        return !invalid && !holder.isBroken();
+    }
+
+    /**
+     * Marks the session as unusable so that it is closed instead of being returned to the pool.
+     */
+    void invalidate() {
+        invalid = true;
+    }
+
+    boolean isTransacted() {
+        return transacted;
+    }
+
+    boolean isPooled() {
+        return pooled;
+    }
+
+    Connection getConnection() {
+        return holder.getConnection();
+    }
+
+    Transaction getTransaction() {
+        return transaction;
+    }
+
+    void setTransaction(Transaction transaction) {
+        this.transaction = transaction;
+    }
+
+    /**
+     * Closes the cached producers and the session.
+     */
+    void close() {
+        for (MessageProducer producer : producers.values()) {
+            try {
+                producer.close();
+            } catch (JMSException e) {
+                // ignore
+            }
+        }
+        producers.clear();
+        JmsHelper.closeQuietly(session);
+    }
+
+}
@@ -0,0 +1,493 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.pool;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import javax.jms.XAConnection;
+import javax.jms.XAConnectionFactory;
+import javax.jms.XASession;
+import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.xa.XAResource;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
+import org.fabric3.api.annotation.management.OperationType;
+import org.fabric3.binding.jms.runtime.common.JmsHelper;
+
+/**
+ * A bounded pool of sessions and their cached producers for a connection factory. Sessions are created on a fixed number of shared connections that are
+ * re-initialized if the JMS provider reports a connection error.
+ *
+ * Sessions used for global transactions are only pooled if the connection factory is XA-capable. In this case, a session is enlisted with the active JTA
+ * transaction when it is borrowed and delisted when it is released. Subsequent borrows in the same transaction return the enlisted session instead of
+ * taking another one from the pool. The session is returned to the pool after the transaction completes. If the connection factory is
+ * not XA-capable, transacted sessions are not pooled as the factory is expected to handle enlistment, for example when it is managed by a transaction manager
+ * connection pool.
+ */
+@Management
+public class SessionPool {
+    private String name;
+    private ConnectionFactory factory;
+    private TransactionManager tm;
+    private int maxSize;
+    private long borrowTimeout;
+    private boolean xa;
+
+    private final Object sync = new Object();
+    private ConnectionHolder[] holders;
+    private AtomicInteger next = new AtomicInteger();
+
+    private Semaphore permits;
+    private Deque<PooledSession> idle = new ConcurrentLinkedDeque<>();
+    private Deque<PooledSession> idleTransacted = new ConcurrentLinkedDeque<>();
+    private Map<Transaction, PooledSession> enlisted = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong waits = new AtomicLong();
+    private AtomicLong waitTime = new AtomicLong();
+    private AtomicLong timeouts = new AtomicLong();
+    private AtomicLong discarded = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param name          the pool name
+     * @param factory       the connection factory
+     * @param tm            the transaction manager used to enlist transacted sessions
+     * @param maxSize       the maximum number of sessions that may be borrowed concurrently
+     * @param connections   the number of connections to create sessions on
+     * @param borrowTimeout the time in milliseconds to wait for a session when the pool is exhausted
+     */
+    public SessionPool(String name, ConnectionFactory factory, TransactionManager tm, int maxSize, int connections, long borrowTimeout) {
+        this.name = name;
+        this.factory = factory;
+        this.tm = tm;
+        this.maxSize = maxSize;
+        this.borrowTimeout = borrowTimeout;
+        this.xa = factory instanceof XAConnectionFactory;
+        this.holders = new ConnectionHolder[connections];
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrows a session from the pool, creating one if no idle session is available. If the pool is exhausted, the call blocks until a session is released
+     * or the borrow timeout expires.
+     *
+     * @param transacted true if the session will be used in a global transaction
+     * @return the session
+     * @throws JMSException if there is an error creating the session or the borrow timeout expires
+     */
+    public PooledSession borrow(boolean transacted) throws JMSException {
+        if (closed) {
+            throw new javax.jms.IllegalStateException("Session pool is closed: " + name);
+        }
+        if (transacted && !xa) {
+            return createUnpooled();
+        }
+        Transaction transaction = null;
+        if (transacted) {
+            transaction = getActiveTransaction();
+            PooledSession session = transaction == null ? null : enlisted.get(transaction);
+            if (session != null) {
+                rejoin(session, transaction);
+                hits.incrementAndGet();
+                return session;
+            }
+        }
+        acquire();
+        PooledSession session = null;
+        try {
+            Deque<PooledSession> sessions = transacted ? idleTransacted : idle;
+            while ((session = sessions.pollFirst()) != null) {
+                if (session.isValid()) {
+                    break;
+                }
+                discarded.incrementAndGet();
+                session.close();
+            }
+            if (session == null) {
+                misses.incrementAndGet();
+                session = create(transacted);
+            } else {
+                hits.incrementAndGet();
+            }
+            if (transaction != null) {
+                enlist(session, transaction);
+            }
+            return session;
+        } catch (JMSException | RuntimeException e) {
+            if (session != null) {
+                session.close();
+            }
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a session to the pool. Sessions enlisted in a global transaction are delisted and returned to the pool when the transaction completes.
+     *
+     * @param session the session
+     * @param invalid true if an error was encountered using the session and it should be closed instead of reused
+     */
+    public void release(PooledSession session, boolean invalid) {
+        if (!session.isPooled()) {
+            session.close();
+            JmsHelper.closeQuietly(session.getConnection());
+            return;
+        }
+        if (invalid) {
+            session.invalidate();
+        }
+        Transaction transaction = session.getTransaction();
+        if (transaction != null) {
+            try {
+                XAResource resource = ((XASession) session.getSession()).getXAResource();
+                transaction.delistResource(resource, invalid ? XAResource.TMFAIL : XAResource.TMSUCCESS);
+            } catch (SystemException | IllegalStateException e) {
+                session.invalidate();
+            }
+            // the session is returned to the pool by the synchronization when the transaction completes
+            return;
+        }
+        checkIn(session);
+    }
+
+    /**
+     * Closes all idle sessions and pool connections. Borrowed sessions are closed when they are released.
+     */
+    public void close() {
+        closed = true;
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            session.close();
+        }
+        while ((session = idleTransacted.pollFirst()) != null) {
+            session.close();
+        }
+        synchronized (sync) {
+            for (int i = 0; i < holders.length; i++) {
+                if (holders[i] != null) {
+                    holders[i].close();
+                    holders[i] = null;
+                }
+            }
+        }
+    }
+
+    @ManagementOperation(description = "The pool name")
+    public String getName() {
+        return name;
+    }
+
+    @ManagementOperation(description = "The maximum number of sessions that can be borrowed concurrently")
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @ManagementOperation(description = "The time in milliseconds to wait for a session when the pool is exhausted")
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    @ManagementOperation(description = "The number of sessions currently borrowed")
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    @ManagementOperation(description = "The number of idle sessions in the pool")
+    public int getIdleCount() {
+        return idle.size() + idleTransacted.size();
+    }
+
+    @ManagementOperation(description = "The number of times an idle session was reused")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagementOperation(description = "The number of times a session had to be created")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagementOperation(description = "The number of times a borrower had to wait for a session to be released")
+    public long getWaits() {
+        return waits.get();
+    }
+
+    @ManagementOperation(description = "The average time in milliseconds borrowers waited for a session to be released")
+    public double getAverageWaitTime() {
+        long count = waits.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitTime.get() / count) / 1000d;
+    }
+
+    @ManagementOperation(description = "The number of times the borrow timeout expired")
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    @ManagementOperation(description = "The number of sessions closed because they were invalid")
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    @ManagementOperation(type = OperationType.POST, description = "Resets the pool statistics")
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        waits.set(0);
+        waitTime.set(0);
+        timeouts.set(0);
+        discarded.set(0);
+    }
+
+    /**
+     * Returns a session to the idle list or closes it if it is no longer valid.
+     *
+     * @param session the session
+     */
+    private void checkIn(PooledSession session) {
+        session.setTransaction(null);
+        try {
+            if (closed || !session.isValid()) {
+                discarded.incrementAndGet();
+                session.close();
+            } else if (session.isTransacted()) {
+                idleTransacted.offerFirst(session);
+            } else {
+                // return to the head so the most recently used sessions are reused first
+                idle.offerFirst(session);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() throws JMSException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        waits.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new JMSException("Timeout waiting for a session from pool: " + name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted waiting for a session from pool: " + name);
+        } finally {
+            waitTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private PooledSession create(boolean transacted) throws JMSException {
+        ConnectionHolder holder = getHolder();
+        Session session;
+        if (transacted) {
+            session = ((XAConnection) holder.getConnection()).createXASession();
+        } else {
+            session = holder.getConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
+        }
+        return new PooledSession(holder, session, transacted, true);
+    }
+
+    private PooledSession createUnpooled() throws JMSException {
+        Connection connection = factory.createConnection();
+        try {
+            connection.start();
+            Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            return new PooledSession(new ConnectionHolder(connection), session, true, false);
+        } catch (JMSException e) {
+            JmsHelper.closeQuietly(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the next connection holder, re-initializing the connection if it has not been created or has reported an error.
+     *
+     * @return the connection holder
+     * @throws JMSException if there is an error creating the connection
+     */
+    private ConnectionHolder getHolder() throws JMSException {
+        int index = (next.getAndIncrement() & Integer.MAX_VALUE) % holders.length;
+        synchronized (sync) {
+            ConnectionHolder holder = holders[index];
+            if (holder == null || holder.isBroken()) {
+                if (holder != null) {
+                    holder.close();
+                }
+                Connection connection = xa ? ((XAConnectionFactory) factory).createXAConnection() : factory.createConnection();
+                holder = new ConnectionHolder(connection);
+                try {
+                    try {
+                        connection.setExceptionListener(holder);
+                    } catch (JMSException e) {
+                        // exception listeners are not supported in managed environments, rely on sessions being invalidated by borrowers instead
+                    }
+                    connection.start();
+                } catch (JMSException | RuntimeException e) {
+                    JmsHelper.closeQuietly(connection);
+                    throw e;
+                }
+                holders[index] = holder;
+            }
+            return holder;
+        }
+    }
+
+    /**
+     * Returns the active global transaction associated with the current thread.
+     *
+     * @return the transaction or null if there is no active transaction
+     * @throws JMSException if there is an error accessing the transaction
+     */
+    private Transaction getActiveTransaction() throws JMSException {
+        try {
+            Transaction transaction = tm.getTransaction();
+            if (transaction == null || transaction.getStatus() != Status.STATUS_ACTIVE) {
+                return null;
+            }
+            return transaction;
+        } catch (SystemException e) {
+            JMSException exception = new JMSException("Error accessing transaction: " + name);
+            exception.setLinkedException(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * Enlists a transacted session with the transaction. The session is returned to the pool when the transaction completes.
+     *
+     * @param session     the session
+     * @param transaction the active transaction
+     * @throws JMSException if there is an error enlisting the session
+     */
+    private void enlist(PooledSession session, Transaction transaction) throws JMSException {
+        try {
+            XAResource resource = ((XASession) session.getSession()).getXAResource();
+            if (!transaction.enlistResource(resource)) {
+                throw new JMSException("Unable to enlist session with transaction: " + name);
+            }
+            transaction.registerSynchronization(new CheckInSynchronization(session, transaction));
+            session.setTransaction(transaction);
+            enlisted.put(transaction, session);
+        } catch (SystemException | RollbackException e) {
+            JMSException exception = new JMSException("Error enlisting session with transaction: " + name);
+            exception.setLinkedException(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * Re-enlists a session that was delisted from the transaction when it was previously released.
+     *
+     * @param session     the session
+     * @param transaction the transaction the session is associated with
+     * @throws JMSException if the session is no longer valid or there is an error enlisting it
+     */
+    private void rejoin(PooledSession session, Transaction transaction) throws JMSException {
+        if (!session.isValid()) {
+            throw new JMSException("Session enlisted with the transaction is no longer valid: " + name);
+        }
+        try {
+            XAResource resource = ((XASession) session.getSession()).getXAResource();
+            if (!transaction.enlistResource(resource)) {
+                throw new JMSException("Unable to enlist session with transaction: " + name);
+            }
+        } catch (SystemException | RollbackException | IllegalStateException e) {
+            JMSException exception = new JMSException("Error enlisting session with transaction: " + name);
+            exception.setLinkedException(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * Holds a pool connection and tracks if the JMS provider has reported an error for it.
+     */
+    static class ConnectionHolder implements ExceptionListener {
+        private Connection connection;
+        private volatile boolean broken;
+
+        ConnectionHolder(Connection connection) {
+            this.connection = connection;
+        }
+
+        public void onException(JMSException exception) {
+            broken = true;
+        }
+
+        Connection getConnection() {
+            return connection;
+        }
+
+        boolean isBroken() {
+            return broken;
+        }
+
+        void close() {
+            broken = true;
+            JmsHelper.closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Returns a transacted session to the pool after the transaction it is enlisted in completes.
+     */
+    private class CheckInSynchronization implements Synchronization {
+        private PooledSession session;
+        private Transaction transaction;
+
+        public CheckInSynchronization(PooledSession session, Transaction transaction) {
+            this.session = session;
+            this.transaction = transaction;
+        }
+
+        public void beforeCompletion() {
+        }
+
+        public void afterCompletion(int status) {
+            enlisted.remove(transaction);
+            checkIn(session);
+        }
+    }
+
+}
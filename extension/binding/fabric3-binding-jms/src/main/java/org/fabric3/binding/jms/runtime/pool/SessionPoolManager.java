@@ -0,0 +1,51 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.pool;
+
+import javax.jms.ConnectionFactory;
+
+import org.fabric3.api.binding.jms.model.ConnectionFactoryDefinition;
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ * Manages {@link SessionPool}s used to send messages to a JMS provider. Pools are shared by all wires and channel connections that use the same connection
+ * factory instance.
+ */
+public interface SessionPoolManager {
+
+    /**
+     * Returns the session pool for the connection factory, creating one if it does not exist. Each call must be matched by a call to {@link
+     * #release(SessionPool)}.
+     *
+     * @param definition the connection factory definition
+     * @param factory    the resolved connection factory
+     * @return the session pool
+     * @throws Fabric3Exception if there is an error creating the pool
+     */
+    SessionPool getPool(ConnectionFactoryDefinition definition, ConnectionFactory factory) throws Fabric3Exception;
+
+    /**
+     * Releases a session pool returned from {@link #getPool(ConnectionFactoryDefinition, ConnectionFactory)}. The pool is closed when it is no longer in use.
+     *
+     * @param pool the session pool
+     */
+    void release(SessionPool pool);
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.pool;
+
+import javax.jms.ConnectionFactory;
+import javax.transaction.TransactionManager;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.fabric3.api.annotation.Source;
+import org.fabric3.api.binding.jms.model.ConnectionFactoryDefinition;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.spi.management.ManagementService;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.Property;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Default {@link SessionPoolManager} implementation. Pools are keyed by connection factory instance and reference counted so that they are closed when the
+ * last wire or channel connection using them is detached. Each pool is exported to the management service under the connection factory name; pools for
+ * unnamed factories are assigned a generated name.
+ */
+public class SessionPoolManagerImpl implements SessionPoolManager {
+    private static final String UNNAMED_PREFIX = "unnamed-";
+
+    private TransactionManager tm;
+    private ManagementService managementService;
+
+    private int maxSize = 10;
+    private int connections = 1;
+    private long borrowTimeout = 10000;
+
+    private Map<ConnectionFactory, PoolHolder> pools = new IdentityHashMap<>();
+    private int unnamedCount;
+
+    public SessionPoolManagerImpl(@Reference TransactionManager tm, @Reference ManagementService managementService) {
+        this.tm = tm;
+        this.managementService = managementService;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig//f3:jms/session.pool/@size")
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig//f3:jms/session.pool/@connections")
+    public void setConnections(int connections) {
+        this.connections = connections;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig//f3:jms/session.pool/@borrow.timeout")
+    public void setBorrowTimeout(long borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    @Destroy
+    public synchronized void destroy() {
+        for (PoolHolder holder : pools.values()) {
+            holder.pool.close();
+            managementService.remove(encodeName(holder.name), "JMS/session pools");
+        }
+        pools.clear();
+    }
+
+    public synchronized SessionPool getPool(ConnectionFactoryDefinition definition, ConnectionFactory factory) throws Fabric3Exception {
+        PoolHolder holder = pools.get(factory);
+        if (holder == null) {
+            String name = getName(definition);
+            SessionPool pool = new SessionPool(name, factory, tm, maxSize, connections, borrowTimeout);
+            holder = new PoolHolder(name, pool);
+            pools.put(factory, holder);
+            managementService.export(encodeName(name), "JMS/session pools", "JMS session pool", pool);
+        }
+        holder.count++;
+        return holder.pool;
+    }
+
+    public synchronized void release(SessionPool pool) {
+        for (Map.Entry<ConnectionFactory, PoolHolder> entry : pools.entrySet()) {
+            PoolHolder holder = entry.getValue();
+            if (holder.pool != pool) {
+                continue;
+            }
+            holder.count--;
+            if (holder.count <= 0) {
+                pools.remove(entry.getKey());
+                holder.pool.close();
+                managementService.remove(encodeName(holder.name), "JMS/session pools");
+            }
+            return;
+        }
+    }
+
+    private String getName(ConnectionFactoryDefinition definition) {
+        String name = definition.getName();
+        return name == null ? UNNAMED_PREFIX + (++unnamedCount) : name;
+    }
+
+    private String encodeName(String name) {
+        return "transports/jms/sessionpools/" + name.toLowerCase();
+    }
+
+    private static class PoolHolder {
+        private String name;
+        private SessionPool pool;
+        private int count;
+
+        private PoolHolder(String name, SessionPool pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+
+}
@@ -19,7 +19,6 @@
  */
 package org.fabric3.binding.jms.runtime.wire;
 
-import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
 import javax.jms.Destination;
@@ -28,6 +27,7 @@ import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
+import javax.transaction.InvalidTransactionException;
 import javax.transaction.NotSupportedException;
 import javax.transaction.RollbackException;
 import javax.transaction.Status;
@@ -40,8 +40,9 @@ import java.util.Map;
 import java.util.UUID;
 
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
-import org.fabric3.binding.jms.runtime.common.JmsHelper;
 import org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants;
+import org.fabric3.binding.jms.runtime.pool.PooledSession;
+import org.fabric3.binding.jms.runtime.pool.SessionPool;
 import org.fabric3.binding.jms.spi.provision.OperationPayloadTypes;
 import org.fabric3.binding.jms.spi.provision.SessionType;
 import org.fabric3.spi.container.binding.BindingHandler;
@@ -66,6 +67,7 @@ public class JmsInterceptor implements Interceptor {
     private Destination callbackDestination;
     private String callbackUri;
     private ConnectionFactory connectionFactory;
+    private SessionPool sessionPool;
     private CorrelationScheme correlationScheme;
     private ResponseListener responseListener;
     private ClassLoader classLoader;
@@ -93,6 +95,7 @@ public class JmsInterceptor implements Interceptor {
         this.callbackDestination = wireConfig.getCallbackDestination();
         this.callbackUri = wireConfig.getCallbackUri();
         this.connectionFactory = wireConfig.getRequestConnectionFactory();
+        this.sessionPool = wireConfig.getSessionPool();
         this.correlationScheme = wireConfig.getCorrelationScheme();
         this.classLoader = wireConfig.getClassloader();
         this.responseListener = wireConfig.getResponseListener();
@@ -113,18 +116,16 @@ public class JmsInterceptor implements Interceptor {
     }
 
     public Message invoke(Message message) {
-        Connection connection = null;
-        Session session = null;
+        PooledSession pooledSession = null;
+        boolean invalid = false;
+        boolean begun = false;
+        Transaction suspended = null;
         ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
         try {
             // set the context classloader to the one that loaded the connection factory implementation.
             // this is required by some JMS providers
             Thread.currentThread().setContextClassLoader(connectionFactory.getClass().getClassLoader());
-            connection = connectionFactory.createConnection();
-            connection.start();
             int status = tm.getStatus();
-            Transaction suspended = null;
-            boolean begun = false;
             if (Status.STATUS_NO_TRANSACTION == status && SessionType.GLOBAL_TRANSACTED == sessionType) {
                 tm.begin();
                 begun = true;
@@ -132,27 +133,24 @@ public class JmsInterceptor implements Interceptor {
                 suspended = tm.suspend();
             }
 
-            if (SessionType.GLOBAL_TRANSACTED == sessionType) {
-                session = connection.createSession(true, Session.SESSION_TRANSACTED);
-            } else {
-                session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            }
-
-            MessageProducer producer = session.createProducer(destination);
+            // the session must be borrowed after the transaction is begun so that it is enlisted
+            pooledSession = sessionPool.borrow(SessionType.GLOBAL_TRANSACTED == sessionType);
+            Session session = pooledSession.getSession();
 
+            // producers are cached with the session and shared by interceptors, so the delivery options must be set for each send
+            MessageProducer producer = pooledSession.getProducer(destination);
             if (!persistent || DeliveryMode.NON_PERSISTENT == deliveryMode) {
                 producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+            } else {
+                producer.setDeliveryMode(DeliveryMode.PERSISTENT);
             }
-
-            if (timeToLive >= 0) {
-                producer.setTimeToLive(timeToLive);
-            }
+            producer.setTimeToLive(timeToLive >= 0 ? timeToLive : javax.jms.Message.DEFAULT_TIME_TO_LIVE);
 
             javax.jms.Message jmsMessage = createMessage(message, session);
             setHeaders(jmsMessage);
             String correlationId = null;
             if (correlationScheme == CorrelationScheme.CORRELATION_ID) {
-                correlationId = UUID.randomUUID().toString();
+                correlationId = oneWay ? UUID.randomUUID().toString() : responseListener.createCorrelationId();
                 jmsMessage.setJMSCorrelationID(correlationId);
             }
 
@@ -168,36 +166,48 @@ public class JmsInterceptor implements Interceptor {
                 correlationId = jmsMessage.getJMSMessageID();
             }
 
+            Message response;
             if (!oneWay) {
                 // request-response, block on response
-                Message resp = receive(correlationId, session, message);
-                if (begun) {
-                    tm.commit();
-                }
-                if (suspended != null) {
-                    tm.resume(suspended);
-                }
-                return resp;
+                response = receive(correlationId, session, message);
             } else {
-                if (begun) {
-                    tm.commit();
-                }
-                if (suspended != null) {
-                    tm.resume(suspended);
-                }
                 // one-way invocation, return an empty message
-                return ONE_WAY_RESPONSE;
+                response = ONE_WAY_RESPONSE;
             }
 
-        } catch (JMSException | JmsBadMessageException e) {
+            // release the session before completing the transaction so that it is delisted
+            sessionPool.release(pooledSession, false);
+            pooledSession = null;
+            if (begun) {
+                begun = false;
+                tm.commit();
+            }
+            if (suspended != null) {
+                Transaction transaction = suspended;
+                suspended = null;
+                tm.resume(transaction);
+            }
+            return response;
+        } catch (JMSException e) {
+            invalid = true;
+            throw new ServiceRuntimeException("Unable to receive response", e);
+        } catch (JmsBadMessageException e) {
             throw new ServiceRuntimeException("Unable to receive response", e);
+        } catch (SystemException | RollbackException | HeuristicRollbackException | HeuristicMixedException | NotSupportedException
+                | InvalidTransactionException e) {
+            throw new ServiceRuntimeException(e);
         } catch (IOException e) {
             throw new ServiceRuntimeException("Error serializing callback references", e);
-        } catch (SystemException | RollbackException | HeuristicRollbackException | HeuristicMixedException | NotSupportedException e) {
-            throw new ServiceRuntimeException(e);
         } finally {
-            JmsHelper.closeQuietly(session);
-            JmsHelper.closeQuietly(connection);
+            if (pooledSession != null) {
+                sessionPool.release(pooledSession, invalid);
+            }
+            if (begun) {
+                rollbackQuietly();
+            }
+            if (suspended != null) {
+                resumeQuietly(suspended);
+            }
             Thread.currentThread().setContextClassLoader(oldCl);
         }
     }
@@ -328,6 +338,22 @@ public class JmsInterceptor implements Interceptor {
         jmsMessage.setObjectProperty(JmsRuntimeConstants.CONTEXT_HEADER, CallbackReferenceSerializer.serializeToString(stack));
     }
 
+    private void rollbackQuietly() {
+        try {
+            tm.rollback();
+        } catch (SystemException | IllegalStateException | SecurityException e) {
+            // ignore
+        }
+    }
+
+    private void resumeQuietly(Transaction transaction) {
+        try {
+            tm.resume(transaction);
+        } catch (SystemException | InvalidTransactionException | IllegalStateException e) {
+            // ignore
+        }
+    }
+
     private void applyHandlers(Message message, javax.jms.Message jmsMessage) {
         if (handlers != null) {
             for (BindingHandler<javax.jms.Message> handler : handlers) {
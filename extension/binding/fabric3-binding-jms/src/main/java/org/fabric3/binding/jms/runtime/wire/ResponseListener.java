@@ -19,31 +19,116 @@
  */
 package org.fabric3.binding.jms.runtime.wire;
 
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
+import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
 import javax.jms.Session;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
+import org.fabric3.binding.jms.runtime.common.JmsHelper;
 import org.oasisopen.sca.ServiceRuntimeException;
 
 /**
- * MessageListener that blocks for responses from a service provider. This listener is attached to the reference side of a wire.
+ * Receives responses from a service provider. This listener is attached to the reference side of a wire.
+ *
+ * If responses can be isolated to the listener, a single long-lived consumer dispatches them to waiting callers using a map of pending responses keyed by
+ * correlation id. This is the case when responses are received on a temporary queue created by the listener, or when the {@link
+ * CorrelationScheme#CORRELATION_ID} scheme is used, in which case correlation ids are generated with a prefix unique to the listener that the consumer selects
+ * on. Otherwise, a consumer with a selector for the correlation id is created for each response.
  */
-public class ResponseListener {
-    private Destination destination;
+public class ResponseListener implements MessageListener, ExceptionListener {
+    private static final long MIN_PURGE_INTERVAL = 1000;
+
+    private volatile Destination destination;
+    private ConnectionFactory factory;
     private CorrelationScheme scheme;
+    private boolean temporary;
+    private boolean shared;
+    private long purgeAge;
+
+    private String prefix;
+    private AtomicLong counter = new AtomicLong();
+    private Map<String, PendingResponse> pending = new ConcurrentHashMap<>();
+    private volatile long lastPurge;
+
+    private Connection connection;
+    private volatile boolean started;
 
     /**
      * Constructor.
      *
-     * @param destination the response destination
+     * @param destination the response destination or null if responses are received on a temporary queue
+     * @param factory     the response connection factory
      * @param scheme      the correlation scheme
+     * @param timeout     the response timeout in milliseconds
      */
-    public ResponseListener(Destination destination, CorrelationScheme scheme) {
+    public ResponseListener(Destination destination, ConnectionFactory factory, CorrelationScheme scheme, long timeout) {
         this.destination = destination;
+        this.factory = factory;
         this.scheme = scheme;
+        this.temporary = destination == null;
+        this.shared = temporary || CorrelationScheme.CORRELATION_ID == scheme;
+        // unclaimed responses are retained for at least the response timeout in case they arrive before the caller waits on them
+        this.purgeAge = Math.max(timeout, MIN_PURGE_INTERVAL);
+        this.prefix = UUID.randomUUID().toString() + "-";
+    }
+
+    /**
+     * Starts the shared response consumer if responses can be isolated to this listener.
+     *
+     * @throws JMSException if there is an error starting the consumer
+     */
+    public synchronized void start() throws JMSException {
+        if (!shared || started) {
+            return;
+        }
+        ClassLoader old = Thread.currentThread().getContextClassLoader();
+        try {
+            // set the context classloader to the one that loaded the connection factory implementation as required by some JMS providers
+            Thread.currentThread().setContextClassLoader(factory.getClass().getClassLoader());
+            connection = factory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            if (temporary) {
+                destination = session.createTemporaryQueue();
+            }
+            MessageConsumer consumer;
+            if (temporary) {
+                consumer = session.createConsumer(destination);
+            } else {
+                consumer = session.createConsumer(destination, "JMSCorrelationID LIKE '" + prefix + "%'");
+            }
+            consumer.setMessageListener(this);
+            connection.setExceptionListener(this);
+            connection.start();
+            started = true;
+        } catch (JMSException e) {
+            JmsHelper.closeQuietly(connection);
+            connection = null;
+            throw e;
+        } finally {
+            Thread.currentThread().setContextClassLoader(old);
+        }
+    }
+
+    /**
+     * Stops the shared response consumer.
+     */
+    public synchronized void stop() {
+        started = false;
+        JmsHelper.closeQuietly(connection);
+        connection = null;
     }
 
     /**
@@ -55,17 +140,82 @@ public class ResponseListener {
         return destination;
     }
 
+    /**
+     * Returns a correlation id for a request when the {@link CorrelationScheme#CORRELATION_ID} scheme is used.
+     *
+     * @return the correlation id
+     */
+    public String createCorrelationId() {
+        if (shared) {
+            return prefix + counter.incrementAndGet();
+        }
+        return UUID.randomUUID().toString();
+    }
+
     /**
      * Performs a blocking receive, i.e. control will not be returned to application code until a response is received.
      *
      * @param correlationId Correlation id
-     * @param session       the session to use for processing
+     * @param session       the session to use for processing if responses are not dispatched by the shared consumer
      * @param timeout       the receive timeout
      * @return the received message or null if the operation timed out.
      */
     public Message receive(String correlationId, Session session, long timeout) {
+        if (!shared) {
+            return receiveWithSelector(correlationId, session, timeout);
+        }
+        // the response may have already been received if it arrived before this call
+        PendingResponse response = pending.computeIfAbsent(correlationId, k -> new PendingResponse());
+        try {
+            return response.await(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceRuntimeException("Interrupted waiting for response for message with correlation id: " + correlationId);
+        } finally {
+            pending.remove(correlationId);
+        }
+    }
+
+    public void onMessage(Message message) {
+        String correlationId;
+        try {
+            correlationId = message.getJMSCorrelationID();
+        } catch (JMSException e) {
+            return;
+        }
+        if (correlationId == null) {
+            return;
+        }
+        PendingResponse response = pending.computeIfAbsent(correlationId, k -> new PendingResponse());
+        response.complete(message);
+        purge();
+    }
+
+    public void onException(JMSException exception) {
+        if (!started) {
+            return;
+        }
+        // the connection has failed, re-create it and any temporary queue. Callers waiting on responses sent to the previous queue will time out.
+        stop();
+        try {
+            start();
+        } catch (JMSException e) {
+            // the listener will remain stopped and callers will time out
+        }
+    }
+
+    /**
+     * Returns the number of responses callers are waiting on or that have not yet been claimed.
+     *
+     * @return the number of pending responses
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private Message receiveWithSelector(String correlationId, Session session, long timeout) {
+        MessageConsumer consumer = null;
         try {
-            MessageConsumer consumer;
             if (CorrelationScheme.MESSAGE_ID == scheme || CorrelationScheme.CORRELATION_ID == scheme) {
                 String selector = "JMSCorrelationID = '" + correlationId + "'";
                 consumer = session.createConsumer(destination, selector);
@@ -76,8 +226,54 @@ public class ResponseListener {
         } catch (JMSException e) {
             // bubble exception to the client
             throw new ServiceRuntimeException("Unable to receive response for message with correlation id: " + correlationId, e);
+        } finally {
+            // the session may be pooled, close the consumer so it does not remain attached to the session
+            JmsHelper.closeQuietly(consumer);
+        }
+    }
+
+    /**
+     * Removes responses that were not claimed by a caller, for example because the caller timed out before the response arrived.
+     */
+    private void purge() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < MIN_PURGE_INTERVAL) {
+            return;
         }
+        lastPurge = now;
+        for (Iterator<PendingResponse> iterator = pending.values().iterator(); iterator.hasNext(); ) {
+            PendingResponse response = iterator.next();
+            if (response.isCompleted() && now - response.created > purgeAge) {
+                iterator.remove();
+            }
+        }
+    }
 
+    /**
+     * A response that is waited on by a caller or has been received and not yet claimed.
+     */
+    private static class PendingResponse {
+        private CountDownLatch latch = new CountDownLatch(1);
+        private long created = System.currentTimeMillis();
+        private volatile Message message;
+
+        public void complete(Message message) {
+            this.message = message;
+            latch.countDown();
+        }
+
+        public boolean isCompleted() {
+            return latch.getCount() == 0;
+        }
+
+        public Message await(long timeout) throws InterruptedException {
+            if (timeout <= 0) {
+                latch.await();
+            } else {
+                latch.await(timeout, TimeUnit.MILLISECONDS);
+            }
+            return message;
+        }
     }
 
 }
@@ -23,6 +23,7 @@ import javax.jms.Destination;
 import javax.transaction.TransactionManager;
 
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
+import org.fabric3.binding.jms.runtime.pool.SessionPool;
 import org.fabric3.binding.jms.spi.provision.SessionType;
 
 /**
@@ -31,6 +32,7 @@ import org.fabric3.binding.jms.spi.provision.SessionType;
 public class WireConfiguration {
     private CorrelationScheme correlationScheme;
     private ConnectionFactory requestConnectionFactory;
+    private SessionPool sessionPool;
     private Destination requestDestination;
     private Destination callbackDestination;
     private ClassLoader classloader;
@@ -81,6 +83,14 @@ public class WireConfiguration {
         this.requestConnectionFactory = requestConnectionFactory;
     }
 
+    public SessionPool getSessionPool() {
+        return sessionPool;
+    }
+
+    public void setSessionPool(SessionPool sessionPool) {
+        this.sessionPool = sessionPool;
+    }
+
     public ClassLoader getClassloader() {
         return classloader;
     }
@@ -29,6 +29,7 @@ import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.fabric3.api.binding.jms.model.ActivationSpec;
 import org.fabric3.api.binding.jms.model.ConnectionFactoryDefinition;
+import org.fabric3.api.binding.jms.model.ConsumerMode;
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
 import org.fabric3.api.binding.jms.model.CreateOption;
 import org.fabric3.api.binding.jms.model.DeliveryMode;
@@ -83,6 +84,11 @@ public class JMSBindingLoaderTestCase extends TestCase {
                                                   "   </response>" +
                                                   "</binding.jms>";
 
+    private static final String TEMPORARY_RESPONSE = "   <binding.jms correlationScheme='correlationID'>" +
+                                                     "      <destination jndiName='serviceQueue'/>" +
+                                                     "      <response temporary='true'/>" +
+                                                     "   </binding.jms>";
+
     private static final String MESSAGE_SELECTION = "   <binding.jms>" +
                                                     "   <messageSelection selector='select'>" +
                                                     "      <property name='prop1'>val</property>" +
@@ -96,6 +102,18 @@ public class JMSBindingLoaderTestCase extends TestCase {
                                                   "         <f3:handler target=\"SomeHandler\" xmlns:f3=\"urn:fabric3.org\" />" +
                                                   "</binding.jms>";
 
+    private static final String BATCH = "   <binding.jms batch.size='50' batch.timeout='20'>" +
+                                        "      <destination jndiName='serviceQueue'/>" +
+                                        "   </binding.jms>";
+
+    private static final String CONSUMER = "   <binding.jms consumer='listener'>" +
+                                           "      <destination jndiName='serviceQueue'/>" +
+                                           "   </binding.jms>";
+
+    private static final String INVALID_CONSUMER = "   <binding.jms consumer='push'>" +
+                                                   "      <destination jndiName='serviceQueue'/>" +
+                                                   "   </binding.jms>";
+
     private XMLInputFactory factory;
     private JmsBindingLoader loader;
     private IntrospectionContext context;
@@ -166,6 +184,47 @@ public class JMSBindingLoaderTestCase extends TestCase {
         assertEquals("val", responseSpec.getProperties().get("prop1"));
     }
 
+    public void testTemporaryResponseParse() throws Exception {
+        XMLStreamReader streamReader = factory.createXMLStreamReader(new ByteArrayInputStream(TEMPORARY_RESPONSE.getBytes()));
+        streamReader.nextTag();
+
+        JmsBinding binding = loader.load(streamReader, context);
+        JmsBindingMetadata metadata = binding.getJmsMetadata();
+        assertTrue(metadata.getResponse().isTemporary());
+        assertNull(metadata.getResponseDestination());
+        assertFalse(context.hasErrors());
+    }
+
+    public void testBatchParse() throws Exception {
+        XMLStreamReader streamReader = factory.createXMLStreamReader(new ByteArrayInputStream(BATCH.getBytes()));
+        streamReader.nextTag();
+
+        JmsBinding binding = loader.load(streamReader, context);
+        JmsBindingMetadata metadata = binding.getJmsMetadata();
+        assertEquals(50, metadata.getBatchSize());
+        assertEquals(20, metadata.getBatchTimeout());
+        assertFalse(context.hasErrors());
+    }
+
+    public void testConsumerModeParse() throws Exception {
+        XMLStreamReader streamReader = factory.createXMLStreamReader(new ByteArrayInputStream(CONSUMER.getBytes()));
+        streamReader.nextTag();
+
+        JmsBinding binding = loader.load(streamReader, context);
+        JmsBindingMetadata metadata = binding.getJmsMetadata();
+        assertEquals(ConsumerMode.LISTENER, metadata.getConsumerMode());
+        assertFalse(context.hasErrors());
+    }
+
+    public void testInvalidConsumerModeParse() throws Exception {
+        XMLStreamReader streamReader = factory.createXMLStreamReader(new ByteArrayInputStream(INVALID_CONSUMER.getBytes()));
+        streamReader.nextTag();
+
+        JmsBinding binding = loader.load(streamReader, context);
+        assertEquals(ConsumerMode.POLLING, binding.getJmsMetadata().getConsumerMode());
+        assertTrue(context.hasErrors());
+    }
+
     public void testMessageSelectionParse() throws Exception {
         XMLStreamReader streamReader = factory.createXMLStreamReader(new ByteArrayInputStream(MESSAGE_SELECTION.getBytes()));
         streamReader.nextTag();
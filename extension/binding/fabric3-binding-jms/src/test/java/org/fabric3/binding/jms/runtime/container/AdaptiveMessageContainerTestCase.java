@@ -0,0 +1,154 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.container;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+
+import junit.framework.TestCase;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.jms.model.DestinationType;
+import org.fabric3.binding.jms.spi.provision.SessionType;
+
+/**
+ *
+ */
+public class AdaptiveMessageContainerTestCase extends TestCase {
+    private ConnectionFactory factory;
+    private Connection connection;
+    private Session session;
+    private MessageConsumer consumer;
+    private Destination destination;
+    private MessageListener listener;
+    private UnitOfWork work;
+    private ExecutorService executorService;
+    private ContainerStatistics statistics;
+
+    public void testCommitBatchOnce() throws Exception {
+        Message message1 = EasyMock.createMock(Message.class);
+        Message message2 = EasyMock.createMock(Message.class);
+        Message message3 = EasyMock.createMock(Message.class);
+        EasyMock.expect(consumer.receive(EasyMock.anyLong())).andReturn(message1).andReturn(message2).andReturn(message3);
+
+        listener.onMessage(message1);
+        listener.onMessage(message2);
+        listener.onMessage(message3);
+
+        work.begin();
+        work.end(session, message3);
+
+        Runnable receiver = startContainer();
+        EasyMock.replay(listener, work, consumer);
+        receiver.run();
+        EasyMock.verify(listener, work, consumer);
+
+        assertEquals(3, statistics.getMessagesReceived());
+        assertEquals(1, statistics.getBatches());
+        assertEquals(3, statistics.getBatchedMessages());
+        assertEquals(0, statistics.getBatchesRolledBack());
+    }
+
+    public void testRollbackBatchOnError() throws Exception {
+        Message message1 = EasyMock.createMock(Message.class);
+        Message message2 = EasyMock.createMock(Message.class);
+        EasyMock.expect(consumer.receive(EasyMock.anyLong())).andReturn(message1).andReturn(message2);
+
+        listener.onMessage(message1);
+        listener.onMessage(message2);
+        EasyMock.expectLastCall().andThrow(new RuntimeException("test"));
+
+        work.begin();
+        work.rollback(session);
+
+        Runnable receiver = startContainer();
+        EasyMock.replay(listener, work, consumer);
+        receiver.run();
+        EasyMock.verify(listener, work, consumer);
+
+        assertEquals(0, statistics.getMessagesReceived());
+        assertEquals(0, statistics.getBatches());
+        assertEquals(1, statistics.getBatchesRolledBack());
+    }
+
+    /**
+     * Initializes a container with a batch size of three and returns the scheduled receiver.
+     *
+     * @return the receiver
+     * @throws Exception if there is an initialization error
+     */
+    private Runnable startContainer() throws Exception {
+        ContainerConfiguration configuration = new ContainerConfiguration();
+        configuration.setUri(URI.create("container"));
+        configuration.setDestination(destination);
+        configuration.setDestinationType(DestinationType.QUEUE);
+        configuration.setSessionType(SessionType.LOCAL_TRANSACTED);
+        configuration.setMessageListener(listener);
+        configuration.setMaxMessagesToProcess(1);
+        configuration.setBatchSize(3);
+        configuration.setBatchTimeout(10000);
+
+        MessageContainerMonitor monitor = EasyMock.createNiceMock(MessageContainerMonitor.class);
+        ConnectionManager connectionManager = new ConnectionManager(factory, URI.create("container"), false, false, monitor);
+
+        Capture<Runnable> capture = new Capture<>();
+        executorService.execute(EasyMock.capture(capture));
+        EasyMock.expectLastCall().anyTimes();
+
+        EasyMock.expect(factory.createConnection()).andReturn(connection);
+        EasyMock.expect(connection.createSession(true, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.expect(session.createConsumer(destination, null)).andReturn(consumer);
+        EasyMock.replay(factory, connection, session, destination, executorService, monitor);
+
+        AdaptiveMessageContainer container = new AdaptiveMessageContainer(configuration,
+                                                                          1000,
+                                                                          connectionManager,
+                                                                          work,
+                                                                          statistics,
+                                                                          executorService,
+                                                                          false,
+                                                                          monitor);
+        container.initialize();
+        return capture.getValue();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        factory = EasyMock.createMock(ConnectionFactory.class);
+        connection = EasyMock.createNiceMock(Connection.class);
+        session = EasyMock.createNiceMock(Session.class);
+        consumer = EasyMock.createMock(MessageConsumer.class);
+        consumer.close();
+        EasyMock.expectLastCall().anyTimes();
+        destination = EasyMock.createMock(Destination.class);
+        listener = EasyMock.createMock(MessageListener.class);
+        work = EasyMock.createMock(UnitOfWork.class);
+        executorService = EasyMock.createMock(ExecutorService.class);
+        statistics = new ContainerStatistics();
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.container;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.jms.model.DestinationType;
+import org.fabric3.binding.jms.spi.provision.SessionType;
+
+/**
+ *
+ */
+public class ListenerMessageContainerTestCase extends TestCase {
+    private static final URI CONTAINER_URI = URI.create("container");
+
+    private ConnectionFactory factory;
+    private Connection connection;
+    private Session session;
+    private MessageConsumer consumer;
+    private Destination destination;
+    private Message message;
+    private MessageListener listener;
+    private ExceptionListener exceptionListener;
+    private MessageContainerMonitor monitor;
+    private ContainerStatistics statistics;
+    private Capture<MessageListener> sessionListeners;
+
+    public void testAutoAckEnd() throws Exception {
+        UnitOfWork work = EasyMock.createMock(UnitOfWork.class);
+        work.begin();
+        work.end(session, message);
+        listener.onMessage(message);
+
+        ListenerMessageContainer container = createContainer(SessionType.AUTO_ACKNOWLEDGE, 1, work, createDirectExecutor());
+        EasyMock.replay(work, listener);
+        container.initialize();
+        sessionListeners.getValue().onMessage(message);
+        EasyMock.verify(work, listener);
+
+        assertEquals(1, statistics.getMessagesReceived());
+    }
+
+    public void testAutoAckRollback() throws Exception {
+        UnitOfWork work = EasyMock.createMock(UnitOfWork.class);
+        work.begin();
+        work.rollback(session);
+        listener.onMessage(message);
+        EasyMock.expectLastCall().andThrow(new RuntimeException("test"));
+
+        ListenerMessageContainer container = createContainer(SessionType.AUTO_ACKNOWLEDGE, 1, work, createDirectExecutor());
+        EasyMock.replay(work, listener);
+        container.initialize();
+        sessionListeners.getValue().onMessage(message);
+        EasyMock.verify(work, listener);
+
+        assertEquals(0, statistics.getMessagesReceived());
+    }
+
+    public void testClientAckAcknowledge() throws Exception {
+        message.acknowledge();
+        listener.onMessage(message);
+
+        ListenerMessageContainer container = createContainer(SessionType.CLIENT_ACKNOWLEDGE, 1, new ClientAckUnitOfWork(CONTAINER_URI), createDirectExecutor());
+        EasyMock.replay(message, listener);
+        container.initialize();
+        sessionListeners.getValue().onMessage(message);
+        EasyMock.verify(session, message, listener);
+    }
+
+    public void testClientAckRecover() throws Exception {
+        session.recover();
+        listener.onMessage(message);
+        EasyMock.expectLastCall().andThrow(new RuntimeException("test"));
+
+        ListenerMessageContainer container = createContainer(SessionType.CLIENT_ACKNOWLEDGE, 1, new ClientAckUnitOfWork(CONTAINER_URI), createDirectExecutor());
+        EasyMock.replay(message, listener);
+        container.initialize();
+        sessionListeners.getValue().onMessage(message);
+        EasyMock.verify(session, message, listener);
+    }
+
+    public void testLocalTransactionCommit() throws Exception {
+        session.commit();
+        listener.onMessage(message);
+
+        UnitOfWork work = new LocalTransactionUnitOfWork(CONTAINER_URI, statistics);
+        ListenerMessageContainer container = createContainer(SessionType.LOCAL_TRANSACTED, 1, work, createDirectExecutor());
+        EasyMock.replay(message, listener);
+        container.initialize();
+        sessionListeners.getValue().onMessage(message);
+        EasyMock.verify(session, message, listener);
+
+        assertEquals(1, statistics.getTransactions());
+        assertEquals(0, statistics.getTransactionsRolledBack());
+    }
+
+    public void testLocalTransactionRollback() throws Exception {
+        session.rollback();
+        listener.onMessage(message);
+        EasyMock.expectLastCall().andThrow(new RuntimeException("test"));
+
+        UnitOfWork work = new LocalTransactionUnitOfWork(CONTAINER_URI, statistics);
+        ListenerMessageContainer container = createContainer(SessionType.LOCAL_TRANSACTED, 1, work, createDirectExecutor());
+        EasyMock.replay(message, listener);
+        container.initialize();
+        sessionListeners.getValue().onMessage(message);
+        EasyMock.verify(session, message, listener);
+
+        assertEquals(0, statistics.getTransactions());
+        assertEquals(1, statistics.getTransactionsRolledBack());
+    }
+
+    public void testConcurrentDispatchBounded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger dispatched = new AtomicInteger();
+        listener = msg -> {
+            dispatched.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        try {
+            ListenerMessageContainer container = createContainer(SessionType.AUTO_ACKNOWLEDGE, 2, new AutoAckUnitOfWork(), executorService);
+            container.initialize();
+            assertEquals(2, container.getSessionCount());
+
+            // auto-acknowledged messages are handed off without blocking the delivery thread until the limit is reached
+            MessageListener sessionListener = sessionListeners.getValues().get(0);
+            sessionListener.onMessage(message);
+            sessionListener.onMessage(message);
+            assertEquals(2, container.getActiveCount());
+
+            CountDownLatch delivered = new CountDownLatch(1);
+            Thread delivery = new Thread(() -> {
+                sessionListeners.getValues().get(1).onMessage(message);
+                delivered.countDown();
+            });
+            delivery.start();
+            assertFalse(delivered.await(100, TimeUnit.MILLISECONDS));
+            assertEquals(2, container.getActiveCount());
+
+            release.countDown();
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            container.shutdown();
+            assertEquals(3, dispatched.get());
+            assertEquals(0, container.getActiveCount());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public void testDispatchOnDeliveryThreadWhenRejected() throws Exception {
+        message.acknowledge();
+        listener.onMessage(message);
+
+        ExecutorService executorService = EasyMock.createMock(ExecutorService.class);
+        executorService.execute(EasyMock.isA(Runnable.class));
+        EasyMock.expectLastCall().andThrow(new RejectedExecutionException());
+        monitor.reject(EasyMock.isA(RejectedExecutionException.class));
+
+        ListenerMessageContainer container = createContainer(SessionType.CLIENT_ACKNOWLEDGE, 1, new ClientAckUnitOfWork(CONTAINER_URI), executorService);
+        EasyMock.replay(message, listener, executorService);
+        container.initialize();
+        sessionListeners.getValue().onMessage(message);
+        EasyMock.verify(session, message, listener, executorService, monitor);
+
+        assertEquals(0, container.getActiveCount());
+    }
+
+    public void testReregisterListenerOnConnectionFailure() throws Exception {
+        Capture<ExceptionListener> connectionListener = new Capture<>();
+        connection.setExceptionListener(EasyMock.capture(connectionListener));
+        connection.close();
+
+        Connection recovered = EasyMock.createNiceMock(Connection.class);
+        EasyMock.expect(recovered.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        recovered.start();
+        EasyMock.expectLastCall().atLeastOnce();
+        EasyMock.expect(factory.createConnection()).andReturn(recovered);
+
+        exceptionListener = EasyMock.createMock(ExceptionListener.class);
+        JMSException exception = new JMSException("test");
+        exceptionListener.onException(exception);
+        monitor.listenerError(CONTAINER_URI.toString(), exception);
+
+        Capture<Runnable> recovery = new Capture<>();
+        ExecutorService executorService = EasyMock.createMock(ExecutorService.class);
+        executorService.execute(EasyMock.capture(recovery));
+
+        ListenerMessageContainer container = createContainer(SessionType.AUTO_ACKNOWLEDGE, 1, new AutoAckUnitOfWork(), executorService);
+        EasyMock.replay(recovered, exceptionListener, executorService);
+
+        container.initialize();
+        assertEquals(1, sessionListeners.getValues().size());
+
+        connectionListener.getValue().onException(exception);
+        assertEquals(0, container.getSessionCount());
+
+        recovery.getValue().run();
+        assertEquals(1, container.getSessionCount());
+        assertEquals(2, sessionListeners.getValues().size());
+        EasyMock.verify(factory, connection, recovered, exceptionListener, executorService, monitor);
+
+        container.shutdown();
+    }
+
+    /**
+     * Creates a container listening on a queue. Expectations for the connection factory, connection, session and monitor must be recorded before the container
+     * is created.
+     *
+     * @param sessionType     the session type
+     * @param maxReceivers    the maximum number of concurrent dispatches
+     * @param work            the unit of work
+     * @param executorService the executor messages are dispatched on
+     * @return the container
+     * @throws Exception if there is an error creating the container
+     */
+    private ListenerMessageContainer createContainer(SessionType sessionType,
+                                                     int maxReceivers,
+                                                     UnitOfWork work,
+                                                     ExecutorService executorService) throws Exception {
+        ContainerConfiguration configuration = new ContainerConfiguration();
+        configuration.setUri(URI);
+        configuration.setDestination(destination);
+        configuration.setDestinationType(DestinationType.QUEUE);
+        configuration.setSessionType(sessionType);
+        configuration.setMessageListener(listener);
+        configuration.setExceptionListener(exceptionListener);
+        configuration.setMaxReceivers(maxReceivers);
+        configuration.setRecoveryInterval(1);
+
+        ConnectionManager connectionManager = new ConnectionManager(factory, CONTAINER_URI, false, false, monitor);
+
+        boolean transacted = SessionType.LOCAL_TRANSACTED == sessionType;
+        int acknowledgeMode = SessionType.CLIENT_ACKNOWLEDGE == sessionType ? Session.CLIENT_ACKNOWLEDGE : Session.AUTO_ACKNOWLEDGE;
+        EasyMock.expect(connection.createSession(transacted, acknowledgeMode)).andReturn(session).anyTimes();
+        EasyMock.expect(session.createConsumer(destination, null)).andReturn(consumer).anyTimes();
+        consumer.setMessageListener(EasyMock.capture(sessionListeners));
+        EasyMock.expectLastCall().anyTimes();
+        EasyMock.replay(factory, connection, session, consumer, destination, monitor);
+
+        return new ListenerMessageContainer(configuration, connectionManager, work, statistics, executorService, monitor);
+    }
+
+    /**
+     * Creates an executor that dispatches on the calling thread.
+     *
+     * @return the executor
+     */
+    private ExecutorService createDirectExecutor() {
+        ExecutorService executorService = EasyMock.createMock(ExecutorService.class);
+        executorService.execute(EasyMock.isA(Runnable.class));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            ((Runnable) EasyMock.getCurrentArguments()[0]).run();
+            return null;
+        }).anyTimes();
+        EasyMock.replay(executorService);
+        return executorService;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        connection = EasyMock.createNiceMock(Connection.class);
+        factory = EasyMock.createMock(ConnectionFactory.class);
+        EasyMock.expect(factory.createConnection()).andReturn(connection);
+        session = EasyMock.createMock(Session.class);
+        session.close();
+        EasyMock.expectLastCall().anyTimes();
+        consumer = EasyMock.createNiceMock(MessageConsumer.class);
+        destination = EasyMock.createMock(Destination.class);
+        message = EasyMock.createMock(Message.class);
+        listener = EasyMock.createMock(MessageListener.class);
+        monitor = EasyMock.createNiceMock(MessageContainerMonitor.class);
+        statistics = new ContainerStatistics();
+        sessionListeners = new Capture<>(CaptureType.ALL);
+    }
+}
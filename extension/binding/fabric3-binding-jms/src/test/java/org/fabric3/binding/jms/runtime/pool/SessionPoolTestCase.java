@@ -0,0 +1,209 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.pool;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.XAConnection;
+import javax.jms.XAConnectionFactory;
+import javax.jms.XASession;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.xa.XAResource;
+
+import junit.framework.TestCase;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+
+/**
+ *
+ */
+public class SessionPoolTestCase extends TestCase {
+    private ConnectionFactory factory;
+    private Connection connection;
+    private Session session;
+    private TransactionManager tm;
+
+    public void testReuseSessionAndProducer() throws Exception {
+        Destination destination = EasyMock.createMock(Destination.class);
+        MessageProducer producer = EasyMock.createMock(MessageProducer.class);
+
+        expectConnection();
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.expect(session.createProducer(destination)).andReturn(producer);
+        EasyMock.replay(factory, connection, session, producer, destination, tm);
+
+        SessionPool pool = new SessionPool("test", factory, tm, 2, 1, 100);
+        PooledSession pooled = pool.borrow(false);
+        assertSame(producer, pooled.getProducer(destination));
+        pool.release(pooled, false);
+
+        PooledSession reused = pool.borrow(false);
+        assertSame(pooled, reused);
+        assertSame(producer, reused.getProducer(destination));
+        pool.release(reused, false);
+
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+
+        EasyMock.verify(factory, connection, session, producer, destination, tm);
+    }
+
+    public void testDiscardInvalidSession() throws Exception {
+        Session session2 = EasyMock.createMock(Session.class);
+
+        expectConnection();
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session2);
+        session.close();
+        EasyMock.replay(factory, connection, session, session2, tm);
+
+        SessionPool pool = new SessionPool("test", factory, tm, 2, 1, 100);
+        PooledSession pooled = pool.borrow(false);
+        pool.release(pooled, true);
+
+        PooledSession created = pool.borrow(false);
+        assertNotSame(pooled, created);
+        assertSame(session2, created.getSession());
+        assertEquals(1, pool.getDiscarded());
+
+        EasyMock.verify(factory, connection, session, session2, tm);
+    }
+
+    public void testBorrowTimeout() throws Exception {
+        expectConnection();
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.replay(factory, connection, session, tm);
+
+        SessionPool pool = new SessionPool("test", factory, tm, 1, 1, 10);
+        pool.borrow(false);
+        try {
+            pool.borrow(false);
+            fail();
+        } catch (JMSException e) {
+            // expected
+        }
+        assertEquals(1, pool.getWaits());
+        assertEquals(1, pool.getTimeouts());
+
+        EasyMock.verify(factory, connection, session, tm);
+    }
+
+    public void testTransactedNonXANotPooled() throws Exception {
+        EasyMock.expect(factory.createConnection()).andReturn(connection);
+        connection.start();
+        EasyMock.expect(connection.createSession(true, Session.SESSION_TRANSACTED)).andReturn(session);
+        session.close();
+        connection.close();
+        EasyMock.replay(factory, connection, session, tm);
+
+        SessionPool pool = new SessionPool("test", factory, tm, 1, 1, 10);
+        PooledSession pooled = pool.borrow(true);
+        pool.release(pooled, false);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+
+        EasyMock.verify(factory, connection, session, tm);
+    }
+
+    public void testXASessionReusedInTransaction() throws Exception {
+        XAFactory xaFactory = EasyMock.createMock(XAFactory.class);
+        XAConnection xaConnection = EasyMock.createMock(XAConnection.class);
+        XASession xaSession = EasyMock.createMock(XASession.class);
+        XAResource resource = EasyMock.createMock(XAResource.class);
+        Transaction transaction = EasyMock.createMock(Transaction.class);
+
+        EasyMock.expect(xaFactory.createXAConnection()).andReturn(xaConnection);
+        xaConnection.setExceptionListener(EasyMock.isA(ExceptionListener.class));
+        xaConnection.start();
+        EasyMock.expect(xaConnection.createXASession()).andReturn(xaSession);
+        EasyMock.expect(xaSession.getXAResource()).andReturn(resource).anyTimes();
+        EasyMock.expect(tm.getTransaction()).andReturn(transaction).times(2);
+        EasyMock.expect(transaction.getStatus()).andReturn(Status.STATUS_ACTIVE).times(2);
+        EasyMock.expect(transaction.enlistResource(resource)).andReturn(true).times(2);
+        EasyMock.expect(transaction.delistResource(resource, XAResource.TMSUCCESS)).andReturn(true).times(2);
+        Capture<Synchronization> synchronization = new Capture<>();
+        transaction.registerSynchronization(EasyMock.capture(synchronization));
+        EasyMock.replay(xaFactory, xaConnection, xaSession, resource, transaction, tm);
+
+        SessionPool pool = new SessionPool("test", xaFactory, tm, 1, 1, 10);
+        PooledSession pooled = pool.borrow(true);
+        pool.release(pooled, false);
+
+        // the pool has a single session: the second borrow must return the enlisted session without waiting for a permit
+        assertSame(pooled, pool.borrow(true));
+        pool.release(pooled, false);
+        assertEquals(1, pool.getActiveCount());
+        assertEquals(0, pool.getWaits());
+
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+
+        EasyMock.verify(xaFactory, xaConnection, xaSession, resource, transaction, tm);
+    }
+
+    public void testCloseConnectionWhenStartFails() throws Exception {
+        EasyMock.expect(factory.createConnection()).andReturn(connection);
+        connection.setExceptionListener(EasyMock.isA(ExceptionListener.class));
+        connection.start();
+        EasyMock.expectLastCall().andThrow(new JMSException("test"));
+        connection.close();
+        EasyMock.replay(factory, connection, session, tm);
+
+        SessionPool pool = new SessionPool("test", factory, tm, 1, 1, 10);
+        try {
+            pool.borrow(false);
+            fail();
+        } catch (JMSException e) {
+            // expected
+        }
+        assertEquals(0, pool.getActiveCount());
+
+        EasyMock.verify(factory, connection, session, tm);
+    }
+
+    private void expectConnection() throws JMSException {
+        EasyMock.expect(factory.createConnection()).andReturn(connection);
+        connection.setExceptionListener(EasyMock.isA(ExceptionListener.class));
+        connection.start();
+    }
+
+    private interface XAFactory extends ConnectionFactory, XAConnectionFactory {
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        factory = EasyMock.createMock(ConnectionFactory.class);
+        connection = EasyMock.createMock(Connection.class);
+        session = EasyMock.createMock(Session.class);
+        tm = EasyMock.createMock(TransactionManager.class);
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.wire;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.jms.model.CorrelationScheme;
+
+/**
+ *
+ */
+public class ResponseListenerTestCase extends TestCase {
+    private ConnectionFactory factory;
+    private Connection connection;
+    private Session session;
+    private MessageConsumer consumer;
+
+    public void testDispatchResponseToWaitingCaller() throws Exception {
+        Queue queue = EasyMock.createMock(Queue.class);
+        EasyMock.expect(session.createConsumer(EasyMock.eq(queue), EasyMock.startsWith("JMSCorrelationID LIKE '"))).andReturn(consumer);
+        expectStart();
+
+        final Message message = EasyMock.createMock(Message.class);
+        final ResponseListener listener = new ResponseListener(queue, factory, CorrelationScheme.CORRELATION_ID, 1000);
+        final String correlationId = listener.createCorrelationId();
+        EasyMock.expect(message.getJMSCorrelationID()).andReturn(correlationId);
+        EasyMock.replay(factory, connection, session, consumer, queue, message);
+
+        listener.start();
+        Thread thread = new Thread() {
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                listener.onMessage(message);
+            }
+        };
+        thread.start();
+        assertSame(message, listener.receive(correlationId, null, 5000));
+        assertEquals(0, listener.getPendingCount());
+
+        EasyMock.verify(factory, connection, session, consumer, queue, message);
+    }
+
+    public void testResponseReceivedBeforeWait() throws Exception {
+        TemporaryQueue queue = EasyMock.createMock(TemporaryQueue.class);
+        EasyMock.expect(session.createTemporaryQueue()).andReturn(queue);
+        EasyMock.expect(session.createConsumer(queue)).andReturn(consumer);
+        expectStart();
+
+        Message message = EasyMock.createMock(Message.class);
+        EasyMock.expect(message.getJMSCorrelationID()).andReturn("ID:1");
+        EasyMock.replay(factory, connection, session, consumer, queue, message);
+
+        ResponseListener listener = new ResponseListener(null, factory, CorrelationScheme.MESSAGE_ID, 1000);
+        listener.start();
+        assertSame(queue, listener.getDestination());
+
+        listener.onMessage(message);
+        assertEquals(1, listener.getPendingCount());
+        assertSame(message, listener.receive("ID:1", null, 1000));
+        assertEquals(0, listener.getPendingCount());
+
+        EasyMock.verify(factory, connection, session, consumer, queue, message);
+    }
+
+    public void testTimeout() throws Exception {
+        Queue queue = EasyMock.createMock(Queue.class);
+        EasyMock.expect(session.createConsumer(EasyMock.eq(queue), EasyMock.isA(String.class))).andReturn(consumer);
+        expectStart();
+        EasyMock.replay(factory, connection, session, consumer, queue);
+
+        ResponseListener listener = new ResponseListener(queue, factory, CorrelationScheme.CORRELATION_ID, 10);
+        listener.start();
+        assertNull(listener.receive(listener.createCorrelationId(), null, 10));
+        assertEquals(0, listener.getPendingCount());
+
+        EasyMock.verify(factory, connection, session, consumer, queue);
+    }
+
+    public void testSelectorPerResponseForMessageId() throws Exception {
+        Queue queue = EasyMock.createMock(Queue.class);
+        Message message = EasyMock.createMock(Message.class);
+        EasyMock.expect(session.createConsumer(queue, "JMSCorrelationID = 'ID:1'")).andReturn(consumer);
+        EasyMock.expect(consumer.receive(10)).andReturn(message);
+        consumer.close();
+        EasyMock.replay(factory, connection, session, consumer, queue, message);
+
+        ResponseListener listener = new ResponseListener(queue, factory, CorrelationScheme.MESSAGE_ID, 10);
+        listener.start();
+        assertSame(message, listener.receive("ID:1", session, 10));
+
+        EasyMock.verify(factory, connection, session, consumer, queue, message);
+    }
+
+    private void expectStart() throws Exception {
+        EasyMock.expect(factory.createConnection()).andReturn(connection);
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        consumer.setMessageListener(EasyMock.isA(MessageListener.class));
+        connection.setExceptionListener(EasyMock.isA(ExceptionListener.class));
+        connection.start();
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        factory = EasyMock.createMock(ConnectionFactory.class);
+        connection = EasyMock.createMock(Connection.class);
+        session = EasyMock.createMock(Session.class);
+        consumer = EasyMock.createMock(MessageConsumer.class);
+    }
+
+}
@@ -28,6 +28,8 @@ import org.fabric3.spi.contribution.JavaArtifactIntrospector;
 import org.fabric3.spi.contribution.JavaSymbol;
 import org.fabric3.spi.contribution.Resource;
 import org.fabric3.spi.contribution.ResourceElement;
+import org.fabric3.spi.contribution.archive.ClassHeader;
+import org.fabric3.spi.contribution.archive.ClassIndex;
 import org.fabric3.spi.introspection.IntrospectionContext;
 import org.fabric3.spi.introspection.java.AnnotationHelper;
 import org.oasisopen.sca.annotation.EagerInit;
@@ -39,6 +41,10 @@ import org.oasisopen.sca.annotation.EagerInit;
 @EagerInit
 public class RsProviderIntrospector implements JavaArtifactIntrospector {
 
+    public boolean isCandidate(ClassHeader header, ClassIndex index, Contribution contribution) {
+        return header.isConcrete() && index.isAnnotated(header.getName());
+    }
+
     public Resource inspect(Class<?> clazz, URL url, Contribution contribution, IntrospectionContext context) {
         if (!AnnotationHelper.isPresent(Provider.class, clazz) || isComponent(clazz) || Modifier.isAbstract(clazz.getModifiers())) {
             // not a provider or already configured as a component
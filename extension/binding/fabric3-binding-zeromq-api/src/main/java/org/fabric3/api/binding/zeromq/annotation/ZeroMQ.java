@@ -21,6 +21,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import org.fabric3.api.annotation.model.Binding;
+import org.fabric3.api.binding.zeromq.model.OverflowPolicy;
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.ElementType.PARAMETER;
@@ -71,6 +72,13 @@ public @interface ZeroMQ {
      */
     long timeout() default 10;
 
+    /**
+     * Specifies the time in milliseconds to wait for a reply to a request-reply message. A negative value waits indefinitely.
+     *
+     * @return the time to wait for a reply in milliseconds
+     */
+    long replyTimeout() default 100000;
+
     /**
      * Specifies the high water mark.
      *
@@ -113,6 +121,27 @@ public @interface ZeroMQ {
      */
     String wireFormat() default "";
 
+    /**
+     * Specifies if request-reply messages are pipelined over a socket using correlation ids instead of waiting for each reply before sending the next request.
+     *
+     * @return true if request-reply messages are pipelined
+     */
+    boolean pipelined() default false;
+
+    /**
+     * Specifies the maximum number of messages queued for sending on a socket.
+     *
+     * @return the maximum number of queued messages
+     */
+    int queueCapacity() default 1024;
+
+    /**
+     * Specifies the policy applied when the send queue is full.
+     *
+     * @return the overflow policy
+     */
+    OverflowPolicy overflowPolicy() default OverflowPolicy.BLOCK;
+
     /**
      * Specifies the runtime environments this annotation is activated in. If blank, the annotation is active in all environments.
      *
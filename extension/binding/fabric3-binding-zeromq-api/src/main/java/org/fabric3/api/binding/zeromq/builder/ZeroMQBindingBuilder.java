@@ -20,6 +20,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.fabric3.api.binding.zeromq.model.OverflowPolicy;
 import org.fabric3.api.binding.zeromq.model.SocketAddressDefinition;
 import org.fabric3.api.binding.zeromq.model.ZeroMQBinding;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
@@ -107,4 +108,28 @@ public class ZeroMQBindingBuilder extends AbstractBuilder {
         return this;
     }
 
+    public ZeroMQBindingBuilder replyTimeout(long value) {
+        checkState();
+        binding.getZeroMQMetadata().setReplyTimeout(value);
+        return this;
+    }
+
+    public ZeroMQBindingBuilder pipelined(boolean value) {
+        checkState();
+        binding.getZeroMQMetadata().setPipelined(value);
+        return this;
+    }
+
+    public ZeroMQBindingBuilder queueCapacity(int value) {
+        checkState();
+        binding.getZeroMQMetadata().setQueueCapacity(value);
+        return this;
+    }
+
+    public ZeroMQBindingBuilder overflowPolicy(OverflowPolicy value) {
+        checkState();
+        binding.getZeroMQMetadata().setOverflowPolicy(value);
+        return this;
+    }
+
 }
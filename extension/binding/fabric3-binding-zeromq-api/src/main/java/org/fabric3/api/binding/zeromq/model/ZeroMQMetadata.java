@@ -37,6 +37,10 @@ public class ZeroMQMetadata implements Serializable {
     private long receiveBuffer = -1;
     private String wireFormat;
     private long timeout = 10;  // in milliseconds; default to 10
+    private long replyTimeout = 100000;  // in milliseconds
+    private boolean pipelined;
+    private int queueCapacity = 1024;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
 
     /**
      * Returns the list of hosts to connect or bind to or null if not explicitly set.
@@ -199,4 +203,77 @@ public class ZeroMQMetadata implements Serializable {
     public void setTimeout(long timeout) {
         this.timeout = timeout;
     }
+
+    /**
+     * Returns the time in milliseconds to wait for a reply to a request-reply message.
+     *
+     * @return the time to wait in milliseconds or a negative value to wait indefinitely
+     */
+    public long getReplyTimeout() {
+        return replyTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds to wait for a reply to a request-reply message.
+     *
+     * @param replyTimeout the time to wait in milliseconds or a negative value to wait indefinitely
+     */
+    public void setReplyTimeout(long replyTimeout) {
+        this.replyTimeout = replyTimeout;
+    }
+
+    /**
+     * Returns true if request-reply messages are pipelined, i.e. multiple requests may be outstanding on a socket and replies are matched using a correlation
+     * id.
+     *
+     * @return true if request-reply messages are pipelined
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    /**
+     * Sets if request-reply messages are pipelined. Note both the service and reference bindings must be configured to use the same mode.
+     *
+     * @param pipelined true if request-reply messages are pipelined
+     */
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Returns the maximum number of messages queued for sending on a socket.
+     *
+     * @return the maximum number of queued messages
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of messages queued for sending on a socket.
+     *
+     * @param queueCapacity the maximum number of queued messages
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Returns the policy applied when the send queue is full.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets the policy applied when the send queue is full.
+     *
+     * @param overflowPolicy the overflow policy
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
 }
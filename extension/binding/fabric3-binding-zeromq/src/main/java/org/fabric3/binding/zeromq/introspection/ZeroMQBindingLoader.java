@@ -26,6 +26,7 @@ import java.util.List;
 
 import org.fabric3.api.Namespaces;
 import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.api.binding.zeromq.model.OverflowPolicy;
 import org.fabric3.api.binding.zeromq.model.SocketAddressDefinition;
 import org.fabric3.api.binding.zeromq.model.ZeroMQBinding;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
@@ -47,6 +48,7 @@ public class ZeroMQBindingLoader extends AbstractValidatingTypeLoader<ZeroMQBind
                       "requires",
                       "policySets",
                       "timeout",
+                      "reply.timeout",
                       "target",
                       "addresses",
                       "name",
@@ -55,7 +57,10 @@ public class ZeroMQBindingLoader extends AbstractValidatingTypeLoader<ZeroMQBind
                       "multicast.recovery",
                       "send.buffer",
                       "receive.buffer",
-                      "wireFormat");
+                      "wireFormat",
+                      "pipelined",
+                      "queue.capacity",
+                      "queue.overflow");
     }
 
     public ZeroMQBinding load(XMLStreamReader reader, IntrospectionContext context) throws XMLStreamException {
@@ -87,6 +92,16 @@ public class ZeroMQBindingLoader extends AbstractValidatingTypeLoader<ZeroMQBind
                 context.addError(error);
             }
         }
+        String replyTimeoutStr = reader.getAttributeValue(null, "reply.timeout");
+        if (replyTimeoutStr != null) {
+            try {
+                long replyTimeout = Long.parseLong(replyTimeoutStr);
+                metadata.setReplyTimeout(replyTimeout);
+            } catch (NumberFormatException e) {
+                InvalidValue error = new InvalidValue("Invalid reply timeout specified: " + replyTimeoutStr, startLocation, e);
+                context.addError(error);
+            }
+        }
         String addresses = reader.getAttributeValue(null, "addresses");
         long highWater = parseLong("high.water", reader, context);
         long multicastRate = parseLong("multicast.rate", reader, context);
@@ -94,6 +109,21 @@ public class ZeroMQBindingLoader extends AbstractValidatingTypeLoader<ZeroMQBind
         long sendBuffer = parseLong("send.buffer", reader, context);
         long receiveBuffer = parseLong("receive.buffer", reader, context);
         String wireFormat = reader.getAttributeValue(null, "wireFormat");
+        boolean pipelined = Boolean.parseBoolean(reader.getAttributeValue(null, "pipelined"));
+        long queueCapacity = parseLong("queue.capacity", reader, context);
+        if (queueCapacity == 0 || queueCapacity > Integer.MAX_VALUE) {
+            context.addError(new InvalidValue("Invalid queue capacity: " + queueCapacity, startLocation, binding));
+        } else if (queueCapacity > 0) {
+            metadata.setQueueCapacity((int) queueCapacity);
+        }
+        String overflow = reader.getAttributeValue(null, "queue.overflow");
+        if (overflow != null) {
+            try {
+                metadata.setOverflowPolicy(OverflowPolicy.valueOf(overflow.toUpperCase().replace('.', '_')));
+            } catch (IllegalArgumentException e) {
+                context.addError(new InvalidValue("Invalid queue overflow policy: " + overflow, startLocation, binding));
+            }
+        }
 
         if (addresses != null) {
             List<SocketAddressDefinition> addressDefinitions = new ArrayList<>();
@@ -121,6 +151,7 @@ public class ZeroMQBindingLoader extends AbstractValidatingTypeLoader<ZeroMQBind
         metadata.setSendBuffer(sendBuffer);
         metadata.setReceiveBuffer(receiveBuffer);
         metadata.setWireFormat(wireFormat);
+        metadata.setPipelined(pipelined);
 
         validateAttributes(reader, context, binding);
 
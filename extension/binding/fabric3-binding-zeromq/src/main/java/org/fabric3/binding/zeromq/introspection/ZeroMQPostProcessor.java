@@ -102,12 +102,16 @@ public class ZeroMQPostProcessor extends AbstractBindingPostProcessor<ZeroMQ> {
 
     private void processMetadata(ZeroMQ annotation, ZeroMQMetadata metadata) {
         metadata.setTimeout(annotation.timeout());
+        metadata.setReplyTimeout(annotation.replyTimeout());
         metadata.setHighWater(annotation.highWater());
         metadata.setMulticastRate(annotation.multicastRate());
         metadata.setReceiveBuffer(annotation.receiveBuffer());
         metadata.setMulticastRecovery(annotation.multicastRecovery());
         metadata.setSendBuffer(annotation.sendBuffer());
         metadata.setWireFormat(annotation.wireFormat());
+        metadata.setPipelined(annotation.pipelined());
+        metadata.setQueueCapacity(annotation.queueCapacity());
+        metadata.setOverflowPolicy(annotation.overflowPolicy());
     }
 
     private void parseAddresses(ZeroMQ annotation, ZeroMQMetadata metadata, Class<?> implClass, IntrospectionContext context) {
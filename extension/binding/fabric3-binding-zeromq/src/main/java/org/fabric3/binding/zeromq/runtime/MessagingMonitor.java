@@ -51,4 +51,7 @@ public interface MessagingMonitor {
     @Debug("ZeroMQ message dropped due to unavailable endpoint")
     void dropMessage();
 
+    @Debug("ZeroMQ message dropped due to a full send queue [{0}]")
+    void dropOverflow(String id);
+
 }
@@ -238,7 +238,7 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
             if (dedicatedThread) {
                 publisher = new NonReliableSingleThreadPublisher(manager, address, metadata);
             } else {
-                publisher = new NonReliableQueuedPublisher(manager, address, metadata, pollTimeout, monitor);
+                publisher = new NonReliableQueuedPublisher(manager, address, metadata, pollTimeout, executorService, monitor);
             }
             attachConnection(connection, publisher, loader);
 
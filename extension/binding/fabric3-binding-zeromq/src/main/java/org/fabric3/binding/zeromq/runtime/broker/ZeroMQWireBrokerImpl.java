@@ -50,6 +50,8 @@ import org.fabric3.binding.zeromq.runtime.message.NonReliableOneWaySender;
 import org.fabric3.binding.zeromq.runtime.message.NonReliableRequestReplyReceiver;
 import org.fabric3.binding.zeromq.runtime.message.NonReliableRequestReplySender;
 import org.fabric3.binding.zeromq.runtime.message.OneWaySender;
+import org.fabric3.binding.zeromq.runtime.message.PipelinedRequestReplyReceiver;
+import org.fabric3.binding.zeromq.runtime.message.PipelinedRequestReplySender;
 import org.fabric3.binding.zeromq.runtime.message.Receiver;
 import org.fabric3.binding.zeromq.runtime.message.RequestReplySender;
 import org.fabric3.binding.zeromq.runtime.message.Sender;
@@ -231,6 +233,8 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         Receiver receiver;
         if (oneWay) {
             receiver = new NonReliableOneWayReceiver(manager, address, chains, executorService, metadata, monitor);
+        } else if (metadata.isPipelined()) {
+            receiver = new PipelinedRequestReplyReceiver(manager, address, chains, executorService, metadata, monitor);
         } else {
             receiver = new NonReliableRequestReplyReceiver(manager, address, chains, executorService, pollTimeout, metadata, monitor);
         }
@@ -350,9 +354,11 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
 
         Sender sender;
         if (oneWay) {
-            sender = new NonReliableOneWaySender(endpointId, manager, addresses, pollTimeout, metadata, monitor);
+            sender = new NonReliableOneWaySender(endpointId, manager, addresses, pollTimeout, metadata, executorService, monitor);
+        } else if (metadata.isPipelined()) {
+            sender = new PipelinedRequestReplySender(endpointId, manager, addresses, pollTimeout, metadata, executorService, monitor);
         } else {
-            sender = new NonReliableRequestReplySender(endpointId, manager, addresses, pollTimeout, metadata, monitor);
+            sender = new NonReliableRequestReplySender(endpointId, manager, addresses, pollTimeout, metadata, executorService, monitor);
         }
         SenderHolder holder = new SenderHolder(sender);
         sender.start();
@@ -406,7 +412,7 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
 
     private Interceptor createInterceptor(SenderHolder holder, int i) {
         Sender sender = holder.getSender();
-        if (sender instanceof NonReliableRequestReplySender) {
+        if (sender instanceof RequestReplySender) {
             return new RequestReplyInterceptor(i, (RequestReplySender) sender);
         } else if (sender instanceof OneWaySender) {
             return new OneWayInterceptor(i, (OneWaySender) sender);
@@ -42,6 +42,7 @@ import org.zeromq.ZMQ.Socket;
  *
  */
 public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExceptionHandler {
+    private static final byte[] SIGNAL = new byte[0];
 
     protected ContextManager manager;
     protected SocketAddress address;
@@ -56,6 +57,10 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
     protected ZeroMQMetadata metadata;
     protected String id = getClass().getName() + ":" + UUID.randomUUID().toString();
 
+    private final Object signalLock = new Object();
+    private Socket signalSocket;
+    private AtomicBoolean signalled = new AtomicBoolean();
+
     /**
      * Constructor.
      *
@@ -142,6 +147,32 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
         }
     }
 
+    /**
+     * Returns true if responses are completed on threads other than the receiver thread. If so, those threads must call {@link #signalResponse()} so that the
+     * receiver thread wakes up and calls {@link #response(Socket)}.
+     *
+     * @return true if responses are completed on other threads
+     */
+    protected boolean isAsynchronous() {
+        return false;
+    }
+
+    /**
+     * Wakes the receiver thread to send completed responses. May be called from any thread. Only one signal is outstanding at a time as the receiver thread
+     * sends all completed responses when it wakes.
+     */
+    protected void signalResponse() {
+        if (!signalled.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (signalLock) {
+            // ZeroMQ sockets are not thread-safe, so sends from dispatching threads are serialized
+            if (signalSocket != null) {
+                signalSocket.send(SIGNAL, ZMQ.NOBLOCK);
+            }
+        }
+    }
+
     protected abstract boolean invoke(Socket socket);
 
     protected abstract void response(Socket socket);
@@ -152,6 +183,7 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
     private class Receiver implements Runnable {
         private Socket socket;
         private Socket controlSocket;
+        private Socket wakeSocket;
 
         private ZMQ.Poller poller;
         private AtomicBoolean active = new AtomicBoolean(true);
@@ -177,16 +209,12 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
                     if (val > 0) {
                         byte[] controlPayload = controlSocket.recv(ZMQ.NOBLOCK);
                         if (controlPayload != null) {
-                            try {
-                                socket.close();
-                                controlSocket.close();
-                            } finally {
-                                manager.release(id);
-                            }
+                            close();
                             return;
                         }
 
-                        if (!invoke(socket)) {
+                        boolean woken = wake();
+                        if (!invoke(socket) && !woken) {
                             continue;
                         }
                         response(socket);
@@ -194,12 +222,7 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
                 }
                 // the socket must be closed here on this thread!
                 if (socket != null) {
-                    try {
-                        socket.close();
-                        controlSocket.close();
-                    } finally {
-                        manager.release(id);
-                    }
+                    close();
                     socket = null;
                 }
             } catch (RuntimeException e) {
@@ -227,6 +250,62 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
             poller = manager.getContext().poller();
             poller.register(controlSocket, ZMQ.Poller.POLLIN);
             poller.register(socket, ZMQ.Poller.POLLIN);
+
+            if (isAsynchronous()) {
+                // a PAIR socket connected over inproc wakes the poller when responses are completed on other threads
+                String endpoint = "inproc://" + id + ":signal";
+                wakeSocket = manager.getContext().socket(ZMQ.PAIR);
+                wakeSocket.setLinger(0);
+                wakeSocket.bind(endpoint);
+                Socket signal = manager.getContext().socket(ZMQ.PAIR);
+                signal.setLinger(0);
+                signal.connect(endpoint);
+                synchronized (signalLock) {
+                    signalSocket = signal;
+                }
+                poller.register(wakeSocket, ZMQ.Poller.POLLIN);
+            }
+        }
+
+        /**
+         * Consumes pending wake-up signals.
+         *
+         * @return true if a signal was received
+         */
+        private boolean wake() {
+            if (wakeSocket == null) {
+                return false;
+            }
+            boolean woken = false;
+            while (wakeSocket.recv(ZMQ.NOBLOCK) != null) {
+                woken = true;
+            }
+            // clear the flag after reading and before responses are sent so that a response completed after this point signals again
+            signalled.set(false);
+            return woken;
+        }
+
+        private void close() {
+            try {
+                socket.close();
+                controlSocket.close();
+                closeSignal();
+            } finally {
+                manager.release(id);
+            }
+        }
+
+        private void closeSignal() {
+            synchronized (signalLock) {
+                if (signalSocket != null) {
+                    signalSocket.close();
+                    signalSocket = null;
+                }
+            }
+            if (wakeSocket != null) {
+                wakeSocket.close();
+                wakeSocket = null;
+            }
         }
 
     }
@@ -0,0 +1,54 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Provides serialized operation index frames.
+ *
+ * Frames for common operation indexes are created once and shared. They are never modified after creation, which allows them to be passed to sockets that send
+ * frames asynchronously.
+ */
+public final class IndexFrames {
+    private static final byte[][] FRAMES = new byte[256][];
+
+    static {
+        for (int i = 0; i < FRAMES.length; i++) {
+            FRAMES[i] = ByteBuffer.allocate(4).putInt(i).array();
+        }
+    }
+
+    private IndexFrames() {
+    }
+
+    /**
+     * Returns the serialized frame for an operation index.
+     *
+     * @param index the operation index
+     * @return the frame
+     */
+    public static byte[] get(int index) {
+        if (index >= 0 && index < FRAMES.length) {
+            return FRAMES[index];
+        }
+        return ByteBuffer.allocate(4).putInt(index).array();
+    }
+}
@@ -18,14 +18,14 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
@@ -39,32 +39,49 @@ import org.oasisopen.sca.ServiceRuntimeException;
 import org.zeromq.ZMQ;
 
 /**
+ * A {@link OneWaySender} that provides no qualities of service.
  *
+ * Since ZeroMQ requires the creating socket thread to dispatch messages, the dispatcher runs on a single thread scheduled using the runtime executor. Messages
+ * are provided to the thread via a bounded {@link SendQueue}. Stopping the sender interrupts the dispatcher rather than enqueueing a shutdown signal so that
+ * queued messages are not discarded when the queue is full; messages that have not been sent remain queued and are sent if the sender is restarted.
  */
 @Management
-public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExceptionHandler {
-    private static final Request SHUTDOWN = new Request(null, 0, null);
+public class NonReliableOneWaySender implements OneWaySender {
     private String id;
     private List<SocketAddress> addresses;
+    private ExecutorService executorService;
     private MessagingMonitor monitor;
 
     private SocketMultiplexer multiplexer;
     private Dispatcher dispatcher;
 
-    private LinkedBlockingQueue<Request> queue;
+    private SendQueue<Request> queue;
     private long pollTimeout;
 
+    /**
+     * Constructor.
+     *
+     * @param id              the sender id
+     * @param manager         the ZeroMQ context manager
+     * @param addresses       the service addresses
+     * @param pollTimeout     the time in microseconds to wait for queued messages
+     * @param metadata        the binding metadata
+     * @param executorService the runtime executor service used to schedule the dispatcher
+     * @param monitor         the monitor
+     */
     public NonReliableOneWaySender(String id,
                                    ContextManager manager,
                                    List<SocketAddress> addresses,
                                    long pollTimeout,
                                    ZeroMQMetadata metadata,
+                                   ExecutorService executorService,
                                    MessagingMonitor monitor) {
         this.id = id;
         this.addresses = addresses;
         this.pollTimeout = pollTimeout;
+        this.executorService = executorService;
         this.monitor = monitor;
-        queue = new LinkedBlockingQueue<>();
+        queue = new SendQueue<>(metadata.getQueueCapacity(), metadata.getOverflowPolicy());
         multiplexer = new RoundRobinSocketMultiplexer(manager, ZMQ.PUSH, metadata);
     }
 
@@ -78,9 +95,6 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
     public void stop() {
         try {
             dispatcher.stop();
-            queue.put(SHUTDOWN);
-        } catch (InterruptedException e) {
-            monitor.error(e);
         } finally {
             dispatcher = null;
         }
@@ -90,6 +104,16 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
         return id;
     }
 
+    @ManagementOperation(description = "The number of messages waiting to be sent")
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @ManagementOperation(description = "The number of messages dropped because the send queue was full")
+    public long getDroppedCount() {
+        return queue.getDropped();
+    }
+
     public void accept(EntryChange change, ServiceEntry entry) {
         // refresh socket
         this.addresses = AddressUpdater.accept(change, entry, addresses);
@@ -99,7 +123,9 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
     public void send(byte[] message, int index, WorkContext workContext) {
         try {
             Request request = new Request(message, index, serialize(workContext));
-            queue.put(request);
+            if (queue.put(request) != null) {
+                monitor.dropOverflow(id);
+            }
         } catch (InterruptedException e) {
             Thread.interrupted();
             throw new ServiceRuntimeException(e);
@@ -108,15 +134,8 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
         }
     }
 
-    public void uncaughtException(Thread t, Throwable e) {
-        monitor.error(e);
-    }
-
     private void schedule() {
-        // TODO use runtime thread pool
-        Thread thread = new Thread(dispatcher);
-        thread.setUncaughtExceptionHandler(this);
-        thread.start();
+        executorService.submit(dispatcher);
     }
 
     /**
@@ -141,6 +160,8 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
     private class Dispatcher implements Runnable {
         private AtomicBoolean active = new AtomicBoolean(true);
         private AtomicBoolean doRefresh = new AtomicBoolean(true);
+        private List<Request> drained = new ArrayList<>();
+        private Thread thread;
 
         /**
          * Signals to closes the old socket and establish a new one when publisher addresses have changed in the domain.
@@ -150,23 +171,43 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
         }
 
         /**
-         * Stops polling and closes the existing socket.
+         * Stops polling and closes the existing socket. The dispatching thread is interrupted if it is waiting for queued messages.
          */
-        public void stop() {
+        public synchronized void stop() {
             active.set(false);
+            if (thread != null) {
+                thread.interrupt();
+            }
         }
 
         public void run() {
+            synchronized (this) {
+                if (!active.get()) {
+                    return;
+                }
+                thread = Thread.currentThread();
+            }
+            try {
+                dispatch();
+            } finally {
+                synchronized (this) {
+                    // the dispatcher may have been rescheduled on another thread after an error
+                    if (thread == Thread.currentThread()) {
+                        thread = null;
+                    }
+                }
+            }
+        }
+
+        private void dispatch() {
             while (active.get()) {
                 try {
                     reconnect();
 
                     // handle pending requests
-                    List<Request> drained = new ArrayList<>();
                     Request value = queue.poll(pollTimeout, TimeUnit.MICROSECONDS);
-                    if (SHUTDOWN == value) {
-                        multiplexer.close();
-                        return;
+                    if (value == null) {
+                        continue;
                     }
                     // if no available socket, drop the message
                     if (!multiplexer.isAvailable()) {
@@ -174,15 +215,10 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
                         continue;
                     }
 
-                    if (value != null) {
-                        drained.add(value);
-                        queue.drainTo(drained);
-                    }
+                    drained.clear();
+                    drained.add(value);
+                    queue.drainTo(drained);
                     for (Request request : drained) {
-                        if (SHUTDOWN == request) {
-                            multiplexer.close();
-                            return;
-                        }
                         ZMQ.Socket socket = multiplexer.get();
 
                         // serialize the request payload
@@ -192,7 +228,7 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
                         int index = request.getIndex();
                         byte[] context = request.getWorkContext();
 
-                        byte[] serializedIndex = ByteBuffer.allocate(4).putInt(index).array();
+                        byte[] serializedIndex = IndexFrames.get(index);
 
                         if (context != null && context.length > 0) {
                             socket.send(serializedIndex, ZMQ.SNDMORE);
@@ -201,8 +237,10 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
                             socket.send(serializedIndex, 0);
                         }
                     }
+                    drained.clear();
                 } catch (RuntimeException e) {
                     // exception, make sure the thread is rescheduled
+                    monitor.error(e);
                     schedule();
                     throw e;
                 } catch (InterruptedException e) {
@@ -21,7 +21,7 @@ package org.fabric3.binding.zeromq.runtime.message;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -29,40 +29,49 @@ import org.fabric3.api.annotation.management.Management;
 import org.fabric3.api.annotation.management.ManagementOperation;
 import org.fabric3.api.annotation.management.OperationType;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
 import org.fabric3.binding.zeromq.runtime.context.ContextManager;
 import org.fabric3.binding.zeromq.runtime.SocketAddress;
 import org.fabric3.spi.host.Port;
+import org.oasisopen.sca.ServiceRuntimeException;
 import org.zeromq.ZMQ;
 import org.zeromq.ZMQ.Socket;
 
 /**
  * Implements a basic PUB client with no qualities of service.
  *
- * Since ZeroMQ requires the creating socket thread to dispatch messages, a looping thread is used for publishing messages. Messages are provided to the thread
- * via a queue.
+ * Since ZeroMQ requires the creating socket thread to dispatch messages, a looping thread scheduled using the runtime executor is used for publishing messages.
+ * Messages are provided to the thread via a bounded {@link SendQueue}.
  */
 @Management
-public class NonReliableQueuedPublisher implements Publisher, Thread.UncaughtExceptionHandler {
+public class NonReliableQueuedPublisher implements Publisher {
     private static final byte[] SHUTDOWN = new byte[0];
     private ContextManager manager;
     private SocketAddress address;
     private long pollTimeout;
     private ZeroMQMetadata metadata;
+    private ExecutorService executorService;
     private MessagingMonitor monitor;
 
     private Socket socket;
     private Dispatcher dispatcher;
 
-    private LinkedBlockingQueue<Object> queue;
+    private SendQueue<Object> queue;
 
-    public NonReliableQueuedPublisher(ContextManager manager, SocketAddress address, ZeroMQMetadata metadata, long pollTimeout, MessagingMonitor monitor) {
+    public NonReliableQueuedPublisher(ContextManager manager,
+                                      SocketAddress address,
+                                      ZeroMQMetadata metadata,
+                                      long pollTimeout,
+                                      ExecutorService executorService,
+                                      MessagingMonitor monitor) {
         this.manager = manager;
         this.address = address;
         this.pollTimeout = pollTimeout;
         this.metadata = metadata;
+        this.executorService = executorService;
         this.monitor = monitor;
-        this.queue = new LinkedBlockingQueue<>();
+        this.queue = new SendQueue<>(metadata.getQueueCapacity(), metadata.getOverflowPolicy());
     }
 
     @ManagementOperation(type = OperationType.POST)
@@ -79,9 +88,7 @@ public class NonReliableQueuedPublisher implements Publisher, Thread.UncaughtExc
             if (dispatcher != null) {
                 dispatcher.stop();
             }
-            queue.put(SHUTDOWN);
-        } catch (InterruptedException e) {
-            monitor.error(e);
+            queue.force(SHUTDOWN);
         } finally {
             dispatcher = null;
         }
@@ -92,34 +99,43 @@ public class NonReliableQueuedPublisher implements Publisher, Thread.UncaughtExc
         return address.toString();
     }
 
+    @ManagementOperation(description = "The number of messages waiting to be published")
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @ManagementOperation(description = "The number of messages dropped because the send queue was full")
+    public long getDroppedCount() {
+        return queue.getDropped();
+    }
+
     public void publish(byte[] message) {
-        try {
-            queue.put(message);
-        } catch (InterruptedException e) {
-            Thread.interrupted();
-        }
+        enqueue(message);
     }
 
     public void publish(byte[][] message) {
+        enqueue(message);
+    }
+
+    private void enqueue(Object message) {
         try {
-            queue.put(message);
+            if (queue.put(message) != null) {
+                monitor.dropOverflow(address.toString());
+            }
         } catch (InterruptedException e) {
             Thread.interrupted();
+        } catch (Fabric3Exception e) {
+            throw new ServiceRuntimeException(e);
         }
     }
 
-    public void uncaughtException(Thread t, Throwable e) {
-        monitor.error(e);
-    }
-
     private void schedule() {
-        Thread thread = new Thread(dispatcher);
-        thread.setUncaughtExceptionHandler(this);
-        thread.start();
+        executorService.submit(dispatcher);
     }
 
     private class Dispatcher implements Runnable {
         private AtomicBoolean active = new AtomicBoolean(true);
+        private List<Object> drained = new ArrayList<>();
 
         public void stop() {
             active.set(false);
@@ -144,10 +160,14 @@ public class NonReliableQueuedPublisher implements Publisher, Thread.UncaughtExc
                     if (value == null) {
                         continue;
                     }
-                    List<Object> drained = new ArrayList<>();
+                    drained.clear();
                     drained.add(value);
                     queue.drainTo(drained);
                     for (Object object : drained) {
+                        if (SHUTDOWN == object) {
+                            close(id);
+                            return;
+                        }
                         if (object instanceof byte[]) {
                             // single frame message
                             socket.send((byte[]) object, 0);
@@ -165,8 +185,10 @@ public class NonReliableQueuedPublisher implements Publisher, Thread.UncaughtExc
                             monitor.error("Unknown object type:" + object.getClass().getName());
                         }
                     }
+                    drained.clear();
                 } catch (RuntimeException e) {
                     // exception, make sure the thread is rescheduled
+                    monitor.error(e);
                     manager.release(id);
                     schedule();
                     throw e;
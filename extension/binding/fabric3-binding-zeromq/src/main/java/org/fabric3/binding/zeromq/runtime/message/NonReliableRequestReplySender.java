@@ -18,7 +18,6 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -26,9 +25,9 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -50,10 +49,11 @@ import org.zeromq.ZMQ.Socket;
 /**
  * A {@link RequestReplySender} that provides no qualities of service.
  *
- * Since ZeroMQ requires the creating socket thread to dispatch messages, a looping thread is used for sending messages. Messages are provided to the thread via
- * a queue.
+ * Since ZeroMQ requires the creating socket thread to dispatch messages, a looping thread scheduled using the runtime executor is used for sending messages.
+ * Messages are provided to the thread via a bounded {@link SendQueue}. Requests that have not been sent when the sender is stopped fail with
+ * {@link ServiceUnavailableException}.
  */
-public class NonReliableRequestReplySender implements RequestReplySender, Thread.UncaughtExceptionHandler {
+public class NonReliableRequestReplySender implements RequestReplySender {
     private static final Callable<byte[]> CALLABLE = () -> null;
     private static final Request SHUTDOWN = new Request(null, 0, null);
 
@@ -61,6 +61,7 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
     private ContextManager manager;
     private List<SocketAddress> addresses;
     private long pollTimeout;
+    private ExecutorService executorService;
     private MessagingMonitor monitor;
 
     private Dispatcher dispatcher;
@@ -68,21 +69,23 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
     private RoundRobinSocketMultiplexer multiplexer;
     private Map<Socket, ZMQ.Poller> pollers;
 
-    private LinkedBlockingQueue<Request> queue;
+    private SendQueue<Request> queue;
 
     public NonReliableRequestReplySender(String id,
                                          ContextManager manager,
                                          List<SocketAddress> addresses,
                                          long pollTimeout,
                                          ZeroMQMetadata metadata,
+                                         ExecutorService executorService,
                                          MessagingMonitor monitor) {
         this.id = id;
         this.manager = manager;
         this.addresses = addresses;
         this.pollTimeout = pollTimeout;
+        this.executorService = executorService;
         this.monitor = monitor;
         multiplexer = new RoundRobinSocketMultiplexer(manager, ZMQ.XREQ, metadata);
-        queue = new LinkedBlockingQueue<>();
+        queue = new SendQueue<>(metadata.getQueueCapacity(), metadata.getOverflowPolicy());
         pollers = new ConcurrentHashMap<>();
     }
 
@@ -97,9 +100,10 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
     public void stop() {
         try {
             dispatcher.stop();
-            queue.put(SHUTDOWN);
-        } catch (InterruptedException e) {
-            monitor.error(e);
+            // fail queued requests as the dispatcher will not send them; callers blocked waiting for space in the queue fail when it is closed
+            for (Request request : queue.close(SHUTDOWN)) {
+                request.setException(new ServiceUnavailableException("Sender shutdown: " + id));
+            }
         } finally {
             dispatcher = null;
         }
@@ -119,7 +123,11 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
         try {
             byte[] serializedWorkContext = serialize(workContext);
             Request request = new Request(message, index, serializedWorkContext);
-            queue.put(request);
+            Request dropped = queue.put(request);
+            if (dropped != null) {
+                monitor.dropOverflow(id);
+                dropped.setException(new ServiceUnavailableException("Request dropped due to a full send queue: " + id));
+            }
             return request.get(100000, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
             Thread.interrupted();
@@ -131,15 +139,8 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
         }
     }
 
-    public void uncaughtException(Thread t, Throwable e) {
-        monitor.error(e);
-    }
-
     private void schedule() {
-        // TODO use runtime thread pool
-        Thread thread = new Thread(dispatcher);
-        thread.setUncaughtExceptionHandler(this);
-        thread.start();
+        executorService.submit(dispatcher);
     }
 
     /**
@@ -164,6 +165,7 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
         private AtomicBoolean active = new AtomicBoolean(true);
         private AtomicBoolean doRefresh = new AtomicBoolean(true);
         private Socket controlSocket;
+        private List<Request> drained = new ArrayList<>();
 
         /**
          * Signals to closes the old socket and establish a new one when publisher addresses have changed in the domain.
@@ -185,31 +187,38 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
                     reconnect();
 
                     // handle pending requests
-                    List<Request> drained = new ArrayList<>();
                     Request value = queue.poll(pollTimeout, TimeUnit.MICROSECONDS);
                     if (SHUTDOWN == value) {
                         multiplexer.close();
                         controlSocket.close();
                         return;
                     }
+                    if (value == null) {
+                        continue;
+                    }
                     // if no available socket, drop the message
                     if (!multiplexer.isAvailable()) {
                         monitor.dropMessage();
+                        value.setException(new ServiceUnavailableException("No available endpoints for " + id));
                         continue;
                     }
 
-                    if (value != null) {
-                        drained.add(value);
-                        queue.drainTo(drained);
-                    }
+                    drained.clear();
+                    drained.add(value);
+                    queue.drainTo(drained);
                     for (Request request : drained) {
+                        if (SHUTDOWN == request) {
+                            multiplexer.close();
+                            controlSocket.close();
+                            return;
+                        }
                         Socket socket = multiplexer.get();
 
                         socket.send(request.getPayload(), ZMQ.SNDMORE);
 
                         // serialize the operation index
                         int index = request.getIndex();
-                        byte[] serializedIndex = ByteBuffer.allocate(4).putInt(index).array();
+                        byte[] serializedIndex = IndexFrames.get(index);
 
                         byte[] context = request.getWorkContext();
                         if (context != null && context.length > 0) {
@@ -241,8 +250,10 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
                         request.set(response);
                         request.run();
                     }
+                    drained.clear();
                 } catch (RuntimeException e) {
                     // exception, make sure the thread is rescheduled
+                    monitor.error(e);
                     schedule();
                     throw e;
                 } catch (InterruptedException e) {
@@ -0,0 +1,188 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.invocation.MessageCache;
+import org.fabric3.spi.container.invocation.WorkContext;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQ.Socket;
+
+/**
+ * A {@link Receiver} that implements pipelined request-reply with no qualities of service. Used with {@link PipelinedRequestReplySender}.
+ *
+ * Requests carry a correlation id frame which is returned with the response, allowing a sender to have multiple requests outstanding on a socket. Requests are
+ * read from the socket as they arrive and dispatched to the runtime executor. Responses are returned in the order they complete, which may differ from the order
+ * requests were received. Completed responses wake the receiver thread so they are sent without waiting for another request to arrive. If a request cannot be
+ * dispatched or the invocation fails, a fault reply carrying the error message is returned for its correlation id so that the sender does not wait for a reply
+ * that will never arrive.
+ */
+@Management
+public class PipelinedRequestReplyReceiver extends AbstractReceiver {
+    static final byte[] FAULT_FRAME = {1};
+
+    private Queue<Response> queue;
+
+    /**
+     * Constructor.
+     *
+     * @param manager         the ZeroMQ Context manager
+     * @param address         the address to receive messages on
+     * @param chains          the invocation chains for dispatching invocations
+     * @param executorService the runtime executor service
+     * @param metadata        metadata
+     * @param monitor         the monitor
+     */
+    public PipelinedRequestReplyReceiver(ContextManager manager,
+                                         SocketAddress address,
+                                         List<InvocationChain> chains,
+                                         ExecutorService executorService,
+                                         ZeroMQMetadata metadata,
+                                         MessagingMonitor monitor) {
+        super(manager, address, chains, ZMQ.XREP, metadata, executorService, monitor);
+        queue = new ConcurrentLinkedQueue<>();
+    }
+
+    protected boolean isAsynchronous() {
+        return true;
+    }
+
+    protected boolean invoke(Socket socket) {
+        boolean received = false;
+        byte[] clientId;
+        // read all available requests before flushing responses
+        while ((clientId = socket.recv(ZMQ.NOBLOCK)) != null) {
+            byte[][] frames = new byte[4][];
+            int i = 0;
+            boolean valid = true;
+            while (socket.hasReceiveMore()) {
+                if (i > 3) {
+                    valid = false;
+                    socket.recv(0);  // discard the remaining frames
+                    continue;
+                }
+                frames[i] = socket.recv(0);
+                i++;
+            }
+            if (!valid || i < 3) {
+                monitor.error("Invalid message: expected a correlation id, body, operation index and optional work context");
+                if (i > 0) {
+                    queue.offer(new Response(clientId, frames[0], toBytes("Invalid message"), true));
+                    received = true;
+                }
+                continue;
+            }
+            dispatch(clientId, frames);
+            received = true;
+        }
+        return received;
+    }
+
+    protected void response(Socket socket) {
+        Response response;
+        while ((response = queue.poll()) != null) {
+            socket.send(response.clientId, ZMQ.SNDMORE);
+            socket.send(response.correlationId, ZMQ.SNDMORE);
+            if (response.fault) {
+                socket.send(response.body, ZMQ.SNDMORE);
+                socket.send(FAULT_FRAME, 0);
+            } else {
+                socket.send(response.body, 0);
+            }
+        }
+    }
+
+    /**
+     * Dispatches the request to the runtime executor. The response is queued for the receiver thread to send as ZeroMQ sockets are not thread-safe, and the
+     * receiver thread is signalled to send it.
+     *
+     * @param clientId the client id frame
+     * @param frames   the correlation id, body, operation index and work context frames
+     */
+    private void dispatch(byte[] clientId, byte[][] frames) {
+        executorService.execute(() -> {
+            Message request = MessageCache.getAndResetMessage();
+            boolean replied = false;
+            try {
+                request.setBody(frames[1]);
+                int methodIndex = ByteBuffer.wrap(frames[2]).getInt();
+                WorkContext context = setWorkContext(frames[3]);
+
+                request.setWorkContext(context);
+
+                Interceptor interceptor = interceptors[methodIndex];
+
+                // invoke the service
+                Message response = interceptor.invoke(request);
+                Object responseBody = response.getBody();
+
+                if (!(responseBody instanceof byte[])) {
+                    monitor.error("Return value not serialized");
+                    queue.offer(new Response(clientId, frames[0], toBytes("Return value not serialized"), true));
+                } else {
+                    queue.offer(new Response(clientId, frames[0], (byte[]) responseBody, false));
+                }
+                replied = true;
+            } catch (RuntimeException e) {
+                monitor.error(e);
+                queue.offer(new Response(clientId, frames[0], toBytes("Error invoking service: " + e), true));
+                replied = true;
+            } finally {
+                if (!replied) {
+                    queue.offer(new Response(clientId, frames[0], toBytes("Error invoking service"), true));
+                }
+                request.reset();
+                signalResponse();
+            }
+        });
+    }
+
+    private static byte[] toBytes(String message) {
+        return message.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class Response {
+        private byte[] clientId;
+        private byte[] correlationId;
+        private byte[] body;
+        private boolean fault;
+
+        private Response(byte[] clientId, byte[] correlationId, byte[] body, boolean fault) {
+            this.clientId = clientId;
+            this.correlationId = correlationId;
+            this.body = body;
+            this.fault = fault;
+        }
+    }
+
+}
@@ -0,0 +1,460 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+import org.fabric3.spi.container.invocation.CallbackReferenceSerializer;
+import org.fabric3.spi.container.invocation.WorkContext;
+import org.fabric3.spi.discovery.EntryChange;
+import org.fabric3.spi.discovery.ServiceEntry;
+import org.oasisopen.sca.ServiceRuntimeException;
+import org.oasisopen.sca.ServiceUnavailableException;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQ.Socket;
+
+/**
+ * A {@link RequestReplySender} that pipelines requests and provides no qualities of service. Used with {@link PipelinedRequestReplyReceiver}.
+ *
+ * Unlike {@link NonReliableRequestReplySender}, the dispatcher does not wait for a reply before sending the next request. Each request is sent with a
+ * correlation id frame that is echoed back by the receiver and used to complete the pending request, allowing many requests to be outstanding on a socket and
+ * replies to arrive out of order. Requests wait for a reply for the reply timeout configured in the binding metadata, or indefinitely if it is negative. The
+ * socket timeout only bounds how long the dispatcher polls for replies before checking for new requests. A fault reply from the receiver fails the request with
+ * the returned error message.
+ *
+ * Since ZeroMQ requires the creating socket thread to dispatch messages, the dispatcher runs on a single thread scheduled using the runtime executor. Messages
+ * are provided to the thread via a bounded {@link SendQueue}. Requests that have not been sent when the sender is stopped fail with
+ * {@link ServiceUnavailableException}.
+ */
+@Management
+public class PipelinedRequestReplySender implements RequestReplySender {
+    private static final Callable<byte[]> CALLABLE = () -> null;
+    private static final Request SHUTDOWN = new Request(null, 0, null, 0);
+    private static final long MAX_REPLY_POLL = 1000; // microseconds
+
+    private String id;
+    private ContextManager manager;
+    private List<SocketAddress> addresses;
+    private long pollTimeout;
+    private long timeout;
+    private long replyTimeout;
+    private ExecutorService executorService;
+    private MessagingMonitor monitor;
+
+    private Dispatcher dispatcher;
+
+    private RoundRobinSocketMultiplexer multiplexer;
+
+    private SendQueue<Request> queue;
+    private Map<Long, Request> pending;
+    private AtomicLong correlationCounter = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param id              the sender id
+     * @param manager         the ZeroMQ Context manager
+     * @param addresses       the addresses of the service endpoints
+     * @param pollTimeout     timeout in microseconds to wait for requests when none are outstanding
+     * @param metadata        metadata
+     * @param executorService the runtime executor service used to schedule the dispatcher
+     * @param monitor         the monitor
+     */
+    public PipelinedRequestReplySender(String id,
+                                       ContextManager manager,
+                                       List<SocketAddress> addresses,
+                                       long pollTimeout,
+                                       ZeroMQMetadata metadata,
+                                       ExecutorService executorService,
+                                       MessagingMonitor monitor) {
+        this.id = id;
+        this.manager = manager;
+        this.addresses = addresses;
+        this.pollTimeout = pollTimeout;
+        this.executorService = executorService;
+        this.monitor = monitor;
+        this.replyTimeout = metadata.getReplyTimeout();
+        long specifiedTimeout = metadata.getTimeout();
+        // bound the time spent waiting for replies as new requests are sent by the same thread
+        if (specifiedTimeout < 0) {
+            this.timeout = MAX_REPLY_POLL;
+        } else {
+            this.timeout = Math.min(TimeUnit.MILLISECONDS.toMicros(specifiedTimeout), MAX_REPLY_POLL);
+        }
+        multiplexer = new RoundRobinSocketMultiplexer(manager, ZMQ.XREQ, metadata);
+        queue = new SendQueue<>(metadata.getQueueCapacity(), metadata.getOverflowPolicy());
+        pending = new ConcurrentHashMap<>();
+    }
+
+    public void start() {
+        if (dispatcher == null) {
+            dispatcher = new Dispatcher();
+            schedule();
+        }
+    }
+
+    public void stop() {
+        try {
+            dispatcher.stop();
+            // fail queued requests as the dispatcher will not send them; callers blocked waiting for space in the queue fail when it is closed
+            for (Request request : queue.close(SHUTDOWN)) {
+                pending.remove(request.getCorrelationId());
+                request.setException(new ServiceUnavailableException("Sender shutdown: " + id));
+            }
+        } finally {
+            dispatcher = null;
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the number of requests sent and awaiting a reply.
+     *
+     * @return the number of requests awaiting a reply
+     */
+    @ManagementOperation(description = "The number of requests awaiting a reply")
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void accept(EntryChange change, ServiceEntry entry) {
+        // refresh socket
+        this.addresses = AddressUpdater.accept(change, entry, addresses);
+        dispatcher.refresh();
+    }
+
+    public byte[] sendAndReply(byte[] message, int index, WorkContext workContext) {
+        long correlationId = correlationCounter.incrementAndGet();
+        try {
+            byte[] serializedWorkContext = serialize(workContext);
+            Request request = new Request(message, index, serializedWorkContext, correlationId);
+            pending.put(correlationId, request);
+            Request dropped = queue.put(request);
+            if (dropped != null) {
+                monitor.dropOverflow(id);
+                pending.remove(dropped.getCorrelationId());
+                dropped.setException(new ServiceUnavailableException("Request dropped due to a full send queue: " + id));
+            }
+            return replyTimeout < 0 ? request.get() : request.get(replyTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            throw new ServiceRuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ServiceRuntimeException) {
+                // includes unavailable endpoints and faults returned by the receiver
+                throw (ServiceRuntimeException) cause;
+            }
+            throw new ServiceRuntimeException(e);
+        } catch (TimeoutException | Fabric3Exception e) {
+            throw new ServiceUnavailableException(e);
+        } finally {
+            // remove the request in case it timed out so that a late reply is discarded
+            pending.remove(correlationId);
+        }
+    }
+
+    private void schedule() {
+        executorService.submit(dispatcher);
+    }
+
+    /**
+     * Serializes the work context.
+     *
+     * @param workContext the work context
+     * @return the serialized work context
+     * @throws Fabric3Exception if a serialization error is encountered
+     */
+    private byte[] serialize(WorkContext workContext) {
+        List<String> stack = workContext.getCallbackReferences();
+        if (stack == null || stack.isEmpty()) {
+            return null;
+        }
+        return CallbackReferenceSerializer.serializeToBytes(stack);
+    }
+
+    /**
+     * Dispatches requests to the ZeroMQ sockets and matches replies to pending requests.
+     */
+    private class Dispatcher implements Runnable {
+        private AtomicBoolean active = new AtomicBoolean(true);
+        private AtomicBoolean doRefresh = new AtomicBoolean(true);
+        private Socket controlSocket;
+        private ZMQ.Poller poller;
+
+        /**
+         * Signals to closes the old sockets and establish new ones when service addresses have changed in the domain.
+         */
+        public void refresh() {
+            doRefresh.set(true);
+        }
+
+        /**
+         * Stops polling and closes the existing sockets.
+         */
+        public void stop() {
+            active.set(false);
+        }
+
+        public void run() {
+            try {
+                while (active.get()) {
+                    reconnect();
+
+                    // only block waiting for new requests if there are no replies outstanding
+                    Request value = pending.isEmpty() ? queue.poll(pollTimeout, TimeUnit.MICROSECONDS) : queue.poll(0, TimeUnit.MICROSECONDS);
+                    if (SHUTDOWN == value) {
+                        break;
+                    }
+                    if (value != null) {
+                        List<Request> drained = new ArrayList<>();
+                        drained.add(value);
+                        queue.drainTo(drained);
+                        for (Request request : drained) {
+                            if (SHUTDOWN == request) {
+                                active.set(false);
+                                break;
+                            }
+                            send(request);
+                        }
+                    }
+
+                    if (!pending.isEmpty() && poller != null) {
+                        long val = poller.poll(queue.size() == 0 ? timeout : 0);
+                        if (val > 0) {
+                            byte[] controlPayload = controlSocket.recv(ZMQ.NOBLOCK);
+                            if (controlPayload != null) {
+                                break;
+                            }
+                            receive();
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                // exception, make sure the thread is rescheduled; replies to sent requests are lost when the sockets are closed
+                close();
+                failPending("Sender error: " + id, true);
+                schedule();
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            close();
+            failPending("Sender shutdown: " + id, false);
+        }
+
+        /**
+         * Sends a request using the frame sequence: correlation id, payload, operation index and optional work context.
+         *
+         * @param request the request
+         */
+        private void send(Request request) {
+            if (!pending.containsKey(request.getCorrelationId())) {
+                // the request timed out before it was sent
+                return;
+            }
+            // if no available socket, drop the message
+            if (!multiplexer.isAvailable()) {
+                monitor.dropMessage();
+                pending.remove(request.getCorrelationId());
+                request.setException(new ServiceUnavailableException("No available endpoints for " + id));
+                return;
+            }
+
+            Socket socket = multiplexer.get();
+            request.setSent();
+
+            // frames must not be reused as the socket may send them asynchronously
+            byte[] correlationId = ByteBuffer.allocate(8).putLong(request.getCorrelationId()).array();
+            socket.send(correlationId, ZMQ.SNDMORE);
+
+            socket.send(request.getPayload(), ZMQ.SNDMORE);
+
+            // serialize the operation index
+            byte[] serializedIndex = IndexFrames.get(request.getIndex());
+
+            byte[] context = request.getWorkContext();
+            if (context != null && context.length > 0) {
+                socket.send(serializedIndex, ZMQ.SNDMORE);
+                socket.send(context, 0);
+            } else {
+                socket.send(serializedIndex, 0);
+            }
+        }
+
+        /**
+         * Reads all available replies and completes the corresponding pending requests.
+         */
+        private void receive() {
+            for (Socket socket : multiplexer.getAll()) {
+                byte[] correlationFrame;
+                while ((correlationFrame = socket.recv(ZMQ.NOBLOCK)) != null) {
+                    if (!socket.hasReceiveMore() || correlationFrame.length != 8) {
+                        monitor.error("Invalid reply: expected a correlation id and body");
+                        while (socket.hasReceiveMore()) {
+                            socket.recv(0);
+                        }
+                        continue;
+                    }
+                    byte[] response = socket.recv(0);
+                    boolean fault = false;
+                    while (socket.hasReceiveMore()) {
+                        fault = Arrays.equals(PipelinedRequestReplyReceiver.FAULT_FRAME, socket.recv(0));
+                    }
+                    Request request = pending.remove(ByteBuffer.wrap(correlationFrame).getLong());
+                    if (request == null) {
+                        // the reply arrived after the caller timed out
+                        continue;
+                    }
+                    if (fault) {
+                        request.setException(new ServiceRuntimeException(new String(response, StandardCharsets.UTF_8)));
+                    } else {
+                        request.set(response);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Closes existing sockets and creates new ones, binding them to the list of active service endpoints.
+         */
+        private void reconnect() {
+            if (!doRefresh.getAndSet(false)) {
+                return;
+            }
+            if (controlSocket == null) {
+                controlSocket = manager.createControlSocket();
+            }
+
+            multiplexer.update(addresses);
+            poller = manager.getContext().poller();
+            poller.register(controlSocket, ZMQ.Poller.POLLIN);
+            for (Socket socket : multiplexer.getAll()) {
+                poller.register(socket, ZMQ.Poller.POLLIN);
+            }
+        }
+
+        private void close() {
+            multiplexer.close();
+            if (controlSocket != null) {
+                controlSocket.close();
+                controlSocket = null;
+            }
+            poller = null;
+            doRefresh.set(true);
+        }
+
+        /**
+         * Fails requests that are outstanding when the dispatcher shuts down or its sockets are closed after an error.
+         *
+         * @param message  the error message
+         * @param sentOnly true if only requests that were sent should be failed, leaving queued requests to be sent when the dispatcher is rescheduled
+         */
+        private void failPending(String message, boolean sentOnly) {
+            for (Iterator<Request> iterator = pending.values().iterator(); iterator.hasNext(); ) {
+                Request request = iterator.next();
+                if (sentOnly && !request.isSent()) {
+                    continue;
+                }
+                iterator.remove();
+                request.setException(new ServiceUnavailableException(message));
+            }
+        }
+
+    }
+
+    /**
+     * A future used to pass a request payload to the ZeroMQ socket thread and retrieve the invocation return value on completion.
+     */
+    private static class Request extends FutureTask<byte[]> {
+        private byte[] payload;
+        private byte[] workContext;
+        private int index;
+        private long correlationId;
+        private volatile boolean sent;
+
+        public Request(byte[] payload, int index, byte[] workContext, long correlationId) {
+            super(CALLABLE);
+            this.payload = payload;
+            this.index = index;
+            this.workContext = workContext;
+            this.correlationId = correlationId;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public byte[] getWorkContext() {
+            return workContext;
+        }
+
+        public long getCorrelationId() {
+            return correlationId;
+        }
+
+        public boolean isSent() {
+            return sent;
+        }
+
+        public void setSent() {
+            sent = true;
+        }
+
+        @Override
+        public void set(byte[] s) {
+            super.set(s);
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            super.setException(t);
+        }
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.fabric3.api.binding.zeromq.model.OverflowPolicy;
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ * A bounded ring buffer used to pass messages from application threads to the thread that owns a ZeroMQ socket.
+ *
+ * Slots are allocated once when the queue is created and reused as messages are consumed. When the queue is full, the {@link OverflowPolicy} determines if the
+ * producer blocks, the oldest message is discarded, or the message is rejected. Once the queue is closed, producers fail instead of enqueueing messages.
+ */
+public class SendQueue<T> {
+    private final Object[] slots;
+    private final OverflowPolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;
+    private int count;
+    private long dropped;
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum number of queued messages
+     * @param policy   the policy applied when the queue is full
+     */
+    public SendQueue(int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than zero: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.policy = policy;
+    }
+
+    /**
+     * Enqueues a message, applying the overflow policy if the queue is full.
+     *
+     * @param message the message
+     * @return the message discarded to make room if the policy is {@link OverflowPolicy#DROP_OLDEST}, otherwise null
+     * @throws InterruptedException if the thread is interrupted while waiting for space
+     * @throws Fabric3Exception     if the queue is full and the policy is {@link OverflowPolicy#FAIL} or the queue is closed
+     */
+    public T put(T message) throws InterruptedException, Fabric3Exception {
+        lock.lockInterruptibly();
+        try {
+            if (closed) {
+                throw new Fabric3Exception("Send queue closed");
+            }
+            if (count == slots.length) {
+                switch (policy) {
+                    case DROP_OLDEST:
+                        return replaceOldest(message);
+                    case FAIL:
+                        throw new Fabric3Exception("Send queue full");
+                    default:
+                        while (count == slots.length) {
+                            notFull.await();
+                            if (closed) {
+                                throw new Fabric3Exception("Send queue closed");
+                            }
+                        }
+                }
+            }
+            enqueue(message);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Enqueues a control message such as a shutdown signal without blocking. If the queue is full, the oldest message is discarded.
+     *
+     * @param message the message
+     * @return the discarded message or null
+     */
+    public T force(T message) {
+        lock.lock();
+        try {
+            if (count == slots.length) {
+                return replaceOldest(message);
+            }
+            enqueue(message);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the queue and enqueues a control message such as a shutdown signal. Producers waiting for space and subsequent calls to {@link #put(Object)} fail.
+     *
+     * @param message the control message
+     * @return the messages that were queued and will not be consumed
+     */
+    public List<T> close(T message) {
+        lock.lock();
+        try {
+            closed = true;
+            List<T> removed = new ArrayList<>(count);
+            while (count > 0) {
+                removed.add(dequeue());
+            }
+            enqueue(message);
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the next message, waiting up to the given time if the queue is empty.
+     *
+     * @param timeout the time to wait
+     * @param unit    the time unit
+     * @return the message or null if the timeout elapsed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all queued messages and adds them to the given list.
+     *
+     * @param target the list
+     * @return the number of messages removed
+     */
+    public int drainTo(List<? super T> target) {
+        lock.lock();
+        try {
+            int drained = count;
+            for (int i = 0; i < drained; i++) {
+                target.add(dequeue());
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of queued messages.
+     *
+     * @return the number of queued messages
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of messages discarded because the queue was full.
+     *
+     * @return the number of discarded messages
+     */
+    public long getDropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(T message) {
+        slots[index(head + count)] = message;
+        count++;
+        notEmpty.signal();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T dequeue() {
+        T message = (T) slots[head];
+        slots[head] = null;
+        head = index(head + 1);
+        count--;
+        notFull.signal();
+        return message;
+    }
+
+    private T replaceOldest(T message) {
+        T oldest = dequeue();
+        enqueue(message);
+        dropped++;
+        return oldest;
+    }
+
+    private int index(int position) {
+        return position < slots.length ? position : position - slots.length;
+    }
+
+}
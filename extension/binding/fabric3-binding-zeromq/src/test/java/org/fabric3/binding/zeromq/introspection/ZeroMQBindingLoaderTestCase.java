@@ -27,6 +27,7 @@ import java.io.InputStream;
 import java.util.List;
 
 import junit.framework.TestCase;
+import org.fabric3.api.binding.zeromq.model.OverflowPolicy;
 import org.fabric3.api.binding.zeromq.model.SocketAddressDefinition;
 import org.fabric3.api.binding.zeromq.model.ZeroMQBinding;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
@@ -37,6 +38,10 @@ public class ZeroMQBindingLoaderTestCase extends TestCase {
     private static final String BINDING_CONFIG =
             "<binding.zeromq name='zmq' addresses='localhost:8080 localhost:8181' high.water='1' multicast.rate='2' multicast.recovery='3' send.buffer='4' receive.buffer='5'/>";
 
+    private static final String PIPELINED_CONFIG = "<binding.zeromq name='zmq' pipelined='true' reply.timeout='5000'/>";
+
+    private static final String QUEUE_CONFIG = "<binding.zeromq name='zmq' queue.capacity='16' queue.overflow='drop.oldest'/>";
+
     private XMLInputFactory xmlFactory;
     private ZeroMQBindingLoader loader;
 
@@ -60,8 +65,30 @@ public class ZeroMQBindingLoaderTestCase extends TestCase {
         assertEquals(3, metadata.getMulticastRecovery());
         assertEquals(4, metadata.getSendBuffer());
         assertEquals(5, metadata.getReceiveBuffer());
+        assertFalse(metadata.isPipelined());
+        assertEquals(100000, metadata.getReplyTimeout());
+
+    }
+
+    public void testLoadPipelined() throws Exception {
+        XMLStreamReader reader = createReader(PIPELINED_CONFIG);
+        IntrospectionContext context = new DefaultIntrospectionContext();
+        ZeroMQBinding definition = loader.load(reader, context);
+        assertFalse(context.hasErrors());
 
+        assertTrue(definition.getZeroMQMetadata().isPipelined());
+        assertEquals(5000, definition.getZeroMQMetadata().getReplyTimeout());
+    }
 
+    public void testLoadQueue() throws Exception {
+        XMLStreamReader reader = createReader(QUEUE_CONFIG);
+        IntrospectionContext context = new DefaultIntrospectionContext();
+        ZeroMQBinding definition = loader.load(reader, context);
+        assertFalse(context.hasErrors());
+
+        ZeroMQMetadata metadata = definition.getZeroMQMetadata();
+        assertEquals(16, metadata.getQueueCapacity());
+        assertEquals(OverflowPolicy.DROP_OLDEST, metadata.getOverflowPolicy());
     }
 
     @Override
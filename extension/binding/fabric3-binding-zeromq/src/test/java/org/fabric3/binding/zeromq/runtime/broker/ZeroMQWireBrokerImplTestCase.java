@@ -121,6 +121,8 @@ public class ZeroMQWireBrokerImplTestCase extends TestCase {
                                                              EasyMock.isA(ClassLoader.class),
                                                              EasyMock.isA(ClassLoader.class))).andReturn(transformInterceptor);
 
+        EasyMock.expect(executorService.submit(EasyMock.isA(Runnable.class))).andReturn(null);
+
         EasyMock.replay(context);
         EasyMock.replay(manager, discoveryAgent, executorService, monitor, allocator, info, managementService, interceptorFactory);
 
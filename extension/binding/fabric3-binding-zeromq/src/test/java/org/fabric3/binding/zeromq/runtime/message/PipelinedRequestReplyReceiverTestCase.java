@@ -0,0 +1,159 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.fabric3.spi.host.Port;
+import org.zeromq.ZMQ;
+
+/**
+ * Verifies responses completed on dispatching threads are sent without waiting for another request or the socket timeout, using a DEALER socket standing in
+ * for the sender.
+ */
+public class PipelinedRequestReplyReceiverTestCase extends TestCase {
+    private ZMQ.Context context;
+    private ZMQ.Socket control;
+    private ZMQ.Socket dealer;
+    private ExecutorService executorService;
+    private PipelinedRequestReplyReceiver receiver;
+
+    public void testResponseSentWhenCompleted() throws Exception {
+        long start = System.nanoTime();
+        dealer.send(ByteBuffer.allocate(8).putLong(1).array(), ZMQ.SNDMORE);
+        dealer.send(toBytes("request"), ZMQ.SNDMORE);
+        dealer.send(IndexFrames.get(0), 0);
+
+        byte[] correlationId = dealer.recv(0);
+        assertNotNull(correlationId);
+        assertEquals(1, ByteBuffer.wrap(correlationId).getLong());
+        assertTrue(dealer.hasReceiveMore());
+        assertEquals("reply", new String(dealer.recv(0), StandardCharsets.UTF_8));
+        assertFalse(dealer.hasReceiveMore());
+
+        // the socket timeout is 10 seconds, well above the time the dispatching thread takes to complete the response
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        context = ZMQ.context(1);
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        control = context.socket(ZMQ.PUB);
+        control.setLinger(0);
+        control.bind("inproc://control");
+
+        ContextManager manager = EasyMock.createNiceMock(ContextManager.class);
+        EasyMock.expect(manager.getContext()).andReturn(context).anyTimes();
+        EasyMock.expect(manager.createControlSocket()).andAnswer(() -> {
+            ZMQ.Socket socket = context.socket(ZMQ.SUB);
+            socket.setLinger(0);
+            socket.subscribe(new byte[0]);
+            socket.connect("inproc://control");
+            return socket;
+        }).anyTimes();
+        MessagingMonitor monitor = EasyMock.createNiceMock(MessagingMonitor.class);
+
+        InvocationChain chain = EasyMock.createMock(InvocationChain.class);
+        EasyMock.expect(chain.getHeadInterceptor()).andReturn(new ReplyInterceptor());
+        EasyMock.replay(manager, monitor, chain);
+
+        ZeroMQMetadata metadata = new ZeroMQMetadata();
+        metadata.setTimeout(10000);
+        SocketAddress address = new SocketAddress("tcp", "127.0.0.1", createPort(port));
+        executorService = Executors.newCachedThreadPool();
+        receiver = new PipelinedRequestReplyReceiver(manager, address, Collections.singletonList(chain), executorService, metadata, monitor);
+        receiver.start();
+
+        dealer = context.socket(ZMQ.XREQ);
+        dealer.setLinger(0);
+        dealer.setReceiveTimeOut(5000);
+        dealer.connect("tcp://127.0.0.1:" + port);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        receiver.stop();
+        // the receiver blocks until signalled, so it is woken with a control message to close its sockets before the context is terminated
+        control.send(new byte[]{1}, 0);
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+        dealer.close();
+        control.close();
+        context.term();
+    }
+
+    private byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Port createPort(int port) {
+        return new Port() {
+            public String getName() {
+                return null;
+            }
+
+            public int getNumber() {
+                return port;
+            }
+
+            public void bind(TYPE type) {
+
+            }
+
+            public void release() {
+
+            }
+        };
+    }
+
+    private class ReplyInterceptor implements Interceptor {
+
+        public Message invoke(Message msg) {
+            msg.setBody(toBytes("reply"));
+            return msg;
+        }
+
+        public void setNext(Interceptor next) {
+        }
+
+        public Interceptor getNext() {
+            return null;
+        }
+    }
+
+}
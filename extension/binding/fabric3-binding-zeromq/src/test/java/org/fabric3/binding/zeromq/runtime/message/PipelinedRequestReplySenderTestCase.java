@@ -0,0 +1,184 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+import org.fabric3.spi.container.invocation.WorkContext;
+import org.fabric3.spi.host.Port;
+import org.oasisopen.sca.ServiceRuntimeException;
+import org.zeromq.ZMQ;
+
+/**
+ * Verifies pipelined replies are matched to callers using a ROUTER socket standing in for the receiver.
+ */
+public class PipelinedRequestReplySenderTestCase extends TestCase {
+    private ZMQ.Context context;
+    private ZMQ.Socket router;
+    private ExecutorService executorService;
+    private PipelinedRequestReplySender sender;
+
+    public void testRepliesOutOfOrder() throws Exception {
+        Future<byte[]> first = executorService.submit(() -> sender.sendAndReply(toBytes("first"), 0, new WorkContext()));
+        byte[][] firstRequest = receiveRequest();
+        Future<byte[]> second = executorService.submit(() -> sender.sendAndReply(toBytes("second"), 0, new WorkContext()));
+        byte[][] secondRequest = receiveRequest();
+
+        // reply to the second request before the first
+        reply(secondRequest, toBytes("second reply"), false);
+        assertEquals("second reply", toString(second.get(5, TimeUnit.SECONDS)));
+        assertFalse(first.isDone());
+
+        reply(firstRequest, toBytes("first reply"), false);
+        assertEquals("first reply", toString(first.get(5, TimeUnit.SECONDS)));
+        assertEquals(0, sender.getPendingCount());
+    }
+
+    public void testReplySlowerThanPollTimeout() throws Exception {
+        // the socket timeout defaults to 10 ms, which must not bound the time spent waiting for a reply
+        Future<byte[]> future = executorService.submit(() -> sender.sendAndReply(toBytes("request"), 0, new WorkContext()));
+        byte[][] request = receiveRequest();
+        Thread.sleep(200);
+        assertFalse(future.isDone());
+
+        reply(request, toBytes("reply"), false);
+        assertEquals("reply", toString(future.get(5, TimeUnit.SECONDS)));
+    }
+
+    public void testFaultReply() throws Exception {
+        Future<byte[]> future = executorService.submit(() -> sender.sendAndReply(toBytes("request"), 0, new WorkContext()));
+        reply(receiveRequest(), toBytes("Return value not serialized"), true);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ServiceRuntimeException);
+            assertEquals("Return value not serialized", e.getCause().getMessage());
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        context = ZMQ.context(1);
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        router = context.socket(ZMQ.XREP);
+        router.setLinger(0);
+        router.setReceiveTimeOut(5000);
+        router.bind("tcp://127.0.0.1:" + port);
+
+        ContextManager manager = EasyMock.createNiceMock(ContextManager.class);
+        EasyMock.expect(manager.getContext()).andReturn(context).anyTimes();
+        EasyMock.expect(manager.createControlSocket()).andAnswer(() -> {
+            ZMQ.Socket control = context.socket(ZMQ.SUB);
+            control.setLinger(0);
+            control.subscribe(new byte[0]);
+            control.connect("inproc://test");
+            return control;
+        }).anyTimes();
+        MessagingMonitor monitor = EasyMock.createNiceMock(MessagingMonitor.class);
+        EasyMock.replay(manager, monitor);
+
+        ZeroMQMetadata metadata = new ZeroMQMetadata();
+        SocketAddress address = new SocketAddress("tcp", "127.0.0.1", createPort(port));
+        executorService = Executors.newCachedThreadPool();
+        sender = new PipelinedRequestReplySender("sender", manager, Collections.singletonList(address), 1000, metadata, executorService, monitor);
+        sender.start();
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        sender.stop();
+        // the dispatcher closes its sockets on shutdown, which must complete before the context is terminated
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+        router.close();
+        context.term();
+    }
+
+    /**
+     * Receives a request as the frame sequence: client id, correlation id, payload and operation index.
+     *
+     * @return the frames
+     */
+    private byte[][] receiveRequest() {
+        byte[][] frames = new byte[4][];
+        for (int i = 0; i < 4; i++) {
+            frames[i] = router.recv(0);
+            assertNotNull(frames[i]);
+        }
+        assertFalse(router.hasReceiveMore());
+        return frames;
+    }
+
+    private void reply(byte[][] request, byte[] body, boolean fault) {
+        router.send(request[0], ZMQ.SNDMORE);
+        router.send(request[1], ZMQ.SNDMORE);
+        if (fault) {
+            router.send(body, ZMQ.SNDMORE);
+            router.send(PipelinedRequestReplyReceiver.FAULT_FRAME, 0);
+        } else {
+            router.send(body, 0);
+        }
+    }
+
+    private byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String toString(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private Port createPort(int port) {
+        return new Port() {
+            public String getName() {
+                return null;
+            }
+
+            public int getNumber() {
+                return port;
+            }
+
+            public void bind(TYPE type) {
+
+            }
+
+            public void release() {
+
+            }
+        };
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.fabric3.api.binding.zeromq.model.OverflowPolicy;
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ *
+ */
+public class SendQueueTestCase extends TestCase {
+
+    public void testPollInOrderAcrossWrap() throws Exception {
+        SendQueue<String> queue = new SendQueue<>(2, OverflowPolicy.FAIL);
+        queue.put("1");
+        queue.put("2");
+        assertEquals("1", queue.poll(0, TimeUnit.MILLISECONDS));
+        queue.put("3");
+        assertEquals("2", queue.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals("3", queue.poll(0, TimeUnit.MILLISECONDS));
+        assertNull(queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    public void testDrainTo() throws Exception {
+        SendQueue<String> queue = new SendQueue<>(4, OverflowPolicy.BLOCK);
+        queue.put("1");
+        queue.put("2");
+        List<String> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained));
+        assertEquals("1", drained.get(0));
+        assertEquals("2", drained.get(1));
+        assertEquals(0, queue.size());
+    }
+
+    public void testFail() throws Exception {
+        SendQueue<String> queue = new SendQueue<>(1, OverflowPolicy.FAIL);
+        queue.put("1");
+        try {
+            queue.put("2");
+            fail();
+        } catch (Fabric3Exception e) {
+            // expected
+        }
+        assertEquals(1, queue.size());
+    }
+
+    public void testDropOldest() throws Exception {
+        SendQueue<String> queue = new SendQueue<>(2, OverflowPolicy.DROP_OLDEST);
+        assertNull(queue.put("1"));
+        assertNull(queue.put("2"));
+        assertEquals("1", queue.put("3"));
+        assertEquals(1, queue.getDropped());
+        assertEquals("2", queue.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals("3", queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    public void testBlockUntilSpaceAvailable() throws Exception {
+        SendQueue<String> queue = new SendQueue<>(1, OverflowPolicy.BLOCK);
+        queue.put("1");
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put("2");
+                latch.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+        assertEquals("1", queue.poll(0, TimeUnit.MILLISECONDS));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("2", queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    public void testForceWhenFull() throws Exception {
+        SendQueue<String> queue = new SendQueue<>(1, OverflowPolicy.BLOCK);
+        queue.put("1");
+        assertEquals("1", queue.force("shutdown"));
+        assertEquals("shutdown", queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    public void testCloseReturnsQueued() throws Exception {
+        SendQueue<String> queue = new SendQueue<>(2, OverflowPolicy.BLOCK);
+        queue.put("1");
+        queue.put("2");
+        assertEquals(Arrays.asList("1", "2"), queue.close("shutdown"));
+        assertEquals("shutdown", queue.poll(0, TimeUnit.MILLISECONDS));
+        try {
+            queue.put("3");
+            fail();
+        } catch (Fabric3Exception e) {
+            // expected
+        }
+    }
+
+    public void testCloseFailsBlockedProducer() throws Exception {
+        SendQueue<String> queue = new SendQueue<>(1, OverflowPolicy.BLOCK);
+        queue.put("1");
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put("2");
+            } catch (Fabric3Exception e) {
+                latch.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+        assertEquals(Collections.singletonList("1"), queue.close("shutdown"));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, queue.size());
+    }
+
+}
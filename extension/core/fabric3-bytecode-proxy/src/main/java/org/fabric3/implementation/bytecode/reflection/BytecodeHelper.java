@@ -26,6 +26,8 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 
 /**
  *
@@ -74,6 +76,85 @@ public class BytecodeHelper {
         }
     }
 
+    /**
+     * Writes the instructions to convert the object on the top of the stack to the given parameter type, unboxing primitives.
+     *
+     * @param paramType the parameter type
+     * @param mv        the method visitor
+     */
+    public static void writeParam(Class<?> paramType, MethodVisitor mv) {
+        if (Integer.TYPE.equals(paramType)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Integer");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Integer", "intValue", "()I");
+        } else if (Boolean.TYPE.equals(paramType)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Boolean");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z");
+        } else if (Double.TYPE.equals(paramType)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Double");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Double", "doubleValue", "()D");
+        } else if (Float.TYPE.equals(paramType)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Float");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Float", "floatValue", "()F");
+        } else if (Short.TYPE.equals(paramType)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Short");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Short", "shortValue", "()S");
+        } else if (Byte.TYPE.equals(paramType)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Byte");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Byte", "byteValue", "()B");
+        } else if (Long.TYPE.equals(paramType)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Long");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Long", "longValue", "()J");
+        } else if (Character.TYPE.equals(paramType)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Character");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Character", "charValue", "()C");
+        } else {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(paramType));
+        }
+    }
+
+    /**
+     * Writes the instructions to return the value on the top of the stack as an object, boxing primitives. Void methods return null.
+     *
+     * @param returnType the method return type
+     * @param mv         the method visitor
+     */
+    public static void writeReturn(Class<?> returnType, MethodVisitor mv) {
+        if (Void.TYPE.equals(returnType)) {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        } else if (Integer.TYPE.equals(returnType)) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;");
+        } else if (Boolean.TYPE.equals(returnType)) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Boolean", "valueOf", "(Z)Ljava/lang/Boolean;");
+        } else if (Double.TYPE.equals(returnType)) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;");
+        } else if (Long.TYPE.equals(returnType)) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;");
+        } else if (Float.TYPE.equals(returnType)) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Float", "valueOf", "(F)Ljava/lang/Float;");
+        } else if (Short.TYPE.equals(returnType)) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Short", "valueOf", "(S)Ljava/lang/Short;");
+        } else if (Byte.TYPE.equals(returnType)) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Byte", "valueOf", "(B)Ljava/lang/Byte;");
+        } else if (Character.TYPE.equals(returnType)) {
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Character", "valueOf", "(C)Ljava/lang/Character;");
+        }
+        mv.visitInsn(Opcodes.ARETURN);
+    }
 
+    /**
+     * Pushes an int constant on to the stack using the most compact instruction.
+     *
+     * @param value the value
+     * @param mv    the method visitor
+     */
+    public static void pushInt(int value, MethodVisitor mv) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
 
 }
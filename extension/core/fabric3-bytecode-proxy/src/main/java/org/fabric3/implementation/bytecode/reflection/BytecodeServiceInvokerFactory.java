@@ -0,0 +1,281 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.implementation.bytecode.reflection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fabric3.api.host.Names;
+import org.fabric3.implementation.pojo.spi.reflection.ServiceInvoker;
+import org.fabric3.implementation.pojo.spi.reflection.ServiceInvokerFactory;
+import org.fabric3.spi.classloader.BytecodeClassLoader;
+import org.fabric3.spi.classloader.ClassLoaderRegistry;
+import org.fabric3.spi.classloader.MultiParentClassLoader;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionServiceListener;
+import org.oasisopen.sca.annotation.Reference;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+
+/**
+ * Generates {@link ServiceInvoker}s that dispatch to the target method directly instead of using reflection.
+ *
+ * Generated invokers follow the semantics of {@link Method#invoke(Object, Object...)}: exceptions thrown by the target method are wrapped in an {@link
+ * InvocationTargetException}, invalid arguments result in an {@link IllegalArgumentException} and a null target results in a {@link NullPointerException}. Methods that cannot be called from a generated class, i.e.
+ * non-public methods or methods on non-public classes, are invoked reflectively.
+ */
+public class BytecodeServiceInvokerFactory implements ServiceInvokerFactory, ContributionServiceListener {
+    private static final String[] INVOKER_INTERFACES = new String[]{Type.getInternalName(ServiceInvoker.class)};
+    private static final String[] EXCEPTIONS = new String[]{"java/lang/IllegalAccessException",
+                                                            "java/lang/IllegalArgumentException",
+                                                            "java/lang/reflect/InvocationTargetException"};
+
+    private ClassLoaderRegistry classLoaderRegistry;
+
+    private Map<URI, BytecodeClassLoader> classLoaderCache = new ConcurrentHashMap<>();
+
+    public BytecodeServiceInvokerFactory(@Reference ClassLoaderRegistry classLoaderRegistry) {
+        this.classLoaderRegistry = classLoaderRegistry;
+    }
+
+    public void onUninstall(Contribution contribution) {
+        // remove cached classloader for the contribution on undeploy
+        classLoaderCache.remove(contribution.getUri());
+    }
+
+    public boolean isDefault() {
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ServiceInvoker createInvoker(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!isAccessible(method)) {
+            return new ReflectiveInvoker(method);
+        }
+
+        BytecodeClassLoader classLoader = getClassLoader(declaringClass);
+
+        // use the toString() hashcode of the method since more than one invoker may be created per class (if it has multiple methods)
+        int code = Math.abs(method.toString().hashCode());
+        String className = declaringClass.getName() + "_ServiceInvoker" + code;
+
+        try {
+            Class<ServiceInvoker> invokerClass = (Class<ServiceInvoker>) classLoader.loadClass(className);
+            return invokerClass.newInstance();
+        } catch (ClassNotFoundException e) {
+            // ignore
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+
+        String internalTargetName = Type.getInternalName(declaringClass);
+        String internalInvokerName = internalTargetName + "_ServiceInvoker" + code;
+
+        // frames are computed as the invoke method contains exception handlers; locals are not reassigned so no common super types need to be resolved
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+
+        cw.visit(Opcodes.V1_7, ACC_PUBLIC + ACC_SUPER, internalInvokerName, null, "java/lang/Object", INVOKER_INTERFACES);
+
+        cw.visitSource(className + ".java", null);
+
+        BytecodeHelper.writeConstructor(cw, Object.class);
+
+        writeInvoke(method, internalTargetName, cw);
+
+        cw.visitEnd();
+
+        synchronized (classLoader) {
+            // guard against concurrent generation of the same invoker
+            try {
+                Class<ServiceInvoker> invokerClass = (Class<ServiceInvoker>) classLoader.loadClass(className);
+                return invokerClass.newInstance();
+            } catch (ClassNotFoundException e) {
+                return BytecodeHelper.instantiate(ServiceInvoker.class, className, classLoader, cw);
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the invoke method. Arguments are unpacked from the argument array and unboxed before the target method is called directly. A null target is
+     * reported as a NullPointerException, casting and unboxing errors are reported as an IllegalArgumentException and exceptions thrown by the target method
+     * are wrapped in an InvocationTargetException.
+     *
+     * @param method             the target method
+     * @param internalTargetName the internal name of the class declaring the target method
+     * @param cw                 the class writer
+     */
+    private void writeInvoke(Method method, String internalTargetName, ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", null, EXCEPTIONS);
+        mv.visitCode();
+
+        Label argumentsStart = new Label();
+        Label invokeStart = new Label();
+        Label invokeEnd = new Label();
+        Label argumentHandler = new Label();
+        Label targetHandler = new Label();
+        mv.visitTryCatchBlock(argumentsStart, invokeStart, argumentHandler, "java/lang/ClassCastException");
+        mv.visitTryCatchBlock(argumentsStart, invokeStart, argumentHandler, "java/lang/NullPointerException");
+        mv.visitTryCatchBlock(argumentsStart, invokeStart, argumentHandler, "java/lang/ArrayIndexOutOfBoundsException");
+        mv.visitTryCatchBlock(invokeStart, invokeEnd, targetHandler, "java/lang/Throwable");
+
+        // check the target outside the handlers, otherwise calling the target method would raise a NullPointerException reported as thrown by the target
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitJumpInsn(Opcodes.IFNONNULL, argumentsStart);
+        mv.visitTypeInsn(Opcodes.NEW, "java/lang/NullPointerException");
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/NullPointerException", "<init>", "()V");
+        mv.visitInsn(Opcodes.ATHROW);
+
+        mv.visitLabel(argumentsStart);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, internalTargetName);
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            // load the argument from the array and convert it to the parameter type
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "[Ljava/lang/Object;");
+            BytecodeHelper.pushInt(i, mv);
+            mv.visitInsn(Opcodes.AALOAD);
+            BytecodeHelper.writeParam(parameterTypes[i], mv);
+        }
+
+        mv.visitLabel(invokeStart);
+        String methodDescriptor = Type.getMethodDescriptor(method);
+        if (method.getDeclaringClass().isInterface()) {
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, internalTargetName, method.getName(), methodDescriptor);
+        } else {
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, internalTargetName, method.getName(), methodDescriptor);
+        }
+        mv.visitLabel(invokeEnd);
+
+        BytecodeHelper.writeReturn(method.getReturnType(), mv);
+
+        mv.visitLabel(argumentHandler);
+        writeRethrow("java/lang/IllegalArgumentException", mv);
+
+        mv.visitLabel(targetHandler);
+        writeRethrow("java/lang/reflect/InvocationTargetException", mv);
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Writes the instructions to wrap the exception on the top of the stack in an exception of the given type and throw it.
+     *
+     * @param exceptionType the internal name of the wrapping exception type, which must define a constructor that takes a Throwable
+     * @param mv            the method visitor
+     */
+    private void writeRethrow(String exceptionType, MethodVisitor mv) {
+        mv.visitVarInsn(Opcodes.ASTORE, 3);
+        mv.visitTypeInsn(Opcodes.NEW, exceptionType);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitVarInsn(Opcodes.ALOAD, 3);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, exceptionType, "<init>", "(Ljava/lang/Throwable;)V");
+        mv.visitInsn(Opcodes.ATHROW);
+    }
+
+    /**
+     * Returns true if the method can be called from a generated class, which is defined in a different classloader than the target class.
+     *
+     * @param method the method
+     * @return true if the method can be called from a generated class
+     */
+    private boolean isAccessible(Method method) {
+        if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+        Class<?> declaringClass = method.getDeclaringClass();
+        // classes cannot be defined in java.* packages
+        return Modifier.isPublic(declaringClass.getModifiers()) && !declaringClass.getName().startsWith("java.");
+    }
+
+    /**
+     * Returns a classloader for loading the invoker class, creating one if necessary.
+     *
+     * @param declaringClass the class declaring the target method
+     * @return the classloader
+     */
+    private BytecodeClassLoader getClassLoader(Class<?> declaringClass) {
+        URI classLoaderKey;
+        ClassLoader classLoader = declaringClass.getClassLoader();
+        if (classLoader instanceof MultiParentClassLoader) {
+            classLoaderKey = ((MultiParentClassLoader) classLoader).getName();
+        } else {
+            classLoaderKey = Names.BOOT_CONTRIBUTION;
+        }
+
+        return classLoaderCache.computeIfAbsent(classLoaderKey, key -> {
+            ClassLoader parent = classLoaderRegistry.getClassLoader(key);
+            BytecodeClassLoader generationClassLoader = new BytecodeClassLoader(key, parent);
+            generationClassLoader.addParent(getClass().getClassLoader()); // SPI classes need to be visible as well
+            return generationClassLoader;
+        });
+    }
+
+    public void onStore(Contribution contribution) {
+
+    }
+
+    public void onProcessManifest(Contribution contribution) {
+
+    }
+
+    public void onInstall(Contribution contribution) {
+
+    }
+
+    public void onUpdate(Contribution contribution) {
+
+    }
+
+    public void onRemove(Contribution contribution) {
+
+    }
+
+    /**
+     * Invokes methods that cannot be called from a generated class.
+     */
+    private static class ReflectiveInvoker implements ServiceInvoker {
+        private Method method;
+
+        public ReflectiveInvoker(Method method) {
+            this.method = method;
+            this.method.setAccessible(true);
+        }
+
+        public Object invoke(Object obj, Object args) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+            return method.invoke(obj, (Object[]) args);
+        }
+    }
+
+}
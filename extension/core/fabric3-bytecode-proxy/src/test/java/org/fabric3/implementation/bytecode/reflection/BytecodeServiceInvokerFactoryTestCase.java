@@ -0,0 +1,176 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.implementation.bytecode.reflection;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.implementation.pojo.spi.reflection.ServiceInvoker;
+import org.fabric3.spi.classloader.ClassLoaderRegistry;
+
+/**
+ *
+ */
+public class BytecodeServiceInvokerFactoryTestCase extends TestCase {
+    private BytecodeServiceInvokerFactory factory;
+
+    public void testNoArgsInvoke() throws Exception {
+        Method method = Target.class.getMethod("noArgs");
+        ServiceInvoker invoker = factory.createInvoker(method);
+        Target target = new Target();
+        assertNull(invoker.invoke(target, null));
+        assertTrue(target.invoked);
+    }
+
+    public void testStringInvoke() throws Exception {
+        Method method = Target.class.getMethod("echo", String.class);
+        ServiceInvoker invoker = factory.createInvoker(method);
+        assertEquals("test", invoker.invoke(new Target(), new Object[]{"test"}));
+    }
+
+    public void testPrimitivesInvoke() throws Exception {
+        Method method = Target.class.getMethod("primitives", Integer.TYPE, Long.TYPE, Double.TYPE, Boolean.TYPE, Character.TYPE, Short.TYPE, Byte.TYPE);
+        ServiceInvoker invoker = factory.createInvoker(method);
+        Object[] args = new Object[]{1, 2L, 3d, true, 'a', (short) 4, (byte) 5};
+        assertEquals(13L, invoker.invoke(new Target(), args));
+    }
+
+    public void testCharReturnInvoke() throws Exception {
+        Method method = Target.class.getMethod("charValue");
+        ServiceInvoker invoker = factory.createInvoker(method);
+        assertEquals('a', invoker.invoke(new Target(), null));
+    }
+
+    public void testCheckedExceptionWrapped() throws Exception {
+        Method method = Target.class.getMethod("checkedException");
+        ServiceInvoker invoker = factory.createInvoker(method);
+        try {
+            invoker.invoke(new Target(), null);
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    public void testRuntimeExceptionWrapped() throws Exception {
+        Method method = Target.class.getMethod("runtimeException");
+        ServiceInvoker invoker = factory.createInvoker(method);
+        try {
+            invoker.invoke(new Target(), null);
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    public void testInvalidArgument() throws Exception {
+        Method method = Target.class.getMethod("primitives", Integer.TYPE, Long.TYPE, Double.TYPE, Boolean.TYPE, Character.TYPE, Short.TYPE, Byte.TYPE);
+        ServiceInvoker invoker = factory.createInvoker(method);
+        try {
+            invoker.invoke(new Target(), new Object[]{"1", 2L, 3d, true, 'a', (short) 4, (byte) 5});
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            invoker.invoke(new Target(), new Object[]{null, 2L, 3d, true, 'a', (short) 4, (byte) 5});
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testNullTarget() throws Exception {
+        ServiceInvoker invoker = factory.createInvoker(Target.class.getMethod("noArgs"));
+        try {
+            invoker.invoke(null, new Object[0]);
+            fail();
+        } catch (NullPointerException e) {
+            // expected, as with Method.invoke()
+        }
+    }
+
+    public void testInterfaceInvoke() throws Exception {
+        Method method = Service.class.getMethod("echo", String.class);
+        ServiceInvoker invoker = factory.createInvoker(method);
+        assertEquals("test", invoker.invoke(new Target(), new Object[]{"test"}));
+    }
+
+    public void testNonPublicInvoke() throws Exception {
+        Method method = Target.class.getDeclaredMethod("hidden");
+        ServiceInvoker invoker = factory.createInvoker(method);
+        assertEquals("hidden", invoker.invoke(new Target(), null));
+    }
+
+    public void testInvokerCached() throws Exception {
+        Method method = Target.class.getMethod("echo", String.class);
+        assertSame(factory.createInvoker(method).getClass(), factory.createInvoker(method).getClass());
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+
+        ClassLoaderRegistry classLoaderRegistry = EasyMock.createMock(ClassLoaderRegistry.class);
+        EasyMock.expect(classLoaderRegistry.getClassLoader(EasyMock.isA(URI.class))).andReturn(getClass().getClassLoader());
+        EasyMock.replay(classLoaderRegistry);
+
+        factory = new BytecodeServiceInvokerFactory(classLoaderRegistry);
+    }
+
+    public interface Service {
+        String echo(String message);
+    }
+
+    public static class Target implements Service {
+        public boolean invoked;
+
+        public void noArgs() {
+            invoked = true;
+        }
+
+        public String echo(String message) {
+            return message;
+        }
+
+        public long primitives(int i, long l, double d, boolean b, char c, short s, byte bt) {
+            return b && c == 'a' ? i + l + (long) d + s + bt - 2 : -1;
+        }
+
+        public char charValue() {
+            return 'a';
+        }
+
+        public void checkedException() throws IOException {
+            throw new IOException();
+        }
+
+        public void runtimeException() {
+            throw new IllegalStateException();
+        }
+
+        private String hidden() {
+            return "hidden";
+        }
+    }
+
+}
@@ -19,10 +19,12 @@
 package org.fabric3.contribution.scanner.impl;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,6 +32,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -66,6 +69,10 @@ import org.oasisopen.sca.annotation.Reference;
  * directory state with that of the previous pass. Detected changes and additions are cached for the following interval. Detected changes and additions from the
  * previous interval are then compared using a timestamp to see if they have changed again. If so, they remain cached. If they have not changed, they are
  * processed, contributed via the ContributionService, and deployed in the domain.
+ *
+ * When the file system supports native change notification, deployment directories are watched using a {@link DirectoryWatcher} instead of being polled.
+ * Changed entries are reported once they have been quiet for a configurable period and are processed incrementally without rescanning the deployment
+ * directories. If a watch cannot be established or watching is disabled, the scanner falls back to polling.
  */
 @EagerInit
 public class ContributionDirectoryScanner implements Runnable, Fabric3EventListener {
@@ -77,8 +84,12 @@ public class ContributionDirectoryScanner implements Runnable, Fabric3EventListe
     private List<File> paths;
     private long delay = 2000;
     private boolean production = false;
+    private boolean watch = true;
+    private long quietPeriod = 500;
 
     private ScheduledExecutorService executor;
+    private ExecutorService watchExecutor;
+    private DirectoryWatcher watcher;
     private Set<File> ignored = new HashSet<>();
     private Map<String, FileSystemResource> cache = new HashMap<>();
     List<URI> notSeen = new ArrayList<>(); // contributions added when the runtime was offline and hence not previously seen by the scanner
@@ -108,6 +119,27 @@ public class ContributionDirectoryScanner implements Runnable, Fabric3EventListe
         this.delay = delay;
     }
 
+    /**
+     * Sets whether deployment directories are watched for changes using native file system notification. If false, or if the file system does not support
+     * notification, deployment directories are polled.
+     *
+     * @param watch true if deployment directories are watched
+     */
+    @Property(required = false)
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    /**
+     * Sets the time in milliseconds a watched file must be unchanged before it is processed.
+     *
+     * @param quietPeriod the quiet period
+     */
+    @Property(required = false)
+    public void setQuietPeriod(long quietPeriod) {
+        this.quietPeriod = quietPeriod;
+    }
+
     @SuppressWarnings({"unchecked"})
     @Init
     public void init() {
@@ -123,6 +155,12 @@ public class ContributionDirectoryScanner implements Runnable, Fabric3EventListe
         if (executor != null) {
             executor.shutdownNow();
         }
+        if (watcher != null) {
+            watcher.close();
+        }
+        if (watchExecutor != null) {
+            watchExecutor.shutdownNow();
+        }
     }
 
     public void onEvent(Fabric3Event event) {
@@ -146,13 +184,106 @@ public class ContributionDirectoryScanner implements Runnable, Fabric3EventListe
                 monitor.error(e);
             }
             notSeen.clear();
-            if (!production) {
+            if (!production && !startWatcher()) {
                 executor = Executors.newSingleThreadScheduledExecutor();
                 executor.scheduleWithFixedDelay(this, 10, delay, TimeUnit.MILLISECONDS);
             }
         }
     }
 
+    /**
+     * Starts watching the deployment directories and synchronizes with changes made since recovery.
+     *
+     * @return true if the watcher was started; false if polling must be used
+     */
+    private boolean startWatcher() {
+        if (!watch || paths == null) {
+            return false;
+        }
+        try {
+            watcher = new DirectoryWatcher(paths, quietPeriod, this::processChanges, this::synchronize);
+        } catch (IOException e) {
+            monitor.watchNotSupported(e.getMessage());
+            return false;
+        }
+        watchExecutor = Executors.newSingleThreadExecutor();
+        watchExecutor.execute(watcher);
+        // files may have been changed between recovery and the watch being registered
+        synchronize();
+        return true;
+    }
+
+    /**
+     * Rescans the deployment directories when watching. Resources are processed immediately since the watcher does not perform subsequent passes.
+     */
+    private synchronized void synchronize() {
+        List<File> files = new ArrayList<>();
+        for (File path : paths) {
+            File[] pathFiles = path.listFiles();
+            if (pathFiles != null) {
+                Collections.addAll(files, pathFiles);
+            }
+        }
+        processRemovals(files);
+        processChanges(files);
+    }
+
+    /**
+     * Processes entries reported as changed by the watcher. Entries that no longer exist are removed, new entries are added, and modified entries are updated.
+     * Only the given entries are examined.
+     *
+     * @param files the changed entries in the deployment directories
+     */
+    synchronized void processChanges(Collection<File> files) {
+        try {
+            List<FileSystemResource> changed = new ArrayList<>();
+            for (File file : files) {
+                String name = file.getName();
+                if (!file.exists()) {
+                    if (cache.containsKey(name)) {
+                        remove(name);
+                    }
+                    ignored.remove(file);
+                    continue;
+                }
+                FileSystemResource cached = cache.get(name);
+                if (cached == null) {
+                    cached = registry.createResource(file);
+                    if (cached == null) {
+                        // not a known type or incomplete such as missing a manifest, ignore until it changes again
+                        if (!name.startsWith(".") && !name.endsWith(".txt") && !ignored.contains(file)) {
+                            monitor.ignored(name);
+                        }
+                        ignored.add(file);
+                        continue;
+                    }
+                    ignored.remove(file);
+                    cache.put(name, cached);
+                    // the watcher has determined the file is stable, do not wait for another pass to install
+                    cached.setState(FileSystemResourceState.ADDED);
+                    cached.checkpoint();
+                    changed.add(cached);
+                } else if (cached.isChanged()) {
+                    if (cached.getState() == FileSystemResourceState.PROCESSED) {
+                        cached.setState(FileSystemResourceState.UPDATED);
+                    } else if (cached.getState() != FileSystemResourceState.UPDATED) {
+                        // a previous error or pending addition
+                        cached.setState(FileSystemResourceState.ADDED);
+                    }
+                    cached.checkpoint();
+                    changed.add(cached);
+                }
+            }
+            processUpdates(changed);
+            processAdditions(changed, false);
+        } catch (RuntimeException e) {
+            monitor.error(e);
+        } catch (Error e) {
+            monitor.error(e);
+            throw e;
+        }
+    }
+
     public synchronized void run() {
         if (paths == null) {
             return;
@@ -240,22 +371,24 @@ public class ContributionDirectoryScanner implements Runnable, Fabric3EventListe
             }
         }
         if (recover) {
-            processAdditions(true);
+            processAdditions(cache.values(), true);
         } else {
-            processUpdates();
-            processAdditions(false);
+            processUpdates(cache.values());
+            processAdditions(cache.values(), false);
         }
     }
 
     /**
      * Processes updated resources in the deployment directories.
+     *
+     * @param resources the resources to examine
      */
-    private synchronized void processUpdates() {
+    private synchronized void processUpdates(Collection<FileSystemResource> resources) {
         List<ContributionSource> sources = new ArrayList<>();
         List<FileSystemResource> updatedResources = new ArrayList<>();
         List<URI> uris = new ArrayList<>();
         Set<URI> undeployed = new HashSet<>();
-        for (FileSystemResource resource : cache.values()) {
+        for (FileSystemResource resource : resources) {
             if (resource.getState() != FileSystemResourceState.UPDATED) {
                 continue;
             }
@@ -315,13 +448,14 @@ public class ContributionDirectoryScanner implements Runnable, Fabric3EventListe
     /**
      * Processes added resources in the deployment directories.
      *
-     * @param recover true if files are being added in recovery mode
+     * @param resources the resources to examine
+     * @param recover   true if files are being added in recovery mode
      */
-    private synchronized void processAdditions(boolean recover) {
+    private synchronized void processAdditions(Collection<FileSystemResource> resources, boolean recover) {
         List<ContributionSource> sources = new ArrayList<>();
         List<FileSystemResource> addedResources = new ArrayList<>();
 
-        for (FileSystemResource resource : cache.values()) {
+        for (FileSystemResource resource : resources) {
             if (resource.getState() != FileSystemResourceState.ADDED || resource.isChanged()) {
                 resource.checkpoint();
                 continue;
@@ -398,29 +532,38 @@ public class ContributionDirectoryScanner implements Runnable, Fabric3EventListe
             index.put(file.getName(), file);
         }
 
-        for (Iterator<FileSystemResource> iterator = cache.values().iterator(); iterator.hasNext(); ) {
-            FileSystemResource entry = iterator.next();
+        List<String> removed = new ArrayList<>();
+        for (FileSystemResource entry : cache.values()) {
             String name = entry.getName();
-
-            URI uri = URI.create(name);
             if (index.get(name) == null) {
                 // artifact was removed
-                try {
-                    // track the removal
-                    tracked.remove(name);
-                    iterator.remove();
-                    // check that the resource was not deleted by another process
-                    if (contributionService.exists(uri)) {
-                        domain.undeploy(uri);
-                        contributionService.uninstall(uri);
-                        contributionService.remove(uri);
-                    }
-                    monitor.removed(name);
-                } catch (Fabric3Exception e) {
-                    monitor.removalError(name, e);
-                }
+                removed.add(name);
             }
         }
+        removed.forEach(this::remove);
+    }
+
+    /**
+     * Removes a resource that has been deleted from a deployment directory, which results in undeployment.
+     *
+     * @param name the resource name
+     */
+    private synchronized void remove(String name) {
+        URI uri = URI.create(name);
+        try {
+            // track the removal
+            tracked.remove(name);
+            cache.remove(name);
+            // check that the resource was not deleted by another process
+            if (contributionService.exists(uri)) {
+                domain.undeploy(uri);
+                contributionService.uninstall(uri);
+                contributionService.remove(uri);
+            }
+            monitor.removed(name);
+        } catch (Fabric3Exception e) {
+            monitor.removalError(name, e);
+        }
     }
 
     private synchronized void processIgnored() {
@@ -0,0 +1,213 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.contribution.scanner.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches deployment directories for changes using a native {@link WatchService}.
+ *
+ * Each event is mapped to the top-level deployment directory entry it affects. Exploded contributions are watched recursively so that changes to their contents
+ * are attributed to the contribution directory. An entry is reported as changed once no further events have been received for it during the quiet period,
+ * which allows archives that are still being copied to stabilize before they are processed. If the watch service loses events, the overflow callback is invoked
+ * so that the deployment directories can be rescanned in full.
+ */
+public class DirectoryWatcher implements Runnable {
+    private WatchService watchService;
+    private long quietPeriod;
+    private Consumer<Set<File>> changeListener;
+    private Runnable overflowListener;
+
+    // watched directories mapped to the deployment directory entry they belong to; deployment directories map to null
+    private Map<WatchKey, Path> entries = new HashMap<>();
+    private Map<WatchKey, Path> directories = new HashMap<>();
+
+    // entries with pending changes mapped to the time the quiet period expires
+    private Map<Path, Long> pending = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param deployDirectories the deployment directories to watch
+     * @param quietPeriod       the time in milliseconds an entry must be unchanged before it is reported
+     * @param changeListener    receives entries that have changed and are stable
+     * @param overflowListener  invoked when events are lost and the deployment directories must be rescanned
+     * @throws IOException if the watch service cannot be created or a directory cannot be registered
+     */
+    public DirectoryWatcher(List<File> deployDirectories, long quietPeriod, Consumer<Set<File>> changeListener, Runnable overflowListener) throws IOException {
+        this.quietPeriod = quietPeriod;
+        this.changeListener = changeListener;
+        this.overflowListener = overflowListener;
+        watchService = FileSystems.getDefault().newWatchService();
+        try {
+            for (File directory : deployDirectories) {
+                if (!directory.isDirectory()) {
+                    continue;
+                }
+                Path path = directory.toPath();
+                register(path, null);
+                try (Stream<Path> children = Files.list(path)) {
+                    for (Iterator<Path> iterator = children.iterator(); iterator.hasNext(); ) {
+                        Path child = iterator.next();
+                        if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                            registerTree(child, child);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+    }
+
+    /**
+     * Stops watching the deployment directories.
+     */
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long wait = Math.max(0, pending.values().iterator().next() - System.currentTimeMillis());
+                    key = watchService.poll(wait, TimeUnit.MILLISECONDS);
+                }
+                while (key != null) {
+                    process(key);
+                    key = watchService.poll();
+                }
+                Set<File> stable = expire();
+                if (!stable.isEmpty()) {
+                    changeListener.accept(stable);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records the events for a watch key.
+     *
+     * @param key the key
+     */
+    private void process(WatchKey key) {
+        Path directory = directories.get(key);
+        if (directory == null) {
+            key.cancel();
+            return;
+        }
+        Path entry = entries.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                pending.clear();
+                overflowListener.run();
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            Path changed = entry != null ? entry : child;
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                try {
+                    registerTree(child, changed);
+                } catch (IOException e) {
+                    // the directory was removed before it could be registered, which will be reported by a subsequent event
+                }
+            }
+            // re-insert to keep entries ordered by their quiet period expiration
+            pending.remove(changed);
+            pending.put(changed, System.currentTimeMillis() + quietPeriod);
+        }
+        if (!key.reset()) {
+            entries.remove(key);
+            directories.remove(key);
+        }
+    }
+
+    /**
+     * Returns the entries whose quiet period has expired.
+     *
+     * @return the stable entries
+     */
+    private Set<File> expire() {
+        Set<File> stable = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+        for (Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            if (entry.getValue() > now) {
+                break;
+            }
+            stable.add(entry.getKey().toFile());
+            iterator.remove();
+        }
+        return stable;
+    }
+
+    private void registerTree(Path directory, Path entry) throws IOException {
+        try (Stream<Path> tree = Files.walk(directory)) {
+            for (Iterator<Path> iterator = tree.iterator(); iterator.hasNext(); ) {
+                Path path = iterator.next();
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    register(path, entry);
+                }
+            }
+        }
+    }
+
+    private void register(Path directory, Path entry) throws IOException {
+        WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        directories.put(key, directory);
+        entries.put(key, entry);
+    }
+
+}
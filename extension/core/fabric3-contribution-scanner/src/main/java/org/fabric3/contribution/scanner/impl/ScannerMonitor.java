@@ -20,6 +20,7 @@ package org.fabric3.contribution.scanner.impl;
 
 import org.fabric3.api.annotation.monitor.Info;
 import org.fabric3.api.annotation.monitor.Severe;
+import org.fabric3.api.annotation.monitor.Warning;
 
 /**
  * Monitoring interface for the DirectoryScanner
@@ -83,4 +84,12 @@ public interface ScannerMonitor {
     @Severe("The following deployment errors were raised:\n\n {0}")
     void deploymentErrors(String description);
 
+    /**
+     * Called when deployment directories cannot be watched for changes and the scanner falls back to polling.
+     *
+     * @param reason the reason
+     */
+    @Warning("Deployment directories cannot be watched for changes, polling will be used instead: {0}")
+    void watchNotSupported(String reason);
+
 }
@@ -0,0 +1,114 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.contribution.scanner.impl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class DirectoryWatcherTestCase extends TestCase {
+    private File directory;
+    private BlockingQueue<Set<File>> changes;
+    private DirectoryWatcher watcher;
+    private Thread thread;
+
+    public void testAddModifyRemove() throws Exception {
+        File file = new File(directory, "test.jar");
+        write(file);
+        assertEquals(Collections.singleton(file), changes.poll(10, TimeUnit.SECONDS));
+
+        write(file);
+        assertEquals(Collections.singleton(file), changes.poll(10, TimeUnit.SECONDS));
+
+        assertTrue(file.delete());
+        assertEquals(Collections.singleton(file), changes.poll(10, TimeUnit.SECONDS));
+    }
+
+    public void testQuietPeriodCoalescesEvents() throws Exception {
+        File file = new File(directory, "test.jar");
+        for (int i = 0; i < 5; i++) {
+            write(file);
+        }
+        assertEquals(Collections.singleton(file), changes.poll(10, TimeUnit.SECONDS));
+        assertNull(changes.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    public void testExplodedContributionChangesReportedForEntry() throws Exception {
+        File exploded = new File(directory, "exploded");
+        File metaInf = new File(exploded, "META-INF");
+        assertTrue(metaInf.mkdirs());
+        Set<File> received = new HashSet<>();
+        Set<File> batch;
+        while ((batch = changes.poll(1, TimeUnit.SECONDS)) != null) {
+            received.addAll(batch);
+        }
+        assertEquals(Collections.singleton(exploded), received);
+
+        write(new File(metaInf, "sca-contribution.xml"));
+        assertEquals(Collections.singleton(exploded), changes.poll(10, TimeUnit.SECONDS));
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("watcher").toFile();
+        changes = new LinkedBlockingQueue<>();
+        watcher = new DirectoryWatcher(Collections.singletonList(directory), 100, changes::add, () -> {
+        });
+        thread = new Thread(watcher);
+        thread.start();
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        watcher.close();
+        thread.interrupt();
+        thread.join(5000);
+        delete(directory);
+    }
+
+    private void write(File file) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file, true)) {
+            stream.write(1);
+        }
+    }
+
+    private void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.appender.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.TreeMap;
+
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.monitor.spi.appender.BinaryAppender;
+import org.fabric3.monitor.spi.binary.BinaryFormat;
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
+
+/**
+ * Appends binary event records to memory-mapped segment files. Segments are named using the configured file name and a sequence number, for example
+ * <code>fabric3-000001.mlog</code>. A new segment is started when a record does not fit in the current one; the previous segment is truncated to the
+ * records it contains.
+ *
+ * A template record is written before the first event in a segment that refers to the template so each segment can be decoded on its own.
+ */
+public class BinaryFileAppender implements BinaryAppender {
+    private static final int TEMPLATE_OVERHEAD = 9;   // length, type and id
+
+    private File directory;
+    private String baseName;
+    private String extension;
+    private long segmentSize;
+    private int maxSegments;
+    private TemplateRegistry registry;
+
+    private int sequence;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private BitSet writtenTemplates = new BitSet();
+
+    /**
+     * Constructor.
+     *
+     * @param file        the log file name used to derive segment names
+     * @param segmentSize the segment size in bytes
+     * @param maxSegments the maximum number of segments to retain or -1 to retain all segments
+     */
+    public BinaryFileAppender(File file, long segmentSize, int maxSegments) {
+        this.directory = file.getAbsoluteFile().getParentFile();
+        String name = file.getName();
+        int pos = name.lastIndexOf('.');
+        this.baseName = pos < 0 ? name : name.substring(0, pos);
+        this.extension = pos < 0 ? "" : name.substring(pos);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    public void setTemplateRegistry(TemplateRegistry registry) {
+        this.registry = registry;
+    }
+
+    public synchronized void start() {
+        if (registry == null) {
+            throw new Fabric3Exception("Template registry not set");
+        }
+        TreeMap<Integer, File> segments = getSegments();
+        sequence = segments.isEmpty() ? 0 : segments.lastKey();
+        openSegment(segmentSize);
+    }
+
+    public synchronized void stop() {
+        closeSegment();
+    }
+
+    public synchronized void write(ByteBuffer buffer) throws Fabric3Exception {
+        if (segment == null) {
+            throw new Fabric3Exception("Appender not started");
+        }
+        byte[] template = getTemplate(buffer);
+        int needed = buffer.remaining() + (template == null ? 0 : TEMPLATE_OVERHEAD + template.length);
+        if (segment.remaining() < needed) {
+            closeSegment();
+            openSegment(Math.max(segmentSize, needed + BinaryFormat.HEADER_SIZE));
+            prune();
+            // templates must be repeated in each segment
+            template = getTemplate(buffer);
+        }
+        if (template != null) {
+            int id = buffer.getInt(buffer.position() + BinaryFormat.TEMPLATE_ID_OFFSET);
+            segment.putInt(TEMPLATE_OVERHEAD - 4 + template.length);
+            segment.put(BinaryFormat.RECORD_TEMPLATE);
+            segment.putInt(id);
+            segment.put(template);
+            writtenTemplates.set(id);
+        }
+        segment.put(buffer);
+    }
+
+    /**
+     * Returns the template text for an event record if it has not been written to the current segment.
+     *
+     * @param buffer the record
+     * @return the template text or null
+     */
+    private byte[] getTemplate(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() <= BinaryFormat.TEMPLATE_ID_OFFSET + 4 || buffer.get(start + BinaryFormat.TYPE_OFFSET) != BinaryFormat.RECORD_EVENT) {
+            return null;
+        }
+        int id = buffer.getInt(start + BinaryFormat.TEMPLATE_ID_OFFSET);
+        if (id == BinaryFormat.NO_TEMPLATE || writtenTemplates.get(id)) {
+            return null;
+        }
+        String template = registry.getTemplate(id);
+        return template == null ? null : template.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void openSegment(long size) {
+        sequence++;
+        File file = new File(directory, getSegmentName(sequence));
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            segment.putInt(BinaryFormat.MAGIC);
+            segment.putShort(BinaryFormat.VERSION);
+            writtenTemplates.clear();
+        } catch (IOException e) {
+            throw new Fabric3Exception(e);
+        }
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            int end = segment.position();
+            segment.force();
+            segment = null;
+            // remove the unused portion of the segment
+            channel.truncate(end);
+            channel.close();
+            channel = null;
+        } catch (IOException e) {
+            throw new Fabric3Exception(e);
+        }
+    }
+
+    /**
+     * Deletes the oldest segments if the number of segments exceeds the configured maximum.
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private void prune() {
+        if (maxSegments < 1) {
+            return;
+        }
+        TreeMap<Integer, File> segments = getSegments();
+        int excess = segments.size() - maxSegments;
+        for (File file : segments.values()) {
+            if (excess <= 0) {
+                break;
+            }
+            file.delete();
+            excess--;
+        }
+    }
+
+    /**
+     * Returns the segments in the directory sorted by sequence number.
+     *
+     * @return the segments
+     */
+    private TreeMap<Integer, File> getSegments() {
+        TreeMap<Integer, File> segments = new TreeMap<>();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return segments;
+        }
+        String prefix = baseName + "-";
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.startsWith(prefix) || !name.endsWith(extension)) {
+                continue;
+            }
+            String number = name.substring(prefix.length(), name.length() - extension.length());
+            try {
+                segments.put(Integer.parseInt(number), file);
+            } catch (NumberFormatException e) {
+                // not a segment
+            }
+        }
+        return segments;
+    }
+
+    private String getSegmentName(int number) {
+        return String.format("%s-%06d%s", baseName, number, extension);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.appender.binary;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.xml.AbstractValidatingTypeLoader;
+import org.fabric3.spi.introspection.xml.InvalidValue;
+import org.fabric3.spi.introspection.xml.LoaderRegistry;
+import org.oasisopen.sca.Constants;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.EagerInit;
+import org.oasisopen.sca.annotation.Init;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Loads a {@link BinaryFileAppenderDefinition} from an appender configuration.
+ */
+@EagerInit
+public class BinaryFileAppenderLoader extends AbstractValidatingTypeLoader<BinaryFileAppenderDefinition> {
+    private static final QName SCA_TYPE = new QName(Constants.SCA_NS, "appender.binary");
+    private static final QName F3_TYPE = new QName(org.fabric3.api.Namespaces.F3, "appender.binary");
+    private static final String FABRIC3_LOG = "fabric3.mlog";
+    private static final long SIZE_64MB = 67108864;
+
+    private LoaderRegistry registry;
+
+    public BinaryFileAppenderLoader(@Reference LoaderRegistry registry) {
+        this.registry = registry;
+        addAttributes("file", "segment.size", "max.segments");
+    }
+
+    @Init
+    public void init() {
+        // register under both namespaces
+        registry.registerLoader(F3_TYPE, this);
+        registry.registerLoader(SCA_TYPE, this);
+    }
+
+    @Destroy
+    public void destroy() {
+        registry.unregisterLoader(F3_TYPE);
+        registry.unregisterLoader(SCA_TYPE);
+    }
+
+    public BinaryFileAppenderDefinition load(XMLStreamReader reader, IntrospectionContext context) throws XMLStreamException {
+        validateAttributes(reader, context);
+        String fileName = reader.getAttributeValue(null, "file");
+        if (fileName == null) {
+            fileName = FABRIC3_LOG;
+        }
+        long segmentSize = SIZE_64MB;
+        String sizeStr = reader.getAttributeValue(null, "segment.size");
+        if (sizeStr != null) {
+            try {
+                segmentSize = Long.parseLong(sizeStr);
+                if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+                    context.addError(new InvalidValue("Segment size must be between 1 and " + Integer.MAX_VALUE + ": " + sizeStr, reader.getLocation()));
+                    segmentSize = SIZE_64MB;
+                }
+            } catch (NumberFormatException e) {
+                context.addError(new InvalidValue("Invalid segment size: " + sizeStr, reader.getLocation(), e));
+            }
+        }
+        int maxSegments = -1;
+        String maxStr = reader.getAttributeValue(null, "max.segments");
+        if (maxStr != null) {
+            try {
+                maxSegments = Integer.parseInt(maxStr);
+            } catch (NumberFormatException e) {
+                context.addError(new InvalidValue("Invalid maximum number of segments: " + maxStr, reader.getLocation(), e));
+            }
+        }
+        return new BinaryFileAppenderDefinition(fileName, segmentSize, maxSegments);
+    }
+}
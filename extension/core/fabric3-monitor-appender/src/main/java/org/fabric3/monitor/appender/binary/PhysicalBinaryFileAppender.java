@@ -0,0 +1,47 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.appender.binary;
+
+import org.fabric3.monitor.spi.model.physical.PhysicalAppender;
+
+/**
+ * Configuration for a binary file appender.
+ */
+public class PhysicalBinaryFileAppender extends PhysicalAppender {
+    private String fileName;
+    private long segmentSize;
+    private int maxSegments;
+
+    public PhysicalBinaryFileAppender(String fileName, long segmentSize, int maxSegments) {
+        this.fileName = fileName;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.monitor.appender.file;
+
+import java.io.File;
+
+/**
+ * Base class for strategies that manage backup files. Backups may be compressed in the background after they are rolled, in which case the backup is replaced
+ * by a file with the {@link #COMPRESSED_EXTENSION} appended to its name. Backup management operations treat both forms as the same backup.
+ */
+public abstract class AbstractRollStrategy implements RollStrategy {
+    public static final String COMPRESSED_EXTENSION = ".gz";
+
+    /**
+     * Returns true if the backup exists in either uncompressed or compressed form.
+     *
+     * @param backup the backup file
+     * @return true if the backup exists
+     */
+    protected boolean exists(File backup) {
+        return backup.exists() || compressed(backup).exists();
+    }
+
+    /**
+     * Deletes the backup in both uncompressed and compressed forms.
+     *
+     * @param backup the backup file
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    protected void delete(File backup) {
+        backup.delete();
+        compressed(backup).delete();
+    }
+
+    /**
+     * Renames a backup, preserving its form.
+     *
+     * @param source the backup to rename
+     * @param target the new backup name
+     */
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    protected void rename(File source, File target) {
+        if (source.exists()) {
+            source.renameTo(target);
+        } else {
+            compressed(source).renameTo(compressed(target));
+        }
+    }
+
+    /**
+     * Returns the name of a backup file, inserting a suffix before the file extension.
+     *
+     * @param file   the rolling file
+     * @param suffix the suffix
+     * @return the backup file
+     */
+    protected File getLogName(File file, String suffix) {
+        int pos = file.getName().lastIndexOf(".");
+        if (pos < 0) {
+            return new File(file.getParent(), file.getName() + suffix);
+        }
+        String name = file.getName().substring(0, pos) + suffix;
+        String extension = file.getName().substring(pos);
+        return new File(file.getParent(), name + extension);
+    }
+
+    private File compressed(File backup) {
+        return new File(backup.getParent(), backup.getName() + COMPRESSED_EXTENSION);
+    }
+
+}
@@ -20,68 +20,195 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import org.fabric3.api.host.Fabric3Exception;
-import org.fabric3.api.host.util.FileHelper;
 import org.fabric3.monitor.spi.appender.Appender;
 
 /**
  * Writes monitor events to a file that may be rolled periodically according to a {@link RollStrategy}.
+ *
+ * Events are coalesced in a buffer which is written to the file when a batch of events is pending, the buffer is full, or the flush interval elapses. If the
+ * appender is reliable, the file is forced to storage once per write of the buffer rather than once per event.
+ *
+ * Files are rolled by renaming them to the backup provided by the roll strategy. If compression is enabled, backups are compressed in the background.
  */
 public class FileAppender implements Appender {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private File file;
     private RollStrategy strategy;
     private FileOutputStream stream;
     private FileChannel fileChannel;
 
     private boolean reliable;
+    private int batchSize = 1;
+    private long flushInterval;
+    private boolean compress;
+
+    private ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private int pendingEvents;
 
+    // guards backup files, which are renamed when rolling and rotating and replaced when compressing
+    private final Object backupLock = new Object();
+    private ScheduledExecutorService executorService;
+
+    /**
+     * Constructor for an appender that writes each event as it is received.
+     *
+     * @param file     the file to write to
+     * @param strategy the roll strategy
+     * @param reliable true if the file is forced to storage after each write
+     */
     public FileAppender(File file, RollStrategy strategy, boolean reliable) {
         this.file = file;
         this.strategy = strategy;
         this.reliable = reliable;
     }
 
+    /**
+     * Constructor.
+     *
+     * @param file          the file to write to
+     * @param strategy      the roll strategy
+     * @param reliable      true if the file is forced to storage after each write
+     * @param batchSize     the number of events to coalesce before writing to the file
+     * @param flushInterval the maximum time in milliseconds events are buffered before being written to the file or 0 to only write full batches
+     * @param compress      true if rolled files are compressed
+     */
+    public FileAppender(File file, RollStrategy strategy, boolean reliable, int batchSize, long flushInterval, boolean compress) {
+        this(file, strategy, reliable);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = flushInterval;
+        this.compress = compress;
+    }
+
     public void start() {
         initializeChannel();
+        if ((flushInterval > 0 && batchSize > 1) || compress) {
+            executorService = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "Fabric3 File Appender: " + file.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (flushInterval > 0 && batchSize > 1) {
+                executorService.scheduleWithFixedDelay(this::flushPending, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+            }
+        }
     }
 
     public void stop() {
         try {
-            if (stream != null) {
-                stream.close();
-                stream = null;
+            synchronized (this) {
+                if (fileChannel != null && fileChannel.isOpen()) {
+                    flush();
+                }
+            }
+            if (executorService != null) {
+                executorService.shutdown();
+                // allow compression of rolled files to complete
+                executorService.awaitTermination(30, TimeUnit.SECONDS);
+                executorService = null;
+            }
+            synchronized (this) {
+                if (stream != null) {
+                    stream.close();
+                    stream = null;
+                }
             }
         } catch (IOException e) {
             throw new Fabric3Exception(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     public synchronized void write(ByteBuffer buffer) {
         try {
-            roll();
-            fileChannel.write(buffer);
-            if (reliable) {
-                fileChannel.force(false);
+            if (buffer.remaining() > pending.remaining()) {
+                flush();
             }
-        } catch (ClosedChannelException cce) {
-            try {
-                initializeChannel();
-                fileChannel.write(buffer);
+            if (buffer.remaining() > pending.capacity()) {
+                // too large to buffer
+                roll();
+                writeFully(buffer);
                 if (reliable) {
                     fileChannel.force(false);
                 }
-            } catch (IOException ioe) {
-                throw new Fabric3Exception(ioe);
+                return;
+            }
+            pending.put(buffer);
+            pendingEvents++;
+            if (pendingEvents >= batchSize) {
+                flush();
             }
         } catch (IOException e) {
             throw new Fabric3Exception(e);
         }
     }
 
+    /**
+     * Writes buffered events to the file. Called periodically when a flush interval is configured.
+     */
+    private synchronized void flushPending() {
+        if (pendingEvents == 0) {
+            return;
+        }
+        try {
+            flush();
+        } catch (IOException | Fabric3Exception e) {
+            // the next write will report the error
+        }
+    }
+
+    /**
+     * Writes buffered events to the file, rolling it first if required, and forces the file to storage if the appender is reliable.
+     *
+     * @throws IOException if there is an error writing
+     */
+    private void flush() throws IOException {
+        if (pendingEvents == 0) {
+            return;
+        }
+        roll();
+        pending.flip();
+        try {
+            writeFully(pending);
+            if (reliable) {
+                fileChannel.force(false);
+            }
+        } finally {
+            pending.clear();
+            pendingEvents = 0;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        try {
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+        } catch (ClosedChannelException e) {
+            // the channel was closed by an interrupt, reopen it
+            initializeChannel();
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+        }
+    }
+
     private void initializeChannel() {
         try {
             stream = new FileOutputStream(file, true);
@@ -91,14 +218,60 @@ public class FileAppender implements Appender {
         }
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     private void roll() throws IOException {
-        if (strategy.checkRoll(file)) {
-            stream.close();
-            File backup = strategy.getBackup(file);
-            FileHelper.copyFile(file, backup);
-            file.delete();
-            initializeChannel();
+        if (!strategy.checkRoll(file)) {
+            return;
+        }
+        stream.close();
+        File backup;
+        synchronized (backupLock) {
+            backup = strategy.getBackup(file);
+            move(file.toPath(), backup.toPath());
+        }
+        initializeChannel();
+        if (compress) {
+            executorService.execute(() -> compress(backup));
+        }
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Compresses a rolled file. Backups are not rotated while a file is being compressed.
+     *
+     * @param backup the rolled file
+     */
+    private void compress(File backup) {
+        synchronized (backupLock) {
+            if (!backup.exists()) {
+                return;
+            }
+            Path source = backup.toPath();
+            Path target = new File(backup.getParentFile(), backup.getName() + AbstractRollStrategy.COMPRESSED_EXTENSION).toPath();
+            try {
+                try (InputStream in = Files.newInputStream(source); OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), BUFFER_SIZE)) {
+                    byte[] bytes = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((read = in.read(bytes)) != -1) {
+                        out.write(bytes, 0, read);
+                    }
+                }
+                Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+                Files.delete(source);
+            } catch (IOException e) {
+                // leave the backup uncompressed
+                try {
+                    Files.deleteIfExists(target);
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
         }
     }
 
@@ -42,19 +42,36 @@ public class FileAppenderBuilder implements AppenderBuilder<PhysicalFileAppender
         outputDir.mkdirs();
         File outputFile = new File(outputDir, fileAppender.getFileName());
 
-        String rollType = fileAppender.getRollType();
+        RollStrategy strategy = createStrategy(fileAppender);
+        boolean reliable = fileAppender.isReliable();
+        int batchSize = fileAppender.getBatchSize();
+        long flushInterval = fileAppender.getFlushInterval();
+        boolean compress = fileAppender.isCompress();
+        return new FileAppender(outputFile, strategy, reliable, batchSize, flushInterval, compress);
+    }
 
+    private RollStrategy createStrategy(PhysicalFileAppender fileAppender) {
+        String rollType = fileAppender.getRollType();
+        long rollSize = fileAppender.getRollSize();
+        int maxBackups = fileAppender.getMaxBackups();
         if (FileAppenderConstants.ROLL_STRATEGY_NONE.equals(rollType)) {
-            RollStrategy strategy = new NoRollStrategy();
-            return new FileAppender(outputFile, strategy, false);
+            return new NoRollStrategy();
         } else if (FileAppenderConstants.ROLL_STRATEGY_SIZE.equals(rollType)) {
-            long rollSize = fileAppender.getRollSize();
-            int maxBackups = fileAppender.getMaxBackups();
-            RollStrategy strategy = new SizeRollStrategy(rollSize, maxBackups);
-            return new FileAppender(outputFile, strategy, false);
+            return new SizeRollStrategy(rollSize, maxBackups);
+        } else if (FileAppenderConstants.ROLL_STRATEGY_TIME.equals(rollType)) {
+            return new TimeRollStrategy(getPeriod(fileAppender), maxBackups);
+        } else if (FileAppenderConstants.ROLL_STRATEGY_SIZE_TIME.equals(rollType)) {
+            return new SizeTimeRollStrategy(rollSize, getPeriod(fileAppender), maxBackups);
         } else {
             throw new Fabric3Exception("Unknown roll type: " + rollType);
         }
+    }
 
+    private RollPeriod getPeriod(PhysicalFileAppender fileAppender) {
+        try {
+            return RollPeriod.valueOf(fileAppender.getRollPeriod().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new Fabric3Exception("Unknown roll period: " + fileAppender.getRollPeriod());
+        }
     }
 }
@@ -25,4 +25,12 @@ public interface FileAppenderConstants {
 
     String ROLL_STRATEGY_SIZE = "size";
 
+    String ROLL_STRATEGY_TIME = "time";
+
+    String ROLL_STRATEGY_SIZE_TIME = "size.time";
+
+    int DEFAULT_BATCH_SIZE = 64;
+
+    long DEFAULT_FLUSH_INTERVAL = 100;
+
 }
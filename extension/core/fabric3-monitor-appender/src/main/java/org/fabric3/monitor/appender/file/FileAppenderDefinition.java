@@ -28,6 +28,11 @@ public class FileAppenderDefinition extends AppenderDefinition {
     private String rollType = FileAppenderConstants.ROLL_STRATEGY_NONE;
     private long rollSize;
     private int maxBackups;
+    private String rollPeriod = RollPeriod.DAILY.toString();
+    private boolean compress;
+    private boolean reliable;
+    private int batchSize = FileAppenderConstants.DEFAULT_BATCH_SIZE;
+    private long flushInterval = FileAppenderConstants.DEFAULT_FLUSH_INTERVAL;
 
     public FileAppenderDefinition(String fileName, String rollType, long rollSize, int maxBackups) {
         super("file");
@@ -57,4 +62,44 @@ public class FileAppenderDefinition extends AppenderDefinition {
     public int getMaxBackups() {
         return maxBackups;
     }
+
+    public String getRollPeriod() {
+        return rollPeriod;
+    }
+
+    public void setRollPeriod(String rollPeriod) {
+        this.rollPeriod = rollPeriod;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public boolean isReliable() {
+        return reliable;
+    }
+
+    public void setReliable(boolean reliable) {
+        this.reliable = reliable;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
 }
@@ -27,7 +27,16 @@ import org.oasisopen.sca.annotation.EagerInit;
 public class FileAppenderGenerator implements AppenderGenerator<FileAppenderDefinition> {
 
     public PhysicalFileAppender generateResource(FileAppenderDefinition definition) throws Fabric3Exception {
-        return new PhysicalFileAppender(definition.getFileName(), definition.getRollType(), definition.getRollSize(), definition.getMaxBackups());
+        PhysicalFileAppender appender = new PhysicalFileAppender(definition.getFileName(),
+                                                                 definition.getRollType(),
+                                                                 definition.getRollSize(),
+                                                                 definition.getMaxBackups());
+        appender.setRollPeriod(definition.getRollPeriod());
+        appender.setCompress(definition.isCompress());
+        appender.setReliable(definition.isReliable());
+        appender.setBatchSize(definition.getBatchSize());
+        appender.setFlushInterval(definition.getFlushInterval());
+        return appender;
     }
 
 }
@@ -64,7 +64,7 @@ public class FileAppenderLoader extends AbstractValidatingTypeLoader<FileAppende
     }
 
     public FileAppenderDefinition load(XMLStreamReader reader, IntrospectionContext context) throws XMLStreamException {
-        addAttributes("file", "roll.type", "roll.size", "max.backups");
+        addAttributes("file", "roll.type", "roll.size", "roll.period", "max.backups", "compress", "reliable", "batch.size", "flush.interval");
         validateAttributes(reader, context);
         String fileName = reader.getAttributeValue(null, "file");
         Location location = reader.getLocation();
@@ -83,10 +83,24 @@ public class FileAppenderLoader extends AbstractValidatingTypeLoader<FileAppende
         }
 
         String rollType = reader.getAttributeValue(null, "roll.type");
-        long rollSize = SIZE_100MB;
+        FileAppenderDefinition definition;
         if (rollType == null || FileAppenderConstants.ROLL_STRATEGY_NONE.equals(rollType)) {
-            return new FileAppenderDefinition(fileName);
-        } else if (FileAppenderConstants.ROLL_STRATEGY_SIZE.equals(rollType)) {
+            definition = new FileAppenderDefinition(fileName);
+        } else if (FileAppenderConstants.ROLL_STRATEGY_SIZE.equals(rollType)
+                   || FileAppenderConstants.ROLL_STRATEGY_TIME.equals(rollType)
+                   || FileAppenderConstants.ROLL_STRATEGY_SIZE_TIME.equals(rollType)) {
+            definition = loadRolling(reader, fileName, rollType);
+        } else {
+            monitor.invalidRollType(fileName, rollType);
+            definition = new FileAppenderDefinition(fileName);
+        }
+        loadWriteSettings(reader, fileName, definition);
+        return definition;
+    }
+
+    private FileAppenderDefinition loadRolling(XMLStreamReader reader, String fileName, String rollType) {
+        long rollSize = SIZE_100MB;
+        if (!FileAppenderConstants.ROLL_STRATEGY_TIME.equals(rollType)) {
             String sizeStr = reader.getAttributeValue(null, "roll.size");
             if (sizeStr != null) {
                 try {
@@ -95,23 +109,62 @@ public class FileAppenderLoader extends AbstractValidatingTypeLoader<FileAppende
                     monitor.invalidRollSize(fileName, sizeStr);
                 }
             }
-            String maxBackupsStr = reader.getAttributeValue(null, "max.backups");
-            int maxBackups = -1;
-            if (maxBackupsStr != null) {
+        }
+        String maxBackupsStr = reader.getAttributeValue(null, "max.backups");
+        int maxBackups = -1;
+        if (maxBackupsStr != null) {
+            try {
+                maxBackups = Integer.parseInt(maxBackupsStr);
+            } catch (NumberFormatException e) {
+                monitor.invalidMaxBackups(fileName, maxBackupsStr);
+            }
+            if (maxBackups < 1) {
+                monitor.invalidMaxBackups(fileName, maxBackupsStr);
+                maxBackups = -1;
+            }
+        }
+        FileAppenderDefinition definition = new FileAppenderDefinition(fileName, rollType, rollSize, maxBackups);
+        if (!FileAppenderConstants.ROLL_STRATEGY_SIZE.equals(rollType)) {
+            String period = reader.getAttributeValue(null, "roll.period");
+            if (period != null) {
                 try {
-                    maxBackups = Integer.parseInt(maxBackupsStr);
-                } catch (NumberFormatException e) {
-                    monitor.invalidMaxBackups(fileName, maxBackupsStr);
+                    definition.setRollPeriod(RollPeriod.valueOf(period.toUpperCase()).toString());
+                } catch (IllegalArgumentException e) {
+                    monitor.invalidRollPeriod(fileName, period);
+                }
+            }
+        }
+        definition.setCompress(Boolean.parseBoolean(reader.getAttributeValue(null, "compress")));
+        return definition;
+    }
+
+    private void loadWriteSettings(XMLStreamReader reader, String fileName, FileAppenderDefinition definition) {
+        definition.setReliable(Boolean.parseBoolean(reader.getAttributeValue(null, "reliable")));
+        String batchSizeStr = reader.getAttributeValue(null, "batch.size");
+        if (batchSizeStr != null) {
+            try {
+                int batchSize = Integer.parseInt(batchSizeStr);
+                if (batchSize < 1) {
+                    monitor.invalidWriteSetting(fileName, "batch.size", batchSizeStr);
+                } else {
+                    definition.setBatchSize(batchSize);
                 }
-                if (maxBackups < 1) {
-                    monitor.invalidMaxBackups(fileName, maxBackupsStr);
-                    maxBackups = -1;
+            } catch (NumberFormatException e) {
+                monitor.invalidWriteSetting(fileName, "batch.size", batchSizeStr);
+            }
+        }
+        String intervalStr = reader.getAttributeValue(null, "flush.interval");
+        if (intervalStr != null) {
+            try {
+                long interval = Long.parseLong(intervalStr);
+                if (interval < 0) {
+                    monitor.invalidWriteSetting(fileName, "flush.interval", intervalStr);
+                } else {
+                    definition.setFlushInterval(interval);
                 }
+            } catch (NumberFormatException e) {
+                monitor.invalidWriteSetting(fileName, "flush.interval", intervalStr);
             }
-            return new FileAppenderDefinition(fileName, rollType, rollSize, maxBackups);
-        } else {
-            monitor.invalidRollType(fileName, rollType);
-            return new FileAppenderDefinition(fileName);
         }
     }
 
@@ -31,4 +31,10 @@ public interface LoaderMonitor {
 
     @Warning("Invalid max backups {0}: {1}. Defaulting to no maximum.")
     void invalidMaxBackups(String fileName, String maxBackupsStr);
+
+    @Warning("Invalid roll period specified for {0}: {1}. Defaulting to daily.")
+    void invalidRollPeriod(String fileName, String period);
+
+    @Warning("Invalid {1} specified for {0}: {2}. Using the default.")
+    void invalidWriteSetting(String fileName, String attribute, String value);
 }
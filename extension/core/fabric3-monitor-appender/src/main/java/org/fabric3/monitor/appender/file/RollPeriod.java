@@ -0,0 +1,99 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.monitor.appender.file;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * The period at which a file is rolled by a {@link TimeRollStrategy}. Periods are aligned to boundaries in the default time zone.
+ */
+public enum RollPeriod {
+
+    HOURLY(ChronoUnit.HOURS, "yyyy-MM-dd-HH"),
+
+    DAILY(ChronoUnit.DAYS, "yyyy-MM-dd");
+
+    private ChronoUnit unit;
+    private DateTimeFormatter formatter;
+
+    RollPeriod(ChronoUnit unit, String pattern) {
+        this.unit = unit;
+        this.formatter = DateTimeFormatter.ofPattern(pattern);
+    }
+
+    /**
+     * Returns the start of the period containing the given time.
+     *
+     * @param time the time in milliseconds
+     * @return the period start in milliseconds
+     */
+    public long start(long time) {
+        return toDateTime(time).truncatedTo(unit).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the start of the period following the period starting at the given time.
+     *
+     * @param start the period start in milliseconds
+     * @return the start of the next period in milliseconds
+     */
+    public long next(long start) {
+        return toDateTime(start).plus(1, unit).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Formats the period starting at the given time for use in a file name.
+     *
+     * @param start the period start in milliseconds
+     * @return the formatted period
+     */
+    public String format(long start) {
+        return formatter.format(toDateTime(start));
+    }
+
+    /**
+     * Parses a period formatted by {@link #format(long)}.
+     *
+     * @param text the formatted period
+     * @return the period start in milliseconds or -1 if the text is not a formatted period
+     */
+    public long parse(String text) {
+        try {
+            TemporalAccessor parsed = formatter.parse(text);
+            int hour = parsed.isSupported(ChronoField.HOUR_OF_DAY) ? parsed.get(ChronoField.HOUR_OF_DAY) : 0;
+            return LocalDate.from(parsed).atTime(hour, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException e) {
+            return -1;
+        }
+    }
+
+    private ZonedDateTime toDateTime(long time) {
+        return Instant.ofEpochMilli(time).atZone(ZoneId.systemDefault());
+    }
+
+}
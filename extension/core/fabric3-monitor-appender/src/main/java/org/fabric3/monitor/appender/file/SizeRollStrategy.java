@@ -21,7 +21,7 @@ import java.io.File;
 /**
  * Signals to roll a file when it has reached a given size.
  */
-public class SizeRollStrategy implements RollStrategy {
+public class SizeRollStrategy extends AbstractRollStrategy {
     private long size;
     private int maxBackups = -1;
     private int counter = 1;
@@ -47,7 +47,7 @@ public class SizeRollStrategy implements RollStrategy {
         }
         while (true) {
             File backup = getLogName(file, counter);
-            if (backup.exists()) {
+            if (exists(backup)) {
                 counter++;
             } else {
                 return backup;
@@ -55,31 +55,24 @@ public class SizeRollStrategy implements RollStrategy {
         }
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     private void rotateBackups(File file) {
         if (counter >= maxBackups) {
             // Files need to be rotated. Delete the oldest file.
-            getLogName(file, 1).delete();
+            delete(getLogName(file, 1));
             // rotate the other log files
             int current = 1;
             while (current < counter) {
                 File target = getLogName(file, current);
                 current++;
                 File source = getLogName(file, current);
-                source.renameTo(target);
+                rename(source, target);
             }
             counter = 1;
         }
     }
 
     private File getLogName(File file, int counter) {
-        int pos = file.getName().lastIndexOf(".");
-        if (pos < 0) {
-            return new File(file.getParent(), file.getName() + counter);
-        }
-        String name = file.getName().substring(0, pos) + counter;
-        String extension = file.getName().substring(pos);
-        return new File(file.getParent(), name + extension);
+        return getLogName(file, String.valueOf(counter));
     }
 
 }
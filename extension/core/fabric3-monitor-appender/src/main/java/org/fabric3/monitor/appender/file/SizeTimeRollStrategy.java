@@ -0,0 +1,60 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.monitor.appender.file;
+
+import java.io.File;
+import java.util.function.LongSupplier;
+
+/**
+ * Signals to roll a file when a time period has elapsed or the file has reached a given size, whichever occurs first.
+ */
+public class SizeTimeRollStrategy extends TimeRollStrategy {
+    private long size;
+
+    /**
+     * Constructor.
+     *
+     * @param size       the size in bytes when a file should be rolled
+     * @param period     the roll period
+     * @param maxBackups the maximum number of backup files or -1 for no maximum
+     */
+    public SizeTimeRollStrategy(long size, RollPeriod period, int maxBackups) {
+        super(period, maxBackups);
+        this.size = size;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param size       the size in bytes when a file should be rolled
+     * @param period     the roll period
+     * @param maxBackups the maximum number of backup files or -1 for no maximum
+     * @param clock      the clock returning the current time in milliseconds
+     */
+    public SizeTimeRollStrategy(long size, RollPeriod period, int maxBackups, LongSupplier clock) {
+        super(period, maxBackups, clock);
+        this.size = size;
+    }
+
+    public boolean checkRoll(File file) {
+        return super.checkRoll(file) || file.length() >= size;
+    }
+
+}
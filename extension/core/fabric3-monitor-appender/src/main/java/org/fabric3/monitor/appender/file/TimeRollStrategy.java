@@ -0,0 +1,199 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.monitor.appender.file;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Signals to roll a file when a time period such as an hour or day has elapsed. Backups are named using the period they contain, for example
+ * <code>fabric3-2014-05-01.log</code>. If more than one backup is created for a period, a counter is appended to the period.
+ */
+public class TimeRollStrategy extends AbstractRollStrategy {
+    private RollPeriod period;
+    private int maxBackups;
+    private LongSupplier clock;
+
+    private boolean initialized;
+    private long periodStart;
+    private long nextRoll;
+
+    /**
+     * Constructor.
+     *
+     * @param period     the roll period
+     * @param maxBackups the maximum number of backup files or -1 for no maximum
+     */
+    public TimeRollStrategy(RollPeriod period, int maxBackups) {
+        this(period, maxBackups, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param period     the roll period
+     * @param maxBackups the maximum number of backup files or -1 for no maximum
+     * @param clock      the clock returning the current time in milliseconds
+     */
+    public TimeRollStrategy(RollPeriod period, int maxBackups, LongSupplier clock) {
+        this.period = period;
+        this.maxBackups = maxBackups;
+        this.clock = clock;
+        periodStart = period.start(clock.getAsLong());
+        nextRoll = period.next(periodStart);
+    }
+
+    public boolean checkRoll(File file) {
+        if (!initialized) {
+            initialized = true;
+            // roll a file left over from a previous period
+            if (file.length() > 0 && file.lastModified() < periodStart) {
+                periodStart = period.start(file.lastModified());
+                return true;
+            }
+        }
+        return clock.getAsLong() >= nextRoll;
+    }
+
+    public File getBackup(File file) {
+        String suffix = "-" + period.format(periodStart);
+        long now = clock.getAsLong();
+        if (now >= nextRoll || periodStart < period.start(now)) {
+            // the file is rolled because the period ended
+            periodStart = period.start(now);
+            nextRoll = period.next(periodStart);
+        }
+        File backup = getLogName(file, suffix);
+        int counter = 1;
+        while (exists(backup)) {
+            backup = getLogName(file, suffix + "." + counter);
+            counter++;
+        }
+        if (maxBackups > 0) {
+            pruneBackups(file);
+        }
+        return backup;
+    }
+
+    /**
+     * Deletes the oldest backups so that the new backup does not exceed the maximum. Backups are ordered by the period and counter in their names as the
+     * modification time of compressed backups may not reflect when they were rolled.
+     *
+     * @param file the rolling file
+     */
+    private void pruneBackups(File file) {
+        List<Backup> backups = getBackups(file);
+        backups.sort(Comparator.comparingLong((Backup b) -> b.periodStart).thenComparingInt(b -> b.counter));
+        for (int i = 0; i <= backups.size() - maxBackups; i++) {
+            delete(backups.get(i).file);
+        }
+    }
+
+    /**
+     * Returns the existing backups of a file in uncompressed form. Only files named {@code <base>-<period>[.<counter>]<extension>}, optionally compressed,
+     * are considered backups.
+     *
+     * @param file the rolling file
+     * @return the backups
+     */
+    private List<Backup> getBackups(File file) {
+        String name = file.getName();
+        int pos = name.lastIndexOf(".");
+        String prefix = (pos < 0 ? name : name.substring(0, pos)) + "-";
+        String extension = pos < 0 ? "" : name.substring(pos);
+        List<Backup> backups = new ArrayList<>();
+        File[] files = file.getAbsoluteFile().getParentFile().listFiles();
+        if (files == null) {
+            return backups;
+        }
+        for (File candidate : files) {
+            String candidateName = candidate.getName();
+            if (candidateName.endsWith(COMPRESSED_EXTENSION)) {
+                candidateName = candidateName.substring(0, candidateName.length() - COMPRESSED_EXTENSION.length());
+            }
+            if (candidateName.length() <= prefix.length() + extension.length() || !candidateName.startsWith(prefix) || !candidateName.endsWith(extension)) {
+                continue;
+            }
+            Backup backup = parseBackup(new File(candidate.getParentFile(), candidateName), prefix, extension);
+            if (backup != null && !backups.contains(backup)) {
+                backups.add(backup);
+            }
+        }
+        return backups;
+    }
+
+    /**
+     * Parses the period and counter from a backup name.
+     *
+     * @param file      the backup in uncompressed form
+     * @param prefix    the backup name prefix
+     * @param extension the backup name extension
+     * @return the backup or null if the file name does not contain a formatted period
+     */
+    private Backup parseBackup(File file, String prefix, String extension) {
+        String name = file.getName();
+        String suffix = name.substring(prefix.length(), name.length() - extension.length());
+        int counter = 0;
+        int pos = suffix.indexOf('.');
+        if (pos >= 0) {
+            try {
+                counter = Integer.parseInt(suffix.substring(pos + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (counter < 1) {
+                return null;
+            }
+            suffix = suffix.substring(0, pos);
+        }
+        long start = period.parse(suffix);
+        if (start < 0 || !suffix.equals(period.format(start))) {
+            return null;
+        }
+        return new Backup(file, start, counter);
+    }
+
+    /**
+     * A backup and the period and counter parsed from its name.
+     */
+    private static class Backup {
+        private File file;
+        private long periodStart;
+        private int counter;
+
+        private Backup(File file, long periodStart, int counter) {
+            this.file = file;
+            this.periodStart = periodStart;
+            this.counter = counter;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Backup && file.equals(((Backup) o).file);
+        }
+
+        public int hashCode() {
+            return file.hashCode();
+        }
+    }
+
+}
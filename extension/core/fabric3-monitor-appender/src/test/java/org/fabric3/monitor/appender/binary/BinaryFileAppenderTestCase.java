@@ -0,0 +1,148 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.appender.binary;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.monitor.spi.binary.BinaryFormat;
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
+
+/**
+ *
+ */
+public class BinaryFileAppenderTestCase extends TestCase {
+    private File dir;
+    private TemplateRegistry registry;
+
+    public void testWriteTemplateOncePerSegment() throws Exception {
+        BinaryFileAppender appender = new BinaryFileAppender(new File(dir, "test.mlog"), 1024, -1);
+        appender.setTemplateRegistry(registry);
+        appender.start();
+        appender.write(createRecord(1));
+        appender.write(createRecord(1));
+        appender.stop();
+
+        File segment = new File(dir, "test-000001.mlog");
+        assertTrue(segment.exists());
+        ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(segment.toPath()));
+        assertEquals(BinaryFormat.MAGIC, contents.getInt());
+        assertEquals(BinaryFormat.VERSION, contents.getShort());
+        assertEquals(BinaryFormat.RECORD_TEMPLATE, readType(contents));
+        assertEquals(BinaryFormat.RECORD_EVENT, readType(contents));
+        assertEquals(BinaryFormat.RECORD_EVENT, readType(contents));
+        // the segment is truncated to the records written
+        assertFalse(contents.hasRemaining());
+    }
+
+    public void testRollSegment() throws Exception {
+        BinaryFileAppender appender = new BinaryFileAppender(new File(dir, "test.mlog"), 64, -1);
+        appender.setTemplateRegistry(registry);
+        appender.start();
+        appender.write(createRecord(1));
+        appender.write(createRecord(1));
+        appender.stop();
+
+        File second = new File(dir, "test-000002.mlog");
+        assertTrue(second.exists());
+        ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(second.toPath()));
+        contents.position(BinaryFormat.HEADER_SIZE);
+        // the template is repeated in the new segment
+        assertEquals(BinaryFormat.RECORD_TEMPLATE, readType(contents));
+        assertEquals(BinaryFormat.RECORD_EVENT, readType(contents));
+    }
+
+    public void testMaxSegments() throws Exception {
+        BinaryFileAppender appender = new BinaryFileAppender(new File(dir, "test.mlog"), 64, 2);
+        appender.setTemplateRegistry(registry);
+        appender.start();
+        appender.write(createRecord(1));
+        appender.write(createRecord(1));
+        appender.write(createRecord(1));
+        appender.stop();
+
+        assertFalse(new File(dir, "test-000001.mlog").exists());
+        assertTrue(new File(dir, "test-000002.mlog").exists());
+        assertTrue(new File(dir, "test-000003.mlog").exists());
+    }
+
+    public void testContinueSequence() throws Exception {
+        BinaryFileAppender appender = new BinaryFileAppender(new File(dir, "test.mlog"), 1024, -1);
+        appender.setTemplateRegistry(registry);
+        appender.start();
+        appender.stop();
+
+        appender = new BinaryFileAppender(new File(dir, "test.mlog"), 1024, -1);
+        appender.setTemplateRegistry(registry);
+        appender.start();
+        appender.stop();
+
+        assertTrue(new File(dir, "test-000002.mlog").exists());
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = Files.createTempDirectory("f3binary").toFile();
+        registry = EasyMock.createMock(TemplateRegistry.class);
+        EasyMock.expect(registry.getTemplate(1)).andReturn("template {0}").anyTimes();
+        EasyMock.replay(registry);
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    /**
+     * Creates an event record with a single int argument.
+     *
+     * @param templateId the template id
+     * @return the record
+     */
+    private ByteBuffer createRecord(int templateId) {
+        ByteBuffer buffer = ByteBuffer.allocate(22);
+        buffer.putInt(18);
+        buffer.put(BinaryFormat.RECORD_EVENT);
+        buffer.putInt(templateId);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.put((byte) 4);
+        buffer.put((byte) 0);
+        buffer.put((byte) 1);
+        buffer.put(BinaryFormat.TAG_BYTE);
+        buffer.put((byte) 1);
+        buffer.flip();
+        return buffer;
+    }
+
+    private byte readType(ByteBuffer contents) {
+        int length = contents.getInt();
+        byte type = contents.get();
+        contents.position(contents.position() + length - 1);
+        return type;
+    }
+
+}
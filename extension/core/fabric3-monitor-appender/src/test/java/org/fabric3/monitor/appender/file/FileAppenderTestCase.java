@@ -16,8 +16,12 @@
  */
 package org.fabric3.monitor.appender.file;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -26,9 +30,9 @@ import org.easymock.EasyMock;
  *
  */
 public class FileAppenderTestCase extends TestCase {
+    private File dir;
     private File file;
     private File backup;
-    private ByteBuffer buffer;
 
     public void testRollFile() throws Exception {
         RollStrategy strategy = EasyMock.createMock(RollStrategy.class);
@@ -41,25 +45,97 @@ public class FileAppenderTestCase extends TestCase {
             appender.start();
 
             assertFalse(backup.exists());
-            appender.write(buffer);
+            appender.write(event("x"));
             assertTrue(backup.exists());
+            assertEquals("existing", read(backup));
+            assertEquals("x", read(file));
         } finally {
             appender.stop();
         }
+        EasyMock.verify(strategy);
+    }
+
+    public void testBatchedWrites() throws Exception {
+        RollStrategy strategy = EasyMock.createMock(RollStrategy.class);
+        EasyMock.expect(strategy.checkRoll(file)).andReturn(false).times(2);
+        EasyMock.replay(strategy);
+
+        FileAppender appender = new FileAppender(file, strategy, false, 3, 0, false);
+        try {
+            appender.start();
+
+            appender.write(event("a"));
+            appender.write(event("b"));
+            // the batch is not complete
+            assertEquals("existing", read(file));
+
+            appender.write(event("c"));
+            assertEquals("existingabc", read(file));
+
+            appender.write(event("d"));
+        } finally {
+            appender.stop();
+        }
+        // pending events are written when the appender is stopped
+        assertEquals("existingabcd", read(file));
+        EasyMock.verify(strategy);
+    }
+
+    public void testCompressRolledFile() throws Exception {
+        RollStrategy strategy = EasyMock.createMock(RollStrategy.class);
+        EasyMock.expect(strategy.checkRoll(file)).andReturn(true);
+        EasyMock.expect(strategy.getBackup(file)).andReturn(backup);
+        EasyMock.replay(strategy);
+
+        FileAppender appender = new FileAppender(file, strategy, false, 1, 0, true);
+        try {
+            appender.start();
+            appender.write(event("x"));
+        } finally {
+            // waits for compression to complete
+            appender.stop();
+        }
+        File compressed = new File(dir, backup.getName() + AbstractRollStrategy.COMPRESSED_EXTENSION);
+        assertFalse(backup.exists());
+        assertTrue(compressed.exists());
+        try (InputStream stream = new GZIPInputStream(Files.newInputStream(compressed.toPath()))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] bytes = new byte[64];
+            int read;
+            while ((read = stream.read(bytes)) != -1) {
+                out.write(bytes, 0, read);
+            }
+            assertEquals("existing", out.toString("UTF-8"));
+        }
+        assertEquals("x", read(file));
+        EasyMock.verify(strategy);
     }
 
     public void setUp() throws Exception {
         super.setUp();
-        file = new File("f3rolling.log");
-        backup = new File("f3rolling.bak");
-        file.createNewFile();
-        buffer = ByteBuffer.allocate(1);
-        buffer.put((byte) 'x');
+        dir = Files.createTempDirectory("f3appender").toFile();
+        file = new File(dir, "f3rolling.log");
+        backup = new File(dir, "f3rolling.bak");
+        Files.write(file.toPath(), "existing".getBytes("UTF-8"));
     }
 
+    @SuppressWarnings("ResultOfMethodCallIgnored")
     public void tearDown() throws Exception {
         super.tearDown();
-        file.delete();
-        backup.delete();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private ByteBuffer event(String value) throws Exception {
+        return ByteBuffer.wrap(value.getBytes("UTF-8"));
+    }
+
+    private String read(File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
     }
 }
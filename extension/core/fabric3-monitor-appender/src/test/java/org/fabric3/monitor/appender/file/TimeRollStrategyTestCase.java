@@ -0,0 +1,166 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.monitor.appender.file;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class TimeRollStrategyTestCase extends TestCase {
+    private File dir;
+    private File logFile;
+    private AtomicLong clock;
+
+    public void testNoRollWithinPeriod() throws Exception {
+        TimeRollStrategy strategy = new TimeRollStrategy(RollPeriod.HOURLY, -1, clock::get);
+        assertFalse(strategy.checkRoll(logFile));
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        assertFalse(strategy.checkRoll(logFile));
+    }
+
+    public void testRollAtPeriodEnd() throws Exception {
+        TimeRollStrategy strategy = new TimeRollStrategy(RollPeriod.HOURLY, -1, clock::get);
+        String expected = "f3rolling-" + RollPeriod.HOURLY.format(clock.get()) + ".log";
+        assertFalse(strategy.checkRoll(logFile));
+
+        clock.addAndGet(TimeUnit.HOURS.toMillis(1));
+        assertTrue(strategy.checkRoll(logFile));
+        File backup = strategy.getBackup(logFile);
+        assertEquals(expected, backup.getName());
+
+        // the next period has started
+        assertFalse(strategy.checkRoll(logFile));
+    }
+
+    public void testRollLeftoverFile() throws Exception {
+        long previous = clock.get() - TimeUnit.DAYS.toMillis(2);
+        assertTrue(logFile.setLastModified(previous));
+        TimeRollStrategy strategy = new TimeRollStrategy(RollPeriod.DAILY, -1, clock::get);
+        assertTrue(strategy.checkRoll(logFile));
+        File backup = strategy.getBackup(logFile);
+        assertEquals("f3rolling-" + RollPeriod.DAILY.format(previous) + ".log", backup.getName());
+    }
+
+    public void testCounterForSamePeriod() throws Exception {
+        TimeRollStrategy strategy = new TimeRollStrategy(RollPeriod.DAILY, -1, clock::get);
+        File backup = strategy.getBackup(logFile);
+        write(backup, "A");
+        File next = strategy.getBackup(logFile);
+        assertFalse(backup.equals(next));
+        assertTrue(next.getName().endsWith(".1.log"));
+    }
+
+    public void testCompressedBackupCounted() throws Exception {
+        TimeRollStrategy strategy = new TimeRollStrategy(RollPeriod.DAILY, -1, clock::get);
+        File backup = strategy.getBackup(logFile);
+        write(new File(dir, backup.getName() + AbstractRollStrategy.COMPRESSED_EXTENSION), "A");
+        File next = strategy.getBackup(logFile);
+        assertTrue(next.getName().endsWith(".1.log"));
+    }
+
+    public void testMaxBackups() throws Exception {
+        TimeRollStrategy strategy = new TimeRollStrategy(RollPeriod.HOURLY, 2, clock::get);
+        File first = strategy.getBackup(logFile);
+        write(first, "A");
+        assertTrue(first.setLastModified(clock.get() - 2000));
+
+        File second = strategy.getBackup(logFile);
+        write(second, "B");
+        assertTrue(second.setLastModified(clock.get() - 1000));
+
+        File third = strategy.getBackup(logFile);
+        write(third, "C");
+
+        assertFalse(first.exists());
+        assertTrue(second.exists());
+        assertTrue(third.exists());
+    }
+
+    public void testMaxBackupsOrderedByName() throws Exception {
+        TimeRollStrategy strategy = new TimeRollStrategy(RollPeriod.HOURLY, 2, clock::get);
+        long hour = TimeUnit.HOURS.toMillis(1);
+        File oldest = new File(dir, "f3rolling-" + RollPeriod.HOURLY.format(clock.get() - 2 * hour) + ".log.gz");
+        File older = new File(dir, "f3rolling-" + RollPeriod.HOURLY.format(clock.get() - hour) + ".log.gz");
+        write(oldest, "A");
+        write(older, "B");
+        // modification times do not reflect the order the backups were rolled in
+        assertTrue(oldest.setLastModified(clock.get()));
+        assertTrue(older.setLastModified(clock.get() - 2 * hour));
+
+        File backup = strategy.getBackup(logFile);
+        write(backup, "C");
+
+        assertFalse(oldest.exists());
+        assertTrue(older.exists());
+        assertTrue(backup.exists());
+    }
+
+    public void testUnrelatedFilesNotPruned() throws Exception {
+        File audit = new File(dir, "f3rolling-audit.log");
+        File other = new File(dir, "f3rolling-" + RollPeriod.HOURLY.format(clock.get()) + ".x.log");
+        write(audit, "A");
+        write(other, "B");
+
+        TimeRollStrategy strategy = new TimeRollStrategy(RollPeriod.HOURLY, 1, clock::get);
+        File backup = strategy.getBackup(logFile);
+        write(backup, "C");
+        strategy.getBackup(logFile);
+
+        assertTrue(audit.exists());
+        assertTrue(other.exists());
+        assertFalse(backup.exists());
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = Files.createTempDirectory("f3rolling").toFile();
+        logFile = new File(dir, "f3rolling.log");
+        write(logFile, "1234567890");
+        // start at the beginning of an hour so advancing the clock by less than an hour stays within the period
+        clock = new AtomicLong(RollPeriod.HOURLY.start(System.currentTimeMillis()));
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private void write(File file, String content) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            stream.write(content.getBytes());
+        }
+    }
+
+}
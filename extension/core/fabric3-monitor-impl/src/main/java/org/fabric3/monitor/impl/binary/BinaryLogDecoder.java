@@ -0,0 +1,305 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.impl.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.monitor.impl.writer.BooleanWriter;
+import org.fabric3.monitor.impl.writer.ByteWriter;
+import org.fabric3.monitor.impl.writer.CharWriter;
+import org.fabric3.monitor.impl.writer.DoubleWriter;
+import org.fabric3.monitor.impl.writer.FloatWriter;
+import org.fabric3.monitor.impl.writer.FormattingTimestampWriter;
+import org.fabric3.monitor.impl.writer.IntWriter;
+import org.fabric3.monitor.impl.writer.LongWriter;
+import org.fabric3.monitor.impl.writer.MonitorLevelWriter;
+import org.fabric3.monitor.impl.writer.TimestampWriter;
+import org.fabric3.monitor.spi.binary.BinaryFormat;
+import org.fabric3.monitor.spi.buffer.ResizableByteBuffer;
+import org.fabric3.monitor.spi.event.ParameterEntry;
+
+/**
+ * Renders binary monitor log segments as text in the same format used by text appenders. Can be run standalone:
+ * <pre>
+ *     java org.fabric3.monitor.impl.binary.BinaryLogDecoder [segment file or directory]...
+ * </pre>
+ * Segments in a directory are decoded in name order.
+ */
+public class BinaryLogDecoder {
+    private static final String DEFAULT_PATTERN = "%d.%m.%Y %H:%i:%s.%F";
+    private static final byte[] NEWLINE = "\n".getBytes();
+    private static final int MAX_PARAMETERS = 256;
+
+    private TimestampWriter timestampWriter;
+    private ParameterEntry[] entries;
+    private byte[] tags;
+    private ResizableByteBuffer buffer;
+
+    public BinaryLogDecoder() {
+        this(new FormattingTimestampWriter(DEFAULT_PATTERN, TimeZone.getDefault()));
+    }
+
+    public BinaryLogDecoder(TimestampWriter timestampWriter) {
+        this.timestampWriter = timestampWriter;
+        entries = new ParameterEntry[MAX_PARAMETERS];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new ParameterEntry();
+        }
+        tags = new byte[MAX_PARAMETERS];
+        buffer = new ResizableByteBuffer(ByteBuffer.allocate(4096));
+    }
+
+    public static void main(String... args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BinaryLogDecoder [segment file or directory]...");
+            System.exit(1);
+        }
+        BinaryLogDecoder decoder = new BinaryLogDecoder();
+        OutputStream out = new BufferedOutputStream(System.out);
+        for (String arg : args) {
+            for (File segment : getSegments(new File(arg))) {
+                decoder.decode(segment, out);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Decodes a segment and writes the events it contains as text.
+     *
+     * @param segment the segment file
+     * @param out     the stream to write to
+     * @return the number of events decoded
+     * @throws IOException if there is an error reading the segment or the segment is invalid
+     */
+    public int decode(File segment, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer source = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(source, out);
+        }
+    }
+
+    /**
+     * Decodes segment contents and writes the events as text.
+     *
+     * @param source the segment contents
+     * @param out    the stream to write to
+     * @return the number of events decoded
+     * @throws IOException if there is an error writing or the contents are not a valid segment
+     */
+    public int decode(ByteBuffer source, OutputStream out) throws IOException {
+        if (source.remaining() < BinaryFormat.HEADER_SIZE || source.getInt() != BinaryFormat.MAGIC) {
+            throw new IOException("Not a binary monitor log segment");
+        }
+        short version = source.getShort();
+        if (version != BinaryFormat.VERSION) {
+            throw new IOException("Unsupported segment version: " + version);
+        }
+        Map<Integer, String> templates = new HashMap<>();
+        int count = 0;
+        while (source.remaining() >= 4) {
+            int length = source.getInt();
+            if (length <= 0 || length > source.remaining()) {
+                // end of the segment or a partially written record
+                break;
+            }
+            int next = source.position() + length;
+            byte type = source.get();
+            if (type == BinaryFormat.RECORD_TEMPLATE) {
+                int id = source.getInt();
+                byte[] bytes = new byte[next - source.position()];
+                source.get(bytes);
+                templates.put(id, new String(bytes, "UTF-8"));
+            } else if (type == BinaryFormat.RECORD_EVENT) {
+                decodeEvent(source, templates);
+                out.write(buffer.getByteBuffer().array(), 0, buffer.position());
+                count++;
+            }
+            source.position(next);
+        }
+        return count;
+    }
+
+    private void decodeEvent(ByteBuffer source, Map<Integer, String> templates) throws IOException {
+        int templateId = source.getInt();
+        long timestamp = source.getLong();
+        MonitorLevel level = getLevel(source.get());
+        boolean literal = source.get() != 0;
+        int limit = source.get() & 0xFF;
+        for (int i = 0; i < limit; i++) {
+            readParameter(i, source);
+        }
+
+        String template = templateId == BinaryFormat.NO_TEMPLATE ? null : templates.get(templateId);
+        if (templateId != BinaryFormat.NO_TEMPLATE && template == null) {
+            throw new IOException("Template not defined in segment: " + templateId);
+        }
+
+        buffer.clear();
+        buffer.put('[');
+        if (level != null) {
+            MonitorLevelWriter.write(level, buffer);
+            buffer.put(' ');
+        }
+        if (timestampWriter.write(timestamp, buffer) == 0) {
+            buffer.position(buffer.position() - 1);
+        }
+        buffer.put(']');
+        buffer.put(' ');
+        writeTemplate(template, literal, limit);
+        buffer.put(NEWLINE);
+    }
+
+    private void writeTemplate(String template, boolean literal, int limit) {
+        if (template == null) {
+            return;
+        }
+        int counter = 0;
+        for (int i = 0; i < template.length(); i++) {
+            char current = template.charAt(i);
+            if (!literal && '{' == current && counter < limit) {
+                writeParameter(counter);
+                while (template.charAt(i) != '}') {
+                    i++;   // skip the formatting information contained in {..}
+                }
+                counter++;
+            } else {
+                buffer.put((byte) current);
+            }
+        }
+        if (counter < limit && tags[limit - 1] == BinaryFormat.TAG_THROWABLE) {
+            // an exception passed without a parameter marker
+            writeParameter(limit - 1);
+        }
+    }
+
+    private void readParameter(int index, ByteBuffer source) {
+        byte tag = source.get();
+        tags[index] = tag;
+        ParameterEntry entry = entries[index];
+        entry.reset();
+        switch (tag) {
+            case BinaryFormat.TAG_SHORT:
+                entry.setShortValue(source.getShort());
+                break;
+            case BinaryFormat.TAG_INT:
+                entry.setIntValue(source.getInt());
+                break;
+            case BinaryFormat.TAG_LONG:
+                entry.setLongValue(source.getLong());
+                break;
+            case BinaryFormat.TAG_DOUBLE:
+                entry.setDoubleValue(source.getDouble());
+                break;
+            case BinaryFormat.TAG_FLOAT:
+                entry.setFloatValue(source.getFloat());
+                break;
+            case BinaryFormat.TAG_CHAR:
+                entry.setCharValue(source.getChar());
+                break;
+            case BinaryFormat.TAG_BOOLEAN:
+                entry.setBooleanValue(source.get() != 0);
+                break;
+            case BinaryFormat.TAG_BYTE:
+                entry.setByteValue(source.get());
+                break;
+            case BinaryFormat.TAG_OBJECT:
+            case BinaryFormat.TAG_THROWABLE:
+                byte[] bytes = new byte[source.getInt()];
+                source.get(bytes);
+                entry.setObjectValue(bytes);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void writeParameter(int index) {
+        ParameterEntry entry = entries[index];
+        switch (entry.getSlot()) {
+            case SHORT:
+                IntWriter.write(entry.getShortValue(), buffer);
+                break;
+            case INT:
+                IntWriter.write(entry.getIntValue(), buffer);
+                break;
+            case LONG:
+                LongWriter.write(entry.getLongValue(), buffer);
+                break;
+            case DOUBLE:
+                DoubleWriter.write(entry.getDoubleValue(), buffer);
+                break;
+            case FLOAT:
+                FloatWriter.write(entry.getFloatValue(), buffer);
+                break;
+            case CHAR:
+                CharWriter.write(entry.getCharValue(), buffer);
+                break;
+            case BOOLEAN:
+                BooleanWriter.write(entry.getBooleanValue(), buffer);
+                break;
+            case BYTE:
+                ByteWriter.write(entry.getByteValue(), buffer);
+                break;
+            case OBJECT:
+                if (tags[index] == BinaryFormat.TAG_THROWABLE) {
+                    buffer.put(NEWLINE);
+                }
+                buffer.put(entry.getObjectValue(byte[].class));
+                break;
+            case NONE:
+                break;
+        }
+    }
+
+    private MonitorLevel getLevel(byte value) {
+        for (MonitorLevel level : MonitorLevel.values()) {
+            if (level.intValue() == value) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    private static List<File> getSegments(File file) {
+        if (!file.isDirectory()) {
+            return Arrays.asList(file);
+        }
+        File[] files = file.listFiles(File::isFile);
+        List<File> segments = new ArrayList<>();
+        if (files != null) {
+            Arrays.sort(files);
+            segments.addAll(Arrays.asList(files));
+        }
+        return segments;
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.impl.binary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fabric3.monitor.spi.binary.BinaryFormat;
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
+
+/**
+ * Default {@link TemplateRegistry} implementation. Ids are assigned sequentially starting at 1 and are stable for the lifetime of the runtime.
+ */
+public class TemplateRegistryImpl implements TemplateRegistry {
+    private Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private Map<Integer, String> templates = new ConcurrentHashMap<>();
+    private AtomicInteger counter = new AtomicInteger(BinaryFormat.NO_TEMPLATE);
+
+    public int getId(String template) {
+        if (template == null) {
+            return BinaryFormat.NO_TEMPLATE;
+        }
+        Integer id = ids.get(template);
+        if (id != null) {
+            return id;
+        }
+        return ids.computeIfAbsent(template, key -> {
+            int next = counter.incrementAndGet();
+            // register the reverse mapping before the id is published
+            templates.put(next, key);
+            return next;
+        });
+    }
+
+    public String getTemplate(int id) {
+        return templates.get(id);
+    }
+
+}
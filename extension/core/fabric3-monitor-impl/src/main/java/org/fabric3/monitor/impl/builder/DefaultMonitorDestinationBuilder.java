@@ -30,6 +30,7 @@ import org.fabric3.monitor.spi.destination.MonitorDestination;
 import org.fabric3.monitor.spi.destination.MonitorDestinationBuilder;
 import org.fabric3.monitor.spi.destination.MonitorDestinationRegistry;
 import org.fabric3.monitor.spi.model.physical.PhysicalAppender;
+import org.fabric3.monitor.spi.writer.BinaryEventWriter;
 import org.fabric3.monitor.spi.writer.EventWriter;
 import org.oasisopen.sca.annotation.EagerInit;
 import org.oasisopen.sca.annotation.Property;
@@ -42,6 +43,7 @@ import org.oasisopen.sca.annotation.Reference;
 public class DefaultMonitorDestinationBuilder implements MonitorDestinationBuilder<PhysicalDefaultMonitorDestination> {
     private MonitorDestinationRegistry registry;
     private EventWriter eventWriter;
+    private BinaryEventWriter binaryWriter;
 
     private int capacity = MonitorConstants.DEFAULT_BUFFER_CAPACITY;
 
@@ -52,6 +54,11 @@ public class DefaultMonitorDestinationBuilder implements MonitorDestinationBuild
         this.appenderBuilders = appenderBuilders;
     }
 
+    @Reference(required = false)
+    public void setBinaryWriter(BinaryEventWriter binaryWriter) {
+        this.binaryWriter = binaryWriter;
+    }
+
     @Property(required = false)
     public void setCapacity(int capacity) {
         this.capacity = capacity;
@@ -77,7 +84,7 @@ public class DefaultMonitorDestinationBuilder implements MonitorDestinationBuild
         }
 
         String name = physicalDestination.getName();
-        MonitorDestination destination = new DefaultMonitorDestination(name, eventWriter, capacity, appenders);
+        MonitorDestination destination = new DefaultMonitorDestination(name, eventWriter, binaryWriter, capacity, appenders);
         destination.start();
         registry.register(destination);
     }
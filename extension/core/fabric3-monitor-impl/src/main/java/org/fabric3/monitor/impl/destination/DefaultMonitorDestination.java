@@ -17,31 +17,61 @@
 package org.fabric3.monitor.impl.destination;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.monitor.spi.appender.Appender;
+import org.fabric3.monitor.spi.appender.BinaryAppender;
 import org.fabric3.monitor.spi.buffer.ResizableByteBuffer;
 import org.fabric3.monitor.spi.destination.MonitorDestination;
 import org.fabric3.monitor.spi.event.MonitorEventEntry;
+import org.fabric3.monitor.spi.writer.BinaryEventWriter;
 import org.fabric3.monitor.spi.writer.EventWriter;
 
 /**
  * Default {@link MonitorDestination} implementation that writes to a collection of {@link Appender}s.
+ *
+ * Events are formatted as text only if the destination has text appenders. {@link BinaryAppender}s receive events encoded once as binary records.
+ *
+ * Events that are not contained in a {@link MonitorEventEntry} are formatted into a buffer owned by the calling thread, which is reused across events.
  */
 public class DefaultMonitorDestination implements MonitorDestination {
     private static final byte[] NEWLINE = "\n".getBytes();
 
     private String name;
     private EventWriter eventWriter;
+    private BinaryEventWriter binaryWriter;
     private Appender[] appenders;
+    private Appender[] binaryAppenders;
     private int capacity;
+    private ThreadLocal<ResizableByteBuffer> buffers = ThreadLocal.withInitial(() -> new ResizableByteBuffer(ByteBuffer.allocate(capacity)));
 
     public DefaultMonitorDestination(String name, EventWriter eventWriter, int capacity, List<Appender> appenders) {
+        this(name, eventWriter, null, capacity, appenders);
+    }
+
+    public DefaultMonitorDestination(String name, EventWriter eventWriter, BinaryEventWriter binaryWriter, int capacity, List<Appender> appenders) {
         this.name = name;
         this.eventWriter = eventWriter;
+        this.binaryWriter = binaryWriter;
         this.capacity = capacity;
-        this.appenders = appenders.toArray(new Appender[appenders.size()]);
+        List<Appender> textAppenders = new ArrayList<>();
+        List<Appender> recordAppenders = new ArrayList<>();
+        for (Appender appender : appenders) {
+            if (appender instanceof BinaryAppender) {
+                if (binaryWriter == null) {
+                    throw new Fabric3Exception("Binary appenders are not supported by destination: " + name);
+                }
+                ((BinaryAppender) appender).setTemplateRegistry(binaryWriter.getTemplateRegistry());
+                recordAppenders.add(appender);
+            } else {
+                textAppenders.add(appender);
+            }
+        }
+        this.appenders = textAppenders.toArray(new Appender[textAppenders.size()]);
+        this.binaryAppenders = recordAppenders.toArray(new Appender[recordAppenders.size()]);
     }
 
     public String getName() {
@@ -52,36 +82,56 @@ public class DefaultMonitorDestination implements MonitorDestination {
         for (Appender appender : appenders) {
             appender.start();
         }
+        for (Appender appender : binaryAppenders) {
+            appender.start();
+        }
     }
 
     public void stop() {
         for (Appender appender : appenders) {
             appender.stop();
         }
+        for (Appender appender : binaryAppenders) {
+            appender.stop();
+        }
     }
 
     public void write(MonitorEventEntry entry) {
         ResizableByteBuffer buffer = entry.getBuffer();
-        MonitorLevel level = entry.getLevel();
+        if (appenders.length > 0) {
+            MonitorLevel level = entry.getLevel();
 
-        long entryTimestamp = entry.getEntryTimestamp();
-        int count = eventWriter.writePrefix(level, entryTimestamp, buffer);
-        count = count + eventWriter.writeTemplate(entry);
-        buffer.put(NEWLINE);
-        count++;
+            long entryTimestamp = entry.getEntryTimestamp();
+            int count = eventWriter.writePrefix(level, entryTimestamp, buffer);
+            count = count + eventWriter.writeTemplate(entry);
+            buffer.put(NEWLINE);
+            count++;
 
-        buffer.limit(count);
-        write(buffer);
+            buffer.limit(count);
+            write(buffer, appenders);
+        }
+        if (binaryAppenders.length > 0) {
+            // the entry buffer is reused for the binary record
+            binaryWriter.write(entry);
+            write(entry.getBuffer(), binaryAppenders);
+        }
     }
 
     public void write(MonitorLevel level, long timestamp, String source, String template, Object... args) {
-        ByteBuffer buffer = ByteBuffer.allocate(capacity);
-        ResizableByteBuffer wrapper = new ResizableByteBuffer(buffer);
-        eventWriter.write(level, timestamp, template, wrapper, args);
-        write(wrapper);
+        ResizableByteBuffer buffer = buffers.get();
+        if (appenders.length > 0) {
+            buffer.clear();
+            eventWriter.write(level, timestamp, template, buffer, args);
+            write(buffer, appenders);
+        }
+        if (binaryAppenders.length > 0) {
+            buffer.clear();
+            binaryWriter.write(level, timestamp, template, buffer, args);
+            write(buffer, binaryAppenders);
+        }
     }
 
-    private void write(ResizableByteBuffer buffer)  {
+    private void write(ResizableByteBuffer buffer, Appender[] appenders) {
         for (Appender appender : appenders) {
             buffer.position(0);
             appender.write(buffer.getByteBuffer());
@@ -29,6 +29,7 @@ import org.fabric3.monitor.spi.appender.Appender;
 import org.fabric3.monitor.spi.appender.AppenderFactory;
 import org.fabric3.monitor.spi.destination.MonitorDestination;
 import org.fabric3.monitor.spi.destination.MonitorDestinationRegistry;
+import org.fabric3.monitor.spi.writer.BinaryEventWriter;
 import org.fabric3.monitor.spi.writer.EventWriter;
 import org.fabric3.spi.xml.LocationAwareXMLStreamReader;
 import org.oasisopen.sca.annotation.EagerInit;
@@ -44,6 +45,7 @@ import static org.fabric3.api.host.monitor.DestinationRouter.DEFAULT_DESTINATION
 public class ExtensionProvider {
     private MonitorDestinationRegistry registry;
     private EventWriter eventWriter;
+    private BinaryEventWriter binaryWriter;
     private AppenderFactory appenderFactory;
     private ExtensionProviderMonitor monitor;
 
@@ -52,6 +54,11 @@ public class ExtensionProvider {
 
     private LocationAwareXMLStreamReader systemReader;
 
+    @Reference(required = false)
+    public void setBinaryWriter(BinaryEventWriter binaryWriter) {
+        this.binaryWriter = binaryWriter;
+    }
+
     @Property(required = false)
     public void setCapacity(int capacity) {
         this.capacity = capacity;
@@ -92,7 +99,11 @@ public class ExtensionProvider {
                 defaultAppenders = appenderFactory.instantiate(systemReader);
             }
             // register the default destination as index 0
-            MonitorDestination defaultDestination = new DefaultMonitorDestination(DEFAULT_DESTINATION, eventWriter, capacity, defaultAppenders);
+            MonitorDestination defaultDestination = new DefaultMonitorDestination(DEFAULT_DESTINATION,
+                                                                                  eventWriter,
+                                                                                  binaryWriter,
+                                                                                  capacity,
+                                                                                  defaultAppenders);
             defaultDestination.start();
             registry.register(defaultDestination);
             systemReader = null;
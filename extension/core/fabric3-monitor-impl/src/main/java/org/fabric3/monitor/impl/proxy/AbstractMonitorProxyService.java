@@ -26,6 +26,7 @@ import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.monitor.MonitorProxyServiceExtension;
 import org.fabric3.api.host.monitor.Monitorable;
 import org.fabric3.monitor.impl.router.RingBufferDestinationRouter;
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
 import org.fabric3.spi.monitor.DispatchInfo;
 import org.fabric3.spi.monitor.MonitorUtil;
 import org.oasisopen.sca.annotation.EagerInit;
@@ -39,6 +40,7 @@ import static org.fabric3.api.host.monitor.DestinationRouter.DEFAULT_DESTINATION
 public abstract class AbstractMonitorProxyService implements MonitorProxyServiceExtension {
     protected Monitorable defaultMonitorable;
     protected RingBufferDestinationRouter router;
+    protected TemplateRegistry templateRegistry;
 
     protected boolean enabled = false;
     protected String pattern = "%d:%m:%Y %H:%i:%s.%F";
@@ -54,11 +56,28 @@ public abstract class AbstractMonitorProxyService implements MonitorProxyService
         this.enabled = enabled;
     }
 
+    /**
+     * Sets the registry the templates of created monitors are registered with so that binary records can refer to them by id.
+     *
+     * @param templateRegistry the registry
+     */
+    public void setTemplateRegistry(TemplateRegistry templateRegistry) {
+        this.templateRegistry = templateRegistry;
+    }
+
     public <T> T createMonitor(Class<T> type) throws Fabric3Exception {
         return createMonitor(type, defaultMonitorable, DEFAULT_DESTINATION);
     }
 
     protected <T> DispatchInfo createDispatchInfo(Class<T> type, ClassLoader loader, Method method) {
+        DispatchInfo info = resolveDispatchInfo(type, loader, method);
+        if (templateRegistry != null) {
+            templateRegistry.getId(info.getMessage());
+        }
+        return info;
+    }
+
+    private <T> DispatchInfo resolveDispatchInfo(Class<T> type, ClassLoader loader, Method method) {
         DispatchInfo info = MonitorUtil.getDispatchInfo(method);
         String message = info.getMessage();
         if (Locale.ENGLISH.getLanguage().equals(Locale.getDefault().getLanguage())) {
@@ -45,9 +45,10 @@ import static org.fabric3.api.host.monitor.DestinationRouter.DEFAULT_DESTINATION
  * Performs bytecode generation at runtime to create a monitor proxy.  The monitor proxy avoids object creation such as auto-boxing and varargs for highly
  * performant environments. This is done by dynamically generating writeParameters method with a specific number of arguments for each proxy interface method.
  * The implementation of the proxy interface method invokes this writeParameters method. Performance characteristics should therefore be the same as
- * hand-implementing the proxy interface.  As a further optimization, the {@link DispatchInfo} for an invoked proxy method will be looked up in an array
- * based on the method index. This will be noticeably faster than looking up the DispatchInfo in a Map keyed by Method as required by JDK proxies.  The
- * implementation creates code similar to the following:
+ * hand-implementing the proxy interface. The same code path is used when the router dispatches synchronously, in which case the router returns an entry owned
+ * by the calling thread and writes it to the destination when it is published.  As a further optimization, the {@link DispatchInfo} for an invoked proxy method
+ * will be looked up in an array based on the method index. This will be noticeably faster than looking up the DispatchInfo in a Map keyed by Method as required
+ * by JDK proxies.  The implementation creates code similar to the following:
  * <pre>
  * <code>
  *      public void invoke([Type]arg1, [Type]arg2...) throws Throwable {
@@ -67,28 +68,20 @@ import static org.fabric3.api.host.monitor.DestinationRouter.DEFAULT_DESTINATION
  *            return;
  *        }
  *        long timestamp = System.currentTimeMillis();
- *        if (asyncEnabled) {
- *            MonitorEventEntry entry = null;
- *            try {
- *                long start = System.nanoTime();
- *                entry = router.get();
- *                entry.setDestinationIndex(destinationIndex);
- *                entry.setTimestampNanos(start);
- *                entry.setTemplate(currentMessage);
- *                entry.setTimestamp(System.currentTimeMillis);
+ *        MonitorEventEntry entry = null;
+ *        try {
+ *            long start = System.nanoTime();
+ *            entry = router.get(destinationIndex);
+ *            entry.setDestinationIndex(destinationIndex);
+ *            entry.setTimestampNanos(start);
+ *            entry.setTemplate(currentMessage);
+ *            entry.setTimestamp(System.currentTimeMillis);
  *
- *                writeParameters(arg1, arg2,[...other arguments], entry);
- *            } finally {
- *                if (entry != null) {
- *                    router.publish(entry);
- *                }
+ *            writeParameters(arg1, arg2,[...other arguments], entry);
+ *        } finally {
+ *            if (entry != null) {
+ *                router.publish(entry);
  *            }
- *        } else {
- *            Object[] args = new Object[..];
- *            args[0] = arg1;
- *            args[1] = arg2;
- *            // ... load other arguments in the array
- *            router.send(currentLevel, destinationIndex, runtimeName, timestamp, source, currentMessage, args);
  *        }
  *
  *    }
@@ -206,6 +199,7 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         int numParams = paramTypes.length;
 
         int offset = calculateParameterSpace(paramTypes);
+        int[] slots = calculateParameterSlots(paramTypes);
 
         // calculate position of local variables
         int varIndexPosition = offset + 1;         // pos of the index variable used for looking up the DispatchInfo
@@ -215,7 +209,6 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         int varDispatchInfoPosition = varCurrentMessagePosition + 1;  // Note this is the same as varTimestampPos since there is an if
 
         int varEntryPosition = varTimestampPosition + 2; // Note +2
-        int varArgsPosition = varTimestampPosition + 2; // Note +2 and the same as varEntryPosition since there is an if
 
         int varStartPosition = varEntryPosition + 1;
         int varBufferPosition = varStartPosition + 2;
@@ -281,15 +274,13 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         Label l15 = new Label();
         mv.visitLabel(l15);
         mv.visitLineNumber(78, l15);
-        mv.visitVarInsn(ALOAD, 0);
-        mv.visitFieldInsn(GETFIELD, ABSTRACT_MONITOR_HANDLER, "asyncEnabled", "Z");
-        Label l16 = new Label();
-        mv.visitJumpInsn(IFEQ, l16);
+        // events are written to an entry in both asynchronous and synchronous modes; the router dispatches the entry when it is published, which avoids
+        // boxing primitive parameters
         Label l17 = new Label();
         mv.visitLabel(l17);
         mv.visitLineNumber(79, l17);
         mv.visitInsn(ACONST_NULL);
-        mv.visitVarInsn(ASTORE, varArgsPosition);
+        mv.visitVarInsn(ASTORE, varEntryPosition);
         mv.visitLabel(l0);
         mv.visitLineNumber(81, l0);
         mv.visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J");
@@ -299,7 +290,9 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         mv.visitLineNumber(82, l18);
         mv.visitVarInsn(ALOAD, 0);
         mv.visitFieldInsn(GETFIELD, ABSTRACT_MONITOR_HANDLER, "router", "L" + DESTINATION_ROUTER + ";");
-        mv.visitMethodInsn(INVOKEINTERFACE, DESTINATION_ROUTER, "get", "()L" + MONITOR_EVENT_ENTRY + ";");
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, ABSTRACT_MONITOR_HANDLER, "destinationIndex", "I");
+        mv.visitMethodInsn(INVOKEINTERFACE, DESTINATION_ROUTER, "get", "(I)L" + MONITOR_EVENT_ENTRY + ";");
         mv.visitVarInsn(ASTORE, varEntryPosition);
         Label l19 = new Label();
         mv.visitLabel(l19);
@@ -340,33 +333,32 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
 
         mv.visitVarInsn(ALOAD, 0);
 
-        // Load the method arguments onto the stack. Note that we access the method arguments using i+1 since the 0 position is used by "this" (params begin
-        // at 1).
+        // Load the method arguments onto the stack. Note long and double arguments occupy two local variable slots and position 0 is used by "this".
         for (int i = 0; i < paramTypes.length; i++) {
             Class<?> paramType = paramTypes[i];
             if (paramType.isPrimitive()) {
                 if (Integer.TYPE.equals(paramType)) {
-                    mv.visitVarInsn(ILOAD, i + 1);
+                    mv.visitVarInsn(ILOAD, slots[i]);
                 } else if (Long.TYPE.equals(paramType)) {
-                    mv.visitVarInsn(LLOAD, i + 1);
+                    mv.visitVarInsn(LLOAD, slots[i]);
                 } else if (Double.TYPE.equals(paramType)) {
-                    mv.visitVarInsn(DLOAD, i + 1);
+                    mv.visitVarInsn(DLOAD, slots[i]);
                 } else if (Boolean.TYPE.equals(paramType)) {
-                    mv.visitVarInsn(ILOAD, i + 1);
+                    mv.visitVarInsn(ILOAD, slots[i]);
                 } else if (Float.TYPE.equals(paramType)) {
-                    mv.visitVarInsn(FLOAD, i + 1);
+                    mv.visitVarInsn(FLOAD, slots[i]);
                 } else if (Short.TYPE.equals(paramType)) {
-                    mv.visitVarInsn(ILOAD, i + 1);
+                    mv.visitVarInsn(ILOAD, slots[i]);
                 } else if (Byte.TYPE.equals(paramType)) {
-                    mv.visitVarInsn(ILOAD, i + 1);
+                    mv.visitVarInsn(ILOAD, slots[i]);
                 } else if (Character.TYPE.equals(paramType)) {
-                    mv.visitVarInsn(ILOAD, i + 1);
+                    mv.visitVarInsn(ILOAD, slots[i]);
                 } else {
                     throw new AssertionError("Unhandled type: " + paramType);
                 }
 
             } else {
-                mv.visitVarInsn(ALOAD, i + 1);
+                mv.visitVarInsn(ALOAD, slots[i]);
             }
         }
 
@@ -402,7 +394,7 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         mv.visitLineNumber(96, l30);
         mv.visitVarInsn(ALOAD, 0);
         mv.visitFieldInsn(GETFIELD, ABSTRACT_MONITOR_HANDLER, "router", "L" + DESTINATION_ROUTER + ";");
-        mv.visitVarInsn(ALOAD, varArgsPosition);
+        mv.visitVarInsn(ALOAD, varEntryPosition);
         mv.visitMethodInsn(INVOKEINTERFACE, DESTINATION_ROUTER, "publish", "(L" + MONITOR_EVENT_ENTRY + ";)V");
         mv.visitLabel(l29);
         mv.visitVarInsn(ALOAD, 13);
@@ -410,72 +402,6 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         mv.visitLabel(l27);
         mv.visitLineNumber(99, l27);
         Label l31 = new Label();
-        mv.visitJumpInsn(GOTO, l31);
-        mv.visitLabel(l16);
-        mv.visitLineNumber(100, l16);
-        pushInteger(numParams, mv);
-        mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
-        mv.visitVarInsn(ASTORE, varArgsPosition);
-        Label l32 = new Label();
-        mv.visitLabel(l32);
-        mv.visitLineNumber(101, l32);
-
-        for (int i = 0; i < paramTypes.length; i++) {
-            mv.visitVarInsn(ALOAD, varArgsPosition);
-            pushInteger(i, mv);
-
-            if (paramTypes[i].isPrimitive()) {
-                // i+1 since that is the position of the method argument (position 0 is reserved for "this")
-                if (Integer.TYPE.equals(paramTypes[i])) {
-                    mv.visitVarInsn(ILOAD, i + 1);
-                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;");
-                } else if (Long.TYPE.equals(paramTypes[i])) {
-                    mv.visitVarInsn(LLOAD, i + 1);
-                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;");
-                } else if (Double.TYPE.equals(paramTypes[i])) {
-                    mv.visitVarInsn(DLOAD, i + 1);
-                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;");
-                } else if (Float.TYPE.equals(paramTypes[i])) {
-                    mv.visitVarInsn(FLOAD, i + 1);
-                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Float", "valueOf", "(F)Ljava/lang/Float;");
-                } else if (Boolean.TYPE.equals(paramTypes[i])) {
-                    mv.visitVarInsn(ILOAD, i + 1);
-                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(Z)Ljava/lang/Boolean;");
-                } else if (Short.TYPE.equals(paramTypes[i])) {
-                    mv.visitVarInsn(ILOAD, i + 1);
-                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Short", "valueOf", "(S)Ljava/lang/Short;");
-                } else if (Byte.TYPE.equals(paramTypes[i])) {
-                    mv.visitVarInsn(ILOAD, i + 1);
-                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Byte", "valueOf", "(B)Ljava/lang/Byte;");
-                } else if (Character.TYPE.equals(paramTypes[i])) {
-                    mv.visitVarInsn(ILOAD, i + 1);
-                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Character", "valueOf", "(C)Ljava/lang/Character;");
-                }
-            } else {
-                mv.visitVarInsn(ALOAD, i + 1);  // i+1 since that is the position of the method argument (position 0 is reserved for "this")
-            }
-            mv.visitInsn(AASTORE);
-        }
-
-        Label l34 = new Label();
-        mv.visitLabel(l34);
-        mv.visitLineNumber(103, l34);
-        mv.visitVarInsn(ALOAD, 0);
-        mv.visitFieldInsn(GETFIELD, ABSTRACT_MONITOR_HANDLER, "router", "L" + DESTINATION_ROUTER + ";");
-        mv.visitVarInsn(ALOAD, varCurrentLevelPosition);
-        mv.visitVarInsn(ALOAD, 0);
-        mv.visitFieldInsn(GETFIELD, ABSTRACT_MONITOR_HANDLER, "destinationIndex", "I");
-        mv.visitVarInsn(ALOAD, 0);
-        mv.visitFieldInsn(GETFIELD, ABSTRACT_MONITOR_HANDLER, "runtimeName", "Ljava/lang/String;");
-        mv.visitVarInsn(LLOAD, varTimestampPosition);
-        mv.visitVarInsn(ALOAD, 0);
-        mv.visitFieldInsn(GETFIELD, ABSTRACT_MONITOR_HANDLER, "source", "Ljava/lang/String;");
-        mv.visitVarInsn(ALOAD, varCurrentMessagePosition);
-        mv.visitVarInsn(ALOAD, varArgsPosition);
-        mv.visitMethodInsn(INVOKEINTERFACE,
-                           DESTINATION_ROUTER,
-                           "send",
-                           "(Lorg/fabric3/api/annotation/monitor/MonitorLevel;ILjava/lang/String;JLjava/lang/String;Ljava/lang/String;[Ljava/lang/Object;)V");
         mv.visitLabel(l31);
         mv.visitLineNumber(106, l31);
         mv.visitInsn(RETURN);
@@ -489,27 +415,27 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         for (int i = 1; i <= numParams; i++) {
             Class<?> paramType = paramTypes[i - 1];
             if (String.class.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "Ljava/lang/String;", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "Ljava/lang/String;", null, l4, methodEnd, slots[i - 1]);
             } else if (Integer.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "I", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "I", null, l4, methodEnd, slots[i - 1]);
             } else if (Long.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "J", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "J", null, l4, methodEnd, slots[i - 1]);
             } else if (Double.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "D", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "D", null, l4, methodEnd, slots[i - 1]);
             } else if (Boolean.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "Z", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "Z", null, l4, methodEnd, slots[i - 1]);
             } else if (Float.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "F", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "F", null, l4, methodEnd, slots[i - 1]);
             } else if (Short.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "S", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "S", null, l4, methodEnd, slots[i - 1]);
             } else if (Byte.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "B", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "B", null, l4, methodEnd, slots[i - 1]);
             } else if (Character.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "C", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "C", null, l4, methodEnd, slots[i - 1]);
             } else if (paramType.isPrimitive()) {
                 throw new AssertionError("Unhandled type: " + paramType);
             } else {
-                mv.visitLocalVariable("arg" + i, "Ljava/lang/Object;", null, l4, methodEnd, i);
+                mv.visitLocalVariable("arg" + i, "Ljava/lang/Object;", null, l4, methodEnd, slots[i - 1]);
             }
 
         }
@@ -523,7 +449,6 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         mv.visitLocalVariable("info", "L" + DISPATCH_INFO + ";", null, l11, l12, varDispatchInfoPosition);
 
         mv.visitLocalVariable("entry", "L" + MONITOR_EVENT_ENTRY + ";", null, l0, l27, varEntryPosition);
-        mv.visitLocalVariable("args", "[Ljava/lang/Object;", null, l32, l31, varArgsPosition);
 
         mv.visitLocalVariable("start", "J", null, l18, l1, varStartPosition);
         mv.visitLocalVariable("buffer", "Lorg/fabric3/monitor/spi/buffer/ResizableByteBuffer;", null, l22, l1, varBufferPosition);
@@ -541,9 +466,8 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
      * @param paramTypes the parameter types
      */
     private void writeGenerateParametersMethod(ClassWriter cw, int index, String signature, Class<?>[] paramTypes) {
-        int varMethodArgOffset = 1;
-
         int offset = calculateParameterSpace(paramTypes);
+        int[] slots = calculateParameterSlots(paramTypes);
 
         int varEntryPosition = offset + 1;
         int varNumberArgsPosition = varEntryPosition + 1;
@@ -599,31 +523,31 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
             Class<?> paramType = paramTypes[i];
             if (Character.TYPE.equals(paramType)) {
                 // load method parameter
-                mv.visitVarInsn(ILOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(ILOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setCharValue", "(C)V");
             } else if (Integer.TYPE.equals(paramType)) {
-                mv.visitVarInsn(ILOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(ILOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setIntValue", "(I)V");
             } else if (Long.TYPE.equals(paramType)) {
-                mv.visitVarInsn(LLOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(LLOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setLongValue", "(J)V");
             } else if (Double.TYPE.equals(paramType)) {
-                mv.visitVarInsn(DLOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(DLOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setDoubleValue", "(D)V");
             } else if (Boolean.TYPE.equals(paramType)) {
-                mv.visitVarInsn(ILOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(ILOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setBooleanValue", "(Z)V");
             } else if (Float.TYPE.equals(paramType)) {
-                mv.visitVarInsn(FLOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(FLOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setFloatValue", "(F)V");
             } else if (Short.TYPE.equals(paramType)) {
-                mv.visitVarInsn(ILOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(ILOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setShortValue", "(S)V");
             } else if (Byte.TYPE.equals(paramType)) {
-                mv.visitVarInsn(ILOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(ILOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setByteValue", "(B)V");
             } else if (Object.class.isAssignableFrom(paramType)) {
-                mv.visitVarInsn(ALOAD, varMethodArgOffset + i);
+                mv.visitVarInsn(ALOAD, slots[i]);
                 mv.visitMethodInsn(INVOKEVIRTUAL, PARAM_ENTRY, "setObjectValue", "(Ljava/lang/Object;)V");
             } else {
                 throw new AssertionError("Unhandled type: " + paramType);
@@ -648,25 +572,25 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         for (int i = 1; i <= paramTypes.length; i++) {
             Class<?> paramType = paramTypes[i - 1];
             if (Integer.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "I", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "I", null, l0, endMethod, slots[i - 1]);
             } else if (Long.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "J", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "J", null, l0, endMethod, slots[i - 1]);
             } else if (Double.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "D", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "D", null, l0, endMethod, slots[i - 1]);
             } else if (Boolean.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "Z", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "Z", null, l0, endMethod, slots[i - 1]);
             } else if (Float.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "F", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "F", null, l0, endMethod, slots[i - 1]);
             } else if (Short.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "S", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "S", null, l0, endMethod, slots[i - 1]);
             } else if (Byte.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "B", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "B", null, l0, endMethod, slots[i - 1]);
             } else if (Character.TYPE.equals(paramType)) {
-                mv.visitLocalVariable("arg" + i, "C", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "C", null, l0, endMethod, slots[i - 1]);
             } else if (paramType.isPrimitive()) {
                 throw new AssertionError("Unhandled type");
             } else {
-                mv.visitLocalVariable("arg" + i, "Ljava/lang/Object;", null, l0, endMethod, i + 1);
+                mv.visitLocalVariable("arg" + i, "Ljava/lang/Object;", null, l0, endMethod, slots[i - 1]);
             }
         }
 
@@ -758,6 +682,26 @@ public class BytecodeMonitorProxyService extends AbstractMonitorProxyService imp
         return offset;
     }
 
+    /**
+     * Calculates the local variable positions of method parameters. Position 0 is reserved for "this" and long and double parameters occupy two positions.
+     *
+     * @param paramTypes the parameter types
+     * @return the local variable position of each parameter
+     */
+    private int[] calculateParameterSlots(Class<?>[] paramTypes) {
+        int[] slots = new int[paramTypes.length];
+        int position = 1;
+        for (int i = 0; i < paramTypes.length; i++) {
+            slots[i] = position;
+            if (Double.TYPE.equals(paramTypes[i]) || Long.TYPE.equals(paramTypes[i])) {
+                position = position + 2;
+            } else {
+                position++;
+            }
+        }
+        return slots;
+    }
+
     /**
      * Returns a classloader for loading the proxy class, creating one if necessary.
      *
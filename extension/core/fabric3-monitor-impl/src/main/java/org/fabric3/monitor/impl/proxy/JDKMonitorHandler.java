@@ -93,7 +93,7 @@ public class JDKMonitorHandler implements InvocationHandler, MonitorChannel {
         MonitorEventEntry entry = null;
         try {
             long start = System.nanoTime();
-            entry = router.get();
+            entry = router.get(destinationIndex);
             entry.setDestinationIndex(destinationIndex);
             entry.setTimestampNanos(start);
             entry.setTemplate(template);
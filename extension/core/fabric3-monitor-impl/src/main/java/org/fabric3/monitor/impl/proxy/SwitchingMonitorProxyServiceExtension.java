@@ -20,6 +20,7 @@ import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.monitor.MonitorProxyServiceExtension;
 import org.fabric3.api.host.monitor.Monitorable;
 import org.fabric3.monitor.impl.router.RingBufferDestinationRouter;
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
 import org.oasisopen.sca.annotation.Init;
 import org.oasisopen.sca.annotation.Property;
 import org.oasisopen.sca.annotation.Reference;
@@ -32,12 +33,18 @@ public class SwitchingMonitorProxyServiceExtension implements MonitorProxyServic
 
     private RingBufferDestinationRouter router;
     private Monitorable monitorable;
+    private TemplateRegistry templateRegistry;
 
     private boolean bytecodeGeneration;
     private boolean enabled = false;
 
     private MonitorProxyServiceExtension delegate;
 
+    @Reference(required = false)
+    public void setTemplateRegistry(TemplateRegistry templateRegistry) {
+        this.templateRegistry = templateRegistry;
+    }
+
     @Property(required = false)
     public void setProxy(String proxy) {
         this.bytecodeGeneration = "bytecode".equalsIgnoreCase(proxy);
@@ -58,10 +65,12 @@ public class SwitchingMonitorProxyServiceExtension implements MonitorProxyServic
         if (bytecodeGeneration) {
             BytecodeMonitorProxyService byteCodeDelegate = new BytecodeMonitorProxyService(router, monitorable);
             byteCodeDelegate.setEnabled(enabled);
+            byteCodeDelegate.setTemplateRegistry(templateRegistry);
             delegate = byteCodeDelegate;
         } else {
             JDKRingBufferMonitorProxyService jdkDelegate = new JDKRingBufferMonitorProxyService(router, monitorable);
             jdkDelegate.setEnabled(enabled);
+            jdkDelegate.setTemplateRegistry(templateRegistry);
             delegate = jdkDelegate;
         }
 
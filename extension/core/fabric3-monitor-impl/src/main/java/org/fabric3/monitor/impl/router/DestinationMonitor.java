@@ -30,6 +30,12 @@ public interface DestinationMonitor {
     @Warning("The monitor subsystem was configured with an unknown mode: {0}. Defaulting to development mode.")
     void unknownMode(String mode);
 
+    @Warning("The monitor subsystem was configured with an unknown sharding mode: {0}. Defaulting to a single ring buffer.")
+    void unknownSharding(String sharding);
+
+    @Warning("The monitor subsystem was configured with an unknown overflow policy: {0}. Defaulting to blocking.")
+    void unknownOverflow(String overflow);
+
     @Debug("Blocking strategy enabled on monitor ring buffer")
     void blockingStrategy();
 
@@ -25,13 +25,14 @@ import org.fabric3.monitor.spi.event.MonitorEventEntry;
 public interface RingBufferDestinationRouter extends DestinationRouter {
 
     /**
-     * Returns a buffer entry to writePrefix to.
+     * Returns a buffer entry to writePrefix to for the destination.
      *
      * This call should be wrapped in a <code>try..finally</code> block where {@link #publish(MonitorEventEntry)} is called in the finally section.
      *
+     * @param destinationIndex the index of the destination the event is sent to
      * @return the buffer entry
      */
-    MonitorEventEntry get();
+    MonitorEventEntry get(int destinationIndex);
 
     /**
      * Publishes the buffer entry.
@@ -18,21 +18,24 @@ package org.fabric3.monitor.impl.router;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.BusySpinWaitStrategy;
 import com.lmax.disruptor.PhasedBackoffWaitStrategy;
-import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.SleepingWaitStrategy;
 import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
 import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.YieldingWaitStrategy;
-import com.lmax.disruptor.dsl.Disruptor;
-import com.lmax.disruptor.dsl.ProducerType;
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
 import org.fabric3.api.annotation.monitor.Monitor;
 import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.monitor.impl.common.MonitorConstants;
 import org.fabric3.monitor.spi.destination.MonitorDestinationRegistry;
 import org.fabric3.monitor.spi.event.MonitorEventEntry;
@@ -46,16 +49,36 @@ import org.oasisopen.sca.annotation.Reference;
 /**
  * Dispatches monitor events to destinations via a ring buffer.  This implementation also supports synchronous dispatch. This mode should only be used in
  * development to avoid startup time associated with pre-allocating ring buffer entries.
+ *
+ * Events may be sharded across multiple ring buffers, each with its own consumer thread and wait strategy, to reduce contention between producers and to
+ * prevent a slow destination from delaying events sent to other destinations. The <code>hash</code> sharding mode distributes destinations across a fixed
+ * number of ring buffers; the <code>destination</code> mode creates a ring buffer for each destination when it is first used. Note the ring size applies to
+ * each shard.
+ *
+ * In synchronous mode, events are written to an entry owned by the calling thread and dispatched directly to the destination registry. Entries are reused
+ * across events so that dispatching does not allocate.
  */
+@Management(name = "MonitorDestinationRouter", path = "/runtime/monitor/router", description = "Reports monitor ring buffer statistics")
 public class RingBufferDestinationRouterImpl implements RingBufferDestinationRouter {
     public static final String ASYNCHRONOUS_MODE = "asynchronous";
     private static final String SYNCHRONOUS_MODE = "synchronous";
+    private static final String SHARDING_NONE = "none";
+    private static final String SHARDING_HASH = "hash";
+    private static final String SHARDING_DESTINATION = "destination";
+    private static final String OVERFLOW_BLOCK = "block";
+    private static final String OVERFLOW_DROP = "drop";
+    private static final long DISCARDED = -1;
+    private static final long SYNCHRONOUS = -2;
+    private static final long RELEASED = -3;
 
     private ExecutorService executorService;
     private MonitorDestinationRegistry registry;
     private DestinationMonitor monitor;
 
-    private Disruptor<MonitorEventEntry> disruptor;
+    private MonitorEventEntryFactory factory;
+    private volatile RingBufferShard[] shards;
+    private ThreadLocal<MonitorEventEntry> discardEntries;
+    private ThreadLocal<MonitorEventEntry> synchronousEntries;
 
     private int capacity = MonitorConstants.DEFAULT_BUFFER_CAPACITY;
     private int ringSize = 65536;
@@ -65,6 +88,9 @@ public class RingBufferDestinationRouterImpl implements RingBufferDestinationRou
     private long yieldTimeoutNanos = 1000;
     private String phasedBlockingType = "lock";
     private boolean enabled = false;  // true if the ring buffer (asynchronous mode) is enabled
+    private String sharding = SHARDING_NONE;
+    private int shardCount = 1;
+    private boolean drop;
 
     public RingBufferDestinationRouterImpl(@Reference(name = "executorService") ExecutorService executorService,
                                            @Reference MonitorDestinationRegistry registry,
@@ -96,6 +122,33 @@ public class RingBufferDestinationRouterImpl implements RingBufferDestinationRou
         }
     }
 
+    @Property(required = false)
+    public void setSharding(String sharding) {
+        if (SHARDING_NONE.equalsIgnoreCase(sharding) || SHARDING_HASH.equalsIgnoreCase(sharding) || SHARDING_DESTINATION.equalsIgnoreCase(sharding)) {
+            this.sharding = sharding.toLowerCase();
+        } else {
+            this.sharding = SHARDING_NONE;
+            monitor.unknownSharding(sharding);
+        }
+    }
+
+    @Property(required = false)
+    public void setShards(int shards) {
+        this.shardCount = Math.max(1, shards);
+    }
+
+    @Property(required = false)
+    public void setOverflow(String overflow) {
+        if (OVERFLOW_DROP.equalsIgnoreCase(overflow)) {
+            this.drop = true;
+        } else if (OVERFLOW_BLOCK.equalsIgnoreCase(overflow)) {
+            this.drop = false;
+        } else {
+            this.drop = false;
+            monitor.unknownOverflow(overflow);
+        }
+    }
+
     @Property(required = false)
     public void setBlockingTimeoutNanos(long blockingTimeoutNanos) {
         this.blockingTimeoutNanos = blockingTimeoutNanos;
@@ -123,54 +176,120 @@ public class RingBufferDestinationRouterImpl implements RingBufferDestinationRou
 
     @Init
     public void init() throws FileNotFoundException {
+        factory = new MonitorEventEntryFactory(capacity);
         if (!enabled) {
+            synchronousEntries = ThreadLocal.withInitial(this::newSynchronousEntry);
             return;
         }
-        WaitStrategy waitStrategy = createWaitStrategy();
-        MonitorEventEntryFactory factory = new MonitorEventEntryFactory(capacity);
-        disruptor = new Disruptor<>(factory, ringSize, executorService, ProducerType.MULTI, waitStrategy);
-        MonitorEventHandler handler = new MonitorEventHandler(registry);
-        disruptor.handleEventsWith(handler);
-        disruptor.start();
+        discardEntries = ThreadLocal.withInitial(factory::newInstance);
+        reportWaitStrategy();
+        if (SHARDING_DESTINATION.equals(sharding)) {
+            // shards are created as destinations are used
+            shards = new RingBufferShard[0];
+        } else {
+            int count = SHARDING_HASH.equals(sharding) ? shardCount : 1;
+            RingBufferShard[] created = new RingBufferShard[count];
+            for (int i = 0; i < count; i++) {
+                created[i] = createShard();
+            }
+            shards = created;
+        }
     }
 
     @Destroy
     public void destroy() throws IOException {
-        if (disruptor != null) {
-            disruptor.shutdown();
+        if (shards == null) {
+            return;
         }
+        synchronized (this) {
+            for (RingBufferShard shard : shards) {
+                if (shard != null) {
+                    shard.shutdown();
+                }
+            }
+            shards = null;
+        }
+    }
+
+    @ManagementOperation(description = "The sharding mode")
+    public String getSharding() {
+        return sharding;
+    }
+
+    @ManagementOperation(description = "The number of events waiting to be dispatched by each shard")
+    public Map<Integer, Long> getQueueDepths() {
+        Map<Integer, Long> depths = new LinkedHashMap<>();
+        RingBufferShard[] current = shards;
+        if (current != null) {
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] != null) {
+                    depths.put(i, current[i].getDepth());
+                }
+            }
+        }
+        return depths;
+    }
+
+    @ManagementOperation(description = "The number of events dropped by each shard because its ring buffer was full")
+    public Map<Integer, Long> getDroppedEvents() {
+        Map<Integer, Long> dropped = new LinkedHashMap<>();
+        RingBufferShard[] current = shards;
+        if (current != null) {
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] != null) {
+                    dropped.put(i, current[i].getDropped());
+                }
+            }
+        }
+        return dropped;
     }
 
     public int getDestinationIndex(String name) {
         return registry.getIndex(name);
     }
 
-    public MonitorEventEntry get() {
-        RingBuffer<MonitorEventEntry> ringBuffer = disruptor.getRingBuffer();
-        long sequence = ringBuffer.next();
-        MonitorEventEntry entry = ringBuffer.get(sequence);
+    public MonitorEventEntry get(int destinationIndex) {
+        MonitorEventEntry entry = enabled ? getShard(destinationIndex).next(drop) : getSynchronousEntry();
+        if (entry == null) {
+            // the ring buffer is full; the event is written to an entry that is never published
+            entry = discardEntries.get();
+            entry.setSequence(DISCARDED);
+        }
 
         entry.getBuffer().clear();
         for (ParameterEntry parameterEntry : entry.getEntries()) {
             parameterEntry.reset();
         }
-        entry.setSequence(sequence);
+        entry.setParse(true);
+        entry.setDestinationIndex(destinationIndex);
 
         return entry;
     }
 
     public void publish(MonitorEventEntry entry) {
-        disruptor.getRingBuffer().publish(entry.getSequence());
+        long sequence = entry.getSequence();
+        if (sequence == DISCARDED) {
+            return;
+        } else if (sequence == SYNCHRONOUS) {
+            try {
+                entry.setEndOfBatch(true);
+                registry.write(entry);
+            } catch (IOException e) {
+                throw new ServiceRuntimeException(e);
+            } finally {
+                entry.setSequence(RELEASED);
+            }
+            return;
+        }
+        getShard(entry.getDestinationIndex()).publish(sequence);
     }
 
     public void send(MonitorLevel level, int destinationIndex, long timestamp, String source, String template, boolean parse, Object... args) {
-        // Note this method is not garbage-free as primitives will be auto-boxed. This method should only be called to flush bootstrap events or when the
-        // ring buffer is disabled.
-        if (enabled) {
+        // Note primitives passed to this method will be auto-boxed. Monitor proxies write parameters directly to the entry returned by get(int).
+        if (args == null || args.length <= MonitorEventEntry.DEFAULT_PARAM_SIZE) {
             MonitorEventEntry entry = null;
             try {
-                entry = get();
-                entry.setDestinationIndex(destinationIndex);
+                entry = get(destinationIndex);
                 entry.setTimestampNanos(System.nanoTime());
                 entry.setLevel(level);
                 entry.setEntryTimestamp(timestamp);
@@ -189,6 +308,7 @@ public class RingBufferDestinationRouterImpl implements RingBufferDestinationRou
                 }
             }
         } else {
+            // too many parameters to fit in an entry
             try {
                 registry.write(destinationIndex, level, timestamp, source, template, args);
             } catch (IOException e) {
@@ -197,36 +317,123 @@ public class RingBufferDestinationRouterImpl implements RingBufferDestinationRou
         }
     }
 
+    /**
+     * Returns the entry owned by the current thread for synchronous dispatch. If the entry is in use, which happens when an event is sent while another is
+     * being written by the same thread, a new entry is returned.
+     *
+     * @return the entry
+     */
+    private MonitorEventEntry getSynchronousEntry() {
+        MonitorEventEntry entry = synchronousEntries.get();
+        if (entry.getSequence() == SYNCHRONOUS) {
+            entry = factory.newInstance();
+        }
+        entry.setSequence(SYNCHRONOUS);
+        return entry;
+    }
+
+    private MonitorEventEntry newSynchronousEntry() {
+        MonitorEventEntry entry = factory.newInstance();
+        entry.setSequence(RELEASED);
+        return entry;
+    }
+
+    /**
+     * Returns the shard that dispatches events for the destination.
+     *
+     * @param destinationIndex the destination index
+     * @return the shard
+     * @throws Fabric3Exception if the index does not identify a destination, for example if it was resolved for an unregistered destination name
+     */
+    private RingBufferShard getShard(int destinationIndex) {
+        RingBufferShard[] current = shards;
+        if (current == null) {
+            throw new ServiceRuntimeException("Monitor ring buffer not started");
+        }
+        if (destinationIndex < 0) {
+            throw new Fabric3Exception("Unknown monitor destination index: " + destinationIndex);
+        }
+        if (!SHARDING_DESTINATION.equals(sharding)) {
+            return current[destinationIndex % current.length];
+        }
+        if (destinationIndex < current.length && current[destinationIndex] != null) {
+            return current[destinationIndex];
+        }
+        return addShard(destinationIndex);
+    }
+
+    /**
+     * Creates a shard for a destination if one has not already been created.
+     *
+     * @param destinationIndex the destination index
+     * @return the shard
+     */
+    private synchronized RingBufferShard addShard(int destinationIndex) {
+        RingBufferShard[] current = shards;
+        if (current == null) {
+            throw new ServiceRuntimeException("Monitor ring buffer not started");
+        }
+        if (destinationIndex < current.length && current[destinationIndex] != null) {
+            return current[destinationIndex];
+        }
+        RingBufferShard[] copy = Arrays.copyOf(current, Math.max(current.length, destinationIndex + 1));
+        RingBufferShard shard = createShard();
+        copy[destinationIndex] = shard;
+        shards = copy;
+        return shard;
+    }
+
+    private RingBufferShard createShard() {
+        return new RingBufferShard(factory, ringSize, executorService, createWaitStrategy(), registry);
+    }
+
+    /**
+     * Creates a wait strategy. A new instance is created for each shard as wait strategies hold the state used to signal the consumer.
+     *
+     * @return the wait strategy
+     */
     private WaitStrategy createWaitStrategy() {
-        WaitStrategy waitStrategy;
         if ("blocking".equalsIgnoreCase(strategyType)) {
-            waitStrategy = new BlockingWaitStrategy();
+            return new BlockingWaitStrategy();
+        } else if ("yielding".equalsIgnoreCase(strategyType)) {
+            return new YieldingWaitStrategy();
+        } else if ("sleeping".equalsIgnoreCase(strategyType)) {
+            return new SleepingWaitStrategy();
+        } else if ("backoff".equalsIgnoreCase(strategyType)) {
+            if ("lock".equalsIgnoreCase(phasedBlockingType)) {
+                return PhasedBackoffWaitStrategy.withLock(spinTimeoutNanos, yieldTimeoutNanos, TimeUnit.NANOSECONDS);
+            } else {
+                return PhasedBackoffWaitStrategy.withSleep(spinTimeoutNanos, yieldTimeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        } else if ("spin".equalsIgnoreCase(strategyType)) {
+            return new BusySpinWaitStrategy();
+        } else if ("timeout".equalsIgnoreCase(strategyType)) {
+            return new TimeoutBlockingWaitStrategy(blockingTimeoutNanos, TimeUnit.NANOSECONDS);
+        } else {
+            return new BlockingWaitStrategy();
+        }
+    }
+
+    private void reportWaitStrategy() {
+        if ("blocking".equalsIgnoreCase(strategyType)) {
             monitor.blockingStrategy();
         } else if ("yielding".equalsIgnoreCase(strategyType)) {
-            waitStrategy = new YieldingWaitStrategy();
             monitor.yieldingStrategy();
         } else if ("sleeping".equalsIgnoreCase(strategyType)) {
-            waitStrategy = new SleepingWaitStrategy();
             monitor.sleepingStrategy();
         } else if ("backoff".equalsIgnoreCase(strategyType)) {
             if ("lock".equalsIgnoreCase(phasedBlockingType)) {
-                waitStrategy = PhasedBackoffWaitStrategy.withLock(spinTimeoutNanos, yieldTimeoutNanos, TimeUnit.NANOSECONDS);
                 monitor.phasedBackoffWithLockStrategy(spinTimeoutNanos, yieldTimeoutNanos);
             } else {
-                waitStrategy = PhasedBackoffWaitStrategy.withSleep(spinTimeoutNanos, yieldTimeoutNanos, TimeUnit.NANOSECONDS);
                 monitor.phasedBackoffWithSleepStrategy(spinTimeoutNanos, yieldTimeoutNanos);
             }
         } else if ("spin".equalsIgnoreCase(strategyType)) {
-            waitStrategy = new BusySpinWaitStrategy();
             monitor.busySpinStrategy();
         } else if ("timeout".equalsIgnoreCase(strategyType)) {
-            waitStrategy = new TimeoutBlockingWaitStrategy(blockingTimeoutNanos, TimeUnit.NANOSECONDS);
             monitor.timeoutStrategy(blockingTimeoutNanos);
         } else {
-            waitStrategy = new BlockingWaitStrategy();
             monitor.invalidStrategy(strategyType);
         }
-        return waitStrategy;
     }
 
 }
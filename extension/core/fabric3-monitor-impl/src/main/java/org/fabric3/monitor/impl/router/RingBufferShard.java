@@ -0,0 +1,109 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.monitor.impl.router;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.fabric3.monitor.spi.destination.MonitorDestinationRegistry;
+import org.fabric3.monitor.spi.event.MonitorEventEntry;
+
+/**
+ * A ring buffer with its own consumer thread that dispatches events for a subset of destinations.
+ */
+class RingBufferShard {
+    private Disruptor<MonitorEventEntry> disruptor;
+    private RingBuffer<MonitorEventEntry> ringBuffer;
+    private LongAdder dropped = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param factory         the factory for pre-allocating ring buffer entries
+     * @param ringSize        the ring buffer size
+     * @param executorService the executor that provides the consumer thread
+     * @param waitStrategy    the consumer wait strategy
+     * @param registry        the destination registry events are dispatched to
+     */
+    public RingBufferShard(MonitorEventEntryFactory factory,
+                           int ringSize,
+                           ExecutorService executorService,
+                           WaitStrategy waitStrategy,
+                           MonitorDestinationRegistry registry) {
+        disruptor = new Disruptor<>(factory, ringSize, executorService, ProducerType.MULTI, waitStrategy);
+        disruptor.handleEventsWith(new MonitorEventHandler(registry));
+        ringBuffer = disruptor.start();
+    }
+
+    /**
+     * Claims the next entry, waiting for space if the ring buffer is full and events are not dropped.
+     *
+     * @param drop true if the event should be dropped when the ring buffer is full
+     * @return the entry or null if the ring buffer is full and the event was dropped
+     */
+    public MonitorEventEntry next(boolean drop) {
+        long sequence;
+        if (drop) {
+            try {
+                sequence = ringBuffer.tryNext();
+            } catch (InsufficientCapacityException e) {
+                dropped.increment();
+                return null;
+            }
+        } else {
+            sequence = ringBuffer.next();
+        }
+        MonitorEventEntry entry = ringBuffer.get(sequence);
+        entry.setSequence(sequence);
+        return entry;
+    }
+
+    public void publish(long sequence) {
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * Returns the number of events waiting to be dispatched.
+     *
+     * @return the number of events waiting to be dispatched
+     */
+    public long getDepth() {
+        return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+
+    /**
+     * Returns the number of events dropped because the ring buffer was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public void shutdown() {
+        disruptor.shutdown();
+    }
+
+}
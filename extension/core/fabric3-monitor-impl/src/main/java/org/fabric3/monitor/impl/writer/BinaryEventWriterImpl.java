@@ -0,0 +1,162 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.impl.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.monitor.spi.binary.BinaryFormat;
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
+import org.fabric3.monitor.spi.buffer.ResizableByteBuffer;
+import org.fabric3.monitor.spi.event.MonitorEventEntry;
+import org.fabric3.monitor.spi.event.ParameterEntry;
+import org.fabric3.monitor.spi.writer.BinaryEventWriter;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Writes events as binary records. Templates are referenced by id and arguments are written in their raw form, avoiding the cost of formatting events
+ * that may never be read.
+ */
+public class BinaryEventWriterImpl implements BinaryEventWriter {
+    private TemplateRegistry registry;
+
+    public BinaryEventWriterImpl(@Reference TemplateRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void write(MonitorLevel level, long timestamp, String template, ResizableByteBuffer buffer, Object[] args) {
+        int count = args == null ? 0 : args.length;
+        writeHeader(level, timestamp, template, true, count, buffer);
+        for (int i = 0; i < count; i++) {
+            writeParameter(args[i], buffer);
+        }
+        complete(buffer);
+    }
+
+    public TemplateRegistry getTemplateRegistry() {
+        return registry;
+    }
+
+    public int write(MonitorEventEntry entry) {
+        ResizableByteBuffer buffer = entry.getBuffer();
+        buffer.clear();
+        int limit = entry.getLimit();
+        writeHeader(entry.getLevel(), entry.getEntryTimestamp(), entry.getTemplate(), entry.isParse(), limit, buffer);
+        ParameterEntry[] entries = entry.getEntries();
+        for (int i = 0; i < limit; i++) {
+            writeParameter(entries[i], buffer);
+        }
+        return complete(buffer);
+    }
+
+    private void writeHeader(MonitorLevel level, long timestamp, String template, boolean parse, int count, ResizableByteBuffer buffer) {
+        buffer.putInteger(0);  // placeholder for the record length
+        buffer.put(BinaryFormat.RECORD_EVENT);
+        buffer.putInteger(registry.getId(template));
+        buffer.putLong(timestamp);
+        buffer.put(level == null ? -1 : level.intValue());
+        buffer.put(parse ? 0 : 1);
+        buffer.put(count);
+    }
+
+    private int complete(ResizableByteBuffer buffer) {
+        int count = buffer.position();
+        // the buffer may have been resized, so the backing buffer must be obtained after writing
+        buffer.getByteBuffer().putInt(0, count - 4);
+        buffer.limit(count);
+        return count;
+    }
+
+    private void writeParameter(ParameterEntry entry, ResizableByteBuffer buffer) {
+        switch (entry.getSlot()) {
+            case SHORT:
+                buffer.put(BinaryFormat.TAG_SHORT);
+                buffer.putShort(entry.getShortValue());
+                break;
+            case INT:
+                buffer.put(BinaryFormat.TAG_INT);
+                buffer.putInteger(entry.getIntValue());
+                break;
+            case LONG:
+                buffer.put(BinaryFormat.TAG_LONG);
+                buffer.putLong(entry.getLongValue());
+                break;
+            case DOUBLE:
+                buffer.put(BinaryFormat.TAG_DOUBLE);
+                buffer.putDouble(entry.getDoubleValue());
+                break;
+            case FLOAT:
+                buffer.put(BinaryFormat.TAG_FLOAT);
+                buffer.putFloat(entry.getFloatValue());
+                break;
+            case CHAR:
+                buffer.put(BinaryFormat.TAG_CHAR);
+                buffer.putCharacter(entry.getCharValue());
+                break;
+            case BOOLEAN:
+                buffer.put(BinaryFormat.TAG_BOOLEAN);
+                buffer.put(entry.getBooleanValue() ? 1 : 0);
+                break;
+            case BYTE:
+                buffer.put(BinaryFormat.TAG_BYTE);
+                buffer.put(entry.getByteValue());
+                break;
+            case OBJECT:
+                writeParameter(entry.getObjectValue(Object.class), buffer);
+                break;
+            case NONE:
+                buffer.put(BinaryFormat.TAG_NULL);
+                break;
+        }
+    }
+
+    private void writeParameter(Object arg, ResizableByteBuffer buffer) {
+        if (arg == null) {
+            buffer.put(BinaryFormat.TAG_NULL);
+        } else if (arg instanceof Integer) {
+            buffer.put(BinaryFormat.TAG_INT);
+            buffer.putInteger((Integer) arg);
+        } else if (arg instanceof Long) {
+            buffer.put(BinaryFormat.TAG_LONG);
+            buffer.putLong((Long) arg);
+        } else if (arg instanceof Double) {
+            buffer.put(BinaryFormat.TAG_DOUBLE);
+            buffer.putDouble((Double) arg);
+        } else if (arg instanceof Boolean) {
+            buffer.put(BinaryFormat.TAG_BOOLEAN);
+            buffer.put((Boolean) arg ? 1 : 0);
+        } else if (arg instanceof Throwable) {
+            ByteArrayOutputStream bas = new ByteArrayOutputStream();
+            PrintStream printStream = new PrintStream(bas);
+            ((Throwable) arg).printStackTrace(printStream);
+            printStream.flush();
+            buffer.put(BinaryFormat.TAG_THROWABLE);
+            writeBytes(bas.toByteArray(), buffer);
+        } else {
+            buffer.put(BinaryFormat.TAG_OBJECT);
+            writeBytes(arg.toString().getBytes(StandardCharsets.UTF_8), buffer);
+        }
+    }
+
+    private void writeBytes(byte[] bytes, ResizableByteBuffer buffer) {
+        buffer.putInteger(bytes.length);
+        buffer.put(bytes);
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.impl.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.monitor.impl.writer.BinaryEventWriterImpl;
+import org.fabric3.monitor.impl.writer.NoOpTimestampWriter;
+import org.fabric3.monitor.spi.binary.BinaryFormat;
+import org.fabric3.monitor.spi.buffer.ResizableByteBuffer;
+import org.fabric3.monitor.spi.buffer.ResizableByteBufferMonitor;
+import org.fabric3.monitor.spi.event.MonitorEventEntry;
+
+/**
+ *
+ */
+public class BinaryLogDecoderTestCase extends TestCase {
+    private TemplateRegistryImpl registry;
+    private BinaryEventWriterImpl writer;
+    private BinaryLogDecoder decoder;
+    private ByteBuffer segment;
+
+    public void testDecodeEntry() throws Exception {
+        MonitorEventEntry entry = new MonitorEventEntry(2000, EasyMock.createNiceMock(ResizableByteBufferMonitor.class));
+        entry.setLevel(MonitorLevel.SEVERE);
+        entry.setTemplate("Values {0} {1} {2} {3}");
+        entry.getEntries()[0].setIntValue(1);
+        entry.getEntries()[1].setLongValue(2L);
+        entry.getEntries()[2].setBooleanValue(true);
+        entry.getEntries()[3].setObjectValue("test");
+        entry.setLimit(4);
+        writer.write(entry);
+
+        addTemplate(entry.getTemplate());
+        addRecord(entry.getBuffer());
+
+        assertEquals("[SEVERE] Values 1 2 true test\n", decode(1));
+    }
+
+    public void testDecodeArgs() throws Exception {
+        ResizableByteBuffer buffer = new ResizableByteBuffer(ByteBuffer.allocate(10));
+        writer.write(MonitorLevel.INFO, System.currentTimeMillis(), "This is a {0}", buffer, new Object[]{"test"});
+
+        addTemplate("This is a {0}");
+        addRecord(buffer);
+
+        assertEquals("[INFO] This is a test\n", decode(1));
+    }
+
+    public void testDecodeTrailingThrowable() throws Exception {
+        ResizableByteBuffer buffer = new ResizableByteBuffer(ByteBuffer.allocate(100));
+        writer.write(MonitorLevel.SEVERE, System.currentTimeMillis(), "Error", buffer, new Object[]{new IllegalStateException("failed")});
+
+        addTemplate("Error");
+        addRecord(buffer);
+
+        String text = decode(1);
+        assertTrue(text.startsWith("[SEVERE] Error\njava.lang.IllegalStateException: failed"));
+    }
+
+    public void testPartialRecordIgnored() throws Exception {
+        ResizableByteBuffer buffer = new ResizableByteBuffer(ByteBuffer.allocate(100));
+        writer.write(MonitorLevel.INFO, System.currentTimeMillis(), null, buffer, new Object[0]);
+        addRecord(buffer);
+        // a record length without the record
+        segment.putInt(100);
+
+        assertEquals("[INFO] \n", decode(1));
+    }
+
+    public void testMissingTemplate() throws Exception {
+        ResizableByteBuffer buffer = new ResizableByteBuffer(ByteBuffer.allocate(100));
+        writer.write(MonitorLevel.INFO, System.currentTimeMillis(), "Not defined", buffer, new Object[0]);
+        addRecord(buffer);
+        try {
+            decode(1);
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void testInvalidSegment() throws Exception {
+        try {
+            decoder.decode(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6}), new ByteArrayOutputStream());
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        registry = new TemplateRegistryImpl();
+        writer = new BinaryEventWriterImpl(registry);
+        decoder = new BinaryLogDecoder(new NoOpTimestampWriter());
+        segment = ByteBuffer.allocate(4096);
+        segment.putInt(BinaryFormat.MAGIC);
+        segment.putShort(BinaryFormat.VERSION);
+    }
+
+    private void addTemplate(String template) {
+        byte[] bytes = template.getBytes(StandardCharsets.UTF_8);
+        segment.putInt(5 + bytes.length);
+        segment.put(BinaryFormat.RECORD_TEMPLATE);
+        segment.putInt(registry.getId(template));
+        segment.put(bytes);
+    }
+
+    private void addRecord(ResizableByteBuffer buffer) {
+        ByteBuffer record = buffer.getByteBuffer();
+        record.position(0);
+        segment.put(record);
+    }
+
+    private String decode(int expected) throws Exception {
+        segment.flip();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        assertEquals(expected, decoder.decode(segment, stream));
+        return new String(stream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -24,9 +24,12 @@ import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.fabric3.api.annotation.monitor.MonitorLevel;
 import org.fabric3.monitor.spi.appender.Appender;
+import org.fabric3.monitor.spi.appender.BinaryAppender;
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
 import org.fabric3.monitor.spi.buffer.ResizableByteBuffer;
 import org.fabric3.monitor.spi.buffer.ResizableByteBufferMonitor;
 import org.fabric3.monitor.spi.event.MonitorEventEntry;
+import org.fabric3.monitor.spi.writer.BinaryEventWriter;
 import org.fabric3.monitor.spi.writer.EventWriter;
 
 /**
@@ -63,4 +66,34 @@ public class DefaultMonitorDestinationTestCase extends TestCase {
         EasyMock.verify(eventWriter, appender);
 
     }
+
+    public void testBinaryOnlyWrite() throws Exception {
+        MonitorEventEntry entry = new MonitorEventEntry(25, EasyMock.createNiceMock(ResizableByteBufferMonitor.class));
+        entry.setLevel(MonitorLevel.SEVERE);
+        entry.setTemplate("test");
+
+        // text formatting is skipped when there are no text appenders
+        EventWriter eventWriter = EasyMock.createMock(EventWriter.class);
+
+        TemplateRegistry registry = EasyMock.createMock(TemplateRegistry.class);
+        BinaryEventWriter binaryWriter = EasyMock.createMock(BinaryEventWriter.class);
+        EasyMock.expect(binaryWriter.getTemplateRegistry()).andReturn(registry);
+        EasyMock.expect(binaryWriter.write(entry)).andReturn(10);
+
+        BinaryAppender appender = EasyMock.createMock(BinaryAppender.class);
+        appender.setTemplateRegistry(registry);
+        appender.start();
+        appender.write(EasyMock.isA(ByteBuffer.class));
+        appender.stop();
+
+        EasyMock.replay(eventWriter, registry, binaryWriter, appender);
+
+        List<Appender> appenders = Collections.<Appender>singletonList(appender);
+        DefaultMonitorDestination destination = new DefaultMonitorDestination("test", eventWriter, binaryWriter, 2000, appenders);
+        destination.start();
+        destination.write(entry);
+        destination.stop();
+
+        EasyMock.verify(eventWriter, registry, binaryWriter, appender);
+    }
 }
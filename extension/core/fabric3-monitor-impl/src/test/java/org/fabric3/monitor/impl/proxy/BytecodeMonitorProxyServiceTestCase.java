@@ -253,7 +253,7 @@ public class BytecodeMonitorProxyServiceTestCase extends TestCase {
 
         router = EasyMock.createMock(RingBufferDestinationRouter.class);
         EasyMock.expect(router.getDestinationIndex(EasyMock.isA(String.class))).andReturn(1);
-        EasyMock.expect(router.get()).andReturn(entry);
+        EasyMock.expect(router.get(1)).andReturn(entry);
         router.publish(entry);
 
         monitorable = EasyMock.createMock(Monitorable.class);
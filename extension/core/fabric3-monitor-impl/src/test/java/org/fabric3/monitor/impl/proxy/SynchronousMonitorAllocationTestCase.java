@@ -0,0 +1,142 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.impl.proxy;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.annotation.monitor.Info;
+import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.api.host.monitor.Monitorable;
+import org.fabric3.monitor.impl.destination.DefaultMonitorDestination;
+import org.fabric3.monitor.impl.destination.MonitorDestinationRegistryImpl;
+import org.fabric3.monitor.impl.router.DestinationMonitor;
+import org.fabric3.monitor.impl.router.RingBufferDestinationRouterImpl;
+import org.fabric3.monitor.impl.writer.EventWriterImpl;
+import org.fabric3.monitor.impl.writer.EventWriterMonitor;
+import org.fabric3.monitor.spi.appender.Appender;
+import org.fabric3.spi.runtime.event.EventService;
+
+/**
+ * Verifies events sent through a generated monitor proxy do not allocate when the router dispatches synchronously.
+ */
+public class SynchronousMonitorAllocationTestCase extends TestCase {
+    private static final int WARMUP = 50000;
+    private static final int EVENTS = 10000;
+    private static final long MAX_ALLOCATED = 4096;
+
+    private RingBufferDestinationRouterImpl router;
+    private CountingAppender appender;
+    private BytecodeMonitorProxyService proxyService;
+
+    public void testNoAllocationPerEvent() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;  // allocation counters are not available on this VM
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        AllocationMonitor monitor = proxyService.createMonitor(AllocationMonitor.class, new TestMonitorable(), "test");
+        for (int i = 0; i < WARMUP; i++) {
+            monitor.event(i, i * 10L, true);
+        }
+
+        long id = Thread.currentThread().getId();
+        long start = threadBean.getThreadAllocatedBytes(id);
+        for (int i = 0; i < EVENTS; i++) {
+            monitor.event(i, i * 10L, false);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(id) - start;
+
+        assertEquals(WARMUP + EVENTS, appender.count);
+        // allow for a small fixed overhead from reading the allocation counters, far less than a single boxed argument per event would allocate
+        assertTrue("Bytes allocated: " + allocated, allocated < MAX_ALLOCATED);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        EventService eventService = EasyMock.createNiceMock(EventService.class);
+        EventWriterMonitor writerMonitor = EasyMock.createNiceMock(EventWriterMonitor.class);
+        DestinationMonitor destinationMonitor = EasyMock.createNiceMock(DestinationMonitor.class);
+        EasyMock.replay(eventService, writerMonitor, destinationMonitor);
+
+        EventWriterImpl eventWriter = new EventWriterImpl(writerMonitor);
+        eventWriter.init();
+
+        appender = new CountingAppender();
+        DefaultMonitorDestination destination = new DefaultMonitorDestination("test", eventWriter, 2000, Collections.<Appender>singletonList(appender));
+
+        MonitorDestinationRegistryImpl registry = new MonitorDestinationRegistryImpl(eventService);
+        registry.init();
+        registry.register(destination);
+
+        router = new RingBufferDestinationRouterImpl(null, registry, destinationMonitor);
+        router.setMode("synchronous");
+        router.init();
+
+        proxyService = new BytecodeMonitorProxyService(router, new TestMonitorable());
+        proxyService.setEnabled(false);
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        router.destroy();
+    }
+
+    public interface AllocationMonitor {
+
+        @Info("Event {0} at {1}: {2}")
+        void event(int count, long value, boolean flag);
+
+    }
+
+    private class TestMonitorable implements Monitorable {
+
+        public String getName() {
+            return "test";
+        }
+
+        public MonitorLevel getLevel() {
+            return MonitorLevel.INFO;
+        }
+
+        public void setLevel(MonitorLevel level) {
+        }
+    }
+
+    private class CountingAppender implements Appender {
+        private int count;
+
+        public void start() {
+        }
+
+        public void stop() {
+        }
+
+        public void write(ByteBuffer buffer) {
+            count++;
+        }
+    }
+
+}
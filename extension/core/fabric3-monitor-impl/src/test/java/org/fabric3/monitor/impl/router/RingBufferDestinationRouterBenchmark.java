@@ -0,0 +1,152 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.impl.router;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.easymock.EasyMock;
+import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.monitor.spi.buffer.ResizableByteBuffer;
+import org.fabric3.monitor.spi.destination.MonitorDestination;
+import org.fabric3.monitor.spi.destination.MonitorDestinationRegistry;
+import org.fabric3.monitor.spi.event.MonitorEventEntry;
+
+/**
+ * Compares routing throughput using a single ring buffer against ring buffers sharded by destination when multiple producers write to different destinations.
+ *
+ * This is a harness rather than a test case so that it is not run as part of the build. Run it from the test classpath using {@link #main(String[])}. JMH is
+ * not used since it is not a build dependency; the harness follows MessageContainerBenchmark in the ActiveMQ binding.
+ */
+public class RingBufferDestinationRouterBenchmark {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS = 50000;
+
+    private ExecutorService executorService;
+
+    private RingBufferDestinationRouterBenchmark(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    public static void main(String[] args) throws Exception {
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        try {
+            RingBufferDestinationRouterBenchmark benchmark = new RingBufferDestinationRouterBenchmark(executorService);
+            long time = benchmark.route("none");
+            System.out.println("Single ring buffer routed " + PRODUCERS * EVENTS + " events in " + time + " ms");
+
+            time = benchmark.route("destination");
+            System.out.println("Ring buffers sharded by destination routed " + PRODUCERS * EVENTS + " events in " + time + " ms");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Routes events from concurrent producers, each writing to its own destination.
+     *
+     * @param sharding the sharding mode
+     * @return the time taken to route the events in milliseconds
+     * @throws Exception if the events are not routed
+     */
+    private long route(String sharding) throws Exception {
+        CountDownLatch latch = new CountDownLatch(PRODUCERS * EVENTS);
+        DestinationMonitor monitor = EasyMock.createNiceMock(DestinationMonitor.class);
+        EasyMock.replay(monitor);
+
+        RingBufferDestinationRouterImpl router = new RingBufferDestinationRouterImpl(executorService, new CountingRegistry(latch), monitor);
+        router.setMode("asynchronous");
+        router.setCapacity(100);
+        router.setRingSize(1024);
+        router.setWaitStrategy("yielding");
+        router.setSharding(sharding);
+        router.init();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < PRODUCERS; i++) {
+            int destinationIndex = i;
+            Thread producer = new Thread(() -> {
+                ResizableByteBuffer buffer = new ResizableByteBuffer(ByteBuffer.allocate(200));
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < EVENTS; j++) {
+                    MonitorEventEntry entry = router.get(destinationIndex);
+                    try {
+                        entry.setBuffer(buffer);
+                        entry.setLevel(MonitorLevel.INFO);
+                    } finally {
+                        router.publish(entry);
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        long time = System.currentTimeMillis();
+        start.countDown();
+        try {
+            if (!latch.await(60, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out routing events");
+            }
+            return System.currentTimeMillis() - time;
+        } finally {
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            router.destroy();
+        }
+    }
+
+    private class CountingRegistry implements MonitorDestinationRegistry {
+        private CountDownLatch latch;
+
+        private CountingRegistry(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        public void register(MonitorDestination destination) {
+            throw new UnsupportedOperationException();
+        }
+
+        public MonitorDestination unregister(String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        public int getIndex(String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void write(MonitorEventEntry entry) throws IOException {
+            latch.countDown();
+        }
+
+        public void write(int index, MonitorLevel level, long timestamp, String source, String template, Object... args) {
+            latch.countDown();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.monitor.spi.buffer.ResizableByteBuffer;
 import org.fabric3.monitor.spi.destination.MonitorDestination;
 import org.fabric3.monitor.spi.destination.MonitorDestinationRegistry;
@@ -44,7 +45,7 @@ public class RingBufferDestinationRouterImplTestCase extends TestCase {
         router.setMode("asynchronous");
 
         router.init();
-        MonitorEventEntry entry = router.get();
+        MonitorEventEntry entry = router.get(0);
         ResizableByteBuffer wrapper = new ResizableByteBuffer(this.buffer);
         entry.setBuffer(wrapper);
         entry.setLevel(MonitorLevel.SEVERE);
@@ -54,6 +55,65 @@ public class RingBufferDestinationRouterImplTestCase extends TestCase {
         assertTrue(latch.await(10, TimeUnit.SECONDS));
     }
 
+    public void testShardByDestination() throws Exception {
+        latch = new CountDownLatch(2);
+        router = createRouter(new MockRegistry(latch));
+        router.setSharding("destination");
+
+        router.init();
+        publish(router.get(0));
+        publish(router.get(3));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(2, router.getQueueDepths().size());
+        router.destroy();
+    }
+
+    public void testShardByHash() throws Exception {
+        latch = new CountDownLatch(3);
+        router = createRouter(new MockRegistry(latch));
+        router.setSharding("hash");
+        router.setShards(2);
+
+        router.init();
+        publish(router.get(0));
+        publish(router.get(1));
+        publish(router.get(2));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(2, router.getQueueDepths().size());
+        router.destroy();
+    }
+
+    public void testDropOnOverflow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        router = createRouter(new BlockingRegistry(release));
+        router.setOverflow("drop");
+
+        router.init();
+        // the consumer blocks on the first event, leaving no free slots in the ring buffer
+        publish(router.get(0));
+        publish(router.get(0));
+        publish(router.get(0));
+
+        assertEquals(1, router.getDroppedEvents().get(0).longValue());
+        release.countDown();
+        router.destroy();
+    }
+
+    public void testUnknownDestination() throws Exception {
+        router.setSharding("destination");
+
+        router.init();
+        try {
+            router.get(-1);
+            fail();
+        } catch (Fabric3Exception e) {
+            // expected
+        }
+        router.destroy();
+    }
+
     public void testSynchronousRoute() throws Exception {
         router.setMode("synchronous");
 
@@ -72,19 +132,48 @@ public class RingBufferDestinationRouterImplTestCase extends TestCase {
         latch = new CountDownLatch(1);
         MonitorDestinationRegistry registry = new MockRegistry(latch);
 
+        router = createRouter(registry);
+
+        buffer = ByteBuffer.allocate(200);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        executorService.shutdownNow();
+    }
+
+    private RingBufferDestinationRouterImpl createRouter(MonitorDestinationRegistry registry) {
         DestinationMonitor monitor = EasyMock.createNiceMock(DestinationMonitor.class);
         EasyMock.replay(monitor);
 
-        router = new RingBufferDestinationRouterImpl(executorService, registry, monitor);
+        RingBufferDestinationRouterImpl router = new RingBufferDestinationRouterImpl(executorService, registry, monitor);
         router.setCapacity(100);
         router.setRingSize(2);
+        router.setMode("asynchronous");
+        return router;
+    }
 
-        buffer = ByteBuffer.allocate(200);
+    private void publish(MonitorEventEntry entry) {
+        entry.setBuffer(new ResizableByteBuffer(ByteBuffer.allocate(200)));
+        entry.setLevel(MonitorLevel.SEVERE);
+        router.publish(entry);
     }
 
-    public void tearDown() throws Exception {
-        super.tearDown();
-        executorService.shutdownNow();
+    private class BlockingRegistry extends MockRegistry {
+        private CountDownLatch release;
+
+        private BlockingRegistry(CountDownLatch release) {
+            super(new CountDownLatch(0));
+            this.release = release;
+        }
+
+        public void write(MonitorEventEntry entry) throws IOException {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     private class MockRegistry implements MonitorDestinationRegistry {
@@ -0,0 +1,34 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.spi.appender;
+
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
+
+/**
+ * An {@link Appender} that records events in the binary format defined by {@link org.fabric3.monitor.spi.binary.BinaryFormat} instead of text. Events are
+ * passed to {@link #write(java.nio.ByteBuffer)} as a single encoded record.
+ */
+public interface BinaryAppender extends Appender {
+
+    /**
+     * Sets the registry for resolving the template ids contained in event records. Called before the appender is started.
+     *
+     * @param registry the registry
+     */
+    void setTemplateRegistry(TemplateRegistry registry);
+
+}
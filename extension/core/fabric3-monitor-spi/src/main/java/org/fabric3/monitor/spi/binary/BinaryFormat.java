@@ -0,0 +1,67 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.spi.binary;
+
+/**
+ * Defines the binary monitor log format.
+ *
+ * A segment starts with a header containing {@link #MAGIC} and {@link #VERSION}, followed by records. Each record is prefixed by its length in bytes, not
+ * including the prefix, and a record type. A length of zero marks the end of the records in a segment.
+ *
+ * An event record contains the template id, the timestamp in milliseconds, the monitor level value, a flag indicating whether the template is written
+ * literally, the number of arguments and the arguments. Each argument is a type tag followed by its value. Numeric values are written in their raw binary
+ * form; objects are written as a length-prefixed UTF-8 string.
+ *
+ * A template record contains a template id followed by the UTF-8 template text. Appenders write a template record to a segment before the first event that
+ * refers to it so that segments can be decoded without the runtime.
+ */
+public final class BinaryFormat {
+    public static final int MAGIC = 0x46334D4C;   // F3ML
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 6;
+
+    public static final byte RECORD_EVENT = 1;
+    public static final byte RECORD_TEMPLATE = 2;
+
+    /**
+     * The offset of the record type from the start of a record.
+     */
+    public static final int TYPE_OFFSET = 4;
+
+    /**
+     * The offset of the template id from the start of a record.
+     */
+    public static final int TEMPLATE_ID_OFFSET = 5;
+
+    public static final int NO_TEMPLATE = 0;
+
+    public static final byte TAG_NULL = 0;
+    public static final byte TAG_SHORT = 1;
+    public static final byte TAG_INT = 2;
+    public static final byte TAG_LONG = 3;
+    public static final byte TAG_DOUBLE = 4;
+    public static final byte TAG_FLOAT = 5;
+    public static final byte TAG_CHAR = 6;
+    public static final byte TAG_BOOLEAN = 7;
+    public static final byte TAG_BYTE = 8;
+    public static final byte TAG_OBJECT = 9;
+    public static final byte TAG_THROWABLE = 10;
+
+    private BinaryFormat() {
+    }
+
+}
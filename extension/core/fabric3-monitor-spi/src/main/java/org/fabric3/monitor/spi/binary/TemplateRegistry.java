@@ -0,0 +1,40 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.spi.binary;
+
+/**
+ * Assigns numeric ids to monitor message templates so binary records can refer to a template without including its text.
+ */
+public interface TemplateRegistry {
+
+    /**
+     * Returns the id for the template, assigning one if the template has not been registered.
+     *
+     * @param template the template. May be null.
+     * @return the template id or {@link BinaryFormat#NO_TEMPLATE} if the template is null
+     */
+    int getId(String template);
+
+    /**
+     * Returns the template for the id.
+     *
+     * @param id the template id
+     * @return the template or null if no template is registered for the id
+     */
+    String getTemplate(int id);
+
+}
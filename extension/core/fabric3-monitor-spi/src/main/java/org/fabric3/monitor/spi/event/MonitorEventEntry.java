@@ -26,7 +26,7 @@ import org.fabric3.monitor.spi.buffer.ResizableByteBufferMonitor;
  * An entry for writing a monitor event to a ring buffer.
  */
 public class MonitorEventEntry {
-    private static final int DEFAULT_PARAM_SIZE = 10;
+    public static final int DEFAULT_PARAM_SIZE = 10;
 
     private String template;
     private boolean parse = true;
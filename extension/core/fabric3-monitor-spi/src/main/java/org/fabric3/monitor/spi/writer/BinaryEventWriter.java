@@ -0,0 +1,55 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.monitor.spi.writer;
+
+import org.fabric3.api.annotation.monitor.MonitorLevel;
+import org.fabric3.monitor.spi.binary.TemplateRegistry;
+import org.fabric3.monitor.spi.buffer.ResizableByteBuffer;
+import org.fabric3.monitor.spi.event.MonitorEventEntry;
+
+/**
+ * Writes monitor events to a buffer as binary records defined by {@link org.fabric3.monitor.spi.binary.BinaryFormat}.
+ */
+public interface BinaryEventWriter {
+
+    /**
+     * Writes the event as a binary record into the buffer. The buffer limit is set to the end of the record.
+     *
+     * @param level     the monitor level
+     * @param timestamp the timestamp
+     * @param template  the template
+     * @param buffer    the buffer to write into
+     * @param args      the arguments
+     */
+    void write(MonitorLevel level, long timestamp, String template, ResizableByteBuffer buffer, Object[] args);
+
+    /**
+     * Writes the event as a binary record into the entry buffer, replacing its contents. The buffer limit is set to the end of the record.
+     *
+     * @param entry the entry
+     * @return the number of bytes written
+     */
+    int write(MonitorEventEntry entry);
+
+    /**
+     * Returns the registry used to assign ids to the templates of written events.
+     *
+     * @return the registry
+     */
+    TemplateRegistry getTemplateRegistry();
+
+}
@@ -46,6 +46,11 @@ import org.oasisopen.sca.annotation.Reference;
  *
  * Configuration entries are placed under {@code [domain]/configuration/}.
  *
+ * Service, channel and configuration lookups are answered from an in-memory mirror of the domain directory. The mirror is loaded once and then updated from
+ * the change watch, which is resumed from the last applied etcd index so that no changes are missed between watch requests. If etcd has cleared events
+ * from its history before they could be read, the watch thread reloads the mirror and notifies listeners of the differences. Lookups only load the mirror
+ * if it has never been loaded and otherwise continue to be answered from the current contents while it is reloaded.
+ *
  * This implementation also supports leader election based on the ZooKeeper algorithm described here:
  *
  * https://zookeeper.apache.org/doc/trunk/recipes.html#sc_leaderElection
@@ -57,6 +62,8 @@ import org.oasisopen.sca.annotation.Reference;
 @EagerInit
 public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
     public static final String V2_KEYS = "/v2/keys/";
+    private static final int KEY_NOT_FOUND = 100;
+    private static final int EVENT_INDEX_CLEARED = 401;
 
     private String[] addresses = {"http://127.0.0.1:4001"};
 
@@ -84,6 +91,7 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
     private OkHttpClient client;
     private ObjectMapper mapper;
     private int index;
+    protected KeyspaceMirror mirror;  // for testing
 
     private Map<String, List<BiConsumer<EntryChange, ServiceEntry>>> serviceListeners = new HashMap<>(); // service name to listeners
     private Map<String, List<BiConsumer<EntryChange, ChannelEntry>>> channelListeners = new HashMap<>(); // channel name to listeners
@@ -120,6 +128,7 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
         client = new OkHttpClient();
         client.setConnectTimeout(0, TimeUnit.MILLISECONDS);
         mapper = new ObjectMapper();
+        mirror = new KeyspaceMirror(authority, mapper, monitor);
         pinnedAddress = getAddress();
 
         if (RuntimeMode.NODE == info.getRuntimeMode() && leaderElectionEnabled) {
@@ -210,36 +219,11 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
         }
     }
 
-    @SuppressWarnings("unchecked")
     public String getValue(String key) {
-        String address = pinnedAddress;
-        while (true) {
-            try {
-                Request request = new Request.Builder().url(address + V2_KEYS + authority + "/configuration/" + key).build();
-                Response response = client.newCall(request).execute();
-                if (!response.isSuccessful()) {
-                    monitor.debug("Response retrieving configuration {0}: {1}", key, response.code());
-                    return null;
-                }
-                Map<String, Object> body = mapper.readValue(response.body().string(), Map.class);
-                Map<String, Object> node = (Map<String, Object>) body.get("node");
-                if (node == null) {
-                    monitor.severe("Error retrieving configuration from etcd for: {0}. Node property not found.", key);
-                    return null;
-                }
-                return (String) node.get("value");
-            } catch (IOException e) {
-                monitor.severe("Error retrieving configuration from etcd for: {0}. Trying next etcd instance.", key, e);
-                synchronized (this) {
-                    pinnedAddress = getAddress();
-                    if (pinnedAddress.equals(address)) {
-                        // all of the available addresses have been recycled
-                        monitor.severe("No available etcd instance retrieving configuration for: {0}", key);
-                        return null;
-                    }
-                }
-            }
+        if (!mirror.isLoaded() && !synchronize(false)) {
+            return null;
         }
+        return mirror.getValue(prefixConfigurationKey(key));
     }
 
     public void registerListener(String key, Consumer<String> listener) {
@@ -266,12 +250,26 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
     private void changeListenerTask() {
         while (active) {
             try {
+                if (!mirror.isLoaded() || mirror.isInvalid()) {
+                    // the initial load does not generate notifications; reloads notify listeners of changes missed while the mirror was invalid
+                    if (!synchronize(mirror.isLoaded())) {
+                        Thread.sleep(sleepInterval);
+                        continue;
+                    }
+                }
                 String address = pinnedAddress;
-                Request request = new Request.Builder().url(address + "/v2/keys/" + authority + "?wait=true&recursive=true").get().build();
+                long waitIndex = mirror.getIndex() + 1;
+                String url = address + V2_KEYS + authority + "?wait=true&recursive=true&waitIndex=" + waitIndex;
+                Request request = new Request.Builder().url(url).get().build();
                 Response response = client.newCall(request).execute();
                 if (response.isSuccessful()) {
                     Map<String, Object> data = mapper.readValue(response.body().byteStream(), Map.class);
                     String action = (String) data.get("action");
+                    Map<String, Object> changed = (Map<String, Object>) data.get("node");
+                    if (changed == null || !mirror.apply(action, changed)) {
+                        // the change is already reflected in the mirror
+                        continue;
+                    }
                     if ("set".equals(action)) {
                         processChange((Map) data.get("node"), EntryChange.SET);
                     } else if ("delete".equals(action)) {
@@ -291,7 +289,13 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
                         monitor.debug("Invalid action returned from etcd key watch: " + action);
                     }
                 } else {
-                    Thread.sleep(sleepInterval);
+                    Map<String, Object> error = mapper.readValue(response.body().byteStream(), Map.class);
+                    if (Integer.valueOf(EVENT_INDEX_CLEARED).equals(error.get("errorCode"))) {
+                        monitor.debug("etcd events cleared before index {0}. Reloading.", waitIndex);
+                        mirror.invalidate();
+                    } else {
+                        Thread.sleep(sleepInterval);
+                    }
                 }
             } catch (Exception e) {
                 monitor.severe("Error listening to etcd", e);
@@ -337,15 +341,7 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
         String value = (String) node.get("value");
         String key = (String) node.get("key");
         if (value != null) {
-            if (key.startsWith("/" + authority + "/services/")) {
-                notifyServiceChange(value, change);
-            } else if (key.startsWith("/" + authority + "/channels/")) {
-                notifyChannelChange(value, change);
-            } else if (key.startsWith("/" + authority + "/configuration/")) {
-                notifyConfigurationChange(key, value, change);
-            } else if (key.startsWith("/" + authority + "/leader/")) {
-                checkLeader();
-            }
+            processChange(key, value, change);
         } else {
             List<Map<String, Object>> nodes = (List<Map<String, Object>>) node.getOrDefault("nodes", Collections.emptyList());
             for (Map<String, Object> nodeEntry : nodes) {
@@ -361,6 +357,25 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
         }
     }
 
+    /**
+     * Processes a change to a key.
+     *
+     * @param key    the key
+     * @param value  the key value
+     * @param change the change type
+     */
+    private void processChange(String key, String value, EntryChange change) {
+        if (key.startsWith("/" + authority + "/services/")) {
+            notifyServiceChange(value, change);
+        } else if (key.startsWith("/" + authority + "/channels/")) {
+            notifyChannelChange(value, change);
+        } else if (key.startsWith("/" + authority + "/configuration/")) {
+            notifyConfigurationChange(key, value, change);
+        } else if (key.startsWith("/" + authority + "/leader/")) {
+            checkLeader();
+        }
+    }
+
     private void notifyConfigurationChange(String key, String value, EntryChange change) {
         List<Consumer<String>> listeners = configurationListeners.getOrDefault(key, Collections.emptyList());
         if (change == EntryChange.DELETE || change == EntryChange.EXPIRE) {
@@ -410,40 +425,49 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
      * @param name the name
      * @return the entries
      */
-    @SuppressWarnings("unchecked")
     private <T extends AbstractEntry> List<T> getEntries(Class<T> type, String name) {
-        String prefix = ServiceEntry.class.equals(type) ? "services" : "channels";
-        String address = pinnedAddress;
+        if (!mirror.isLoaded() && !synchronize(false)) {
+            return Collections.emptyList();
+        }
+        return mirror.getEntries(type, name);
+    }
+
+    /**
+     * Loads the mirror from a recursive GET of the domain directory.
+     *
+     * @param notify true if listeners are notified of differences between the previous mirror contents and the domain directory
+     * @return true if the mirror was loaded
+     */
+    @SuppressWarnings("unchecked")
+    private boolean synchronize(boolean notify) {
+        String first = pinnedAddress;
+        String address = first;
         while (true) {
             try {
-                Request request = new Request.Builder().url(address + V2_KEYS + authority + "/" + prefix).build();
+                Request request = new Request.Builder().url(address + V2_KEYS + authority + "?recursive=true").build();
                 Response response = client.newCall(request).execute();
                 Map<String, Object> body = mapper.readValue(response.body().string(), Map.class);
-
-                Map<String, Object> servicesDir = (Map<String, Object>) body.get("node");
-                if (servicesDir == null) {
-                    monitor.debug("Directory {0} not found in etcd", prefix);
-                    return Collections.emptyList();
-                }
-                List<Map<String, Object>> nodes = (List<Map<String, Object>>) servicesDir.get("nodes");
-                List<T> entries = new ArrayList<>();
-                for (Map<String, Object> node : nodes) {
-                    String value = (String) node.get("value");
-                    T entry = parseEntry(type, value);
-                    if (name.equals("*") || name.equals(entry.getName())) { // filter on requested name
-                        entries.add(entry);
-                    }
+                Map<String, Object> root = null;
+                if (response.isSuccessful()) {
+                    root = (Map<String, Object>) body.get("node");
+                } else if (!Integer.valueOf(KEY_NOT_FOUND).equals(body.get("errorCode"))) {
+                    // the domain directory does not exist until a key is added to it
+                    monitor.severe("Error loading domain directory from etcd: {0}", response.code());
+                    return false;
                 }
-                return entries;
+                String etcdIndex = response.header("X-Etcd-Index");
+                mirror.load(root, etcdIndex == null ? 0 : Long.parseLong(etcdIndex), notify ? (c, n) -> processChange(n.getKey(), n.getValue(), c) : null);
+                return true;
             } catch (IOException e) {
-                monitor.severe("Error retrieving addresses from etcd for: {0}. Trying next etcd instance.", name, e);
+                monitor.severe("Error loading domain directory from etcd. Trying next etcd instance.", e);
                 synchronized (this) {
                     pinnedAddress = getAddress();
-                    if (pinnedAddress.equals(address)) {
+                    if (pinnedAddress.equals(first)) {
                         // all of the available addresses have been recycled
-                        monitor.severe("No available etcd instance retrieving addresses for: {0}", name);
-                        return Collections.emptyList();
+                        monitor.severe("No available etcd instance loading domain directory");
+                        return false;
                     }
+                    address = pinnedAddress;
                 }
             }
         }
@@ -620,11 +644,6 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
 
     }
 
-    @SuppressWarnings("unchecked")
-    private <T extends AbstractEntry> T parseEntry(Class<T> type, String value) throws IOException {
-        return ServiceEntry.class.equals(type) ? (T) mapper.readValue(value, ServiceEntry.class) : (T) mapper.readValue(value, ChannelEntry.class);
-    }
-
     /**
      * Round-robins between configured etcd addresses.
      *
@@ -0,0 +1,273 @@
+package org.fabric3.discovery.etcd;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fabric3.api.MonitorChannel;
+import org.fabric3.spi.discovery.AbstractEntry;
+import org.fabric3.spi.discovery.ChannelEntry;
+import org.fabric3.spi.discovery.EntryChange;
+import org.fabric3.spi.discovery.ServiceEntry;
+
+/**
+ * An in-memory mirror of the service, channel and configuration keys in a domain directory.
+ *
+ * The mirror is loaded from a recursive GET of the domain directory and then updated incrementally from watch events. The etcd index of the last applied
+ * change is tracked so that the watch can be resumed using {@code waitIndex} without missing events. Events at or below the tracked index are already reflected
+ * in the mirror and are discarded. Service and channel entries are deserialized and frozen once when they change rather than on each lookup.
+ */
+class KeyspaceMirror {
+    private String servicesPrefix;
+    private String channelsPrefix;
+    private String configurationPrefix;
+    private ObjectMapper mapper;
+    private MonitorChannel monitor;
+
+    private volatile Map<String, MirroredNode> nodes = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile boolean invalid;
+    private volatile long index;
+
+    /**
+     * Constructor.
+     *
+     * @param authority the domain authority
+     * @param mapper    the mapper for deserializing entries
+     * @param monitor   the monitor
+     */
+    public KeyspaceMirror(String authority, ObjectMapper mapper, MonitorChannel monitor) {
+        this.servicesPrefix = "/" + authority + "/services/";
+        this.channelsPrefix = "/" + authority + "/channels/";
+        this.configurationPrefix = "/" + authority + "/configuration/";
+        this.mapper = mapper;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns true if the mirror has been loaded at least once. An invalidated mirror remains loaded as its contents continue to be returned until it is
+     * reloaded.
+     *
+     * @return true if the mirror has been loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns true if the mirror has been invalidated and not subsequently reloaded.
+     *
+     * @return true if the mirror has been invalidated
+     */
+    public boolean isInvalid() {
+        return invalid;
+    }
+
+    /**
+     * Returns the etcd index of the last change reflected in the mirror.
+     *
+     * @return the index
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Marks the mirror as requiring a full load, for example when watch events have been cleared from the etcd event history. Current contents continue to be
+     * returned until the mirror is reloaded.
+     */
+    public void invalidate() {
+        invalid = true;
+    }
+
+    /**
+     * Replaces the contents of the mirror with a snapshot of the domain directory.
+     *
+     * @param root      the root node of the snapshot or null if the domain directory does not exist
+     * @param etcdIndex the etcd index the snapshot was taken at
+     * @param listener  if not null, receives the differences between the previous contents and the snapshot
+     */
+    public synchronized void load(Map<String, Object> root, long etcdIndex, BiConsumer<EntryChange, MirroredNode> listener) {
+        Map<String, MirroredNode> snapshot = new ConcurrentHashMap<>();
+        long highest = 0;
+        if (root != null) {
+            highest = addNodes(root, snapshot);
+        }
+        Map<String, MirroredNode> previous = nodes;
+        nodes = snapshot;
+        index = Math.max(etcdIndex, highest);
+        loaded = true;
+        invalid = false;
+
+        if (listener != null) {
+            for (MirroredNode node : snapshot.values()) {
+                MirroredNode old = previous.get(node.getKey());
+                if (old == null || !Objects.equals(old.getValue(), node.getValue())) {
+                    listener.accept(EntryChange.SET, node);
+                }
+            }
+            for (MirroredNode old : previous.values()) {
+                if (!snapshot.containsKey(old.getKey())) {
+                    listener.accept(EntryChange.DELETE, old);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a change received from a watch.
+     *
+     * @param action the etcd action
+     * @param node   the node the action was performed on
+     * @return true if the change was applied or false if it is already reflected in the mirror
+     */
+    public synchronized boolean apply(String action, Map<String, Object> node) {
+        long modifiedIndex = getModifiedIndex(node);
+        if (modifiedIndex <= index) {
+            return false;
+        }
+        index = modifiedIndex;
+        String key = (String) node.get("key");
+        if (key == null || !isMirrored(key)) {
+            return true;
+        }
+        if ("delete".equals(action) || "expire".equals(action) || "compareAndDelete".equals(action)) {
+            if (Boolean.TRUE.equals(node.get("dir"))) {
+                String prefix = key + "/";
+                nodes.keySet().removeIf(k -> k.startsWith(prefix));
+            } else {
+                nodes.remove(key);
+            }
+        } else {
+            String value = (String) node.get("value");
+            if (value == null) {
+                return true;  // directory
+            }
+            MirroredNode current = nodes.get(key);
+            if (current != null && value.equals(current.getValue())) {
+                // TTL refreshes do not change the value
+                nodes.put(key, new MirroredNode(key, value, modifiedIndex, current.getEntry()));
+            } else {
+                nodes.put(key, createNode(key, value, modifiedIndex));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns service or channel entries matching a name.
+     *
+     * @param type the service or channel type
+     * @param name the name or '*' for all entries
+     * @return the entries
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractEntry> List<T> getEntries(Class<T> type, String name) {
+        String prefix = ServiceEntry.class.equals(type) ? servicesPrefix : channelsPrefix;
+        List<T> entries = new ArrayList<>();
+        for (MirroredNode node : nodes.values()) {
+            AbstractEntry entry = node.getEntry();
+            if (entry != null && node.getKey().startsWith(prefix) && (name.equals("*") || name.equals(entry.getName()))) {
+                entries.add((T) entry);
+            }
+        }
+        return entries.isEmpty() ? Collections.emptyList() : entries;
+    }
+
+    /**
+     * Returns the value of a configuration key.
+     *
+     * @param key the fully qualified key
+     * @return the value or null if the key does not exist
+     */
+    public String getValue(String key) {
+        MirroredNode node = nodes.get(key);
+        return node == null ? null : node.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private long addNodes(Map<String, Object> node, Map<String, MirroredNode> snapshot) {
+        long highest = getModifiedIndex(node);
+        String key = (String) node.get("key");
+        String value = (String) node.get("value");
+        if (key != null && value != null && isMirrored(key)) {
+            snapshot.put(key, createNode(key, value, highest));
+        }
+        List<Map<String, Object>> children = (List<Map<String, Object>>) node.getOrDefault("nodes", Collections.emptyList());
+        for (Map<String, Object> child : children) {
+            highest = Math.max(highest, addNodes(child, snapshot));
+        }
+        return highest;
+    }
+
+    private MirroredNode createNode(String key, String value, long modifiedIndex) {
+        AbstractEntry entry = null;
+        try {
+            if (key.startsWith(servicesPrefix)) {
+                entry = mapper.readValue(value, ServiceEntry.class);
+            } else if (key.startsWith(channelsPrefix)) {
+                entry = mapper.readValue(value, ChannelEntry.class);
+            }
+            if (entry != null) {
+                // entries are shared between lookups
+                entry.freeze();
+            }
+        } catch (IOException e) {
+            monitor.severe("Error deserializing entry {0}", key, e);
+        }
+        return new MirroredNode(key, value, modifiedIndex, entry);
+    }
+
+    private boolean isMirrored(String key) {
+        return key.startsWith(servicesPrefix) || key.startsWith(channelsPrefix) || key.startsWith(configurationPrefix);
+    }
+
+    private long getModifiedIndex(Map<String, Object> node) {
+        Object modifiedIndex = node.get("modifiedIndex");
+        return modifiedIndex instanceof Number ? ((Number) modifiedIndex).longValue() : 0;
+    }
+
+    /**
+     * A mirrored key.
+     */
+    static class MirroredNode {
+        private String key;
+        private String value;
+        private long modifiedIndex;
+        private AbstractEntry entry;
+
+        public MirroredNode(String key, String value, long modifiedIndex, AbstractEntry entry) {
+            this.key = key;
+            this.value = value;
+            this.modifiedIndex = modifiedIndex;
+            this.entry = entry;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getModifiedIndex() {
+            return modifiedIndex;
+        }
+
+        /**
+         * Returns the deserialized service or channel entry or null if the key is a configuration key.
+         *
+         * @return the entry or null
+         */
+        public AbstractEntry getEntry() {
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package org.fabric3.discovery.etcd;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.MonitorChannel;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.api.model.type.RuntimeMode;
+import org.fabric3.spi.discovery.EntryChange;
+import org.fabric3.spi.discovery.ServiceEntry;
+
+/**
+ * Verifies the agent mirror against an in-process HTTP stand-in for etcd.
+ */
+public class EtcdAgentMirrorTestCase extends TestCase {
+    private ObjectMapper mapper = new ObjectMapper();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private EtcdAgent agent;
+
+    private volatile Map<String, Object> snapshot;
+    private volatile long snapshotIndex;
+    private AtomicInteger snapshotRequests = new AtomicInteger();
+    private BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+    private List<String> waitIndexes = new CopyOnWriteArrayList<>();
+
+    public void testLookupsAnsweredFromMirror() throws Exception {
+        setSnapshot(10, serviceNode("runtime2:foo", service("foo"), 9), configurationNode("timeout", "100", 10));
+        agent.executorService = EasyMock.createNiceMock(ExecutorService.class);
+        EasyMock.replay(agent.executorService);
+        agent.init();
+
+        for (int i = 0; i < 3; i++) {
+            List<ServiceEntry> entries = agent.getServiceEntries("foo");
+            assertEquals(1, entries.size());
+            assertEquals("foo", entries.get(0).getName());
+        }
+        assertTrue(agent.getServiceEntries("bar").isEmpty());
+        assertEquals("100", agent.getValue("timeout"));
+        assertNull(agent.getValue("missing"));
+
+        assertEquals(1, snapshotRequests.get());
+    }
+
+    public void testLookupsDoNotReloadInvalidatedMirror() throws Exception {
+        setSnapshot(10, serviceNode("runtime2:foo", service("foo"), 9));
+        agent.executorService = EasyMock.createNiceMock(ExecutorService.class);
+        EasyMock.replay(agent.executorService);
+        agent.init();
+
+        assertEquals(1, agent.getServiceEntries("foo").size());
+
+        // the watch thread reloads an invalidated mirror so that listeners are notified; lookups continue to use the current contents
+        setSnapshot(20, serviceNode("runtime2:bar", service("bar"), 15));
+        agent.mirror.invalidate();
+        assertEquals(1, agent.getServiceEntries("foo").size());
+        assertTrue(agent.getServiceEntries("bar").isEmpty());
+        assertTrue(agent.mirror.isInvalid());
+        assertEquals(1, snapshotRequests.get());
+    }
+
+    public void testIncrementalUpdates() throws Exception {
+        setSnapshot(10, serviceNode("runtime2:foo", service("foo"), 9));
+
+        CountDownLatch latch = new CountDownLatch(1);
+        List<EntryChange> changes = new CopyOnWriteArrayList<>();
+        agent.registerServiceListener("bar", (change, entry) -> {
+            changes.add(change);
+            latch.countDown();
+        });
+        // an event already reflected in the snapshot is discarded
+        events.add(new Event(200, event("set", serviceNode("runtime2:bar", service("bar"), 8))));
+        events.add(new Event(200, event("set", serviceNode("runtime2:bar", service("bar"), 11))));
+        startAgent();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(EntryChange.SET), changes);
+        assertEquals(1, agent.getServiceEntries("bar").size());
+        assertEquals(1, agent.getServiceEntries("foo").size());
+
+        events.add(new Event(200, event("expire", serviceNode("runtime2:foo", null, 12))));
+        waitFor(() -> agent.getServiceEntries("foo").isEmpty());
+        waitFor(() -> waitIndexes.size() >= 4);
+
+        assertEquals("11", waitIndexes.get(0));
+        assertEquals("11", waitIndexes.get(1));
+        assertEquals("12", waitIndexes.get(2));
+        assertEquals("13", waitIndexes.get(3));
+        assertEquals(1, snapshotRequests.get());
+    }
+
+    public void testReloadWhenEventsCleared() throws Exception {
+        setSnapshot(10, serviceNode("runtime2:foo", service("foo"), 9));
+
+        CountDownLatch latch = new CountDownLatch(2);
+        Map<String, EntryChange> changes = new HashMap<>();
+        agent.registerServiceListener("foo", (change, entry) -> {
+            changes.put("foo", change);
+            latch.countDown();
+        });
+        agent.registerServiceListener("bar", (change, entry) -> {
+            changes.put("bar", change);
+            latch.countDown();
+        });
+        startAgent();
+        waitFor(() -> waitIndexes.size() >= 1);
+
+        // changes made after the watch index was cleared from the etcd event history
+        setSnapshot(50, serviceNode("runtime2:bar", service("bar"), 45));
+        Map<String, Object> error = new HashMap<>();
+        error.put("errorCode", 401);
+        error.put("message", "The event in requested index is outdated and cleared");
+        events.add(new Event(400, error));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(EntryChange.DELETE, changes.get("foo"));
+        assertEquals(EntryChange.SET, changes.get("bar"));
+        assertTrue(agent.getServiceEntries("foo").isEmpty());
+        assertEquals(1, agent.getServiceEntries("bar").size());
+
+        waitFor(() -> waitIndexes.contains("51"));
+        assertEquals(2, snapshotRequests.get());
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v2/keys/subdomain", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        agent = new EtcdAgent();
+        agent.setAddresses("http://127.0.0.1:" + server.getAddress().getPort());
+        agent.leaderElectionEnabled = false;
+        agent.sleepInterval = 10;
+
+        agent.info = EasyMock.createMock(HostInfo.class);
+        EasyMock.expect(agent.info.getRuntimeMode()).andReturn(RuntimeMode.NODE).anyTimes();
+        EasyMock.expect(agent.info.getRuntimeName()).andReturn("runtime1").anyTimes();
+        EasyMock.expect(agent.info.getDomain()).andReturn(URI.create("fabric3://subdomain")).anyTimes();
+        EasyMock.expect(agent.info.getZoneName()).andReturn("zone1").anyTimes();
+        agent.monitor = EasyMock.createNiceMock(MonitorChannel.class);
+        EasyMock.replay(agent.info, agent.monitor);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        agent.destroy();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        if (agent.executorService != null) {
+            agent.executorService.shutdownNow();
+        }
+    }
+
+    private void startAgent() {
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        agent.executorService = executorService;
+        agent.init();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        int status;
+        Object body;
+        long index;
+        if (query != null && query.contains("wait=true")) {
+            waitIndexes.add(query.substring(query.indexOf("waitIndex=") + "waitIndex=".length()));
+            Event event;
+            try {
+                event = events.poll(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event == null) {
+                exchange.close();
+                return;
+            }
+            status = event.status;
+            body = event.body;
+            index = snapshotIndex;
+        } else {
+            snapshotRequests.incrementAndGet();
+            status = 200;
+            Map<String, Object> response = new HashMap<>();
+            response.put("action", "get");
+            response.put("node", snapshot);
+            body = response;
+            index = snapshotIndex;
+        }
+        byte[] bytes = mapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("X-Etcd-Index", String.valueOf(index));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(bytes);
+        }
+    }
+
+    @SafeVarargs
+    private final void setSnapshot(long index, Map<String, Object>... nodes) {
+        Map<String, Object> servicesDir = new HashMap<>();
+        servicesDir.put("key", "/subdomain/services");
+        servicesDir.put("dir", true);
+        List<Map<String, Object>> serviceNodes = new ArrayList<>();
+        Map<String, Object> configurationDir = new HashMap<>();
+        configurationDir.put("key", "/subdomain/configuration");
+        configurationDir.put("dir", true);
+        List<Map<String, Object>> configurationNodes = new ArrayList<>();
+        for (Map<String, Object> node : nodes) {
+            if (((String) node.get("key")).startsWith("/subdomain/services/")) {
+                serviceNodes.add(node);
+            } else {
+                configurationNodes.add(node);
+            }
+        }
+        servicesDir.put("nodes", serviceNodes);
+        configurationDir.put("nodes", configurationNodes);
+
+        Map<String, Object> root = new HashMap<>();
+        root.put("key", "/subdomain");
+        root.put("dir", true);
+        root.put("nodes", Arrays.asList(servicesDir, configurationDir));
+        snapshotIndex = index;
+        snapshot = root;
+    }
+
+    private Map<String, Object> serviceNode(String key, String value, long modifiedIndex) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("key", "/subdomain/services/" + key);
+        if (value != null) {
+            node.put("value", value);
+        }
+        node.put("modifiedIndex", modifiedIndex);
+        node.put("createdIndex", modifiedIndex);
+        return node;
+    }
+
+    private Map<String, Object> configurationNode(String key, String value, long modifiedIndex) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("key", "/subdomain/configuration/" + key);
+        node.put("value", value);
+        node.put("modifiedIndex", modifiedIndex);
+        node.put("createdIndex", modifiedIndex);
+        return node;
+    }
+
+    private Map<String, Object> event(String action, Map<String, Object> node) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("action", action);
+        event.put("node", node);
+        if ("expire".equals(action) || "delete".equals(action)) {
+            Map<String, Object> prevNode = new HashMap<>(node);
+            prevNode.put("value", service("foo"));
+            event.put("prevNode", prevNode);
+        }
+        return event;
+    }
+
+    private String service(String name) {
+        try {
+            ServiceEntry entry = new ServiceEntry();
+            entry.setName(name);
+            entry.setAddress("localhost");
+            entry.setPort(2001);
+            entry.setPath(name);
+            entry.setTransport("http");
+            return mapper.writeValueAsString(entry);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void waitFor(Condition condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (!condition.isTrue()) {
+            if (System.currentTimeMillis() > end) {
+                fail("Timed out waiting for condition");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isTrue();
+    }
+
+    private static class Event {
+        private int status;
+        private Object body;
+
+        private Event(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
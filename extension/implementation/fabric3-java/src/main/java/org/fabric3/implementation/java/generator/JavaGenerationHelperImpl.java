@@ -80,6 +80,9 @@ public class JavaGenerationHelperImpl implements JavaGenerationHelper {
         // create the physical component definition
         physicalComponent.setScope(scope);
         physicalComponent.setEagerInit(type.isEagerInit());
+        if (Scope.STATELESS == scope) {
+            physicalComponent.setPoolInfo(type.getPoolInfo());
+        }
         physicalComponent.setManagerDefinition(managerDefinition);
 
         physicalComponent.setManaged(type.isManaged());
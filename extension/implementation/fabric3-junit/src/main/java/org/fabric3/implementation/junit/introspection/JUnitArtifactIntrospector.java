@@ -27,6 +27,8 @@ import org.fabric3.spi.contribution.JavaArtifactIntrospector;
 import org.fabric3.spi.contribution.JavaSymbol;
 import org.fabric3.spi.contribution.Resource;
 import org.fabric3.spi.contribution.ResourceElement;
+import org.fabric3.spi.contribution.archive.ClassHeader;
+import org.fabric3.spi.contribution.archive.ClassIndex;
 import org.fabric3.spi.introspection.IntrospectionContext;
 import org.junit.runner.RunWith;
 
@@ -36,6 +38,10 @@ import org.junit.runner.RunWith;
 public class JUnitArtifactIntrospector implements JavaArtifactIntrospector {
     private static final QName TEST_COMPOSITE = new QName(Namespaces.F3, "TestComposite");
 
+    public boolean isCandidate(ClassHeader header, ClassIndex index, Contribution contribution) {
+        return !contribution.getManifest().isExtension() && index.isAnnotated(header.getName(), RunWith.class.getName());
+    }
+
     public Resource inspect(Class<?> clazz, URL url, Contribution contribution, IntrospectionContext context) {
         if (contribution.getManifest().isExtension()) {
             return null;
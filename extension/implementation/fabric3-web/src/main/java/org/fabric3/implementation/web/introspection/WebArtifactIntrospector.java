@@ -37,6 +37,8 @@ import org.fabric3.spi.contribution.JavaArtifactIntrospector;
 import org.fabric3.spi.contribution.Resource;
 import org.fabric3.spi.contribution.ResourceElement;
 import org.fabric3.spi.contribution.ResourceState;
+import org.fabric3.spi.contribution.archive.ClassHeader;
+import org.fabric3.spi.contribution.archive.ClassIndex;
 import org.fabric3.spi.introspection.IntrospectionContext;
 import org.fabric3.spi.introspection.TypeMapping;
 import org.fabric3.spi.introspection.java.IntrospectionHelper;
@@ -60,6 +62,14 @@ public class WebArtifactIntrospector implements JavaArtifactIntrospector {
         this.helper = helper;
     }
 
+    public boolean isCandidate(ClassHeader header, ClassIndex index, Contribution contribution) {
+        if (!contribution.getLocation().toString().endsWith(".war") || contribution.getManifest().isExtension()) {
+            return false;
+        }
+        String name = header.getName();
+        return index.isSubtype(name, Servlet.class.getName()) || index.isSubtype(name, Filter.class.getName());
+    }
+
     public Resource inspect(Class<?> clazz, URL url, Contribution contribution, IntrospectionContext context) {
         String sourceUrl = contribution.getLocation().toString();
         if (!sourceUrl.endsWith(".war")) {
@@ -0,0 +1,97 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.generator;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.contract.Operation;
+import org.fabric3.cache.model.CachingMetadata;
+import org.fabric3.cache.model.EvictionMetadata;
+import org.fabric3.cache.provision.PhysicalCachingInterceptor;
+import org.fabric3.cache.provision.PhysicalEvictingInterceptor;
+import org.fabric3.spi.domain.generator.InterceptorGenerator;
+import org.fabric3.spi.model.instance.LogicalOperation;
+import org.fabric3.spi.model.physical.PhysicalInterceptor;
+import org.oasisopen.sca.annotation.EagerInit;
+import static org.fabric3.cache.introspection.CacheOperationPostProcessor.CACHED;
+import static org.fabric3.cache.introspection.CacheOperationPostProcessor.CACHE_EVICT;
+
+/**
+ * Generates interceptors that cache operation results or evict cache entries for target operations marked with the cached or cacheEvict policies.
+ *
+ * Cache keys are qualified by the URI of the target component so that components sharing a cache do not return each other's results. Evicted operations
+ * are qualified the same way; an operation of another component in the same composite is named using the form <code>component#operation</code>.
+ */
+@EagerInit
+public class CacheInterceptorGenerator implements InterceptorGenerator {
+
+    /**
+     * Caching interceptors follow authorization interceptors so that a cached result is not returned to an unauthorized caller. They precede transaction
+     * interceptors so that a result is cached, and entries evicted, only after a transaction demarcated for the operation has completed.
+     */
+    public static final int ORDER = AUTHORIZATION_ORDER + 50;
+
+    public int getOrder() {
+        return ORDER;
+    }
+
+    public Optional<PhysicalInterceptor> generate(LogicalOperation source, LogicalOperation target) throws Fabric3Exception {
+        Operation operation = target.getDefinition();
+        URI component = target.getParent().getParent().getUri();
+        List<String> policies = operation.getPolicies();
+        if (policies.isEmpty()) {
+            return Optional.empty();
+        }
+        if (policies.contains(CACHED.getLocalPart())) {
+            CachingMetadata metadata = operation.getMetadata(CACHED, CachingMetadata.class);
+            if (metadata == null) {
+                throw new Fabric3Exception("No caching metadata specified for operation " + operation.getName() + " on " + target.getParent().getUri());
+            }
+            return Optional.of(new PhysicalCachingInterceptor(metadata.getCacheName(),
+                                                              component,
+                                                              operation.getName(),
+                                                              metadata.getKey(),
+                                                              metadata.getTtl(),
+                                                              metadata.isNegative()));
+        } else if (policies.contains(CACHE_EVICT.getLocalPart())) {
+            EvictionMetadata metadata = operation.getMetadata(CACHE_EVICT, EvictionMetadata.class);
+            if (metadata == null) {
+                throw new Fabric3Exception("No eviction metadata specified for operation " + operation.getName() + " on " + target.getParent().getUri());
+            }
+            String[] names = metadata.getOperations();
+            URI[] components = new URI[names.length];
+            String[] operations = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                int pos = names[i].indexOf('#');
+                if (pos < 0) {
+                    components[i] = component;
+                    operations[i] = names[i];
+                } else {
+                    // the operation of a component in the same composite
+                    components[i] = component.resolve(names[i].substring(0, pos));
+                    operations[i] = names[i].substring(pos + 1);
+                }
+            }
+            return Optional.of(new PhysicalEvictingInterceptor(metadata.getCacheName(), components, operations, metadata.getKey(), metadata.isAll()));
+        }
+        return Optional.empty();
+    }
+
+}
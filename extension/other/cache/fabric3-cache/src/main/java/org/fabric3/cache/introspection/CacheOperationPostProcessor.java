@@ -0,0 +1,176 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.introspection;
+
+import javax.xml.namespace.QName;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fabric3.api.annotation.cache.CacheEvict;
+import org.fabric3.api.annotation.cache.Cached;
+import org.fabric3.api.model.type.component.ComponentType;
+import org.fabric3.api.model.type.component.Service;
+import org.fabric3.api.model.type.contract.DataType;
+import org.fabric3.api.model.type.contract.Operation;
+import org.fabric3.api.model.type.java.InjectingComponentType;
+import org.fabric3.cache.model.CachingMetadata;
+import org.fabric3.cache.model.EvictionMetadata;
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.java.InvalidAnnotation;
+import org.fabric3.spi.introspection.java.PostProcessor;
+import org.oasisopen.sca.annotation.EagerInit;
+
+/**
+ * Introspects service operations for {@link Cached} and {@link CacheEvict} annotations on the implementation class. Annotated operations are marked with
+ * the corresponding policy and the caching or eviction metadata is added for use when generating interceptors.
+ */
+@EagerInit
+public class CacheOperationPostProcessor implements PostProcessor {
+    public static final QName CACHED = QName.valueOf(Cached.CACHED);
+    public static final QName CACHE_EVICT = QName.valueOf(CacheEvict.CACHE_EVICT);
+
+    public void process(InjectingComponentType componentType, Class<?> implClass, IntrospectionContext context) {
+        Map<String, List<String>> cachedOperations = null;
+        for (Service<ComponentType> service : componentType.getServices().values()) {
+            if (service.getServiceContract() == null) {
+                continue;
+            }
+            for (Operation operation : service.getServiceContract().getOperations()) {
+                Method method = findMethod(operation, implClass);
+                if (method == null) {
+                    continue;
+                }
+                Cached cached = method.getAnnotation(Cached.class);
+                CacheEvict evict = method.getAnnotation(CacheEvict.class);
+                if (cached != null && evict != null) {
+                    InvalidAnnotation error = new InvalidAnnotation("Operation cannot be both cached and evicting: " + method, method, cached, implClass);
+                    context.addError(error);
+                } else if (cached != null) {
+                    processCached(cached, operation, method, implClass, context);
+                } else if (evict != null) {
+                    if (cachedOperations == null) {
+                        cachedOperations = getCachedOperations(implClass);
+                    }
+                    processEvict(evict, operation, method, implClass, cachedOperations, context);
+                }
+            }
+        }
+    }
+
+    private void processCached(Cached annotation, Operation operation, Method method, Class<?> implClass, IntrospectionContext context) {
+        if (!validate(annotation, annotation.cache(), annotation.key(), method, implClass, context)) {
+            return;
+        }
+        if (Void.TYPE.equals(method.getReturnType()) || operation.isOneWay()) {
+            context.addError(new InvalidAnnotation("Cached operation must return a value: " + method, method, annotation, implClass));
+            return;
+        }
+        addPolicy(CACHED, operation);
+        operation.addMetadata(CACHED, new CachingMetadata(annotation.cache(), annotation.key(), annotation.ttl(), annotation.negative()));
+    }
+
+    private void processEvict(CacheEvict annotation,
+                              Operation operation,
+                              Method method,
+                              Class<?> implClass,
+                              Map<String, List<String>> cachedOperations,
+                              IntrospectionContext context) {
+        if (!validate(annotation, annotation.cache(), annotation.key(), method, implClass, context)) {
+            return;
+        }
+        String[] operations = annotation.operations();
+        if (operations.length == 0) {
+            List<String> names = cachedOperations.getOrDefault(annotation.cache(), Collections.emptyList());
+            if (names.isEmpty() && !annotation.all()) {
+                String message = "No cached operations found for cache " + annotation.cache() + ". Evicted operations must be specified on " + method;
+                context.addError(new InvalidAnnotation(message, method, annotation, implClass));
+                return;
+            }
+            operations = names.toArray(new String[names.size()]);
+        }
+        addPolicy(CACHE_EVICT, operation);
+        operation.addMetadata(CACHE_EVICT, new EvictionMetadata(annotation.cache(), operations, annotation.key(), annotation.all()));
+    }
+
+    /**
+     * Returns the names of the operations annotated with {@link Cached} on the implementation class, keyed by cache name.
+     *
+     * @param implClass the implementation class
+     * @return the operation names
+     */
+    private Map<String, List<String>> getCachedOperations(Class<?> implClass) {
+        Map<String, List<String>> operations = new HashMap<>();
+        for (Method method : implClass.getMethods()) {
+            Cached cached = method.getAnnotation(Cached.class);
+            if (cached == null) {
+                continue;
+            }
+            List<String> names = operations.computeIfAbsent(cached.cache(), k -> new ArrayList<>());
+            if (!names.contains(method.getName())) {
+                names.add(method.getName());
+            }
+        }
+        return operations;
+    }
+
+    private boolean validate(Annotation annotation, String cacheName, int[] key, Method method, Class<?> implClass, IntrospectionContext context) {
+        if (cacheName.length() == 0) {
+            context.addError(new InvalidAnnotation("Cache name not specified on " + method, method, annotation, implClass));
+            return false;
+        }
+        int count = method.getParameterTypes().length;
+        for (int index : key) {
+            if (index < 0 || index >= count) {
+                context.addError(new InvalidAnnotation("Invalid cache key parameter index " + index + " on " + method, method, annotation, implClass));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the policy to the operation if it was not already added when the intent annotation was introspected.
+     *
+     * @param name      the policy name
+     * @param operation the operation
+     */
+    private void addPolicy(QName name, Operation operation) {
+        if (!operation.getPolicies().contains(name.getLocalPart())) {
+            operation.addPolicy(name.getLocalPart());
+        }
+    }
+
+    private Method findMethod(Operation operation, Class<?> implClass) {
+        List<DataType> types = operation.getInputTypes();
+        Class<?>[] params = new Class<?>[types.size()];
+        for (int i = 0; i < types.size(); i++) {
+            params[i] = types.get(i).getType();
+        }
+        try {
+            return implClass.getMethod(operation.getName(), params);
+        } catch (NoSuchMethodException e) {
+            // the operation is not implemented by a public method, e.g. it is mapped by a binding
+            return null;
+        }
+    }
+
+}
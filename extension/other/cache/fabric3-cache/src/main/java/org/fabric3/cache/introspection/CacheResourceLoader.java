@@ -94,6 +94,7 @@ public class CacheResourceLoader extends AbstractValidatingTypeLoader<CacheSetRe
                         continue;
                     }
                     configuration.setCacheName(name);
+                    configuration.setContributionUri(context.getContributionUri());
                     cacheSetResource.addDefinition(configuration);
                 }
                 break;
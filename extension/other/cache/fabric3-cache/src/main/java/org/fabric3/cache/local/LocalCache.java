@@ -0,0 +1,750 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Caffeine (https://github.com/ben-manes/caffeine) 2014
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.cache.local;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * An in-process cache bounded by entry count or weight that evicts using the W-TinyLFU policy and optionally expires entries after they are written or last
+ * accessed.
+ *
+ * New entries are admitted to a small LRU window. Entries evicted from the window compete with the least recently used entry of the main space, which is
+ * segmented into probation and protected LRU queues. The entry that has been accessed less frequently, as estimated by a {@link FrequencySketch}, is
+ * evicted. This retains frequently used entries under scans and bursts of one-time accesses while still admitting new entries that become popular.
+ *
+ * Reads do not take a lock. They are recorded in striped, lossy {@link ReadBuffer}s and applied to the eviction policy in batches. Writes are recorded in
+ * a bounded buffer and applied by whichever thread acquires the eviction lock. A drain status tracks whether recorded writes are pending so that a write
+ * recorded while another thread holds the lock is applied by that thread after it releases the lock. If the write buffer is full, the writing thread waits
+ * for the lock and applies the write itself.
+ */
+public class LocalCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    public static final long UNBOUNDED = -1;
+
+    private static final double WINDOW_PERCENT = 0.01;
+    private static final double PROTECTED_PERCENT = 0.80;
+    private static final int MAXIMUM_STRIPES = 32;
+    private static final int WRITE_BUFFER_MAXIMUM = 1024;
+    private static final int WRITE_BUFFER_RETRIES = 100;
+
+    // drain status transitions
+    private static final int IDLE = 0;
+    private static final int REQUIRED = 1;
+    private static final int PROCESSING_TO_IDLE = 2;
+    private static final int PROCESSING_TO_REQUIRED = 3;
+
+    private static final int NONE = 0;
+    private static final int WINDOW = 1;
+    private static final int PROBATION = 2;
+    private static final int PROTECTED = 3;
+
+    private ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    private long maximum;
+    private ToIntBiFunction<? super K, ? super V> weigher;
+    private long expireAfterWriteNanos;
+    private long expireAfterAccessNanos;
+    private LongSupplier ticker;
+
+    private ReadBuffer<Node<K, V>>[] readBuffers;
+    private int stripeMask;
+    private ConcurrentLinkedQueue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private AtomicInteger writeBufferSize = new AtomicInteger();
+    private AtomicInteger drainStatus = new AtomicInteger(IDLE);
+    private ReentrantLock evictionLock = new ReentrantLock();
+
+    // the following are guarded by the eviction lock
+    private FrequencySketch sketch;
+    private AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private AccessOrderDeque<K, V> protectedQueue = new AccessOrderDeque<>();
+    private WriteOrderDeque<K, V> writeOrder = new WriteOrderDeque<>();
+    private long windowMaximum;
+    private long protectedMaximum;
+    private long weightedSize;
+    private long windowWeight;
+    private long protectedWeight;
+
+    /**
+     * Constructor.
+     *
+     * @param maximum           the maximum number of entries or total weight if a weigher is provided, or {@link #UNBOUNDED}
+     * @param weigher           the weigher or null if each entry has a weight of one
+     * @param expireAfterWrite  the time in milliseconds after an entry is written that it expires, or 0 for no expiration
+     * @param expireAfterAccess the time in milliseconds after an entry is last accessed that it expires, or 0 for no expiration
+     */
+    public LocalCache(long maximum, ToIntBiFunction<? super K, ? super V> weigher, long expireAfterWrite, long expireAfterAccess) {
+        this(maximum, weigher, expireAfterWrite, expireAfterAccess, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    LocalCache(long maximum, ToIntBiFunction<? super K, ? super V> weigher, long expireAfterWrite, long expireAfterAccess, LongSupplier ticker) {
+        this.maximum = maximum;
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(expireAfterWrite);
+        this.expireAfterAccessNanos = TimeUnit.MILLISECONDS.toNanos(expireAfterAccess);
+        this.ticker = ticker;
+
+        int stripes = Math.min(MAXIMUM_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+        readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+        stripeMask = stripes - 1;
+
+        if (isBounded()) {
+            sketch = new FrequencySketch(maximum);
+            windowMaximum = Math.max(1, (long) (maximum * WINDOW_PERCENT));
+            protectedMaximum = (long) ((maximum - windowMaximum) * PROTECTED_PERCENT);
+        } else {
+            windowMaximum = Long.MAX_VALUE;
+        }
+    }
+
+    public V get(Object key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        long now = ticker.getAsLong();
+        if (hasExpired(node, now)) {
+            if (data.remove(node.key, node)) {
+                afterWrite(() -> onRemove(node));
+            }
+            return null;
+        }
+        node.accessTime = now;
+        afterRead(node);
+        return node.value;
+    }
+
+    public boolean containsKey(Object key) {
+        Node<K, V> node = data.get(key);
+        return node != null && !hasExpired(node, ticker.getAsLong());
+    }
+
+    public V put(K key, V value) {
+        Node<K, V> node = createNode(key, value);
+        Node<K, V> prior = data.put(key, node);
+        if (prior != null) {
+            afterWrite(() -> onRemove(prior));
+        }
+        afterWrite(() -> onAdd(node));
+        return prior == null || hasExpired(prior, node.writeTime) ? null : prior.value;
+    }
+
+    public V putIfAbsent(K key, V value) {
+        Node<K, V> node = createNode(key, value);
+        while (true) {
+            Node<K, V> existing = data.putIfAbsent(key, node);
+            if (existing == null) {
+                afterWrite(() -> onAdd(node));
+                return null;
+            }
+            if (!hasExpired(existing, node.writeTime)) {
+                existing.accessTime = node.writeTime;
+                afterRead(existing);
+                return existing.value;
+            }
+            if (data.replace(key, existing, node)) {
+                afterWrite(() -> onRemove(existing));
+                afterWrite(() -> onAdd(node));
+                return null;
+            }
+        }
+    }
+
+    public V remove(Object key) {
+        Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return null;
+        }
+        afterWrite(() -> onRemove(node));
+        return hasExpired(node, ticker.getAsLong()) ? null : node.value;
+    }
+
+    public boolean remove(Object key, Object value) {
+        Node<K, V> node = data.get(key);
+        if (node == null || value == null || !value.equals(node.value) || hasExpired(node, ticker.getAsLong())) {
+            return false;
+        }
+        if (data.remove(key, node)) {
+            afterWrite(() -> onRemove(node));
+            return true;
+        }
+        return false;
+    }
+
+    public V replace(K key, V value) {
+        Node<K, V> node = createNode(key, value);
+        while (true) {
+            Node<K, V> existing = data.get(key);
+            if (existing == null || hasExpired(existing, node.writeTime)) {
+                return null;
+            }
+            if (data.replace(key, existing, node)) {
+                afterWrite(() -> onRemove(existing));
+                afterWrite(() -> onAdd(node));
+                return existing.value;
+            }
+        }
+    }
+
+    public boolean replace(K key, V oldValue, V newValue) {
+        Node<K, V> node = createNode(key, newValue);
+        while (true) {
+            Node<K, V> existing = data.get(key);
+            if (existing == null || hasExpired(existing, node.writeTime) || !existing.value.equals(oldValue)) {
+                return false;
+            }
+            if (data.replace(key, existing, node)) {
+                afterWrite(() -> onRemove(existing));
+                afterWrite(() -> onAdd(node));
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public void clear() {
+        evictionLock.lock();
+        try {
+            maintenance();
+            for (Node<K, V> node : data.values()) {
+                if (data.remove(node.key, node)) {
+                    unlink(node);
+                }
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Applies pending reads and writes to the eviction policy and evicts entries if the cache has exceeded its maximum or entries have expired.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Returns the current weight of the cache. If the cache does not have a weigher, this is the number of entries. Note the weight only reflects writes
+     * that have been applied to the eviction policy.
+     *
+     * @return the current weight
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            unlock();
+        }
+    }
+
+    private boolean isBounded() {
+        return maximum != UNBOUNDED;
+    }
+
+    private Node<K, V> createNode(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        int weight = weigher == null ? 1 : weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        return new Node<>(key, value, weight, ticker.getAsLong());
+    }
+
+    private boolean hasExpired(Node<K, V> node, long now) {
+        return (expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos)
+               || (expireAfterAccessNanos > 0 && now - node.accessTime >= expireAfterAccessNanos);
+    }
+
+    /**
+     * Records a read in the read buffer for the current thread, draining the buffers if they are filling up.
+     *
+     * @param node the node that was read
+     */
+    private void afterRead(Node<K, V> node) {
+        if (!isBounded() && expireAfterAccessNanos == 0) {
+            // the access order is not used
+            return;
+        }
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        if (readBuffers[stripe].offer(node) && evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    /**
+     * Records a write and applies it to the eviction policy. Writes are never dropped: a recorded write is applied by this thread if it acquires the
+     * eviction lock, otherwise by the thread holding the lock when it releases it. If the write buffer remains full, this thread waits for the lock and
+     * applies the write itself.
+     *
+     * @param task the policy update
+     */
+    private void afterWrite(Runnable task) {
+        for (int i = 0; i < WRITE_BUFFER_RETRIES; i++) {
+            if (offerWrite(task)) {
+                scheduleAfterWrite();
+                drainIfRequired();
+                return;
+            }
+            // the buffer is full, attempt to drain it
+            if (evictionLock.tryLock()) {
+                try {
+                    maintenance();
+                } finally {
+                    unlock();
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+        evictionLock.lock();
+        try {
+            maintenance();
+            task.run();
+        } finally {
+            unlock();
+        }
+    }
+
+    private boolean offerWrite(Runnable task) {
+        if (writeBufferSize.incrementAndGet() > WRITE_BUFFER_MAXIMUM) {
+            writeBufferSize.decrementAndGet();
+            return false;
+        }
+        writeBuffer.add(task);
+        return true;
+    }
+
+    /**
+     * Marks that a recorded write must be applied. If maintenance is in progress, the thread performing it is signalled to drain again.
+     */
+    private void scheduleAfterWrite() {
+        while (true) {
+            switch (drainStatus.get()) {
+                case IDLE:
+                    if (drainStatus.compareAndSet(IDLE, REQUIRED)) {
+                        return;
+                    }
+                    break;
+                case PROCESSING_TO_IDLE:
+                    if (drainStatus.compareAndSet(PROCESSING_TO_IDLE, PROCESSING_TO_REQUIRED)) {
+                        return;
+                    }
+                    break;
+                default:
+                    // REQUIRED or PROCESSING_TO_REQUIRED
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Performs maintenance while recorded writes are pending and the eviction lock can be acquired.
+     */
+    private void drainIfRequired() {
+        while (drainStatus.get() == REQUIRED && evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Releases the eviction lock and applies writes that were recorded by threads that failed to acquire it while it was held.
+     */
+    private void unlock() {
+        evictionLock.unlock();
+        drainIfRequired();
+    }
+
+    private void maintenance() {
+        drainStatus.set(PROCESSING_TO_IDLE);
+        for (ReadBuffer<Node<K, V>> buffer : readBuffers) {
+            buffer.drain(this::onAccess);
+        }
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            writeBufferSize.decrementAndGet();
+            task.run();
+        }
+        expire();
+        evict();
+        if (!drainStatus.compareAndSet(PROCESSING_TO_IDLE, IDLE)) {
+            // a write was recorded after the buffer was drained
+            drainStatus.set(REQUIRED);
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToBack(node);
+                break;
+            case PROBATION:
+                // promote to the protected segment, demoting the least recently used protected entries if it is full
+                probation.remove(node);
+                protectedQueue.add(node);
+                node.queue = PROTECTED;
+                protectedWeight += node.weight;
+                while (protectedWeight > protectedMaximum) {
+                    Node<K, V> demoted = protectedQueue.peek();
+                    if (demoted == null) {
+                        break;
+                    }
+                    protectedQueue.remove(demoted);
+                    protectedWeight -= demoted.weight;
+                    probation.add(demoted);
+                    demoted.queue = PROBATION;
+                }
+                break;
+            case PROTECTED:
+                protectedQueue.moveToBack(node);
+                break;
+            default:
+                // the entry has been removed or the write has not been applied
+                break;
+        }
+    }
+
+    private void onAdd(Node<K, V> node) {
+        if (node.queue != NONE || data.get(node.key) != node) {
+            // the entry was replaced or removed before the write was applied
+            return;
+        }
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        window.add(node);
+        node.queue = WINDOW;
+        windowWeight += node.weight;
+        weightedSize += node.weight;
+        if (expireAfterWriteNanos > 0) {
+            writeOrder.add(node);
+        }
+    }
+
+    private void onRemove(Node<K, V> node) {
+        unlink(node);
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedQueue.remove(node);
+                protectedWeight -= node.weight;
+                break;
+            default:
+                return;
+        }
+        weightedSize -= node.weight;
+        node.queue = NONE;
+        if (expireAfterWriteNanos > 0) {
+            writeOrder.remove(node);
+        }
+    }
+
+    /**
+     * Removes expired entries from the head of the access and write order queues.
+     */
+    private void expire() {
+        if (expireAfterAccessNanos == 0 && expireAfterWriteNanos == 0) {
+            return;
+        }
+        long now = ticker.getAsLong();
+        if (expireAfterAccessNanos > 0) {
+            expire(window, now);
+            expire(probation, now);
+            expire(protectedQueue, now);
+        }
+        if (expireAfterWriteNanos > 0) {
+            Node<K, V> node;
+            while ((node = writeOrder.peek()) != null && now - node.writeTime >= expireAfterWriteNanos) {
+                evict(node);
+            }
+        }
+    }
+
+    private void expire(AccessOrderDeque<K, V> deque, long now) {
+        Node<K, V> node;
+        while ((node = deque.peek()) != null && now - node.accessTime >= expireAfterAccessNanos) {
+            evict(node);
+        }
+    }
+
+    /**
+     * Moves entries that overflow the window to the probation segment and evicts entries while the cache exceeds its maximum. When the main space is full,
+     * the most recent entry admitted to probation competes with the least recently used probation entry and the less frequently used of the two is evicted.
+     */
+    private void evict() {
+        if (!isBounded()) {
+            return;
+        }
+        while (windowWeight > windowMaximum) {
+            Node<K, V> node = window.peek();
+            if (node == null) {
+                break;
+            }
+            window.remove(node);
+            windowWeight -= node.weight;
+            probation.add(node);
+            node.queue = PROBATION;
+        }
+        while (weightedSize > maximum) {
+            Node<K, V> victim = probation.peek();
+            Node<K, V> candidate = probation.peekLast();
+            if (victim == null) {
+                victim = protectedQueue.peek();
+                if (victim == null) {
+                    victim = window.peek();
+                }
+                if (victim == null) {
+                    break;
+                }
+                evict(victim);
+            } else if (candidate == victim || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        data.remove(node.key, node);
+        unlink(node);
+    }
+
+    /**
+     * A cache entry. Queue links are guarded by the eviction lock.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final int weight;
+        private final long writeTime;
+        private volatile long accessTime;
+
+        private int queue = NONE;
+        private Node<K, V> previous;
+        private Node<K, V> next;
+        private Node<K, V> previousWrite;
+        private Node<K, V> nextWrite;
+
+        private Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+    }
+
+    /**
+     * A doubly-linked queue of entries in access order.
+     */
+    private static final class AccessOrderDeque<K, V> {
+        private Node<K, V> first;
+        private Node<K, V> last;
+
+        private Node<K, V> peek() {
+            return first;
+        }
+
+        private Node<K, V> peekLast() {
+            return last;
+        }
+
+        private void add(Node<K, V> node) {
+            node.previous = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+        }
+
+        private void moveToBack(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                add(node);
+            }
+        }
+    }
+
+    /**
+     * A doubly-linked queue of entries in write order.
+     */
+    private static final class WriteOrderDeque<K, V> {
+        private Node<K, V> first;
+        private Node<K, V> last;
+
+        private Node<K, V> peek() {
+            return first;
+        }
+
+        private void add(Node<K, V> node) {
+            node.previousWrite = last;
+            node.nextWrite = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.nextWrite = node;
+            }
+            last = node;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (node.previousWrite == null) {
+                first = node.nextWrite;
+            } else {
+                node.previousWrite.nextWrite = node.nextWrite;
+            }
+            if (node.nextWrite == null) {
+                last = node.previousWrite;
+            } else {
+                node.nextWrite.previousWrite = node.previousWrite;
+            }
+            node.previousWrite = null;
+            node.nextWrite = null;
+        }
+    }
+
+    /**
+     * A view of unexpired cache entries.
+     */
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        public int size() {
+            return LocalCache.this.size();
+        }
+
+        public void clear() {
+            LocalCache.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Iterator<Node<K, V>> iterator = data.values().iterator();
+        private Node<K, V> next;
+        private Node<K, V> current;
+
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            long now = ticker.getAsLong();
+            while (iterator.hasNext()) {
+                Node<K, V> node = iterator.next();
+                if (!hasExpired(node, now)) {
+                    next = node;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = null;
+            return new SimpleImmutableEntry<>(current.key, current.value);
+        }
+
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            Node<K, V> node = current;
+            current = null;
+            if (data.remove(node.key, node)) {
+                afterWrite(() -> onRemove(node));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.local;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntBiFunction;
+
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.cache.spi.CacheBuilder;
+import org.fabric3.cache.spi.CacheManager;
+import org.fabric3.spi.classloader.ClassLoaderRegistry;
+import org.oasisopen.sca.annotation.EagerInit;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Manages {@link LocalCache}s. Caches are exposed to components as {@link java.util.concurrent.ConcurrentMap}s.
+ */
+@EagerInit
+public class LocalCacheManager implements CacheManager<PhysicalLocalCacheResource>, CacheBuilder<PhysicalLocalCacheResource> {
+    private ClassLoaderRegistry classLoaderRegistry;
+    private Map<String, LocalCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public LocalCacheManager(@Reference ClassLoaderRegistry classLoaderRegistry) {
+        this.classLoaderRegistry = classLoaderRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <CACHE> CACHE getCache(String name) {
+        return (CACHE) caches.get(name);
+    }
+
+    public void build(PhysicalLocalCacheResource definition) throws Fabric3Exception {
+        create(definition);
+    }
+
+    public void remove(PhysicalLocalCacheResource definition) throws Fabric3Exception {
+        LocalCache<?, ?> cache = caches.remove(definition.getCacheName());
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public void create(PhysicalLocalCacheResource configuration) throws Fabric3Exception {
+        String name = configuration.getCacheName();
+        ToIntBiFunction<Object, Object> weigher = createWeigher(configuration);
+        LocalCache<?, ?> cache = new LocalCache<>(configuration.getMaximum(),
+                                                  weigher,
+                                                  configuration.getExpireAfterWrite(),
+                                                  configuration.getExpireAfterAccess());
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new Fabric3Exception("Cache already defined: " + name);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ToIntBiFunction<Object, Object> createWeigher(PhysicalLocalCacheResource configuration) {
+        String weigher = configuration.getWeigher();
+        if (weigher == null) {
+            return null;
+        }
+        URI uri = configuration.getContributionUri();
+        ClassLoader loader = uri == null ? null : classLoaderRegistry.getClassLoader(uri);
+        if (loader == null) {
+            loader = getClass().getClassLoader();
+        }
+        try {
+            Class<?> clazz = loader.loadClass(weigher);
+            if (!ToIntBiFunction.class.isAssignableFrom(clazz)) {
+                throw new Fabric3Exception("Weigher must implement " + ToIntBiFunction.class.getName() + ": " + weigher);
+            }
+            return (ToIntBiFunction<Object, Object>) clazz.newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new Fabric3Exception("Unable to create weigher for cache " + configuration.getCacheName() + ": " + weigher, e);
+        }
+    }
+}
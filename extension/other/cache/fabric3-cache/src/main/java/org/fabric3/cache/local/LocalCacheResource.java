@@ -0,0 +1,95 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.local;
+
+import org.fabric3.cache.spi.CacheResource;
+
+/**
+ * Configuration for a cache provided by the runtime.
+ */
+public class LocalCacheResource extends CacheResource {
+    private long maximumSize = LocalCache.UNBOUNDED;
+    private long maximumWeight = LocalCache.UNBOUNDED;
+    private String weigher;
+    private long expireAfterWrite;
+    private long expireAfterAccess;
+
+    /**
+     * Returns the maximum number of entries or {@link LocalCache#UNBOUNDED}.
+     *
+     * @return the maximum number of entries
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the maximum total weight of entries as calculated by the weigher or {@link LocalCache#UNBOUNDED}.
+     *
+     * @return the maximum weight
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * Returns the name of a class implementing {@link java.util.function.ToIntBiFunction} that calculates the weight of an entry from its key and value.
+     *
+     * @return the weigher class name or null
+     */
+    public String getWeigher() {
+        return weigher;
+    }
+
+    public void setWeigher(String weigher) {
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the time in milliseconds after an entry is written that it expires or 0 if entries do not expire.
+     *
+     * @return the expiration time
+     */
+    public long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(long expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    /**
+     * Returns the time in milliseconds after an entry is last accessed that it expires or 0 if entries do not expire.
+     *
+     * @return the expiration time
+     */
+    public long getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(long expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+}
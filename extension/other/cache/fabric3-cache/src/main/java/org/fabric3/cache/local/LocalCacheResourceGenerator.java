@@ -0,0 +1,39 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.local;
+
+import org.fabric3.cache.spi.CacheResourceGenerator;
+import org.fabric3.cache.spi.PhysicalCacheResource;
+import org.oasisopen.sca.annotation.EagerInit;
+
+/**
+ * Generates a {@link PhysicalLocalCacheResource} from a cache configuration.
+ */
+@EagerInit
+public class LocalCacheResourceGenerator implements CacheResourceGenerator<LocalCacheResource> {
+
+    public PhysicalCacheResource generateResource(LocalCacheResource resource) {
+        String weigher = resource.getWeigher();
+        long maximum = weigher == null ? resource.getMaximumSize() : resource.getMaximumWeight();
+        return new PhysicalLocalCacheResource(resource.getCacheName(),
+                                              maximum,
+                                              weigher,
+                                              resource.getContributionUri(),
+                                              resource.getExpireAfterWrite(),
+                                              resource.getExpireAfterAccess());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.local;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.xml.AbstractValidatingTypeLoader;
+import org.fabric3.spi.introspection.xml.InvalidValue;
+import org.fabric3.spi.introspection.xml.LoaderRegistry;
+import org.oasisopen.sca.Constants;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.EagerInit;
+import org.oasisopen.sca.annotation.Init;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Loads a {@link LocalCacheResource} from a cache configuration. For example:
+ * <pre>
+ * &lt;caches&gt;
+ *     &lt;cache name="orders"&gt;
+ *         &lt;cache.local maximum.size="10000" expire.after.access="60000"/&gt;
+ *     &lt;/cache&gt;
+ * &lt;/caches&gt;
+ * </pre>
+ */
+@EagerInit
+public class LocalCacheResourceLoader extends AbstractValidatingTypeLoader<LocalCacheResource> {
+    private static final QName SCA_TYPE = new QName(Constants.SCA_NS, "cache.local");
+    private static final QName F3_TYPE = new QName(org.fabric3.api.Namespaces.F3, "cache.local");
+
+    private LoaderRegistry registry;
+
+    public LocalCacheResourceLoader(@Reference LoaderRegistry registry) {
+        this.registry = registry;
+        addAttributes("maximum.size", "maximum.weight", "weigher", "expire.after.write", "expire.after.access");
+    }
+
+    @Init
+    public void init() {
+        // register under both namespaces
+        registry.registerLoader(F3_TYPE, this);
+        registry.registerLoader(SCA_TYPE, this);
+    }
+
+    @Destroy
+    public void destroy() {
+        registry.unregisterLoader(F3_TYPE);
+        registry.unregisterLoader(SCA_TYPE);
+    }
+
+    public LocalCacheResource load(XMLStreamReader reader, IntrospectionContext context) throws XMLStreamException {
+        LocalCacheResource resource = new LocalCacheResource();
+        validateAttributes(reader, context, resource);
+
+        long maximumSize = parse("maximum.size", LocalCache.UNBOUNDED, reader, context);
+        long maximumWeight = parse("maximum.weight", LocalCache.UNBOUNDED, reader, context);
+        String weigher = reader.getAttributeValue(null, "weigher");
+        if (maximumSize != LocalCache.UNBOUNDED && maximumWeight != LocalCache.UNBOUNDED) {
+            context.addError(new InvalidValue("Only one of maximum.size or maximum.weight may be specified", reader.getLocation(), resource));
+        } else if (maximumWeight != LocalCache.UNBOUNDED && weigher == null) {
+            context.addError(new InvalidValue("A weigher must be specified with maximum.weight", reader.getLocation(), resource));
+        } else if (weigher != null && maximumWeight == LocalCache.UNBOUNDED) {
+            context.addError(new InvalidValue("A weigher requires maximum.weight to be specified", reader.getLocation(), resource));
+        }
+        resource.setMaximumSize(maximumSize);
+        resource.setMaximumWeight(maximumWeight);
+        resource.setWeigher(weigher);
+        resource.setExpireAfterWrite(parse("expire.after.write", 0, reader, context));
+        resource.setExpireAfterAccess(parse("expire.after.access", 0, reader, context));
+        return resource;
+    }
+
+    private long parse(String name, long defaultValue, XMLStreamReader reader, IntrospectionContext context) {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed < 0) {
+                context.addError(new InvalidValue("The " + name + " attribute must not be negative: " + value, reader.getLocation()));
+                return defaultValue;
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            context.addError(new InvalidValue("Invalid " + name + " attribute: " + value, reader.getLocation(), e));
+            return defaultValue;
+        }
+    }
+}
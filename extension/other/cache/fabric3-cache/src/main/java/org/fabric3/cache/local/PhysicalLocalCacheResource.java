@@ -0,0 +1,76 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.local;
+
+import java.net.URI;
+
+import org.fabric3.cache.spi.PhysicalCacheResource;
+
+/**
+ * Used to create a cache provided by the runtime.
+ */
+public class PhysicalLocalCacheResource extends PhysicalCacheResource {
+    private long maximum;
+    private String weigher;
+    private URI contributionUri;
+    private long expireAfterWrite;
+    private long expireAfterAccess;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheName         the cache name
+     * @param maximum           the maximum number of entries, the maximum weight if a weigher is specified, or {@link LocalCache#UNBOUNDED}
+     * @param weigher           the weigher class name or null
+     * @param contributionUri   the URI of the contribution containing the weigher class
+     * @param expireAfterWrite  the time in milliseconds after an entry is written that it expires or 0
+     * @param expireAfterAccess the time in milliseconds after an entry is last accessed that it expires or 0
+     */
+    public PhysicalLocalCacheResource(String cacheName,
+                                      long maximum,
+                                      String weigher,
+                                      URI contributionUri,
+                                      long expireAfterWrite,
+                                      long expireAfterAccess) {
+        super(cacheName);
+        this.maximum = maximum;
+        this.weigher = weigher;
+        this.contributionUri = contributionUri;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public long getMaximum() {
+        return maximum;
+    }
+
+    public String getWeigher() {
+        return weigher;
+    }
+
+    public URI getContributionUri() {
+        return contributionUri;
+    }
+
+    public long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public long getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Caffeine (https://github.com/ben-manes/caffeine) 2014
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.cache.local;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lossy buffer that records cache reads so they can be applied to the eviction policy in batches. Producers never block: if the buffer is full
+ * or another producer wins the race for a slot, the read is dropped. Dropping reads only affects the accuracy of the eviction policy.
+ *
+ * Draining must be performed while holding the cache eviction lock.
+ */
+class ReadBuffer<E> {
+    static final int SIZE = 16;
+    static final int DRAIN_THRESHOLD = SIZE / 2;
+    private static final int MASK = SIZE - 1;
+
+    private AtomicLong writeCount = new AtomicLong();
+    private volatile long readCount;
+    private AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(SIZE);
+
+    /**
+     * Records an element.
+     *
+     * @param element the element
+     * @return true if the buffer should be drained
+     */
+    public boolean offer(E element) {
+        long head = readCount;
+        long tail = writeCount.get();
+        long size = tail - head;
+        if (size >= SIZE) {
+            return true;
+        }
+        if (writeCount.compareAndSet(tail, tail + 1)) {
+            buffer.lazySet((int) (tail & MASK), element);
+            return size + 1 >= DRAIN_THRESHOLD;
+        }
+        return false;
+    }
+
+    /**
+     * Removes recorded elements and passes them to the consumer.
+     *
+     * @param consumer the consumer
+     */
+    public void drain(Consumer<E> consumer) {
+        long head = readCount;
+        long tail = writeCount.get();
+        for (; head < tail; head++) {
+            int index = (int) (head & MASK);
+            E element = buffer.get(index);
+            if (element == null) {
+                // the producer has claimed the slot but not yet written to it
+                break;
+            }
+            buffer.lazySet(index, null);
+            consumer.accept(element);
+        }
+        readCount = head;
+    }
+
+}
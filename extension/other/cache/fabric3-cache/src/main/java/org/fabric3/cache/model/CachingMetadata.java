@@ -0,0 +1,62 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.model;
+
+import java.io.Serializable;
+
+/**
+ * Caching metadata for a service operation introspected from {@link org.fabric3.api.annotation.cache.Cached}.
+ */
+public class CachingMetadata implements Serializable {
+    private static final long serialVersionUID = -1780498238540981613L;
+
+    private String cacheName;
+    private int[] key;
+    private long ttl;
+    private boolean negative;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheName the cache name
+     * @param key       the indexes of the parameters used to derive the cache key or an empty array if all parameters are used
+     * @param ttl       the time-to-live in milliseconds. A value less than or equal to zero indicates entries do not expire
+     * @param negative  true if null results are cached
+     */
+    public CachingMetadata(String cacheName, int[] key, long ttl, boolean negative) {
+        this.cacheName = cacheName;
+        this.key = key;
+        this.ttl = ttl;
+        this.negative = negative;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public int[] getKey() {
+        return key;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public boolean isNegative() {
+        return negative;
+    }
+}
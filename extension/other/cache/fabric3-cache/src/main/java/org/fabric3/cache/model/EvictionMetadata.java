@@ -0,0 +1,62 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.model;
+
+import java.io.Serializable;
+
+/**
+ * Eviction metadata for a service operation introspected from {@link org.fabric3.api.annotation.cache.CacheEvict}.
+ */
+public class EvictionMetadata implements Serializable {
+    private static final long serialVersionUID = 4418563502377640470L;
+
+    private String cacheName;
+    private String[] operations;
+    private int[] key;
+    private boolean all;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheName  the cache name
+     * @param operations the names of the cached operations whose entries are evicted
+     * @param key        the indexes of the parameters used to derive the key of the evicted entries or an empty array if all parameters are used
+     * @param all        true if all entries are evicted
+     */
+    public EvictionMetadata(String cacheName, String[] operations, int[] key, boolean all) {
+        this.cacheName = cacheName;
+        this.operations = operations;
+        this.key = key;
+        this.all = all;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public String[] getOperations() {
+        return operations;
+    }
+
+    public int[] getKey() {
+        return key;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.provision;
+
+import java.net.URI;
+
+import org.fabric3.spi.model.physical.PhysicalInterceptor;
+
+/**
+ * Interceptor definition for caching the results of a service operation.
+ */
+public class PhysicalCachingInterceptor extends PhysicalInterceptor {
+    private String cacheName;
+    private URI component;
+    private String operation;
+    private int[] key;
+    private long ttl;
+    private boolean negative;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheName the cache name
+     * @param component the URI of the component providing the cached operation
+     * @param operation the name of the cached operation
+     * @param key       the indexes of the parameters used to derive the cache key or an empty array if all parameters are used
+     * @param ttl       the time-to-live in milliseconds. A value less than or equal to zero indicates entries do not expire
+     * @param negative  true if null results are cached
+     */
+    public PhysicalCachingInterceptor(String cacheName, URI component, String operation, int[] key, long ttl, boolean negative) {
+        this.cacheName = cacheName;
+        this.component = component;
+        this.operation = operation;
+        this.key = key;
+        this.ttl = ttl;
+        this.negative = negative;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public URI getComponent() {
+        return component;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public int[] getKey() {
+        return key;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public boolean isNegative() {
+        return negative;
+    }
+}
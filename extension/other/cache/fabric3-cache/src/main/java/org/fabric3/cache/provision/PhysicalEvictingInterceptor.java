@@ -0,0 +1,69 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.provision;
+
+import java.net.URI;
+
+import org.fabric3.spi.model.physical.PhysicalInterceptor;
+
+/**
+ * Interceptor definition for evicting cache entries when a service operation is invoked.
+ */
+public class PhysicalEvictingInterceptor extends PhysicalInterceptor {
+    private String cacheName;
+    private URI[] components;
+    private String[] operations;
+    private int[] key;
+    private boolean all;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheName  the cache name
+     * @param components the URIs of the components providing the cached operations, corresponding to the operation names
+     * @param operations the names of the cached operations whose entries are evicted
+     * @param key        the indexes of the parameters used to derive the key of the evicted entries or an empty array if all parameters are used
+     * @param all        true if all entries are evicted
+     */
+    public PhysicalEvictingInterceptor(String cacheName, URI[] components, String[] operations, int[] key, boolean all) {
+        this.cacheName = cacheName;
+        this.components = components;
+        this.operations = operations;
+        this.key = key;
+        this.all = all;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public URI[] getComponents() {
+        return components;
+    }
+
+    public String[] getOperations() {
+        return operations;
+    }
+
+    public int[] getKey() {
+        return key;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.runtime;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ * Base class for building interceptors that operate on a cache.
+ */
+public abstract class CacheInterceptorBuilder {
+    private CacheRegistry registry;
+
+    protected CacheInterceptorBuilder(CacheRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the named cache.
+     *
+     * @param name the cache name
+     * @return the cache
+     * @throws Fabric3Exception if the cache is not found or is not a ConcurrentMap
+     */
+    @SuppressWarnings("unchecked")
+    protected ConcurrentMap<Object, Object> getCache(String name) throws Fabric3Exception {
+        Object cache = registry.getCache(name);
+        if (cache == null) {
+            throw new Fabric3Exception("Cache not found: " + name);
+        } else if (!(cache instanceof ConcurrentMap)) {
+            throw new Fabric3Exception("Cache must implement ConcurrentMap: " + name);
+        }
+        return (ConcurrentMap<Object, Object>) cache;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.runtime;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Arrays;
+
+/**
+ * A cache key derived from the component URI, the operation name and the selected operation parameters. The component URI and operation name are part of
+ * the key so that components and operations sharing a cache do not return each other's results for the same parameters.
+ */
+final class CacheKey implements Serializable {
+    private static final long serialVersionUID = 2216390812649346129L;
+    private static final Object[] EMPTY = new Object[0];
+
+    private final URI component;
+    private final String operation;
+    private final Object[] values;
+    private final int hashCode;
+
+    private CacheKey(URI component, String operation, Object[] values) {
+        this.component = component;
+        this.operation = operation;
+        this.values = values;
+        this.hashCode = 31 * (31 * component.hashCode() + operation.hashCode()) + Arrays.deepHashCode(values);
+    }
+
+    /**
+     * Derives a cache key from the component URI, operation name and invocation parameters.
+     *
+     * @param component the URI of the component providing the cached operation
+     * @param operation the name of the cached operation
+     * @param body      the message body containing the invocation parameters
+     * @param indexes   the indexes of the parameters to derive the key from or an empty array if all parameters are used
+     * @return the key
+     */
+    static CacheKey create(URI component, String operation, Object body, int[] indexes) {
+        Object[] args = (Object[]) body;
+        if (args == null || args.length == 0) {
+            return new CacheKey(component, operation, EMPTY);
+        }
+        Object[] values;
+        if (indexes.length == 0) {
+            // copy the parameters as the array may be reused by the caller
+            values = args.clone();
+        } else {
+            values = new Object[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                values[i] = args[indexes[i]];
+            }
+        }
+        return new CacheKey(component, operation, values);
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey other = (CacheKey) o;
+        return hashCode == other.hashCode && operation.equals(other.operation) && component.equals(other.component) && Arrays.deepEquals(values, other.values);
+    }
+
+    public int hashCode() {
+        return hashCode;
+    }
+
+    public String toString() {
+        return component + "#" + operation + Arrays.deepToString(values);
+    }
+}
@@ -1,5 +1,7 @@
 package org.fabric3.cache.runtime;
 
+import org.fabric3.cache.spi.PhysicalCacheResource;
+
 /**
  * Returns live references to caches configured on a runtime.
  */
@@ -14,4 +16,18 @@ public interface CacheRegistry {
      */
     <CACHE> CACHE getCache(String name);
 
+    /**
+     * Indexes the cache created for the resource so that it can be returned without consulting cache managers.
+     *
+     * @param resource the cache resource
+     */
+    void register(PhysicalCacheResource resource);
+
+    /**
+     * Removes the cache created for the resource from the index.
+     *
+     * @param resource the cache resource
+     */
+    void unregister(PhysicalCacheResource resource);
+
 }
@@ -4,22 +4,33 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.cache.spi.CacheManager;
-import org.fabric3.cache.spi.CacheResource;
+import org.fabric3.cache.spi.PhysicalCacheResource;
 import org.oasisopen.sca.annotation.Reference;
 
 /**
- *
+ * Caches created from cache resources are indexed by name. Managers are consulted for caches they define by other means, for example through a
+ * provider-specific configuration file.
  */
 public class CacheRegistryImpl implements CacheRegistry {
-    private Map<Class<CacheResource>, CacheManager<?>> managers = new ConcurrentHashMap<>();
+    private Map<Class<?>, CacheManager<?>> managers = new ConcurrentHashMap<>();
+    private Map<String, Object> caches = new ConcurrentHashMap<>();
 
+    /**
+     * Sets the cache managers keyed by the physical cache resource type they manage.
+     *
+     * @param managers the managers
+     */
     @Reference(required = false)
-    public void setManagers(Map<Class<CacheResource>, CacheManager<?>> managers) {
+    public void setManagers(Map<Class<?>, CacheManager<?>> managers) {
         this.managers = managers;
     }
 
     @SuppressWarnings({"unchecked"})
     public <CACHE> CACHE getCache(String name) {
+        Object indexed = caches.get(name);
+        if (indexed != null) {
+            return (CACHE) indexed;
+        }
         for (CacheManager<?> manager : managers.values()) {
             Object cache = manager.getCache(name);
             if (cache != null) {
@@ -29,4 +40,19 @@ public class CacheRegistryImpl implements CacheRegistry {
         return null;
     }
 
+    public void register(PhysicalCacheResource resource) {
+        CacheManager<?> manager = managers.get(resource.getClass());
+        if (manager == null) {
+            return;
+        }
+        Object cache = manager.getCache(resource.getCacheName());
+        if (cache != null) {
+            caches.put(resource.getCacheName(), cache);
+        }
+    }
+
+    public void unregister(PhysicalCacheResource resource) {
+        caches.remove(resource.getCacheName());
+    }
+
 }
@@ -35,6 +35,11 @@ import org.oasisopen.sca.annotation.Reference;
 @EagerInit
 public class CacheResourceBuilder implements ResourceBuilder<PhysicalCacheSet> {
     private Map<Class<?>, CacheBuilder<?>> builders = new HashMap<>();
+    private CacheRegistry registry;
+
+    public CacheResourceBuilder(@Reference CacheRegistry registry) {
+        this.registry = registry;
+    }
 
     @Reference(required = false)
     public void setBuilders(Map<Class<?>, CacheBuilder<?>> builders) {
@@ -46,6 +51,7 @@ public class CacheResourceBuilder implements ResourceBuilder<PhysicalCacheSet> {
         for (PhysicalCacheResource cacheResource : set.getCacheResources()) {
             CacheBuilder builder = getCacheBuilder(cacheResource);
             builder.build(cacheResource);
+            registry.register(cacheResource);
         }
     }
 
@@ -53,6 +59,7 @@ public class CacheResourceBuilder implements ResourceBuilder<PhysicalCacheSet> {
     public void remove(PhysicalCacheSet set) {
         for (PhysicalCacheResource cacheResource : set.getCacheResources()) {
             CacheBuilder builder = getCacheBuilder(cacheResource);
+            registry.unregister(cacheResource);
             builder.remove(cacheResource);
         }
     }
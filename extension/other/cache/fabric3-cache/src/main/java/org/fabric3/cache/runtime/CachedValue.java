@@ -0,0 +1,48 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.runtime;
+
+import java.io.Serializable;
+
+/**
+ * Holds an operation result in a cache. Null results are held when negative caching is enabled.
+ */
+final class CachedValue implements Serializable {
+    private static final long serialVersionUID = -3573154440322780722L;
+
+    private final Object value;
+    private final long expires;
+
+    /**
+     * Constructor.
+     *
+     * @param value   the result, which may be null
+     * @param expires the time in milliseconds when the entry expires or 0 if it does not expire
+     */
+    CachedValue(Object value, long expires) {
+        this.value = value;
+        this.expires = expires;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    boolean isExpired(long now) {
+        return expires != 0 && now >= expires;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.runtime;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.wire.Interceptor;
+
+/**
+ * Returns operation results from a cache, invoking the target operation and caching its result on a miss. Faults are not cached.
+ */
+public class CachingInterceptor implements Interceptor {
+    private Interceptor next;
+    private ConcurrentMap<Object, Object> cache;
+    private URI component;
+    private String operation;
+    private int[] key;
+    private long ttl;
+    private boolean negative;
+    private LongSupplier clock;
+
+    /**
+     * Constructor.
+     *
+     * @param cache     the cache
+     * @param component the URI of the component providing the cached operation, used to qualify cache keys
+     * @param operation the name of the cached operation, used to qualify cache keys
+     * @param key       the indexes of the parameters used to derive the cache key or an empty array if all parameters are used
+     * @param ttl       the time-to-live in milliseconds. A value less than or equal to zero indicates entries do not expire
+     * @param negative  true if null results are cached
+     */
+    public CachingInterceptor(ConcurrentMap<Object, Object> cache, URI component, String operation, int[] key, long ttl, boolean negative) {
+        this(cache, component, operation, key, ttl, negative, System::currentTimeMillis);
+    }
+
+    CachingInterceptor(ConcurrentMap<Object, Object> cache, URI component, String operation, int[] key, long ttl, boolean negative, LongSupplier clock) {
+        this.cache = cache;
+        this.component = component;
+        this.operation = operation;
+        this.key = key;
+        this.ttl = ttl;
+        this.negative = negative;
+        this.clock = clock;
+    }
+
+    public Interceptor getNext() {
+        return next;
+    }
+
+    public void setNext(Interceptor next) {
+        this.next = next;
+    }
+
+    public Message invoke(Message msg) {
+        CacheKey cacheKey = CacheKey.create(component, operation, msg.getBody(), key);
+        Object entry = cache.get(cacheKey);
+        if (entry instanceof CachedValue) {
+            CachedValue cached = (CachedValue) entry;
+            if (ttl <= 0 || !cached.isExpired(clock.getAsLong())) {
+                msg.setBody(cached.getValue());
+                return msg;
+            }
+            cache.remove(cacheKey, entry);
+        }
+
+        Message ret = next.invoke(msg);
+        if (ret.isFault()) {
+            return ret;
+        }
+        Object value = ret.getBody();
+        if (value != null || negative) {
+            long expires = ttl > 0 ? clock.getAsLong() + ttl : 0;
+            cache.put(cacheKey, new CachedValue(value, expires));
+        }
+        return ret;
+    }
+
+}
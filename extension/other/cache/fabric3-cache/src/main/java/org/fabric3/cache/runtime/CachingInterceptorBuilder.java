@@ -0,0 +1,43 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.runtime;
+
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.cache.provision.PhysicalCachingInterceptor;
+import org.fabric3.spi.container.builder.InterceptorBuilder;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Creates a {@link CachingInterceptor} for a wire invocation chain.
+ */
+public class CachingInterceptorBuilder extends CacheInterceptorBuilder implements InterceptorBuilder<PhysicalCachingInterceptor> {
+
+    public CachingInterceptorBuilder(@Reference CacheRegistry registry) {
+        super(registry);
+    }
+
+    public Interceptor build(PhysicalCachingInterceptor physicalInterceptor) throws Fabric3Exception {
+        return new CachingInterceptor(getCache(physicalInterceptor.getCacheName()),
+                                      physicalInterceptor.getComponent(),
+                                      physicalInterceptor.getOperation(),
+                                      physicalInterceptor.getKey(),
+                                      physicalInterceptor.getTtl(),
+                                      physicalInterceptor.isNegative());
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.runtime;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentMap;
+
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.wire.Interceptor;
+
+/**
+ * Evicts cache entries after the target operation completes without a fault.
+ */
+public class EvictingInterceptor implements Interceptor {
+    private Interceptor next;
+    private ConcurrentMap<Object, Object> cache;
+    private URI[] components;
+    private String[] operations;
+    private int[] key;
+    private boolean all;
+
+    /**
+     * Constructor.
+     *
+     * @param cache      the cache
+     * @param components the URIs of the components providing the cached operations, corresponding to the operation names
+     * @param operations the names of the cached operations whose entries are evicted
+     * @param key        the indexes of the parameters used to derive the key of the evicted entries or an empty array if all parameters are used
+     * @param all        true if all entries are evicted
+     */
+    public EvictingInterceptor(ConcurrentMap<Object, Object> cache, URI[] components, String[] operations, int[] key, boolean all) {
+        this.cache = cache;
+        this.components = components;
+        this.operations = operations;
+        this.key = key;
+        this.all = all;
+    }
+
+    public Interceptor getNext() {
+        return next;
+    }
+
+    public void setNext(Interceptor next) {
+        this.next = next;
+    }
+
+    public Message invoke(Message msg) {
+        // derive the keys before invoking as the target may replace the message body with the result
+        CacheKey[] cacheKeys = all ? null : createKeys(msg.getBody());
+        Message ret = next.invoke(msg);
+        if (ret.isFault()) {
+            return ret;
+        }
+        if (all) {
+            cache.clear();
+        } else {
+            for (CacheKey cacheKey : cacheKeys) {
+                cache.remove(cacheKey);
+            }
+        }
+        return ret;
+    }
+
+    private CacheKey[] createKeys(Object body) {
+        CacheKey[] cacheKeys = new CacheKey[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            cacheKeys[i] = CacheKey.create(components[i], operations[i], body, key);
+        }
+        return cacheKeys;
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.introspection;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.fabric3.api.annotation.cache.CacheEvict;
+import org.fabric3.api.annotation.cache.Cached;
+import org.fabric3.api.model.type.component.ComponentType;
+import org.fabric3.api.model.type.component.Service;
+import org.fabric3.api.model.type.contract.DataType;
+import org.fabric3.api.model.type.contract.Operation;
+import org.fabric3.api.model.type.java.InjectingComponentType;
+import org.fabric3.cache.model.CachingMetadata;
+import org.fabric3.cache.model.EvictionMetadata;
+import org.fabric3.spi.introspection.DefaultIntrospectionContext;
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.model.type.java.JavaServiceContract;
+import org.fabric3.spi.model.type.java.JavaType;
+import static org.fabric3.cache.introspection.CacheOperationPostProcessor.CACHED;
+import static org.fabric3.cache.introspection.CacheOperationPostProcessor.CACHE_EVICT;
+
+/**
+ *
+ */
+public class CacheOperationPostProcessorTestCase extends TestCase {
+    private CacheOperationPostProcessor processor = new CacheOperationPostProcessor();
+    private IntrospectionContext context;
+
+    public void testCached() throws Exception {
+        InjectingComponentType componentType = createComponentType(CustomerService.class);
+        processor.process(componentType, CustomerServiceImpl.class, context);
+        assertFalse(context.hasErrors());
+
+        Operation find = getOperation(componentType, "find");
+        assertTrue(find.getPolicies().contains("cached"));
+        CachingMetadata metadata = find.getMetadata(CACHED, CachingMetadata.class);
+        assertEquals("customers", metadata.getCacheName());
+        assertEquals(1, metadata.getKey().length);
+        assertEquals(1000, metadata.getTtl());
+        assertTrue(metadata.isNegative());
+
+        Operation update = getOperation(componentType, "update");
+        assertTrue(update.getPolicies().contains("cacheEvict"));
+        EvictionMetadata eviction = update.getMetadata(CACHE_EVICT, EvictionMetadata.class);
+        assertEquals("customers", eviction.getCacheName());
+        assertEquals(1, eviction.getOperations().length);
+        assertEquals("find", eviction.getOperations()[0]);
+        assertFalse(eviction.isAll());
+
+        assertTrue(getOperation(componentType, "count").getPolicies().isEmpty());
+    }
+
+    public void testPolicyNotDuplicated() throws Exception {
+        InjectingComponentType componentType = createComponentType(CustomerService.class);
+        getOperation(componentType, "find").addPolicy("cached");
+        processor.process(componentType, CustomerServiceImpl.class, context);
+        assertEquals(1, getOperation(componentType, "find").getPolicies().size());
+    }
+
+    public void testInvalidKeyIndex() throws Exception {
+        InjectingComponentType componentType = createComponentType(InvalidService.class);
+        processor.process(componentType, InvalidKeyServiceImpl.class, context);
+        assertTrue(context.hasErrors());
+        assertTrue(getOperation(componentType, "find").getPolicies().isEmpty());
+    }
+
+    public void testNoCachedOperationsForEviction() throws Exception {
+        InjectingComponentType componentType = createComponentType(InvalidService.class);
+        processor.process(componentType, NoCachedServiceImpl.class, context);
+        assertTrue(context.hasErrors());
+        assertTrue(getOperation(componentType, "update").getPolicies().isEmpty());
+    }
+
+    public void testVoidCachedOperation() throws Exception {
+        InjectingComponentType componentType = createComponentType(InvalidService.class);
+        processor.process(componentType, VoidServiceImpl.class, context);
+        assertTrue(context.hasErrors());
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        context = new DefaultIntrospectionContext();
+    }
+
+    private InjectingComponentType createComponentType(Class<?> interfaze) {
+        List<Operation> operations = new ArrayList<>();
+        for (Method method : interfaze.getDeclaredMethods()) {
+            List<DataType> inputTypes = new ArrayList<>();
+            for (Class<?> type : method.getParameterTypes()) {
+                inputTypes.add(new JavaType(type));
+            }
+            JavaType outputType = new JavaType(method.getReturnType());
+            operations.add(new Operation(method.getName(), inputTypes, outputType, Collections.emptyList()));
+        }
+        JavaServiceContract contract = new JavaServiceContract(interfaze);
+        contract.setOperations(operations);
+        InjectingComponentType componentType = new InjectingComponentType();
+        componentType.add(new Service<>(interfaze.getSimpleName(), contract));
+        return componentType;
+    }
+
+    private Operation getOperation(InjectingComponentType componentType, String name) {
+        for (Service<ComponentType> service : componentType.getServices().values()) {
+            for (Operation operation : service.getServiceContract().getOperations()) {
+                if (operation.getName().equals(name)) {
+                    return operation;
+                }
+            }
+        }
+        throw new AssertionError("Operation not found: " + name);
+    }
+
+    public interface CustomerService {
+
+        String find(String region, String id);
+
+        void update(String id, String customer);
+
+        int count();
+    }
+
+    public static class CustomerServiceImpl implements CustomerService {
+
+        @Cached(cache = "customers", key = 1, ttl = 1000, negative = true)
+        public String find(String region, String id) {
+            return null;
+        }
+
+        @CacheEvict(cache = "customers", key = 0)
+        public void update(String id, String customer) {
+        }
+
+        public int count() {
+            return 0;
+        }
+    }
+
+    public interface InvalidService {
+
+        String find(String id);
+
+        void update(String id);
+    }
+
+    public static class InvalidKeyServiceImpl implements InvalidService {
+
+        @Cached(cache = "customers", key = 1)
+        public String find(String id) {
+            return null;
+        }
+
+        public void update(String id) {
+        }
+    }
+
+    public static class NoCachedServiceImpl implements InvalidService {
+
+        public String find(String id) {
+            return null;
+        }
+
+        @CacheEvict(cache = "customers")
+        public void update(String id) {
+        }
+    }
+
+    public static class VoidServiceImpl implements InvalidService {
+
+        public String find(String id) {
+            return null;
+        }
+
+        @Cached(cache = "customers")
+        public void update(String id) {
+        }
+    }
+}
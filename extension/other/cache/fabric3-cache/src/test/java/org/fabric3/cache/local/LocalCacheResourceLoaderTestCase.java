@@ -0,0 +1,79 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.local;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.spi.introspection.DefaultIntrospectionContext;
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.xml.InvalidValue;
+import org.fabric3.spi.introspection.xml.LoaderRegistry;
+
+/**
+ *
+ */
+public class LocalCacheResourceLoaderTestCase extends TestCase {
+    private static final String XML = "<cache.local maximum.size='100' expire.after.write='1000' expire.after.access='500'/>";
+    private static final String XML_WEIGHT = "<cache.local maximum.weight='1000' weigher='org.foo.Weigher'/>";
+    private static final String XML_INVALID = "<cache.local maximum.size='100' maximum.weight='1000'/>";
+
+    private LocalCacheResourceLoader loader;
+    private XMLInputFactory factory;
+    private IntrospectionContext context;
+
+    public void testLoad() throws Exception {
+        LocalCacheResource resource = loader.load(createReader(XML), context);
+
+        assertFalse(context.hasErrors());
+        assertEquals(100, resource.getMaximumSize());
+        assertEquals(LocalCache.UNBOUNDED, resource.getMaximumWeight());
+        assertEquals(1000, resource.getExpireAfterWrite());
+        assertEquals(500, resource.getExpireAfterAccess());
+    }
+
+    public void testLoadWeight() throws Exception {
+        LocalCacheResource resource = loader.load(createReader(XML_WEIGHT), context);
+
+        assertFalse(context.hasErrors());
+        assertEquals(1000, resource.getMaximumWeight());
+        assertEquals("org.foo.Weigher", resource.getWeigher());
+    }
+
+    public void testSizeAndWeight() throws Exception {
+        loader.load(createReader(XML_INVALID), context);
+
+        assertTrue(context.getErrors().get(0) instanceof InvalidValue);
+    }
+
+    private XMLStreamReader createReader(String xml) throws Exception {
+        XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(xml.getBytes()));
+        reader.nextTag();
+        return reader;
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        LoaderRegistry registry = EasyMock.createMock(LoaderRegistry.class);
+        loader = new LocalCacheResourceLoader(registry);
+        factory = XMLInputFactory.newInstance();
+        context = new DefaultIntrospectionContext();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.local;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class LocalCacheTestCase extends TestCase {
+    private AtomicLong time = new AtomicLong();
+
+    public void testMaximumSize() throws Exception {
+        LocalCache<Integer, String> cache = new LocalCache<>(100, null, 0, 0, time::get);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "value" + i);
+        }
+        cache.cleanUp();
+
+        assertEquals(100, cache.size());
+        assertEquals(100, cache.weightedSize());
+    }
+
+    public void testFrequentlyUsedEntriesRetainedDuringScan() throws Exception {
+        LocalCache<Integer, String> cache = new LocalCache<>(100, null, 0, 0, time::get);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, "value" + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                assertNotNull(cache.get(i));
+            }
+            cache.cleanUp();
+        }
+
+        // entries accessed once should not displace the frequently used entries, which continue to be read
+        for (int i = 1000; i < 3000; i++) {
+            cache.put(i, "value" + i);
+            if (i % 100 == 0) {
+                for (int j = 0; j < 50; j++) {
+                    cache.get(j);
+                }
+            }
+        }
+        cache.cleanUp();
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(cache.containsKey(i));
+        }
+        assertEquals(100, cache.size());
+    }
+
+    public void testMaximumWeight() throws Exception {
+        LocalCache<String, String> cache = new LocalCache<>(10, (k, v) -> v.length(), 0, 0, time::get);
+        cache.put("a", "12345");
+        cache.put("b", "12345");
+        cache.put("c", "12345");
+        cache.cleanUp();
+
+        assertEquals(2, cache.size());
+        assertEquals(10, cache.weightedSize());
+    }
+
+    public void testExpireAfterWrite() throws Exception {
+        LocalCache<String, String> cache = new LocalCache<>(LocalCache.UNBOUNDED, null, 100, 0, time::get);
+        cache.put("a", "value");
+
+        advance(50);
+        assertEquals("value", cache.get("a"));
+
+        advance(60);
+        assertNull(cache.get("a"));
+        cache.cleanUp();
+        assertEquals(0, cache.size());
+    }
+
+    public void testExpireAfterAccess() throws Exception {
+        LocalCache<String, String> cache = new LocalCache<>(LocalCache.UNBOUNDED, null, 0, 100, time::get);
+        cache.put("a", "value");
+        cache.put("b", "value");
+
+        advance(60);
+        assertEquals("value", cache.get("a"));
+        advance(60);
+        assertEquals("value", cache.get("a"));
+        cache.cleanUp();
+
+        // b has not been accessed and is removed during maintenance
+        assertFalse(cache.containsKey("b"));
+        assertEquals(1, cache.size());
+
+        advance(100);
+        assertNull(cache.get("a"));
+    }
+
+    public void testConcurrentMapOperations() throws Exception {
+        LocalCache<String, String> cache = new LocalCache<>(10, null, 0, 0, time::get);
+        assertNull(cache.putIfAbsent("a", "1"));
+        assertEquals("1", cache.putIfAbsent("a", "2"));
+        assertEquals("1", cache.replace("a", "3"));
+        assertFalse(cache.replace("a", "1", "4"));
+        assertTrue(cache.replace("a", "3", "4"));
+        assertFalse(cache.remove("a", "3"));
+        assertTrue(cache.remove("a", "4"));
+        assertTrue(cache.isEmpty());
+        cache.cleanUp();
+        assertEquals(0, cache.weightedSize());
+    }
+
+    public void testWriteAppliedWhenLockReleased() throws Exception {
+        LocalCache<Object, String> cache = new LocalCache<>(100, null, 0, 0, time::get);
+        BlockingKey key = new BlockingKey();
+        cache.put(key, "a");
+        cache.cleanUp();
+
+        // the clearing thread blocks while holding the eviction lock after it has applied recorded writes
+        Thread clearing = new Thread(cache::clear);
+        key.blockingThread = clearing;
+        clearing.start();
+        assertTrue(key.blocked.await(5, TimeUnit.SECONDS));
+
+        // the write cannot acquire the lock and must be applied when the clearing thread releases it
+        cache.put(0, "b");
+        key.release.countDown();
+        clearing.join(5000);
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.weightedSize());
+    }
+
+    private void advance(long millis) {
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * A key that blocks the given thread when it is hashed while the cache is being cleared.
+     */
+    private static class BlockingKey {
+        private volatile Thread blockingThread;
+        private CountDownLatch blocked = new CountDownLatch(1);
+        private CountDownLatch release = new CountDownLatch(1);
+
+        public int hashCode() {
+            if (Thread.currentThread() == blockingThread && blocked.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.cache.runtime;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.invocation.MessageImpl;
+import org.fabric3.spi.container.wire.Interceptor;
+
+/**
+ *
+ */
+public class CachingInterceptorTestCase extends TestCase {
+    private static final URI COMPONENT = URI.create("fabric3://domain/component");
+    private static final URI OTHER = URI.create("fabric3://domain/other");
+
+    private ConcurrentMap<Object, Object> cache;
+    private AtomicLong clock;
+    private TargetInterceptor target;
+
+    public void testCacheHit() throws Exception {
+        CachingInterceptor interceptor = createInterceptor(new int[0], -1, false);
+
+        assertEquals("result1", invoke(interceptor, "1").getBody());
+        assertEquals("result1", invoke(interceptor, "1").getBody());
+        assertEquals(1, target.invocations.get());
+
+        assertEquals("result2", invoke(interceptor, "2").getBody());
+        assertEquals(2, target.invocations.get());
+    }
+
+    public void testKeyDerivedFromParameters() throws Exception {
+        CachingInterceptor interceptor = createInterceptor(new int[]{0}, -1, false);
+
+        invoke(interceptor, "1", "a");
+        invoke(interceptor, "1", "b");
+        assertEquals(1, target.invocations.get());
+        assertTrue(cache.containsKey(CacheKey.create(COMPONENT, "find", new Object[]{"1"}, new int[0])));
+
+        interceptor = createInterceptor(new int[0], -1, false);
+        invoke(interceptor, "1", "a");
+        invoke(interceptor, "1", "b");
+        assertEquals(3, target.invocations.get());
+    }
+
+    public void testKeyQualifiedByOperation() throws Exception {
+        CachingInterceptor find = createInterceptor(new int[0], -1, false);
+        CachingInterceptor count = new CachingInterceptor(cache, COMPONENT, "count", new int[0], -1, false, clock::get);
+        count.setNext(target);
+
+        invoke(find, "1");
+        target.result = "count";
+        assertEquals("count1", invoke(count, "1").getBody());
+        assertEquals(2, target.invocations.get());
+        assertEquals(2, cache.size());
+    }
+
+    public void testKeyQualifiedByComponent() throws Exception {
+        CachingInterceptor find = createInterceptor(new int[0], -1, false);
+        CachingInterceptor other = new CachingInterceptor(cache, OTHER, "find", new int[0], -1, false, clock::get);
+        other.setNext(target);
+
+        invoke(find, "1");
+        target.result = "other";
+        assertEquals("other1", invoke(other, "1").getBody());
+        assertEquals(2, target.invocations.get());
+
+        EvictingInterceptor evicting = new EvictingInterceptor(cache, new URI[]{OTHER}, new String[]{"find"}, new int[0], false);
+        evicting.setNext(target);
+        invoke(evicting, "1");
+        assertTrue(cache.containsKey(CacheKey.create(COMPONENT, "find", new Object[]{"1"}, new int[0])));
+        assertFalse(cache.containsKey(CacheKey.create(OTHER, "find", new Object[]{"1"}, new int[0])));
+    }
+
+    public void testTtl() throws Exception {
+        CachingInterceptor interceptor = createInterceptor(new int[0], 100, false);
+
+        invoke(interceptor, "1");
+        clock.addAndGet(99);
+        invoke(interceptor, "1");
+        assertEquals(1, target.invocations.get());
+
+        clock.addAndGet(1);
+        invoke(interceptor, "1");
+        assertEquals(2, target.invocations.get());
+    }
+
+    public void testNegativeCaching() throws Exception {
+        target.result = null;
+        CachingInterceptor interceptor = createInterceptor(new int[0], -1, false);
+        invoke(interceptor, "1");
+        invoke(interceptor, "1");
+        assertEquals(2, target.invocations.get());
+
+        interceptor = createInterceptor(new int[0], -1, true);
+        invoke(interceptor, "1");
+        assertNull(invoke(interceptor, "1").getBody());
+        assertEquals(3, target.invocations.get());
+    }
+
+    public void testFaultNotCached() throws Exception {
+        target.fault = true;
+        CachingInterceptor interceptor = createInterceptor(new int[0], -1, true);
+        assertTrue(invoke(interceptor, "1").isFault());
+        assertTrue(cache.isEmpty());
+    }
+
+    public void testEvict() throws Exception {
+        CachingInterceptor interceptor = createInterceptor(new int[]{0}, -1, false);
+        invoke(interceptor, "1");
+        invoke(interceptor, "2");
+
+        EvictingInterceptor evicting = new EvictingInterceptor(cache, new URI[]{COMPONENT}, new String[]{"find"}, new int[]{0}, false);
+        evicting.setNext(target);
+        invoke(evicting, "1", "update");
+        assertFalse(cache.containsKey(CacheKey.create(COMPONENT, "find", new Object[]{"1"}, new int[0])));
+        assertTrue(cache.containsKey(CacheKey.create(COMPONENT, "find", new Object[]{"2"}, new int[0])));
+
+        evicting = new EvictingInterceptor(cache, new URI[0], new String[0], new int[0], true);
+        evicting.setNext(target);
+        invoke(evicting, "3");
+        assertTrue(cache.isEmpty());
+    }
+
+    public void testNotEvictedOnFault() throws Exception {
+        CachingInterceptor interceptor = createInterceptor(new int[0], -1, false);
+        invoke(interceptor, "1");
+
+        target.fault = true;
+        EvictingInterceptor evicting = new EvictingInterceptor(cache, new URI[]{COMPONENT}, new String[]{"find"}, new int[0], false);
+        evicting.setNext(target);
+        invoke(evicting, "1");
+        assertEquals(1, cache.size());
+    }
+
+    public void testNoParameters() throws Exception {
+        CachingInterceptor interceptor = createInterceptor(new int[0], -1, false);
+        interceptor.invoke(new MessageImpl());
+        interceptor.invoke(new MessageImpl());
+        assertEquals(1, target.invocations.get());
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        cache = new ConcurrentHashMap<>();
+        clock = new AtomicLong();
+        target = new TargetInterceptor();
+    }
+
+    private CachingInterceptor createInterceptor(int[] key, long ttl, boolean negative) {
+        CachingInterceptor interceptor = new CachingInterceptor(cache, COMPONENT, "find", key, ttl, negative, clock::get);
+        interceptor.setNext(target);
+        return interceptor;
+    }
+
+    private Message invoke(Interceptor interceptor, Object... args) {
+        Message message = new MessageImpl();
+        message.setBody(args);
+        return interceptor.invoke(message);
+    }
+
+    private class TargetInterceptor implements Interceptor {
+        private AtomicInteger invocations = new AtomicInteger();
+        private String result = "result";
+        private boolean fault;
+
+        public Message invoke(Message msg) {
+            invocations.incrementAndGet();
+            if (fault) {
+                msg.setBodyWithFault(new IllegalStateException());
+            } else {
+                Object[] args = (Object[]) msg.getBody();
+                msg.setBody(result == null ? null : result + (args == null ? "" : args[0]));
+            }
+            return msg;
+        }
+
+        public void setNext(Interceptor next) {
+        }
+
+        public Interceptor getNext() {
+            return null;
+        }
+    }
+}
@@ -38,6 +38,10 @@ import org.oasisopen.sca.annotation.EagerInit;
 public class AuthorizationInterceptorGenerator implements InterceptorGenerator {
     private static final QName AUTHORIZATION = new QName("urn:fabric3.org", "authorization");
 
+    public int getOrder() {
+        return AUTHORIZATION_ORDER;
+    }
+
     public Optional<PhysicalInterceptor> generate(LogicalOperation source, LogicalOperation target) throws Fabric3Exception {
         List<String> operationPolicies = target.getDefinition().getPolicies();
         ComponentType componentType = target.getParent().getParent().getDefinition().getComponentType();
@@ -34,6 +34,10 @@ import org.oasisopen.sca.annotation.EagerInit;
 public class TxInterceptorGenerator implements InterceptorGenerator {
     private static final Optional<PhysicalInterceptor> PHYSICAL_INTERCEPTOR = Optional.of(new PhysicalTxInterceptor(TxAction.BEGIN));
 
+    public int getOrder() {
+        return TRANSACTION_ORDER;
+    }
+
     public Optional<PhysicalInterceptor> generate(LogicalOperation source, LogicalOperation target) {
         ComponentType componentType = target.getParent().getParent().getDefinition().getImplementation().getComponentType();
         List<String> policies = componentType.getPolicies();
@@ -0,0 +1,74 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.api.annotation.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.oasisopen.sca.annotation.Intent;
+
+/**
+ * Specifies that entries are evicted from a cache when a service operation completes without a fault. Used to invalidate results cached by operations
+ * annotated with {@link Cached}.
+ *
+ * Cache keys are qualified by the component and the name of the cached operation. An entry is evicted if it was cached by one of the evicted {@link #operations()} and the
+ * parameters selected by {@link #key()} on this operation are equal to, and in the same order as, the parameters selected by the key of the cached
+ * operation. For example, an entry cached by {@code find(id)} is evicted by {@code update(id, customer)} with {@code key = 0}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Intent(CacheEvict.CACHE_EVICT)
+public @interface CacheEvict {
+    String CACHE_EVICT = "{urn:fabric3.org}cacheEvict";
+
+    /**
+     * Denotes the name of the cache to evict entries from.
+     *
+     * @return the cache name
+     */
+    String cache();
+
+    /**
+     * Denotes the names of the cached operations whose entries are evicted. If not specified, entries cached by all operations of the implementation class
+     * annotated with {@link Cached} for the same cache are evicted. Operations must be specified if the cached operations are implemented by another
+     * component sharing the cache, in which case they are named using the form <code>component#operation</code>, where the component is in the same
+     * composite.
+     *
+     * @return the cached operation names
+     */
+    String[] operations() default {};
+
+    /**
+     * Denotes the zero-based indexes of the operation parameters used to derive the key of the evicted entries. If not specified, all parameters are used.
+     * Keys are derived the same way as for {@link Cached}.
+     *
+     * @return the parameter indexes
+     */
+    int[] key() default {};
+
+    /**
+     * Denotes whether all entries are evicted from the cache.
+     *
+     * @return true if all entries are evicted
+     */
+    boolean all() default false;
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.api.annotation.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.oasisopen.sca.annotation.Intent;
+
+/**
+ * Specifies that the result of a service operation is cached. When the operation is invoked, the named cache is consulted using a key derived from the
+ * operation parameters and the cached result is returned if present. Otherwise, the operation is invoked and its result placed in the cache. Faults are
+ * never cached.
+ *
+ * Cache keys are qualified by the operation name so that operations may share a cache. Entries are evicted by operations annotated with {@link CacheEvict}
+ * that name this operation, or by default use the same cache in the same implementation class, and select key parameters with equal values in the same
+ * order. Overloaded operations share a name and should therefore use different caches.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Intent(Cached.CACHED)
+public @interface Cached {
+    String CACHED = "{urn:fabric3.org}cached";
+
+    /**
+     * Denotes the name of the cache results are stored in.
+     *
+     * @return the cache name
+     */
+    String cache();
+
+    /**
+     * Denotes the zero-based indexes of the operation parameters used to derive the cache key. If not specified, all parameters are used.
+     *
+     * @return the parameter indexes
+     */
+    int[] key() default {};
+
+    /**
+     * Denotes the time in milliseconds a cached result remains valid. A value less than or equal to zero indicates results do not expire.
+     *
+     * @return the time-to-live
+     */
+    long ttl() default -1;
+
+    /**
+     * Denotes whether null results are cached.
+     *
+     * @return true if null results are cached
+     */
+    boolean negative() default false;
+
+}
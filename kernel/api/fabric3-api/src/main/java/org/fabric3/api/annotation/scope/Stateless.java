@@ -26,11 +26,35 @@ import static java.lang.annotation.ElementType.TYPE;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
 /**
- * Annotation used to indicate that decorated component implementations have stateless scope
+ * Annotation used to indicate that decorated component implementations have stateless scope.
+ *
+ * By default, an instance is created and destroyed for each request. If {@link #pool()} is set, instances are returned to a pool after a request completes and
+ * reused for subsequent requests.
  */
 @Target(TYPE)
 @Retention(RUNTIME)
 @Scope(Scopes.STATELESS)
 public @interface Stateless {
 
+    /**
+     * Returns the maximum number of idle instances retained for reuse. If 0, instances are not pooled.
+     *
+     * @return the maximum number of idle instances
+     */
+    int pool() default 0;
+
+    /**
+     * Returns the number of idle instances that are retained when idle instances are evicted.
+     *
+     * @return the minimum number of idle instances
+     */
+    int poolMin() default 0;
+
+    /**
+     * Returns the time in milliseconds an instance may remain idle before it is evicted. If 0 or less, idle instances are not evicted.
+     *
+     * @return the idle time in milliseconds
+     */
+    long poolIdleTime() default 60000;
+
 }
@@ -42,6 +42,11 @@ import org.fabric3.api.host.util.CompositeEnumeration;
  */
 public class DelegatingResourceClassLoader extends URLClassLoader {
 
+    static {
+        // subclasses may only be parallel capable if this class is
+        registerAsParallelCapable();
+    }
+
     public DelegatingResourceClassLoader(URL[] urls, ClassLoader parent) {
         super(urls, parent);
         checkParent(parent);
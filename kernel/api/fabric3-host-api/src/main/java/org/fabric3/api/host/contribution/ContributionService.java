@@ -124,6 +124,16 @@ public interface ContributionService {
      */
     void processContents(URI uri) throws Fabric3Exception;
 
+    /**
+     * Introspects the contents of a collection of contributions. Contributions that do not depend on one another may be processed concurrently. If one or more
+     * contributions fail to process, the error for the first failed contribution in list order is thrown with errors for the others added as suppressed
+     * exceptions.
+     *
+     * @param uris the contribution URIs
+     * @throws Fabric3Exception if there is an error
+     */
+    void processContents(List<URI> uris) throws Fabric3Exception;
+
     /**
      * Uninstalls a contribution.
      *
@@ -44,6 +44,7 @@ public class InjectingComponentType extends ComponentType {
     private int initLevel;
     private boolean managed;
     private ManagementInfo managementInfo;
+    private InstancePoolInfo poolInfo;
 
     private Constructor<?> constructor;
     private Method initMethod;
@@ -150,6 +151,25 @@ public class InjectingComponentType extends ComponentType {
         this.managementInfo = managementInfo;
     }
 
+    /**
+     * Returns the InstancePoolInfo if instances of this implementation are pooled or null.
+     *
+     * @return the InstancePoolInfo or null
+     */
+    public InstancePoolInfo getPoolInfo() {
+        return poolInfo;
+    }
+
+    /**
+     * Sets the InstancePoolInfo for this implementation.
+     *
+     * @param poolInfo the InstancePoolInfo
+     */
+    public void setPoolInfo(InstancePoolInfo poolInfo) {
+        poolInfo.setParent(this);
+        this.poolInfo = poolInfo;
+    }
+
     /**
      * Add a reference and its associated with an injection site.
      *
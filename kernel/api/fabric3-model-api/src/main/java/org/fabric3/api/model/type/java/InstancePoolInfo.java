@@ -0,0 +1,72 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.api.model.type.java;
+
+import org.fabric3.api.model.type.ModelObject;
+
+/**
+ * Encapsulates instance pooling metadata for a stateless component implementation.
+ */
+public class InstancePoolInfo extends ModelObject<InjectingComponentType> {
+    private int minSize;
+    private int maxSize;
+    private long idleTime;
+
+    /**
+     * Constructor.
+     *
+     * @param minSize  the number of idle instances retained when idle instances are evicted
+     * @param maxSize  the maximum number of idle instances retained for reuse
+     * @param idleTime the time in milliseconds an instance may remain idle before it is evicted. If 0 or less, idle instances are not evicted.
+     */
+    public InstancePoolInfo(int minSize, int maxSize, long idleTime) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTime = idleTime;
+    }
+
+    /**
+     * Returns the number of idle instances retained when idle instances are evicted.
+     *
+     * @return the minimum number of idle instances
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Returns the maximum number of idle instances retained for reuse.
+     *
+     * @return the maximum number of idle instances
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the time in milliseconds an instance may remain idle before it is evicted.
+     *
+     * @return the idle time
+     */
+    public long getIdleTime() {
+        return idleTime;
+    }
+
+}
@@ -23,12 +23,19 @@ import java.net.URI;
  */
 public class BytecodeClassLoader extends MultiParentClassLoader {
 
+    static {
+        registerAsParallelCapable();
+    }
+
     public BytecodeClassLoader(URI name, ClassLoader parent) {
         super(name, parent);
     }
 
     public Class<?> defineClass(String name, byte[] bytes) throws ClassFormatError {
-        return defineClass(name, bytes, 0, bytes.length);
+        Class<?> clazz = defineClass(name, bytes, 0, bytes.length);
+        // the class may have been recorded as not found by a child classloader
+        searchPathChanged();
+        return clazz;
     }
 
 }
\ No newline at end of file
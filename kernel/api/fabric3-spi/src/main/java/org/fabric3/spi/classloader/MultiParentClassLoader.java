@@ -27,8 +27,12 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.fabric3.api.host.classloader.DelegatingResourceClassLoader;
 import sun.security.util.SecurityConstants;
@@ -47,15 +51,37 @@ import sun.security.util.SecurityConstants;
  * classloaders are supported where one classloader is a parent of the other and the former is an extension of the latter.
  *
  * Each classloader has a name that can be used to reference it in the runtime.
+ *
+ * This classloader is parallel capable and locks on the class name during loading. Parents added for a specific package are indexed so that only parents
+ * that may provide a class are searched. Classes that could not be found are recorded in a bounded cache until a parent, URL or extension is added to a
+ * classloader in the runtime.
  */
 public class MultiParentClassLoader extends DelegatingResourceClassLoader {
     private static final URL[] NOURLS = {};
+    private static final int MAX_MISSES = 4096;
+
+    // incremented when a classloader's search path changes, invalidating recorded misses
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    static {
+        registerAsParallelCapable();
+    }
 
     private final URI name;
 
-    private final List<ClassLoader> parents = new CopyOnWriteArrayList<>();
+    private final List<Parent> parents = new CopyOnWriteArrayList<>();
     private final List<MultiParentClassLoader> extensions = new CopyOnWriteArrayList<>();
 
+    // the parents to search keyed by package; replaced when a parent is added
+    private volatile Map<String, List<ClassLoader>> packageIndex = new ConcurrentHashMap<>();
+    // class names not found keyed to the generation they were searched in
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
+
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder cachedMissCount = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+
     /**
      * Constructs a classloader with a name and a single parent.
      *
@@ -93,6 +119,7 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
             sm.checkCreateClassLoader();
         }
         super.addURL(url);
+        searchPathChanged();
     }
 
     /**
@@ -101,13 +128,26 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
      * @param parent an additional parent classloader
      */
     public void addParent(ClassLoader parent) {
+        addParent(parent, null);
+    }
+
+    /**
+     * Add a parent to this classloader that provides classes in the given package and its subpackages. The parent will not be searched for classes in other
+     * packages. The "createClassLoader" RuntimePermission is required.
+     *
+     * @param parent      an additional parent classloader
+     * @param packageName the package name, which may end with a wildcard, or null if the parent may provide classes in any package
+     */
+    public void addParent(ClassLoader parent, String packageName) {
         // Require RuntimePermission("createClassLoader")
         SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkCreateClassLoader();
         }
         if (parent != null) {
-            parents.add(parent);
+            parents.add(new Parent(parent, packageName));
+            packageIndex = new ConcurrentHashMap<>();
+            searchPathChanged();
         }
     }
 
@@ -134,7 +174,9 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
         if (getParent() != null) {
             list.add(getParent());
         }
-        list.addAll(parents);
+        for (Parent parent : parents) {
+            list.add(parent.loader);
+        }
         return list;
     }
 
@@ -145,6 +187,7 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
      */
     public void addExtensionClassLoader(MultiParentClassLoader classloader) {
         extensions.add(classloader);
+        searchPathChanged();
     }
 
     /**
@@ -154,6 +197,7 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
      */
     public void removeExtensionClassLoader(MultiParentClassLoader classloader) {
         extensions.remove(classloader);
+        searchPathChanged();
     }
 
     /**
@@ -172,61 +216,74 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
         return super.findResources(name);
     }
 
-    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-        // look for already loaded classes
-        Class<?> clazz = findLoadedClass(name);
-        if (clazz == null) {
-            try {
-                // look in the primary parent
-                try {
-                    clazz = Class.forName(name, resolve, getParent());
-                } catch (ClassNotFoundException e) {
-                    // continue
+    /**
+     * Returns the number of classes loaded through this classloader that were not previously loaded.
+     *
+     * @return the number of classes loaded
+     */
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * Returns the number of class lookups that searched the classloader hierarchy without finding the class.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of class lookups that failed without a search because the class was previously not found.
+     *
+     * @return the number of cached misses
+     */
+    public long getCachedMissCount() {
+        return cachedMissCount.sum();
+    }
+
+    /**
+     * Returns the total time in nanoseconds spent searching for classes that were not previously loaded.
+     *
+     * @return the total time in nanoseconds
+     */
+    public long getLoadTime() {
+        return loadTime.sum();
+    }
+
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            // look for already loaded classes
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                long generation = GENERATION.get();
+                Long missed = misses.get(name);
+                if (missed != null && missed == generation) {
+                    cachedMissCount.increment();
+                    throw new ClassNotFoundException(name);
                 }
-                if (clazz == null) {
-                    // look in our parents
-                    for (ClassLoader parent : parents) {
-                        try {
-                            clazz = parent.loadClass(name);
-                            break;
-                        } catch (ClassNotFoundException e) {
-                            continue;
-                        }
-                    }
+                long start = System.nanoTime();
+                try {
+                    clazz = search(name, resolve);
+                } finally {
+                    loadTime.add(System.nanoTime() - start);
                 }
-                // look in our classpath
                 if (clazz == null) {
-                    try {
-                        clazz = findClass(name);
-                    } catch (ClassNotFoundException e) {
-                        // look in extensions
-                        for (MultiParentClassLoader extension : extensions) {
-                            // check first to see if class is already loaded
-                            clazz = extension.findLoadedClass(name);
-                            if (clazz == null) {
-                                try {
-                                    clazz = extension.findClass(name);
-                                } catch (ClassNotFoundException ex) {
-                                    // ignore
-                                }
-                            }
-                            if (clazz != null) {
-                                break;
-                            }
-                        }
-                        if (clazz == null) {
-                            throw e;
-                        }
+                    missCount.increment();
+                    if (misses.size() >= MAX_MISSES) {
+                        misses.clear();
                     }
+                    misses.put(name, generation);
+                    throw new ClassNotFoundException(name);
                 }
-            } catch (NoClassDefFoundError | ClassNotFoundException e) {
-                throw e;
+                loadCount.increment();
             }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
         }
-        if (resolve) {
-            resolveClass(clazz);
-        }
-        return clazz;
     }
 
     protected Class<?> findClass(String string) throws ClassNotFoundException {
@@ -235,8 +292,8 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
 
     public URL findResource(String name) {
         // look in our parents
-        for (ClassLoader parent : parents) {
-            URL resource = parent.getResource(name);
+        for (Parent parent : parents) {
+            URL resource = parent.loader.getResource(name);
             if (resource != null) {
                 return resource;
             }
@@ -258,8 +315,8 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
     public Enumeration<URL> findResources(String name) throws IOException {
         // LinkedHashSet because we want all resources in the order found but no duplicates
         Set<URL> resources = new LinkedHashSet<>();
-        for (ClassLoader parent : parents) {
-            Enumeration<URL> parentResources = parent.getResources(name);
+        for (Parent parent : parents) {
+            Enumeration<URL> parentResources = parent.loader.getResources(name);
             while (parentResources.hasMoreElements()) {
                 resources.add(parentResources.nextElement());
             }
@@ -277,7 +334,135 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
         return Collections.enumeration(resources);
     }
 
+    /**
+     * Signals that a class has been added to the runtime outside of the normal search path, invalidating classes recorded as not found.
+     */
+    protected static void searchPathChanged() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Searches the parents, the current classloader and its extensions for a class.
+     *
+     * @param name    the class name
+     * @param resolve true if the class should be resolved
+     * @return the class or null if not found
+     */
+    private Class<?> search(String name, boolean resolve) {
+        Class<?> clazz = null;
+        // look in the primary parent
+        try {
+            clazz = Class.forName(name, resolve, getParent());
+        } catch (ClassNotFoundException e) {
+            // continue
+        }
+        if (clazz == null) {
+            // look in the parents that may provide the package
+            for (ClassLoader parent : getParents(name)) {
+                try {
+                    clazz = parent.loadClass(name);
+                    break;
+                } catch (ClassNotFoundException e) {
+                    // continue
+                }
+            }
+        }
+        if (clazz == null) {
+            // look in our classpath
+            clazz = findLocalClass(name);
+        }
+        if (clazz == null) {
+            // look in extensions
+            for (MultiParentClassLoader extension : extensions) {
+                clazz = extension.findLocalClass(name);
+                if (clazz != null) {
+                    break;
+                }
+            }
+        }
+        return clazz;
+    }
+
+    /**
+     * Returns a class loaded by or on the classpath of this classloader without delegating to parents.
+     *
+     * @param name the class name
+     * @return the class or null if not found
+     */
+    private Class<?> findLocalClass(String name) {
+        // check first to see if class is already loaded
+        Class<?> clazz = findLoadedClass(name);
+        if (clazz != null) {
+            return clazz;
+        }
+        if (findExtensionResource(name.replace('.', '/').concat(".class")) == null) {
+            // avoid the exception thrown by findClass
+            return null;
+        }
+        try {
+            return findClass(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (LinkageError e) {
+            // the class may have been defined concurrently when this classloader is searched as an extension
+            clazz = findLoadedClass(name);
+            if (clazz == null) {
+                throw e;
+            }
+            return clazz;
+        }
+    }
+
+    /**
+     * Returns the parents that may provide a class.
+     *
+     * @param name the class name
+     * @return the parents
+     */
+    private List<ClassLoader> getParents(String name) {
+        int pos = name.lastIndexOf('.');
+        String packageName = pos < 0 ? "" : name.substring(0, pos);
+        return packageIndex.computeIfAbsent(packageName, key -> {
+            List<ClassLoader> list = new ArrayList<>();
+            for (Parent parent : parents) {
+                if (parent.provides(key)) {
+                    list.add(parent.loader);
+                }
+            }
+            return list;
+        });
+    }
+
     public String toString() {
         return name.toString();
     }
+
+    /**
+     * A parent classloader and the package it provides.
+     */
+    private static class Parent {
+        private ClassLoader loader;
+        private String packageName;
+
+        public Parent(ClassLoader loader, String packageName) {
+            this.loader = loader;
+            if (packageName == null || "*".equals(packageName)) {
+                this.packageName = null;
+            } else if (packageName.endsWith(".*")) {
+                this.packageName = packageName.substring(0, packageName.length() - 2);
+            } else {
+                this.packageName = packageName;
+            }
+        }
+
+        /**
+         * Returns true if the parent may provide classes in the package.
+         *
+         * @param name the package name
+         * @return true if the parent may provide classes in the package
+         */
+        public boolean provides(String name) {
+            return packageName == null || name.equals(packageName) || name.startsWith(packageName) && name.charAt(packageName.length()) == '.';
+        }
+    }
 }
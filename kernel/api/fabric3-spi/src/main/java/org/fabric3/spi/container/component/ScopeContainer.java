@@ -93,6 +93,16 @@ public interface ScopeContainer {
      */
     List<Object> getActiveInstances(ScopedComponent component);
 
+    /**
+     * Notifies the container that the injected configuration of a component has changed, for example when a wire is attached or a property value is updated.
+     * Containers that retain instances which are not otherwise reinjected must reinject or discard them.
+     *
+     * @param component the component
+     * @param name      the name of the changed reference, property or context
+     */
+    default void updated(ScopedComponent component, String name) {
+    }
+
     /**
      * Reinjects all live instances with updated wires
      *
@@ -18,7 +18,10 @@
  */
 package org.fabric3.spi.container.component;
 
+import java.util.Set;
+
 import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.java.InstancePoolInfo;
 
 /**
  * A component whose implementation instances are managed by a {@link ScopeContainer}. This interface defines callbacks used by the scope container to change
@@ -33,6 +36,15 @@ public interface ScopedComponent extends AtomicComponent {
      */
     boolean isEagerInit();
 
+    /**
+     * Returns the instance pool configuration if implementation instances are pooled or null.
+     *
+     * @return the instance pool configuration or null
+     */
+    default InstancePoolInfo getPoolInfo() {
+        return null;
+    }
+
     /**
      * Create a new implementation instance, fully injected with all property and reference values. The instance's lifecycle callbacks must not have been
      * called.
@@ -66,4 +78,17 @@ public interface ScopedComponent extends AtomicComponent {
      */
     void reinject(Object instance) throws Fabric3Exception;
 
+    /**
+     * Injects the current values of the given references, properties or context into an existing instance, for example when a pooled instance is reused after
+     * the component configuration has changed.
+     *
+     * @param instance the instance
+     * @param names    the names of the changed references, properties or context
+     * @return true if the instance was reinjected or false if a value cannot be reinjected, in which case the instance must be discarded
+     * @throws Fabric3Exception if there is an error reinjecting the instance
+     */
+    default boolean reinject(Object instance, Set<String> names) throws Fabric3Exception {
+        return false;
+    }
+
 }
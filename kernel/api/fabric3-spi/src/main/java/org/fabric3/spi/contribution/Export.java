@@ -53,4 +53,14 @@ public interface Export extends Serializable {
      * Marks the export as resolved for an import.
      */
     void resolve();
+
+    /**
+     * Returns a key used to index the export for import resolution. An export may only match imports that return the same key. Exports that can match imports
+     * with different keys, such as wildcard exports, must return null.
+     *
+     * @return the key or null if the export cannot be indexed
+     */
+    default String getKey() {
+        return null;
+    }
 }
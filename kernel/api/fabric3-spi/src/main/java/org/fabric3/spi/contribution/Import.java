@@ -72,4 +72,14 @@ public interface Import extends Serializable {
      */
     void addResolved(URI contributionUri, Export export);
 
+    /**
+     * Returns a key used to find candidate exports for the import. An import may only match exports that return the same key. Imports that can match exports
+     * with different keys, such as wildcard imports, must return null.
+     *
+     * @return the key or null if the import must be resolved against all exports
+     */
+    default String getKey() {
+        return null;
+    }
+
 }
@@ -21,6 +21,8 @@ import java.lang.reflect.Modifier;
 import java.net.URL;
 
 import org.fabric3.api.annotation.model.Component;
+import org.fabric3.spi.contribution.archive.ClassHeader;
+import org.fabric3.spi.contribution.archive.ClassIndex;
 import org.fabric3.spi.introspection.IntrospectionContext;
 
 /**
@@ -39,6 +41,22 @@ public interface JavaArtifactIntrospector {
      */
     Resource inspect(Class<?> clazz, URL url, Contribution contribution, IntrospectionContext context);
 
+    /**
+     * Returns true if the class described by the header may be a contribution resource. This method is called before the class is loaded so that classes
+     * which cannot be resources are not loaded. Implementations must return true if the class may be a resource; the class will be passed to {@link
+     * #inspect(Class, URL, Contribution, IntrospectionContext)} if any introspector returns true.
+     *
+     * The default implementation returns true.
+     *
+     * @param header       the class header
+     * @param index        the index of classes contained in the contribution archive, used to resolve supertypes
+     * @param contribution the containing contribution
+     * @return true if the class may be a contribution resource
+     */
+    default boolean isCandidate(ClassHeader header, ClassIndex index, Contribution contribution) {
+        return true;
+    }
+
     /**
      * Returns true if the type is a concrete component by introspecting if it is annotated with {@link Component} either directly or via a meta-annotation.
      *
@@ -0,0 +1,252 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.spi.contribution.archive;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The name, supertypes and class-level annotations of a class read directly from its class file. Reading a header does not load the class.
+ */
+public class ClassHeader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String RUNTIME_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private String name;
+    private String superName;
+    private List<String> interfaces;
+    private List<String> annotations;
+    private int access;
+
+    /**
+     * Constructor.
+     *
+     * @param name        the class name
+     * @param superName   the superclass name or null if the class is java.lang.Object
+     * @param interfaces  the names of directly implemented interfaces
+     * @param annotations the names of runtime-visible annotations declared on the class
+     * @param access      the class access flags
+     */
+    public ClassHeader(String name, String superName, List<String> interfaces, List<String> annotations, int access) {
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.annotations = annotations;
+        this.access = access;
+    }
+
+    /**
+     * Returns the class name.
+     *
+     * @return the class name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the superclass name.
+     *
+     * @return the superclass name or null if the class is java.lang.Object
+     */
+    public String getSuperName() {
+        return superName;
+    }
+
+    /**
+     * Returns the names of interfaces directly implemented by the class.
+     *
+     * @return the interface names
+     */
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    /**
+     * Returns the names of runtime-visible annotations declared on the class. Inherited annotations are not included.
+     *
+     * @return the annotation names
+     */
+    public List<String> getAnnotations() {
+        return annotations;
+    }
+
+    /**
+     * Returns true if the class is neither abstract nor an interface.
+     *
+     * @return true if the class is concrete
+     */
+    public boolean isConcrete() {
+        return !Modifier.isAbstract(access) && !Modifier.isInterface(access);
+    }
+
+    /**
+     * Reads a class header from the given stream. The stream is read up to the end of the class attributes and is not closed.
+     *
+     * @param stream the class file stream
+     * @return the header
+     * @throws IOException if there is an error reading the stream or it does not contain a class file
+     */
+    public static ClassHeader read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort();  // minor version
+        in.readUnsignedShort();  // major version
+
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:     // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7:     // Class
+                    classes[i] = in.readUnsignedShort();
+                    break;
+                case 8:     // String
+                case 16:    // MethodType
+                case 19:    // Module
+                case 20:    // Package
+                    in.skipBytes(2);
+                    break;
+                case 15:    // MethodHandle
+                    in.skipBytes(3);
+                    break;
+                case 3:     // Integer
+                case 4:     // Float
+                case 9:     // Fieldref
+                case 10:    // Methodref
+                case 11:    // InterfaceMethodref
+                case 12:    // NameAndType
+                case 17:    // Dynamic
+                case 18:    // InvokeDynamic
+                    in.skipBytes(4);
+                    break;
+                case 5:     // Long
+                case 6:     // Double
+                    in.skipBytes(8);
+                    i++;    // eight-byte constants occupy two entries
+                    break;
+                default:
+                    throw new IOException("Invalid constant pool tag: " + tag);
+            }
+        }
+
+        int access = in.readUnsignedShort();
+        String name = className(utf8, classes, in.readUnsignedShort());
+        int superIndex = in.readUnsignedShort();
+        String superName = superIndex == 0 ? null : className(utf8, classes, superIndex);
+
+        int interfaceCount = in.readUnsignedShort();
+        List<String> interfaces = interfaceCount == 0 ? Collections.emptyList() : new ArrayList<>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces.add(className(utf8, classes, in.readUnsignedShort()));
+        }
+
+        skipMembers(in);  // fields
+        skipMembers(in);  // methods
+
+        List<String> annotations = Collections.emptyList();
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (RUNTIME_ANNOTATIONS.equals(attributeName)) {
+                int annotationCount = in.readUnsignedShort();
+                annotations = new ArrayList<>(annotationCount);
+                for (int j = 0; j < annotationCount; j++) {
+                    String descriptor = utf8[in.readUnsignedShort()];
+                    // descriptors have the form Lcom/foo/Bar;
+                    annotations.add(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'));
+                    skipElementValuePairs(in);
+                }
+            } else {
+                skipFully(in, length);
+            }
+        }
+        return new ClassHeader(name, superName, interfaces, annotations, access);
+    }
+
+    private static String className(String[] utf8, int[] classes, int index) {
+        return utf8[classes[index]].replace('/', '.');
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.skipBytes(6);   // access flags, name and descriptor
+            int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                in.skipBytes(2);
+                skipFully(in, in.readInt());
+            }
+        }
+    }
+
+    private static void skipElementValuePairs(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.skipBytes(2);   // element name
+            skipElementValue(in);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':   // enum type and constant name
+                in.skipBytes(4);
+                break;
+            case '@':
+                in.skipBytes(2);
+                skipElementValuePairs(in);
+                break;
+            case '[':
+                int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(in);
+                }
+                break;
+            default:    // constant or class value
+                in.skipBytes(2);
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new IOException("Unexpected end of class file");
+            }
+            remaining -= skipped;
+        }
+    }
+
+}
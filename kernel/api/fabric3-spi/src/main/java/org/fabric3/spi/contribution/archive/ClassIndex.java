@@ -0,0 +1,137 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.spi.contribution.archive;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the class headers contained in a contribution archive. The index is used to determine which classes are candidate contribution resources without
+ * loading them.
+ *
+ * Type hierarchies are resolved using the headers in the index. Queries are conservative: if a supertype is not contained in the index, it is assumed to match
+ * unless it is a JDK type. This means a class may be reported as a candidate and later rejected once it is loaded, but a class that matches is never
+ * excluded.
+ */
+public class ClassIndex {
+    private Map<String, ClassHeader> headers = new LinkedHashMap<>();
+
+    /**
+     * Adds a class header to the index.
+     *
+     * @param header the header
+     */
+    public void add(ClassHeader header) {
+        headers.put(header.getName(), header);
+    }
+
+    /**
+     * Returns the header for the class or null if the class is not contained in the index.
+     *
+     * @param name the class name
+     * @return the header or null
+     */
+    public ClassHeader get(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * Returns the headers in the order they were added.
+     *
+     * @return the headers
+     */
+    public Collection<ClassHeader> getHeaders() {
+        return headers.values();
+    }
+
+    /**
+     * Returns true if the class or one of its superclasses may be annotated.
+     *
+     * @param name the class name
+     * @return true if the class may be annotated
+     */
+    public boolean isAnnotated(String name) {
+        return isAnnotated(name, null);
+    }
+
+    /**
+     * Returns true if the class or one of its superclasses may be annotated with the given annotation. Since annotations may be inherited, superclass
+     * annotations are considered.
+     *
+     * @param name       the class name
+     * @param annotation the annotation name or null to match any annotation
+     * @return true if the class may be annotated with the annotation
+     */
+    public boolean isAnnotated(String name, String annotation) {
+        String current = name;
+        while (current != null) {
+            ClassHeader header = headers.get(current);
+            if (header == null) {
+                return !isJdkType(current);
+            }
+            if (annotation == null ? !header.getAnnotations().isEmpty() : header.getAnnotations().contains(annotation)) {
+                return true;
+            }
+            current = header.getSuperName();
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the class may be a subtype of the given type.
+     *
+     * @param name the class name
+     * @param type the supertype name
+     * @return true if the class may be a subtype
+     */
+    public boolean isSubtype(String name, String type) {
+        return isSubtype(name, type, new HashSet<>());
+    }
+
+    private boolean isSubtype(String name, String type, Set<String> visited) {
+        if (name.equals(type)) {
+            return true;
+        }
+        if (!visited.add(name)) {
+            return false;
+        }
+        ClassHeader header = headers.get(name);
+        if (header == null) {
+            return !isJdkType(name);
+        }
+        if (header.getSuperName() != null && isSubtype(header.getSuperName(), type, visited)) {
+            return true;
+        }
+        for (String interfaceName : header.getInterfaces()) {
+            if (isSubtype(interfaceName, type, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isJdkType(String name) {
+        return name.startsWith("java.");
+    }
+
+}
@@ -68,6 +68,12 @@ public class JavaExport implements Export {
         resolved = true;
     }
 
+    public String getKey() {
+        String name = packageInfo.getName();
+        // wildcard exports match multiple packages and cannot be indexed
+        return name.endsWith("*") ? null : "java:" + name;
+    }
+
     public String toString() {
         return packageInfo.toString();
     }
@@ -86,6 +86,12 @@ public class JavaImport implements Import {
         resolved.put(contributionUri, export);
     }
 
+    public String getKey() {
+        String name = packageInfo.getName();
+        // wildcard imports match multiple packages and cannot be indexed
+        return name.endsWith("*") ? null : "java:" + name;
+    }
+
     public String toString() {
         return packageInfo.toString();
     }
@@ -59,6 +59,10 @@ public class QNameExport implements Export {
         resolved = true;
     }
 
+    public String getKey() {
+        return "qname:" + namespace;
+    }
+
     public String toString() {
         return "qname: " + namespace;
     }
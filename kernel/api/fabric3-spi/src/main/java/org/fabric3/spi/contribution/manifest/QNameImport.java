@@ -79,6 +79,10 @@ public class QNameImport implements Import {
         resolved.put(contributionUri, export);
     }
 
+    public String getKey() {
+        return "qname:" + namespace;
+    }
+
     public String toString() {
         return "qname: " + namespace;
     }
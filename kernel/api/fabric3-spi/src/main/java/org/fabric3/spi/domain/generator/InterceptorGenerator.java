@@ -30,6 +30,26 @@ import org.fabric3.spi.model.physical.PhysicalInterceptor;
  */
 public interface InterceptorGenerator {
 
+    /**
+     * Order of interceptors that perform authorization checks.
+     */
+    int AUTHORIZATION_ORDER = 100;
+
+    /**
+     * Order of interceptors that demarcate transactions.
+     */
+    int TRANSACTION_ORDER = 200;
+
+    /**
+     * Returns a value for ordering the interceptors generated for an operation. Interceptors with lower values are placed first in the invocation chain.
+     * Generators with the same value are ordered by registration.
+     *
+     * @return an ascending value where 0 is first
+     */
+    default int getOrder() {
+        return 0;
+    }
+
     /**
      * Generates a physical interceptor for the source and target operations. Implementations may return null if an interceptor should not be added to a wire.
      *
@@ -0,0 +1,36 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.spi.transform;
+
+/**
+ * Copies object graphs passed by value between classloaders, for example when a wire crosses contribution boundaries.
+ *
+ * Implementations are not required to handle every graph. If a strategy cannot produce a copy equivalent to Java serialization, it declines and the caller
+ * falls back to serialization.
+ */
+public interface CopyStrategy {
+
+    /**
+     * Returns a deep copy of the source graph whose types are resolved against the given classloader.
+     *
+     * @param source the root of the graph to copy
+     * @param loader the classloader the copy is returned to
+     * @return the copy or null if the strategy cannot copy the graph
+     */
+    Object copy(Object source, ClassLoader loader);
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.spi.classloader;
+
+import java.net.URI;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class MultiParentClassLoaderTestCase extends TestCase {
+    private MultiParentClassLoader loader;
+    private CountingClassLoader packageParent;
+    private CountingClassLoader parent;
+
+    public void testLoadFromPackageParent() throws Exception {
+        assertEquals(String.class, loader.loadClass("org.test.Foo"));
+        assertEquals(1, packageParent.count);
+        assertEquals(0, parent.count);
+        assertEquals(1, loader.getLoadCount());
+    }
+
+    public void testLoadFromSubpackage() throws Exception {
+        assertEquals(String.class, loader.loadClass("org.test.sub.Foo"));
+        assertEquals(1, packageParent.count);
+    }
+
+    public void testPackageParentNotSearched() throws Exception {
+        try {
+            loader.loadClass("org.other.Foo");
+            fail();
+        } catch (ClassNotFoundException e) {
+            // expected
+        }
+        assertEquals(0, packageParent.count);
+        assertEquals(1, parent.count);
+        assertEquals(1, loader.getMissCount());
+    }
+
+    public void testCachedMiss() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            try {
+                loader.loadClass("org.other.Foo");
+                fail();
+            } catch (ClassNotFoundException e) {
+                // expected
+            }
+        }
+        assertEquals(1, parent.count);
+        assertEquals(1, loader.getCachedMissCount());
+    }
+
+    public void testAddParentInvalidatesCachedMiss() throws Exception {
+        try {
+            loader.loadClass("org.other.Foo");
+            fail();
+        } catch (ClassNotFoundException e) {
+            // expected
+        }
+        CountingClassLoader other = new CountingClassLoader("org.other");
+        loader.addParent(other, "org.other");
+        assertEquals(String.class, loader.loadClass("org.other.Foo"));
+        assertEquals(1, other.count);
+    }
+
+    public void testGetParents() throws Exception {
+        assertEquals(3, loader.getParents().size());
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        loader = new MultiParentClassLoader(URI.create("test"), getClass().getClassLoader());
+        packageParent = new CountingClassLoader("org.test");
+        parent = new CountingClassLoader(null);
+        loader.addParent(packageParent, "org.test");
+        loader.addParent(parent);
+    }
+
+    /**
+     * Returns String.class for class names in a given package.
+     */
+    private class CountingClassLoader extends ClassLoader {
+        private String packageName;
+        private int count;
+
+        public CountingClassLoader(String packageName) {
+            super(null);
+            this.packageName = packageName;
+        }
+
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            count++;
+            if (packageName != null && name.startsWith(packageName + ".")) {
+                return String.class;
+            }
+            throw new ClassNotFoundException(name);
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.spi.contribution.archive;
+
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class ClassIndexTestCase extends TestCase {
+    private ClassIndex index;
+
+    public void testReadHeader() throws Exception {
+        ClassHeader header = index.get(Annotated.class.getName());
+
+        assertEquals(AbstractBase.class.getName(), header.getSuperName());
+        assertEquals(Serializable.class.getName(), header.getInterfaces().get(0));
+        assertEquals(Marker.class.getName(), header.getAnnotations().get(0));
+        assertTrue(header.isConcrete());
+        assertFalse(index.get(AbstractBase.class.getName()).isConcrete());
+    }
+
+    public void testAnnotated() throws Exception {
+        assertTrue(index.isAnnotated(Annotated.class.getName()));
+        assertTrue(index.isAnnotated(Annotated.class.getName(), Marker.class.getName()));
+        assertFalse(index.isAnnotated(AbstractBase.class.getName()));
+    }
+
+    public void testInheritedAnnotation() throws Exception {
+        assertTrue(index.isAnnotated(Subclass.class.getName(), Marker.class.getName()));
+    }
+
+    public void testSubtype() throws Exception {
+        assertTrue(index.isSubtype(Subclass.class.getName(), Serializable.class.getName()));
+        assertTrue(index.isSubtype(Subclass.class.getName(), Runnable.class.getName()));
+        assertFalse(index.isSubtype(AbstractBase.class.getName(), Serializable.class.getName()));
+    }
+
+    public void testUnresolvedSupertype() throws Exception {
+        // supertypes not contained in the index are assumed to match unless they are JDK types
+        assertTrue(index.isAnnotated(ClassIndexTestCase.class.getName()));
+        assertFalse(index.isSubtype(AbstractBase.class.getName(), "javax.servlet.Servlet"));
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        index = new ClassIndex();
+        for (Class<?> type : new Class<?>[]{AbstractBase.class, Annotated.class, Subclass.class, ClassIndexTestCase.class}) {
+            String resource = type.getName().replace('.', '/') + ".class";
+            try (InputStream stream = getClass().getClassLoader().getResourceAsStream(resource)) {
+                index.add(ClassHeader.read(stream));
+            }
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Marker {
+        String value() default "";
+
+        int[] values() default {};
+    }
+
+    public static abstract class AbstractBase implements Runnable {
+        private static final long serialVersionUID = 1L;
+        private static final double D = 1.0;
+
+        public String toString() {
+            return "base" + D;
+        }
+    }
+
+    @Marker(value = "test", values = {1, 2})
+    public static class Annotated extends AbstractBase implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public void run() {
+        }
+    }
+
+    public static class Subclass extends Annotated {
+        private static final long serialVersionUID = 1L;
+    }
+
+}
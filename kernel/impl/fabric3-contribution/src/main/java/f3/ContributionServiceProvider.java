@@ -31,6 +31,7 @@ import org.fabric3.contribution.DependencyResolverImpl;
 import org.fabric3.contribution.ExtensionMapContentTypeResolver;
 import org.fabric3.contribution.ProcessorRegistryImpl;
 import org.fabric3.contribution.archive.ArchiveContributionProcessor;
+import org.fabric3.contribution.archive.ArchiveIndexCacheImpl;
 import org.fabric3.contribution.archive.ComponentJavaArtifactIntrospector;
 import org.fabric3.contribution.archive.ExplodedArchiveContributionHandler;
 import org.fabric3.contribution.archive.JarClasspathProcessor;
@@ -103,6 +104,8 @@ public class ContributionServiceProvider {
 
         compositeBuilder.component(newBuilder(ArchiveContributionProcessor.class).build());
 
+        compositeBuilder.component(newBuilder(ArchiveIndexCacheImpl.class).build());
+
         compositeBuilder.component(newBuilder(ZipContributionHandler.class).build());
 
         compositeBuilder.component(newBuilder(ExplodedArchiveContributionHandler.class).build());
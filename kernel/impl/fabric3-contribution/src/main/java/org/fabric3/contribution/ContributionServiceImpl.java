@@ -25,9 +25,16 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.fabric3.api.annotation.monitor.Monitor;
@@ -49,6 +56,7 @@ import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.ContributionManifest;
 import org.fabric3.spi.contribution.ContributionServiceListener;
 import org.fabric3.spi.contribution.ContributionState;
+import org.fabric3.spi.contribution.Import;
 import org.fabric3.spi.contribution.MetaDataStore;
 import org.fabric3.spi.contribution.ProcessorRegistry;
 import org.fabric3.spi.contribution.Resource;
@@ -57,6 +65,7 @@ import org.fabric3.spi.contribution.manifest.QNameSymbol;
 import org.fabric3.spi.introspection.DefaultIntrospectionContext;
 import org.fabric3.spi.introspection.IntrospectionContext;
 import org.oasisopen.sca.annotation.EagerInit;
+import org.oasisopen.sca.annotation.Property;
 import org.oasisopen.sca.annotation.Reference;
 
 /**
@@ -71,6 +80,10 @@ public class ContributionServiceImpl implements ContributionService {
     private DependencyResolver dependencyResolver;
     private ContributionServiceMonitor monitor;
     private List<ContributionServiceListener> listeners;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // guards classloader wiring and listener callbacks, which are not performed concurrently
+    private final Object installLock = new Object();
 
     public ContributionServiceImpl(@Reference ProcessorRegistry processorRegistry,
                                    @Reference MetaDataStore metaDataStore,
@@ -92,6 +105,17 @@ public class ContributionServiceImpl implements ContributionService {
         this.listeners = listeners;
     }
 
+    /**
+     * Sets the maximum number of contributions processed concurrently by {@link #processContents(List)}. A value of 1 disables concurrent processing.
+     *
+     * @param parallelism the maximum number of contributions processed concurrently
+     */
+    @Property(required = false)
+    @org.fabric3.api.annotation.Source("$systemConfig//f3:runtime/@contribution.parallelism")
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     public Set<URI> getContributions() {
         Set<Contribution> contributions = metaDataStore.getContributions();
         Set<URI> uris = new HashSet<>(contributions.size());
@@ -195,13 +219,7 @@ public class ContributionServiceImpl implements ContributionService {
     public void processContents(URI uri) {
         Contribution contribution = find(uri);
         try {
-            ClassLoader loader = contributionLoader.load(contribution);
-            // continue processing the contributions. As they are ordered, dependencies will resolve correctly
-            processContents(contribution, loader);
-            contribution.install();
-            for (ContributionServiceListener listener : listeners) {
-                listener.onInstall(contribution);
-            }
+            installContents(contribution);
         } catch (Fabric3Exception e) {
             try {
                 revertInstall(Collections.singletonList(contribution));
@@ -210,10 +228,47 @@ public class ContributionServiceImpl implements ContributionService {
             }
             throw e;
         }
-        String description = contribution.getManifest().getDescription();
-        if (description != null) {
-            monitor.installed(description);
+    }
+
+    public void processContents(List<URI> uris) {
+        List<Contribution> contributions = uris.stream().map(this::find).collect(Collectors.toList());
+        if (parallelism <= 1 || contributions.size() < 2) {
+            uris.forEach(this::processContents);
+            return;
+        }
+        Map<Contribution, Set<Contribution>> dependencies = calculateDependencies(contributions);
+        if (isCyclic(dependencies)) {
+            // contributions cannot be scheduled by dependency; process them sequentially in the order they were resolved
+            uris.forEach(this::processContents);
+            return;
+        }
+        Map<URI, RuntimeException> failures = new ConcurrentHashMap<>();
+        Map<Contribution, CompletableFuture<Void>> tasks = new LinkedHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, contributions.size()));
+        try {
+            for (Contribution contribution : contributions) {
+                schedule(contribution, dependencies, tasks, failures, pool);
+            }
+            // wait for all tasks to complete, including those that failed or were skipped because a dependency failed
+            CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture[tasks.size()])).handle((v, e) -> null).join();
+        } finally {
+            pool.shutdown();
+        }
+        if (failures.isEmpty()) {
+            return;
         }
+        // report errors deterministically in contribution order
+        List<Contribution> failed = contributions.stream().filter(c -> failures.containsKey(c.getUri())).collect(Collectors.toList());
+        try {
+            revertInstall(failed);
+        } catch (RuntimeException ex) {
+            monitor.error("Error reverting deployment", ex);
+        }
+        RuntimeException first = failures.get(failed.get(0).getUri());
+        for (int i = 1; i < failed.size(); i++) {
+            first.addSuppressed(failures.get(failed.get(i).getUri()));
+        }
+        throw first;
     }
 
     private ContributionOrder introspectManifests(List<Contribution> contributions) {
@@ -259,6 +314,135 @@ public class ContributionServiceImpl implements ContributionService {
         return order;
     }
 
+    /**
+     * Schedules a contribution to be processed after the contributions it depends on have been processed. If a dependency fails, the contribution is skipped.
+     *
+     * @param contribution the contribution
+     * @param dependencies the contribution dependencies
+     * @param tasks        the scheduled tasks keyed by contribution
+     * @param failures     the processing failures keyed by contribution URI
+     * @param pool         the pool to process contributions on
+     * @return the task for the contribution
+     */
+    private CompletableFuture<Void> schedule(Contribution contribution,
+                                             Map<Contribution, Set<Contribution>> dependencies,
+                                             Map<Contribution, CompletableFuture<Void>> tasks,
+                                             Map<URI, RuntimeException> failures,
+                                             ForkJoinPool pool) {
+        CompletableFuture<Void> task = tasks.get(contribution);
+        if (task != null) {
+            return task;
+        }
+        List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+        for (Contribution dependency : dependencies.get(contribution)) {
+            prerequisites.add(schedule(dependency, dependencies, tasks, failures, pool));
+        }
+        CompletableFuture<Void> ready = CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture[prerequisites.size()]));
+        task = ready.thenRunAsync(() -> {
+            try {
+                installContents(contribution);
+            } catch (RuntimeException e) {
+                failures.put(contribution.getUri(), e);
+                throw e;
+            }
+        }, pool);
+        tasks.put(contribution, task);
+        return task;
+    }
+
+    /**
+     * Returns true if the contribution dependencies contain a cycle. Checked before any contribution is scheduled as contributions in a cycle would wait on
+     * each other.
+     *
+     * @param dependencies the contribution dependencies
+     * @return true if the dependencies contain a cycle
+     */
+    private boolean isCyclic(Map<Contribution, Set<Contribution>> dependencies) {
+        Set<Contribution> visited = new HashSet<>();
+        for (Contribution contribution : dependencies.keySet()) {
+            if (isCyclic(contribution, dependencies, new HashSet<>(), visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCyclic(Contribution contribution,
+                             Map<Contribution, Set<Contribution>> dependencies,
+                             Set<Contribution> visiting,
+                             Set<Contribution> visited) {
+        if (visited.contains(contribution)) {
+            return false;
+        }
+        if (!visiting.add(contribution)) {
+            return true;
+        }
+        for (Contribution dependency : dependencies.get(contribution)) {
+            if (isCyclic(dependency, dependencies, visiting, visited)) {
+                return true;
+            }
+        }
+        visiting.remove(contribution);
+        visited.add(contribution);
+        return false;
+    }
+
+    /**
+     * Calculates the dependencies each contribution has on other contributions in the same set. A contribution depends on another if it imports a symbol the
+     * other exports, requires a capability the other provides, or extends an extension point the other defines.
+     *
+     * @param contributions the contributions
+     * @return the dependencies keyed by contribution
+     */
+    private Map<Contribution, Set<Contribution>> calculateDependencies(List<Contribution> contributions) {
+        Set<Contribution> set = new HashSet<>(contributions);
+        Map<Contribution, Set<Contribution>> dependencies = new LinkedHashMap<>();
+        for (Contribution contribution : contributions) {
+            URI uri = contribution.getUri();
+            ContributionManifest manifest = contribution.getManifest();
+            Set<Contribution> resolved = new LinkedHashSet<>();
+            for (Import imprt : manifest.getImports()) {
+                resolved.addAll(metaDataStore.resolve(uri, imprt));
+            }
+            for (Capability capability : manifest.getRequiredCapabilities()) {
+                resolved.addAll(metaDataStore.resolveCapability(capability.getName()));
+            }
+            for (String extend : manifest.getExtends()) {
+                resolved.addAll(metaDataStore.resolveExtensionPoints(extend));
+            }
+            resolved.retainAll(set);
+            resolved.remove(contribution);
+            dependencies.put(contribution, resolved);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Loads and processes the contents of a contribution and marks it as installed.
+     *
+     * @param contribution the contribution
+     */
+    private void installContents(Contribution contribution) {
+        long start = System.nanoTime();
+        ClassLoader loader;
+        synchronized (installLock) {
+            loader = contributionLoader.load(contribution);
+        }
+        // continue processing the contributions. As they are ordered, dependencies will resolve correctly
+        processContents(contribution, loader);
+        contribution.install();
+        synchronized (installLock) {
+            for (ContributionServiceListener listener : listeners) {
+                listener.onInstall(contribution);
+            }
+        }
+        monitor.processed(contribution.getUri().toString(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        String description = contribution.getManifest().getDescription();
+        if (description != null) {
+            monitor.installed(description);
+        }
+    }
+
     /**
      * Resolves a contribution by its URI.
      *
@@ -405,6 +589,8 @@ public class ContributionServiceImpl implements ContributionService {
             warnings.add(warning);
             throw new ValidationException(failures, warnings);
         }
+        // update the store as the manifest has been populated
+        metaDataStore.store(contribution);
         for (ContributionServiceListener listener : listeners) {
             listener.onProcessManifest(contribution);
         }
@@ -439,6 +625,8 @@ public class ContributionServiceImpl implements ContributionService {
             monitor.contributionWarnings(ValidationUtils.outputWarnings(context.getWarnings()));
         }
         addDeployableEntries(contribution);
+        // update the store with resources and exports added during processing
+        metaDataStore.store(contribution);
     }
 
     /**
@@ -19,6 +19,7 @@
  */
 package org.fabric3.contribution;
 
+import org.fabric3.api.annotation.monitor.Debug;
 import org.fabric3.api.annotation.monitor.Info;
 import org.fabric3.api.annotation.monitor.Severe;
 
@@ -38,4 +39,7 @@ public interface ContributionServiceMonitor {
 
     @Info("{0} uninstalled")
     void uninstalled(String description);
+
+    @Debug("Contribution {0} processed in {1} ms")
+    void processed(String uri, long time);
 }
@@ -20,17 +20,23 @@ package org.fabric3.contribution;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.Names;
 import org.fabric3.contribution.wire.ContributionWireInstantiatorRegistry;
 import org.fabric3.spi.contribution.Capability;
 import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionManifest;
 import org.fabric3.spi.contribution.ContributionWire;
 import org.fabric3.spi.contribution.Export;
 import org.fabric3.spi.contribution.Import;
@@ -45,6 +51,10 @@ import org.oasisopen.sca.annotation.Reference;
 
 /**
  * Default MetaDataStore implementation.
+ *
+ * Symbols, exports, extension points, extensions, capabilities and contribution wires are indexed when a contribution is stored so that lookups do not
+ * require a scan of all contributions. Since contributions may be modified after they are stored, index entries are verified against the contribution when
+ * they are used.
  */
 public class MetaDataStoreImpl implements MetaDataStore {
     private ProcessorRegistry processorRegistry;
@@ -52,6 +62,21 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     private Map<URI, Contribution> cache = new ConcurrentHashMap<>();
 
+    // symbol to the first element defining it in a contribution, keyed by contribution URI
+    private Map<Symbol, Map<URI, ResourceElement<?, ?>>> symbolIndex = new ConcurrentHashMap<>();
+    // export key to exporting contributions
+    private Map<String, Set<URI>> exportIndex = new ConcurrentHashMap<>();
+    // contributions with exports that cannot be keyed
+    private Set<URI> unkeyedExporters = ConcurrentHashMap.newKeySet();
+    // exporting contribution URI to contributions wired to it
+    private Map<URI, Set<URI>> dependentIndex = new ConcurrentHashMap<>();
+    private Map<String, Set<URI>> extensionPointIndex = new ConcurrentHashMap<>();
+    private Map<String, Set<URI>> extendIndex = new ConcurrentHashMap<>();
+    private Map<String, Set<URI>> capabilityIndex = new ConcurrentHashMap<>();
+
+    // operations that remove the index entries for a contribution
+    private Map<URI, Queue<Runnable>> indexEntries = new ConcurrentHashMap<>();
+
     public MetaDataStoreImpl(ProcessorRegistry processorRegistry) {
         this.processorRegistry = processorRegistry;
     }
@@ -73,6 +98,7 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     public void store(Contribution contribution) {
         cache.put(contribution.getUri(), contribution);
+        index(contribution);
     }
 
     public Contribution find(URI contributionUri) {
@@ -85,24 +111,36 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     public void remove(URI contributionUri) {
         cache.remove(contributionUri);
+        unindex(contributionUri);
     }
 
     @SuppressWarnings({"unchecked"})
     public <S extends Symbol, V> ResourceElement<S, V> find(Class<V> type, S symbol) {
-        for (Contribution contribution : cache.values()) {
-            for (Resource resource : contribution.getResources()) {
-                for (ResourceElement<?, ?> element : resource.getResourceElements()) {
-                    if (element.getSymbol().equals(symbol)) {
-                        if (ResourceState.UNPROCESSED == resource.getState()) {
-                            // this is a programming error as resolve(Symbol) should only be called after contribution resources have been processed
-                            throw new AssertionError("Attempt to resolve a resource before it is processed or is in error");
-                        }
-                        return (ResourceElement<S, V>) element;
-                    }
+        ResourceElement<?, ?> element = null;
+        Map<URI, ResourceElement<?, ?>> elements = symbolIndex.get(symbol);
+        if (elements != null) {
+            for (ResourceElement<?, ?> candidate : elements.values()) {
+                element = candidate;
+                break;
+            }
+        }
+        if (element == null) {
+            // the element may have been added after the contribution was stored
+            for (Contribution contribution : cache.values()) {
+                element = findElement(contribution, symbol);
+                if (element != null) {
+                    break;
                 }
             }
+            if (element == null) {
+                return null;
+            }
         }
-        return null;
+        if (ResourceState.UNPROCESSED == element.getResource().getState()) {
+            // this is a programming error as resolve(Symbol) should only be called after contribution resources have been processed
+            throw new AssertionError("Attempt to resolve a resource before it is processed or is in error");
+        }
+        return (ResourceElement<S, V>) element;
     }
 
     public <S extends Symbol, V> ResourceElement<S, V> find(URI uri, Class<V> type, S symbol) {
@@ -177,7 +215,11 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
         URI location = imprt.getLocation();
 
-        for (Contribution contribution : cache.values()) {
+        for (URI candidate : getExporters(imprt)) {
+            Contribution contribution = cache.get(candidate);
+            if (contribution == null) {
+                continue;
+            }
             for (Export export : contribution.getManifest().getExports()) {
                 if (export.match(imprt)) {
                     if (location != null) {
@@ -207,6 +249,8 @@ public class MetaDataStoreImpl implements MetaDataStore {
         for (Map.Entry<URI, Export> entry : imprt.getResolved().entrySet()) {
             ContributionWire<Import, Export> wire = instantiatorRegistry.instantiate(imprt, entry.getValue(), uri, entry.getKey());
             wires.add(wire);
+            // the wire is added to the importing contribution by the caller
+            add(dependentIndex, entry.getKey(), uri, null);
         }
         if (wires.isEmpty()) {
             throw new Fabric3Exception(imprt.toString());
@@ -216,7 +260,11 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     public Set<Contribution> resolveDependentContributions(URI uri) {
         Set<Contribution> dependents = new HashSet<>();
-        for (Contribution entry : cache.values()) {
+        for (URI candidate : lookup(dependentIndex, uri)) {
+            Contribution entry = cache.get(candidate);
+            if (entry == null) {
+                continue;
+            }
             List<ContributionWire<?, ?>> contributionWires = entry.getWires();
             for (ContributionWire<?, ?> wire : contributionWires) {
                 if (uri.equals(wire.getExportContributionUri())) {
@@ -230,12 +278,10 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     public List<Contribution> resolveExtensionProviders(String name) {
         List<Contribution> providers = new ArrayList<>();
-        for (Contribution contribution : cache.values()) {
-            for (String extend : contribution.getManifest().getExtends()) {
-                if (extend.equals(name)) {
-                    providers.add(contribution);
-                    break;
-                }
+        for (URI candidate : lookup(extendIndex, name)) {
+            Contribution contribution = cache.get(candidate);
+            if (contribution != null && contribution.getManifest().getExtends().contains(name)) {
+                providers.add(contribution);
             }
         }
         return providers;
@@ -243,12 +289,10 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     public List<Contribution> resolveExtensionPoints(String name) {
         List<Contribution> extensionPoints = new ArrayList<>();
-        for (Contribution contribution : cache.values()) {
-            for (String extensionPoint : contribution.getManifest().getExtensionPoints()) {
-                if (extensionPoint.equals(name)) {
-                    extensionPoints.add(contribution);
-                    break;
-                }
+        for (URI candidate : lookup(extensionPointIndex, name)) {
+            Contribution contribution = cache.get(candidate);
+            if (contribution != null && contribution.getManifest().getExtensionPoints().contains(name)) {
+                extensionPoints.add(contribution);
             }
         }
         return extensionPoints;
@@ -261,9 +305,9 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     public Set<Contribution> resolveCapability(String capability) {
         Set<Contribution> extensions = new HashSet<>();
-        for (Contribution entry : cache.values()) {
-            Capability key = new Capability(capability);
-            if (entry.getManifest().getProvidedCapabilities().contains(key) && !extensions.contains(entry)) {
+        Capability key = new Capability(capability);
+        for (Contribution entry : getProviders(key)) {
+            if (!extensions.contains(entry)) {
                 extensions.add(entry);
                 resolveCapabilities(entry, extensions);
             }
@@ -301,11 +345,10 @@ public class MetaDataStoreImpl implements MetaDataStore {
     private Set<Contribution> resolveCapabilities(Contribution contribution, Set<Contribution> extensions) {
         Set<Capability> required = contribution.getManifest().getRequiredCapabilities();
         for (Capability capability : required) {
-            cache.values().stream().filter(entry -> entry.getManifest().getProvidedCapabilities().contains(capability) && !extensions.contains(entry)).forEach(
-                    entry -> {
-                        extensions.add(entry);
-                        resolveCapabilities(entry, extensions);
-                    });
+            getProviders(capability).stream().filter(entry -> !extensions.contains(entry)).forEach(entry -> {
+                extensions.add(entry);
+                resolveCapabilities(entry, extensions);
+            });
         }
         for (ContributionWire<?, ?> wire : contribution.getWires()) {
             Contribution imported = cache.get(wire.getExportContributionUri());
@@ -331,24 +374,174 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     @SuppressWarnings({"unchecked"})
     private <S extends Symbol, V> ResourceElement<S, V> resolveInternal(Contribution contribution, Class<V> type, S symbol, IntrospectionContext context) {
+        ResourceElement<?, ?> element = null;
+        Map<URI, ResourceElement<?, ?>> elements = symbolIndex.get(symbol);
+        if (elements != null) {
+            element = elements.get(contribution.getUri());
+        }
+        if (element == null) {
+            // the element may have been added after the contribution was stored
+            element = findElement(contribution, symbol);
+            if (element == null) {
+                return null;
+            }
+        }
+        Resource resource = element.getResource();
+        if (ResourceState.UNPROCESSED == resource.getState() && context == null) {
+            String identifier = resource.getSource().getSystemId();
+            throw new AssertionError("Resource not resolved: " + identifier);
+        } else if (ResourceState.UNPROCESSED == resource.getState() && context != null) {
+            processorRegistry.processResource(resource, context);
+        }
+        Object val = element.getValue();
+        if (!type.isInstance(val)) {
+            throw new IllegalArgumentException("Invalid type for symbol. Expected: " + type + " was: " + val);
+        }
+        return (ResourceElement<S, V>) element;
+    }
+
+    /**
+     * Scans a contribution for the first element with the given symbol. If found, the element is added to the symbol index.
+     *
+     * @param contribution the contribution
+     * @param symbol       the symbol
+     * @return the element or null if not found
+     */
+    private ResourceElement<?, ?> findElement(Contribution contribution, Symbol symbol) {
         for (Resource resource : contribution.getResources()) {
             for (ResourceElement<?, ?> element : resource.getResourceElements()) {
                 if (element.getSymbol().equals(symbol)) {
-                    if (ResourceState.UNPROCESSED == resource.getState() && context == null) {
-                        String identifier = resource.getSource().getSystemId();
-                        throw new AssertionError("Resource not resolved: " + identifier);
-                    } else if (ResourceState.UNPROCESSED == resource.getState() && context != null) {
-                        processorRegistry.processResource(resource, context);
-                    }
-                    Object val = element.getValue();
-                    if (!type.isInstance(val)) {
-                        throw new IllegalArgumentException("Invalid type for symbol. Expected: " + type + " was: " + val);
-                    }
-                    return (ResourceElement<S, V>) element;
+                    indexElement(contribution.getUri(), element, indexEntries.get(contribution.getUri()));
+                    return element;
                 }
             }
         }
         return null;
     }
 
+    /**
+     * Returns the contributions that may export a match for the import.
+     *
+     * @param imprt the import
+     * @return the candidate exporting contribution URIs
+     */
+    private Collection<URI> getExporters(Import imprt) {
+        String key = imprt.getKey();
+        if (key == null) {
+            return cache.keySet();
+        }
+        Set<URI> candidates = new LinkedHashSet<>(lookup(exportIndex, key));
+        candidates.addAll(unkeyedExporters);
+        return candidates;
+    }
+
+    /**
+     * Returns the contributions that provide a capability.
+     *
+     * @param capability the capability
+     * @return the providing contributions
+     */
+    private List<Contribution> getProviders(Capability capability) {
+        List<Contribution> providers = new ArrayList<>();
+        for (URI candidate : lookup(capabilityIndex, capability.getName())) {
+            Contribution contribution = cache.get(candidate);
+            if (contribution != null && contribution.getManifest().getProvidedCapabilities().contains(capability)) {
+                providers.add(contribution);
+            }
+        }
+        return providers;
+    }
+
+    /**
+     * Indexes the contribution, replacing existing index entries for it.
+     *
+     * @param contribution the contribution
+     */
+    private void index(Contribution contribution) {
+        URI uri = contribution.getUri();
+        unindex(uri);
+        Queue<Runnable> entries = new ConcurrentLinkedQueue<>();
+        ContributionManifest manifest = contribution.getManifest();
+        for (Export export : manifest.getExports()) {
+            String key = export.getKey();
+            if (key == null) {
+                unkeyedExporters.add(uri);
+                entries.add(() -> unkeyedExporters.remove(uri));
+            } else {
+                add(exportIndex, key, uri, entries);
+            }
+        }
+        for (String name : manifest.getExtensionPoints()) {
+            add(extensionPointIndex, name, uri, entries);
+        }
+        for (String name : manifest.getExtends()) {
+            add(extendIndex, name, uri, entries);
+        }
+        for (Capability capability : manifest.getProvidedCapabilities()) {
+            add(capabilityIndex, capability.getName(), uri, entries);
+        }
+        for (ContributionWire<?, ?> wire : contribution.getWires()) {
+            // entries are verified on lookup and are not removed with the contribution as its wires may be re-created
+            add(dependentIndex, wire.getExportContributionUri(), uri, null);
+        }
+        for (Resource resource : contribution.getResources()) {
+            for (ResourceElement<?, ?> element : resource.getResourceElements()) {
+                indexElement(uri, element, entries);
+            }
+        }
+        indexEntries.put(uri, entries);
+    }
+
+    /**
+     * Removes the index entries for a contribution.
+     *
+     * @param uri the contribution URI
+     */
+    private void unindex(URI uri) {
+        Queue<Runnable> entries = indexEntries.remove(uri);
+        if (entries != null) {
+            entries.forEach(Runnable::run);
+        }
+    }
+
+    private void indexElement(URI uri, ResourceElement<?, ?> element, Queue<Runnable> entries) {
+        if (entries == null) {
+            // the contribution is not stored
+            return;
+        }
+        Symbol symbol = element.getSymbol();
+        symbolIndex.compute(symbol, (k, elements) -> {
+            if (elements == null) {
+                elements = new ConcurrentHashMap<>();
+            }
+            elements.putIfAbsent(uri, element);
+            return elements;
+        });
+        entries.add(() -> symbolIndex.computeIfPresent(symbol, (k, elements) -> {
+            elements.remove(uri, element);
+            return elements.isEmpty() ? null : elements;
+        }));
+    }
+
+    private <K> void add(Map<K, Set<URI>> index, K key, URI uri, Queue<Runnable> entries) {
+        index.compute(key, (k, uris) -> {
+            if (uris == null) {
+                uris = ConcurrentHashMap.newKeySet();
+            }
+            uris.add(uri);
+            return uris;
+        });
+        if (entries != null) {
+            entries.add(() -> index.computeIfPresent(key, (k, uris) -> {
+                uris.remove(uri);
+                return uris.isEmpty() ? null : uris;
+            }));
+        }
+    }
+
+    private <K> Set<URI> lookup(Map<K, Set<URI>> index, K key) {
+        Set<URI> uris = index.get(key);
+        return uris == null ? Collections.emptySet() : uris;
+    }
+
 }
@@ -0,0 +1,75 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.contribution.archive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of scanning a contribution archive: the non-class archive entries and the classes that were introspected as resources. An index is cached so that
+ * unchanged archives do not need to be rescanned.
+ *
+ * Content types are not part of the index and are resolved when the index is used as content type mappings may change when extensions are installed.
+ */
+public class ArchiveIndex {
+    private String key;
+    private List<String> entries = new ArrayList<>();
+    private List<String> classes = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param key the key identifying the archive contents and the runtime configuration used to scan it
+     */
+    public ArchiveIndex(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Adds a non-class archive entry.
+     *
+     * @param name the archive entry name
+     */
+    public void addEntry(String name) {
+        entries.add(name);
+    }
+
+    /**
+     * Adds a class that was introspected as a resource.
+     *
+     * @param name the class name
+     */
+    public void addClass(String name) {
+        classes.add(name);
+    }
+
+    public List<String> getEntries() {
+        return entries;
+    }
+
+    public List<String> getClasses() {
+        return classes;
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.contribution.archive;
+
+import java.util.List;
+
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.JavaArtifactIntrospector;
+
+/**
+ * Persists contribution archive indexes across runtime restarts.
+ */
+public interface ArchiveIndexCache {
+
+    /**
+     * Calculates the key for a contribution archive. The key changes if the archive contents, the runtime version, the configuration used to scan the
+     * archive or the contributions its imports resolve to change. Imports must be resolved before the key is calculated.
+     *
+     * @param contribution  the contribution
+     * @param introspectors the introspectors the archive will be scanned with
+     * @return the key or null if the contribution cannot be cached
+     */
+    String getKey(Contribution contribution, List<JavaArtifactIntrospector> introspectors);
+
+    /**
+     * Returns the cached index for the contribution if it matches the key.
+     *
+     * @param contribution the contribution
+     * @param key          the current key for the contribution
+     * @return the index or null if there is no cached index for the key
+     */
+    ArchiveIndex get(Contribution contribution, String key);
+
+    /**
+     * Caches the index for a contribution, replacing any previous index.
+     *
+     * @param contribution the contribution
+     * @param index        the index
+     */
+    void put(Contribution contribution, ArchiveIndex index);
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.contribution.archive;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.fabric3.api.annotation.Source;
+import org.fabric3.api.annotation.monitor.Monitor;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.api.host.util.FileHelper;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionManifest;
+import org.fabric3.spi.contribution.ContributionWire;
+import org.fabric3.spi.contribution.JavaArtifactIntrospector;
+import org.fabric3.spi.contribution.MetaDataStore;
+import org.oasisopen.sca.annotation.Constructor;
+import org.oasisopen.sca.annotation.Property;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Stores archive indexes as files in the runtime data directory, one file per contribution.
+ *
+ * The cache key is a SHA-1 digest of the archive contents, the runtime version, the installed Java artifact introspectors, the contribution scan settings and
+ * the keys of the contributions its imports resolve to, since classes are introspected against their imported supertypes. A cached index is only used if its
+ * key matches the current key. Caching can be disabled by setting <code>$systemConfig//runtime/contribution.index.cache</code> to false.
+ *
+ * The runtime version is read from <code>version.properties</code>, which the build generates alongside this class. Indexes are not cached if the runtime
+ * version is not available, for example when the classes are compiled outside the build, or if an import resolves to a contribution whose contents cannot be
+ * keyed.
+ */
+public class ArchiveIndexCacheImpl implements ArchiveIndexCache {
+    private static final String ENTRY = "e";
+    private static final String CLASS = "c";
+
+    private MetaDataStore store;
+    private ArchiveIndexCacheMonitor monitor;
+    private String version;
+    private File directory;
+    private boolean enabled = true;
+
+    // keys calculated for installed contributions, used to key contributions that import from them
+    private Map<URI, String> keys = new ConcurrentHashMap<>();
+
+    @Constructor
+    public ArchiveIndexCacheImpl(@Reference HostInfo info, @Reference MetaDataStore store, @Monitor ArchiveIndexCacheMonitor monitor) {
+        this(info, store, monitor, loadVersion());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param info    the host info
+     * @param store   the metadata store used to resolve imported contributions
+     * @param monitor the monitor
+     * @param version the runtime version or null if it is not available
+     */
+    ArchiveIndexCacheImpl(HostInfo info, MetaDataStore store, ArchiveIndexCacheMonitor monitor, String version) {
+        this.store = store;
+        this.monitor = monitor;
+        this.version = version;
+        File dataDir = info.getDataDir();
+        directory = dataDir == null ? null : new File(dataDir, "contribution-index");
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig//f3:runtime/f3:contribution.index.cache")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getKey(Contribution contribution, List<JavaArtifactIntrospector> introspectors) {
+        String key = calculateKey(contribution, introspectors);
+        if (key == null) {
+            keys.remove(contribution.getUri());
+        } else {
+            keys.put(contribution.getUri(), key);
+        }
+        return key;
+    }
+
+    public ArchiveIndex get(Contribution contribution, String key) {
+        File file = getFile(contribution);
+        if (!file.exists()) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!key.equals(reader.readLine())) {
+                return null;
+            }
+            ArchiveIndex index = new ArchiveIndex(key);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] tokens = line.split("\t");
+                if (ENTRY.equals(tokens[0]) && tokens.length == 2) {
+                    index.addEntry(tokens[1]);
+                } else if (CLASS.equals(tokens[0]) && tokens.length == 2) {
+                    index.addClass(tokens[1]);
+                } else {
+                    throw new IOException("Invalid index entry: " + line);
+                }
+            }
+            return index;
+        } catch (IOException e) {
+            monitor.readError(contribution.getUri(), e);
+            return null;
+        }
+    }
+
+    public void put(Contribution contribution, ArchiveIndex index) {
+        File file = getFile(contribution);
+        try {
+            Files.createDirectories(directory.toPath());
+            File temp = File.createTempFile("index", ".tmp", directory);
+            try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(index.getKey());
+                writer.newLine();
+                for (String entry : index.getEntries()) {
+                    writer.write(ENTRY + "\t" + entry);
+                    writer.newLine();
+                }
+                for (String name : index.getClasses()) {
+                    writer.write(CLASS + "\t" + name);
+                    writer.newLine();
+                }
+            }
+            // replace the previous index atomically so a concurrent or interrupted write does not leave a partial index
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            monitor.writeError(contribution.getUri(), e);
+        }
+    }
+
+    private String calculateKey(Contribution contribution, List<JavaArtifactIntrospector> introspectors) {
+        if (!enabled || directory == null || version == null) {
+            return null;
+        }
+        URL location = contribution.getLocation();
+        if (location == null || !"file".equals(location.getProtocol())) {
+            return null;
+        }
+        File archive = FileHelper.toFile(location);
+        if (!archive.isFile()) {
+            return null;
+        }
+        Set<URI> imported = new TreeSet<>();
+        for (ContributionWire<?, ?> wire : contribution.getWires()) {
+            imported.add(wire.getExportContributionUri());
+        }
+        imported.remove(contribution.getUri());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] buffer = new byte[8192];
+            try (InputStream stream = Files.newInputStream(archive.toPath())) {
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            update(digest, version);
+            for (URI uri : imported) {
+                String importedKey = getImportedKey(uri);
+                if (importedKey == null) {
+                    return null;
+                }
+                update(digest, uri.toString());
+                update(digest, importedKey);
+            }
+            for (JavaArtifactIntrospector introspector : introspectors) {
+                update(digest, introspector.getClass().getName());
+            }
+            ContributionManifest manifest = contribution.getManifest();
+            update(digest, String.valueOf(manifest.isExtension()));
+            for (Pattern pattern : manifest.getScanExcludes()) {
+                update(digest, pattern.pattern());
+            }
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest.digest()) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (IOException e) {
+            monitor.readError(contribution.getUri(), e);
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Returns the key of an imported contribution.
+     *
+     * @param uri the imported contribution URI
+     * @return the key or null if the imported contribution cannot be keyed
+     */
+    private String getImportedKey(URI uri) {
+        String key = keys.get(uri);
+        if (key != null) {
+            return key;
+        }
+        Contribution imported = store.find(uri);
+        if (imported != null && imported.getLocation() == null) {
+            // a runtime system contribution, which changes only with the runtime version
+            return "";
+        }
+        return null;
+    }
+
+    private File getFile(Contribution contribution) {
+        try {
+            return new File(directory, URLEncoder.encode(contribution.getUri().toString(), "UTF-8") + ".idx");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Returns the runtime version set by the build.
+     *
+     * @return the runtime version or null if it is not available
+     */
+    private static String loadVersion() {
+        try (InputStream stream = ArchiveIndexCacheImpl.class.getResourceAsStream("version.properties")) {
+            if (stream != null) {
+                Properties properties = new Properties();
+                properties.load(stream);
+                String version = properties.getProperty("version");
+                if (version != null && !version.isEmpty() && !version.contains("${")) {
+                    return version;
+                }
+            }
+        } catch (IOException e) {
+            // fall through to the manifest version
+        }
+        return ArchiveIndexCacheImpl.class.getPackage().getImplementationVersion();
+    }
+
+    private void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+}
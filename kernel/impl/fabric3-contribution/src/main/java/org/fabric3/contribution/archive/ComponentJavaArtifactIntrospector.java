@@ -27,6 +27,8 @@ import org.fabric3.spi.contribution.ProviderSymbol;
 import org.fabric3.spi.contribution.Resource;
 import org.fabric3.spi.contribution.ResourceElement;
 import org.fabric3.spi.contribution.Symbol;
+import org.fabric3.spi.contribution.archive.ClassHeader;
+import org.fabric3.spi.contribution.archive.ClassIndex;
 import org.fabric3.spi.introspection.IntrospectionContext;
 
 /**
@@ -54,6 +56,15 @@ public class ComponentJavaArtifactIntrospector implements JavaArtifactIntrospect
         return null;
     }
 
+    public boolean isCandidate(ClassHeader header, ClassIndex index, Contribution contribution) {
+        String name = header.getName();
+        if (isProvider(name)) {
+            return true;
+        }
+        // components must be concrete and annotated, either directly, via a meta-annotation, or through an inherited annotation
+        return !contribution.getManifest().isExtension() && header.isConcrete() && index.isAnnotated(name);
+    }
+
     private Resource createResource(String name, Class<?> clazz, URL url, Contribution contribution) {
         // class is a component
         UrlSource source = new UrlSource(url);
@@ -18,8 +18,12 @@
  */
 package org.fabric3.contribution.archive;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
@@ -106,20 +110,23 @@ public class ExplodedArchiveContributionHandler implements ArchiveContributionHa
     }
 
     public void iterateArtifacts(Contribution contribution, Consumer<Resource> callback, IntrospectionContext context) {
+        JavaArtifactIndexer indexer = new JavaArtifactIndexer(artifactIntrospectors);
         File root = FileHelper.toFile(contribution.getLocation());
-        iterateArtifactsRecursive(root, root, contribution, callback, context);
+        iterateArtifactsRecursive(root, root, contribution, indexer, callback);
         for (URL url : contribution.getAdditionalLocations()) {
             root = FileHelper.toFile(url);
-            iterateArtifactsRecursive(root, root, contribution, callback, context);
+            iterateArtifactsRecursive(root, root, contribution, indexer, callback);
         }
+        // classes are introspected after all headers have been indexed so supertypes can be resolved
+        indexer.introspect(contribution, callback, context);
     }
 
-    protected void iterateArtifactsRecursive(File dir, File root, Contribution contribution, Consumer<Resource> callback, IntrospectionContext context) {
+    protected void iterateArtifactsRecursive(File dir, File root, Contribution contribution, JavaArtifactIndexer indexer, Consumer<Resource> callback) {
         File[] files = dir.listFiles();
         ContributionManifest manifest = contribution.getManifest();
         for (File file : files) {
             if (file.isDirectory()) {
-                iterateArtifactsRecursive(file, root, contribution, callback, context);
+                iterateArtifactsRecursive(file, root, contribution, indexer, callback);
             } else {
                 try {
                     String name = file.getName();
@@ -136,27 +143,10 @@ public class ExplodedArchiveContributionHandler implements ArchiveContributionHa
                     if (isClass) {
                         String relativeName = getRelativeName(file, root).replace(File.separator, ".");
                         name = relativeName.substring(0, relativeName.length() - CLASS_SUFFIX);
-                        try {
-                            Class<?> clazz = context.getClassLoader().loadClass(name);
-
-                            URL entryUrl = file.toURI().toURL();
-                            Resource resource = null;
-                            for (JavaArtifactIntrospector introspector : artifactIntrospectors) {
-                                resource = introspector.inspect(clazz, entryUrl, contribution, context);
-                                if (resource != null) {
-                                    break;
-                                }
-                            }
-
-                            if (resource == null) {
-                                continue;
-                            }
-                            contribution.addResource(resource);
-                            callback.accept(resource);
-                        } catch (ClassNotFoundException | NoClassDefFoundError e) {
-                            // ignore since the class may reference another class not present in the contribution
+                        URL entryUrl = file.toURI().toURL();
+                        try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+                            indexer.index(name, entryUrl, stream);
                         }
-
                     } else {
 
                         String contentType = contentTypeResolver.getContentType(name);
@@ -170,7 +160,7 @@ public class ExplodedArchiveContributionHandler implements ArchiveContributionHa
                         contribution.addResource(resource);
                         callback.accept(resource);
                     }
-                } catch (MalformedURLException e) {
+                } catch (IOException e) {
                     throw new Fabric3Exception(e);
                 }
             }
@@ -0,0 +1,146 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.contribution.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.JavaArtifactIntrospector;
+import org.fabric3.spi.contribution.Resource;
+import org.fabric3.spi.contribution.archive.ClassHeader;
+import org.fabric3.spi.contribution.archive.ClassIndex;
+import org.fabric3.spi.introspection.IntrospectionContext;
+
+/**
+ * Indexes the class files contained in a contribution archive and introspects classes that are candidate resources. Class file headers are read for all
+ * classes before any are introspected so that supertypes can be resolved. Only classes an introspector reports as a candidate are loaded.
+ */
+public class JavaArtifactIndexer {
+    private List<JavaArtifactIntrospector> introspectors;
+    private ClassIndex index = new ClassIndex();
+    private Map<String, URL> locations = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param introspectors the introspectors to determine candidates and inspect classes with
+     */
+    public JavaArtifactIndexer(List<JavaArtifactIntrospector> introspectors) {
+        this.introspectors = introspectors;
+    }
+
+    /**
+     * Indexes a class file.
+     *
+     * @param name   the class name
+     * @param url    the class file URL
+     * @param stream the class file contents. The stream is not closed.
+     */
+    public void index(String name, URL url, InputStream stream) {
+        try {
+            index.add(ClassHeader.read(stream));
+        } catch (IOException e) {
+            // the header could not be read; the class will be loaded and introspected
+        }
+        locations.put(name, url);
+    }
+
+    /**
+     * Returns the index of class headers.
+     *
+     * @return the index
+     */
+    public ClassIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Introspects indexed classes that are candidate resources, adding resources to the contribution.
+     *
+     * @param contribution the contribution
+     * @param callback     the callback to notify when a resource is added
+     * @param context      the introspection context
+     * @return the names of classes that were added as resources
+     */
+    public List<String> introspect(Contribution contribution, Consumer<Resource> callback, IntrospectionContext context) {
+        List<String> introspected = new ArrayList<>();
+        for (Map.Entry<String, URL> entry : locations.entrySet()) {
+            String name = entry.getKey();
+            ClassHeader header = index.get(name);
+            if (header != null && !isCandidate(header, contribution)) {
+                continue;
+            }
+            if (introspect(name, entry.getValue(), contribution, callback, context)) {
+                introspected.add(name);
+            }
+        }
+        return introspected;
+    }
+
+    /**
+     * Loads and introspects a class, adding it to the contribution if it is a resource.
+     *
+     * @param name         the class name
+     * @param url          the class file URL
+     * @param contribution the contribution
+     * @param callback     the callback to notify when a resource is added
+     * @param context      the introspection context
+     * @return true if the class was added as a resource
+     */
+    public boolean introspect(String name, URL url, Contribution contribution, Consumer<Resource> callback, IntrospectionContext context) {
+        Class<?> clazz;
+        try {
+            clazz = context.getClassLoader().loadClass(name);
+        } catch (ClassNotFoundException | NoClassDefFoundError e) {
+            // ignore since the class may reference another class not present in the contribution
+            return false;
+        }
+        Resource resource = null;
+        for (JavaArtifactIntrospector introspector : introspectors) {
+            resource = introspector.inspect(clazz, url, contribution, context);
+            if (resource != null) {
+                break;
+            }
+        }
+        if (resource == null) {
+            return false;
+        }
+        contribution.addResource(resource);
+        callback.accept(resource);
+        return true;
+    }
+
+    private boolean isCandidate(ClassHeader header, Contribution contribution) {
+        for (JavaArtifactIntrospector introspector : introspectors) {
+            if (introspector.isCandidate(header, index, contribution)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
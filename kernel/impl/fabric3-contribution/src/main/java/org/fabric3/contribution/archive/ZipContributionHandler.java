@@ -57,6 +57,7 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
     private Loader loader;
     private List<JavaArtifactIntrospector> artifactIntrospectors = Collections.emptyList();
     private ContentTypeResolver contentTypeResolver;
+    private ArchiveIndexCache indexCache;
 
     public ZipContributionHandler(@Reference Loader loader, @Reference ContentTypeResolver contentTypeResolver) {
         this.loader = loader;
@@ -68,6 +69,11 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
         this.artifactIntrospectors = introspectors;
     }
 
+    @Reference(required = false)
+    public void setIndexCache(ArchiveIndexCache indexCache) {
+        this.indexCache = indexCache;
+    }
+
     @Reference(required = false)
     public void setManifestHandlers(List<JarManifestHandler> manifestHandlers) {
         this.manifestHandlers = manifestHandlers;
@@ -131,8 +137,20 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
     }
 
     public void iterateArtifacts(Contribution contribution, Consumer<Resource> callback, IntrospectionContext context) {
+        String key = indexCache == null ? null : indexCache.getKey(contribution, artifactIntrospectors);
+        if (key != null) {
+            ArchiveIndex cached = indexCache.get(contribution, key);
+            if (cached != null) {
+                // the archive is unchanged, restore the resources without rescanning it
+                iterateIndex(cached, contribution, callback, context);
+                return;
+            }
+        }
+        ArchiveIndex archiveIndex = key == null ? null : new ArchiveIndex(key);
+
         URL location = contribution.getLocation();
         ContributionManifest manifest = contribution.getManifest();
+        JavaArtifactIndexer indexer = new JavaArtifactIndexer(artifactIntrospectors);
         ZipInputStream zipStream = null;
         try {
             zipStream = new ZipInputStream(location.openStream());
@@ -158,41 +176,22 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
                 }
 
                 if (name.endsWith(".class")) {
+                    // index the class header; classes are introspected after all entries have been read so supertypes can be resolved
                     URL entryUrl = new URL("jar:" + location.toExternalForm() + "!/" + name);
                     name = name.replace("/", ".").substring(0, name.length() - 6);     // note '/' must be used as archives always use '/' for a separator
-                    Class<?> clazz;
-                    try {
-                        clazz = context.getClassLoader().loadClass(name);
-                    } catch (ClassNotFoundException | NoClassDefFoundError e) {
-                        // ignore since the class may reference another class not present in the contribution
-                        continue;
-                    }
-                    Resource resource = null;
-                    for (JavaArtifactIntrospector introspector : artifactIntrospectors) {
-                        resource = introspector.inspect(clazz, entryUrl, contribution, context);
-                        if (resource != null) {
-                            break;
-                        }
-                    }
-
-                    if (resource == null) {
-                        continue;
-                    }
-                    contribution.addResource(resource);
-                    callback.accept(resource);
+                    indexer.index(name, entryUrl, zipStream);
                 } else {
-                    String contentType = contentTypeResolver.getContentType(name);
-                    if (contentType == null) {
-                        // skip entry if we don't recognize the content type
-                        continue;
+                    if (archiveIndex != null) {
+                        archiveIndex.addEntry(name);
                     }
-                    URL entryUrl = new URL("jar:" + location.toExternalForm() + "!/" + name);
-                    UrlSource source = new UrlSource(entryUrl);
-                    Resource resource = new Resource(contribution, source, contentType);
-                    contribution.addResource(resource);
-                    callback.accept(resource);
+                    addResource(name, contribution, callback);
                 }
             }
+            List<String> classes = indexer.introspect(contribution, callback, context);
+            if (archiveIndex != null) {
+                classes.forEach(archiveIndex::addClass);
+                indexCache.put(contribution, archiveIndex);
+            }
         } catch (IOException e) {
             throw new Fabric3Exception(e);
         } finally {
@@ -207,6 +206,43 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
 
     }
 
+    /**
+     * Adds the resources recorded in a cached index to the contribution.
+     *
+     * @param index        the index
+     * @param contribution the contribution
+     * @param callback     the callback to notify when a resource is added
+     * @param context      the introspection context
+     */
+    private void iterateIndex(ArchiveIndex index, Contribution contribution, Consumer<Resource> callback, IntrospectionContext context) {
+        try {
+            for (String name : index.getEntries()) {
+                addResource(name, contribution, callback);
+            }
+            URL location = contribution.getLocation();
+            JavaArtifactIndexer indexer = new JavaArtifactIndexer(artifactIntrospectors);
+            for (String name : index.getClasses()) {
+                URL entryUrl = new URL("jar:" + location.toExternalForm() + "!/" + name.replace(".", "/") + ".class");
+                indexer.introspect(name, entryUrl, contribution, callback, context);
+            }
+        } catch (MalformedURLException e) {
+            throw new Fabric3Exception(e);
+        }
+    }
+
+    private void addResource(String name, Contribution contribution, Consumer<Resource> callback) throws MalformedURLException {
+        String contentType = contentTypeResolver.getContentType(name);
+        if (contentType == null) {
+            // skip entry if we don't recognize the content type
+            return;
+        }
+        URL entryUrl = new URL("jar:" + contribution.getLocation().toExternalForm() + "!/" + name);
+        UrlSource source = new UrlSource(entryUrl);
+        Resource resource = new Resource(contribution, source, contentType);
+        contribution.addResource(resource);
+        callback.accept(resource);
+    }
+
     private boolean exclude(ContributionManifest manifest, ZipEntry entry) {
         for (Pattern pattern : manifest.getScanExcludes()) {
             if (pattern.matcher(entry.getName()).matches()) {
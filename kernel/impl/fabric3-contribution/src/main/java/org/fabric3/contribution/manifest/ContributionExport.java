@@ -65,6 +65,10 @@ public class ContributionExport implements Export {
         resolved = true;
     }
 
+    public String getKey() {
+        return "contribution:" + symbolicUri;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -73,6 +73,10 @@ public class ContributionImport implements Import {
         resolved.put(contributionUri, export);
     }
 
+    public String getKey() {
+        return "contribution:" + symbolicUri;
+    }
+
     public String toString() {
         return "contribution [" + symbolicUri + "]";
     }
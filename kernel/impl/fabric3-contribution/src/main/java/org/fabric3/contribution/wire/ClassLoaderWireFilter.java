@@ -28,6 +28,11 @@ import org.fabric3.api.host.classloader.DelegatingResourceClassLoader;
  */
 public class ClassLoaderWireFilter extends DelegatingResourceClassLoader {
     private static final URL[] NO_URLS = new URL[0];
+
+    static {
+        registerAsParallelCapable();
+    }
+
     private String[] importedPackage;
 
     /**
@@ -23,6 +23,7 @@ import javax.xml.namespace.QName;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -37,6 +38,7 @@ import org.fabric3.api.model.type.component.Composite;
 import org.fabric3.spi.contribution.Capability;
 import org.fabric3.spi.contribution.ContentTypeResolver;
 import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionState;
 import org.fabric3.spi.contribution.MetaDataStore;
 import org.fabric3.spi.contribution.ProcessorRegistry;
 import org.fabric3.spi.contribution.Resource;
@@ -122,6 +124,7 @@ public class ContributionServiceImplTestCase extends TestCase {
         EasyMock.expect(loader.load(contribution)).andReturn(getClass().getClassLoader());
         processorRegistry.indexContribution(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
         store.store(contribution);
+        EasyMock.expectLastCall().times(3);
         processorRegistry.processContribution(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
 
         EasyMock.replay(processorRegistry, store, loader, resolver, dependencyResolver);
@@ -231,7 +234,9 @@ public class ContributionServiceImplTestCase extends TestCase {
         EasyMock.expect(store.find(contributionUri)).andReturn(null);
         EasyMock.expect(store.find(otherContributionUri)).andReturn(null);
         store.store(contribution);
+        EasyMock.expectLastCall().times(2);
         store.store(otherContribution);
+        EasyMock.expectLastCall().times(2);
         processorRegistry.processManifest(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
         processorRegistry.processManifest(EasyMock.eq(otherContribution), EasyMock.isA(IntrospectionContext.class));
         EasyMock.expect(dependencyResolver.resolve(EasyMock.isA(List.class))).andReturn(contributions);
@@ -250,6 +255,7 @@ public class ContributionServiceImplTestCase extends TestCase {
 
         EasyMock.expect(store.find(contributionUri)).andReturn(contribution);
         store.store(contribution);
+        EasyMock.expectLastCall().times(2);
         EasyMock.expect(loader.load(contribution)).andReturn(getClass().getClassLoader());
         processorRegistry.indexContribution(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
         processorRegistry.processContribution(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
@@ -261,6 +267,101 @@ public class ContributionServiceImplTestCase extends TestCase {
         EasyMock.verify(processorRegistry, store, loader, resolver, dependencyResolver);
     }
 
+    @SuppressWarnings({"unchecked"})
+    public void testProcessContentsInDependencyOrder() throws Exception {
+        URI otherUri = URI.create("other");
+        Contribution other = new Contribution(otherUri, null, new URL("file://other"), 1, "application/xml");
+        other.getManifest().addRequiredCapability(new Capability("capability"));
+        service.setParallelism(2);
+
+        EasyMock.expect(store.find(contributionUri)).andReturn(contribution);
+        EasyMock.expect(store.find(otherUri)).andReturn(other);
+        EasyMock.expect(store.resolveCapability("capability")).andReturn(Collections.singleton(contribution));
+        store.store(contribution);
+        EasyMock.expectLastCall().times(2);
+        store.store(other);
+        EasyMock.expectLastCall().times(2);
+        EasyMock.expect(loader.load(contribution)).andReturn(getClass().getClassLoader());
+        EasyMock.expect(loader.load(other)).andAnswer(() -> {
+            // the contribution providing the capability must be installed first
+            assertEquals(ContributionState.INSTALLED, contribution.getState());
+            return getClass().getClassLoader();
+        });
+        processorRegistry.indexContribution(EasyMock.isA(Contribution.class), EasyMock.isA(IntrospectionContext.class));
+        EasyMock.expectLastCall().times(2);
+        processorRegistry.processContribution(EasyMock.isA(Contribution.class), EasyMock.isA(IntrospectionContext.class));
+        EasyMock.expectLastCall().times(2);
+
+        EasyMock.replay(processorRegistry, store, loader, resolver, dependencyResolver);
+
+        createResourceWithComposite();
+        service.processContents(Arrays.asList(otherUri, contributionUri));
+
+        assertEquals(ContributionState.INSTALLED, contribution.getState());
+        assertEquals(ContributionState.INSTALLED, other.getState());
+        EasyMock.verify(processorRegistry, store, loader, resolver, dependencyResolver);
+    }
+
+    @SuppressWarnings({"unchecked"})
+    public void testProcessContentsSkipsDependentsOnError() throws Exception {
+        URI otherUri = URI.create("other");
+        Contribution other = new Contribution(otherUri, null, new URL("file://other"), 1, "application/xml");
+        other.getManifest().addRequiredCapability(new Capability("capability"));
+        service.setParallelism(2);
+
+        EasyMock.expect(store.find(contributionUri)).andReturn(contribution).times(2);
+        EasyMock.expect(store.find(otherUri)).andReturn(other);
+        EasyMock.expect(store.resolveCapability("capability")).andReturn(Collections.singleton(contribution));
+        EasyMock.expect(loader.load(contribution)).andThrow(new Fabric3Exception("test"));
+        loader.unload(contribution);
+        store.remove(contributionUri);
+
+        EasyMock.replay(processorRegistry, store, loader, resolver, dependencyResolver);
+
+        try {
+            service.processContents(Arrays.asList(contributionUri, otherUri));
+            fail();
+        } catch (Fabric3Exception e) {
+            assertEquals("test", e.getMessage());
+        }
+        assertEquals(ContributionState.STORED, other.getState());
+        EasyMock.verify(processorRegistry, store, loader, resolver, dependencyResolver);
+    }
+
+    @SuppressWarnings({"unchecked"})
+    public void testProcessContentsSequentiallyWithCycle() throws Exception {
+        URI otherUri = URI.create("other");
+        Contribution other = new Contribution(otherUri, null, new URL("file://other"), 1, "application/xml");
+        other.getManifest().addRequiredCapability(new Capability("capability"));
+        contribution.getManifest().addRequiredCapability(new Capability("other.capability"));
+        service.setParallelism(2);
+
+        EasyMock.expect(store.find(contributionUri)).andReturn(contribution).times(2);
+        EasyMock.expect(store.find(otherUri)).andReturn(other).times(2);
+        EasyMock.expect(store.resolveCapability("capability")).andReturn(Collections.singleton(contribution));
+        EasyMock.expect(store.resolveCapability("other.capability")).andReturn(Collections.singleton(other));
+        store.store(contribution);
+        EasyMock.expectLastCall().times(2);
+        store.store(other);
+        EasyMock.expectLastCall().times(2);
+        EasyMock.expect(loader.load(contribution)).andReturn(getClass().getClassLoader());
+        EasyMock.expect(loader.load(other)).andReturn(getClass().getClassLoader());
+        processorRegistry.indexContribution(EasyMock.isA(Contribution.class), EasyMock.isA(IntrospectionContext.class));
+        EasyMock.expectLastCall().times(2);
+        processorRegistry.processContribution(EasyMock.isA(Contribution.class), EasyMock.isA(IntrospectionContext.class));
+        EasyMock.expectLastCall().times(2);
+
+        EasyMock.replay(processorRegistry, store, loader, resolver, dependencyResolver);
+
+        createResourceWithComposite();
+        // the contributions depend on each other and are processed in the order given instead of failing after tasks are scheduled
+        service.processContents(Arrays.asList(contributionUri, otherUri));
+
+        assertEquals(ContributionState.INSTALLED, contribution.getState());
+        assertEquals(ContributionState.INSTALLED, other.getState());
+        EasyMock.verify(processorRegistry, store, loader, resolver, dependencyResolver);
+    }
+
     @Override
     protected void setUp() throws Exception {
         super.setUp();
@@ -147,6 +147,31 @@ public class MetaDataStoreImplTestCase extends TestCase {
         assertTrue(set.contains(otherContribution));
     }
 
+    public void testRemoveClearsIndex() throws Exception {
+        store.store(contribution);
+        store.store(otherContribution);
+        store.remove(otherContributionUri);
+        assertNull(store.find(Composite.class, new QNameSymbol(otherDeployableName)));
+        assertTrue(store.resolveExtensionPoints("extension").isEmpty());
+        assertTrue(store.resolveCapability("capability").isEmpty());
+        assertTrue(store.resolve(URI.create("SomeContribution"), new QNameImport("test", null)).isEmpty());
+    }
+
+    public void testFindBySymbolAddedAfterStore() throws Exception {
+        store.store(contribution);
+        QName name = new QName("test", "added");
+        createResourceWithComposite(name, contribution);
+        ResourceElement<QNameSymbol, Composite> element = store.find(Composite.class, new QNameSymbol(name));
+        assertEquals(name, element.getValue().getName());
+    }
+
+    public void testResolveImportAfterExportRemoved() throws Exception {
+        store.store(contribution);
+        store.store(otherContribution);
+        otherContribution.getManifest().getExports().clear();
+        assertTrue(store.resolve(URI.create("SomeContribution"), new QNameImport("test", null)).isEmpty());
+    }
+
     protected void setUp() throws Exception {
         super.setUp();
         ProcessorRegistry processorRegistry = EasyMock.createMock(ProcessorRegistry.class);
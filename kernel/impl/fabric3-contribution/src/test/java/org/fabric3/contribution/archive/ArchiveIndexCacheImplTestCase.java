@@ -0,0 +1,167 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.contribution.archive;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.api.host.stream.UrlSource;
+import org.fabric3.api.host.util.FileHelper;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionManifest;
+import org.fabric3.spi.contribution.ContributionWire;
+import org.fabric3.spi.contribution.JavaArtifactIntrospector;
+import org.fabric3.spi.contribution.MetaDataStore;
+
+/**
+ *
+ */
+public class ArchiveIndexCacheImplTestCase extends TestCase {
+    private File dataDir;
+    private HostInfo info;
+    private MetaDataStore store;
+    private ArchiveIndexCacheImpl cache;
+    private List<JavaArtifactIntrospector> introspectors;
+
+    public void testStoreAndRestore() throws Exception {
+        Contribution contribution = createContribution();
+        String key = cache.getKey(contribution, introspectors);
+        assertNotNull(key);
+
+        ArchiveIndex index = new ArchiveIndex(key);
+        index.addEntry("META-INF/test.composite");
+        index.addClass("org.foo.TestComponent");
+        cache.put(contribution, index);
+
+        ArchiveIndex restored = cache.get(contribution, key);
+        assertEquals("META-INF/test.composite", restored.getEntries().get(0));
+        assertEquals("org.foo.TestComponent", restored.getClasses().get(0));
+    }
+
+    public void testKeyChangesWithConfiguration() throws Exception {
+        Contribution contribution = createContribution();
+        String key = cache.getKey(contribution, introspectors);
+        cache.put(contribution, new ArchiveIndex(key));
+
+        contribution.getManifest().setScanExcludes(Collections.singletonList(Pattern.compile("META-INF/.*")));
+        String newKey = cache.getKey(contribution, introspectors);
+
+        assertFalse(key.equals(newKey));
+        assertNull(cache.get(contribution, newKey));
+    }
+
+    public void testKeyChangesWithImportedContribution() throws Exception {
+        EasyMock.replay(store);
+        Contribution exporter = createContribution(URI.create("exporter"), "./repository/1/test.jar");
+        String exporterKey = cache.getKey(exporter, introspectors);
+
+        Contribution contribution = createContribution();
+        contribution.addWire(createWire(exporter.getUri()));
+        String key = cache.getKey(contribution, introspectors);
+        assertNotNull(key);
+
+        // the exporter is keyed differently, for example when it is updated
+        exporter.getManifest().setScanExcludes(Collections.singletonList(Pattern.compile("META-INF/.*")));
+        assertFalse(exporterKey.equals(cache.getKey(exporter, introspectors)));
+
+        assertFalse(key.equals(cache.getKey(contribution, introspectors)));
+    }
+
+    public void testImportFromSystemContribution() throws Exception {
+        URI uri = URI.create("system");
+        EasyMock.expect(store.find(uri)).andReturn(new Contribution(uri));
+        EasyMock.replay(store);
+
+        Contribution contribution = createContribution();
+        contribution.addWire(createWire(uri));
+        assertNotNull(cache.getKey(contribution, introspectors));
+        EasyMock.verify(store);
+    }
+
+    public void testNotCachedWithUnkeyedImport() throws Exception {
+        URI uri = URI.create("exploded");
+        Contribution exploded = new Contribution(uri, null, dataDir.toURI().toURL(), -1, null);
+        EasyMock.expect(store.find(uri)).andReturn(exploded);
+        EasyMock.replay(store);
+
+        Contribution contribution = createContribution();
+        contribution.addWire(createWire(uri));
+        assertNull(cache.getKey(contribution, introspectors));
+        EasyMock.verify(store);
+    }
+
+    public void testVersionProvidedByBuild() throws Exception {
+        cache = new ArchiveIndexCacheImpl(info, store, EasyMock.createNiceMock(ArchiveIndexCacheMonitor.class));
+        assertNotNull(cache.getKey(createContribution(), introspectors));
+    }
+
+    public void testNotCachedWithoutVersion() throws Exception {
+        cache = new ArchiveIndexCacheImpl(info, store, EasyMock.createNiceMock(ArchiveIndexCacheMonitor.class), null);
+        assertNull(cache.getKey(createContribution(), introspectors));
+    }
+
+    public void testDisabled() throws Exception {
+        cache.setEnabled(false);
+        assertNull(cache.getKey(createContribution(), introspectors));
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        dataDir = Files.createTempDirectory("f3-index").toFile();
+        info = EasyMock.createMock(HostInfo.class);
+        EasyMock.expect(info.getDataDir()).andReturn(dataDir).anyTimes();
+        EasyMock.replay(info);
+        store = EasyMock.createMock(MetaDataStore.class);
+        cache = new ArchiveIndexCacheImpl(info, store, EasyMock.createNiceMock(ArchiveIndexCacheMonitor.class), "1.0");
+        introspectors = Collections.singletonList(new ComponentJavaArtifactIntrospector());
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        FileHelper.deleteDirectory(dataDir);
+    }
+
+    private Contribution createContribution() {
+        return createContribution(URI.create("test"), "./repository/2/testWithLibraries.jar");
+    }
+
+    private Contribution createContribution(URI uri, String path) {
+        URL location = getClass().getClassLoader().getResource(path);
+        Contribution contribution = new Contribution(uri, new UrlSource(location), location, -1, null);
+        contribution.setManifest(new ContributionManifest());
+        return contribution;
+    }
+
+    private ContributionWire<?, ?> createWire(URI exportUri) {
+        ContributionWire<?, ?> wire = EasyMock.createMock(ContributionWire.class);
+        EasyMock.expect(wire.getExportContributionUri()).andReturn(exportUri).anyTimes();
+        EasyMock.replay(wire);
+        return wire;
+    }
+
+}
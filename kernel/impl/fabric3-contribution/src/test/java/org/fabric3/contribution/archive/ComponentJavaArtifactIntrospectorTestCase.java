@@ -16,6 +16,7 @@
  */
 package org.fabric3.contribution.archive;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
 
@@ -25,6 +26,8 @@ import org.fabric3.api.annotation.model.Component;
 import org.fabric3.spi.contribution.Constants;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.Resource;
+import org.fabric3.spi.contribution.archive.ClassHeader;
+import org.fabric3.spi.contribution.archive.ClassIndex;
 import org.fabric3.spi.introspection.DefaultIntrospectionContext;
 
 /**
@@ -53,6 +56,17 @@ public class ComponentJavaArtifactIntrospectorTestCase extends TestCase {
 
     }
 
+    public void testCandidates() throws Exception {
+        ClassIndex index = new ClassIndex();
+        index.add(readHeader(TestProvider.class));
+        index.add(readHeader(TestComponent.class));
+        index.add(readHeader(NoComponent.class));
+
+        assertTrue(introspector.isCandidate(index.get(TestProvider.class.getName()), index, contribution));
+        assertTrue(introspector.isCandidate(index.get(TestComponent.class.getName()), index, contribution));
+        assertFalse(introspector.isCandidate(index.get(NoComponent.class.getName()), index, contribution));
+    }
+
     public void setUp() throws Exception {
         super.setUp();
         introspector = new ComponentJavaArtifactIntrospector();
@@ -61,9 +75,19 @@ public class ComponentJavaArtifactIntrospectorTestCase extends TestCase {
         context = new DefaultIntrospectionContext(URI.create("test"), getClass().getClassLoader());
     }
 
+    private ClassHeader readHeader(Class<?> type) throws Exception {
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+            return ClassHeader.read(stream);
+        }
+    }
+
     @Component(name = "Test", composite = "{foo}bar")
     private static class TestComponent {
 
     }
 
+    private static class NoComponent {
+
+    }
+
 }
@@ -21,6 +21,7 @@ package org.fabric3.contribution.archive;
 import java.net.URI;
 import java.net.URL;
 import java.util.Collections;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
@@ -92,6 +93,46 @@ public class ZipContributionHandlerTestCase extends TestCase {
         EasyMock.verify(callback);
     }
 
+    @SuppressWarnings("unchecked")
+    public void testIterateCachedIndex() throws Exception {
+        Contribution contribution = createContribution();
+        String key = "key";
+        ArchiveIndex index = new ArchiveIndex(key);
+        index.addEntry("META-INF/test1.composite");
+
+        ArchiveIndexCache cache = EasyMock.createMock(ArchiveIndexCache.class);
+        EasyMock.expect(cache.getKey(EasyMock.eq(contribution), EasyMock.isA(List.class))).andReturn(key);
+        EasyMock.expect(cache.get(contribution, key)).andReturn(index);
+
+        Consumer callback = EasyMock.createMock(Consumer.class);
+        callback.accept(EasyMock.isA(Resource.class));
+        // only the cached entry is restored
+        EasyMock.expectLastCall().times(1);
+        EasyMock.replay(cache, callback);
+
+        handler.setIndexCache(cache);
+        handler.iterateArtifacts(contribution, callback, context);
+
+        EasyMock.verify(cache, callback);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testIndexCached() throws Exception {
+        Contribution contribution = createContribution();
+        String key = "key";
+
+        ArchiveIndexCache cache = EasyMock.createMock(ArchiveIndexCache.class);
+        EasyMock.expect(cache.getKey(EasyMock.eq(contribution), EasyMock.isA(List.class))).andReturn(key);
+        EasyMock.expect(cache.get(contribution, key)).andReturn(null);
+        cache.put(EasyMock.eq(contribution), EasyMock.isA(ArchiveIndex.class));
+        EasyMock.replay(cache);
+
+        handler.setIndexCache(cache);
+        handler.iterateArtifacts(contribution, EasyMock.createNiceMock(Consumer.class), context);
+
+        EasyMock.verify(cache);
+    }
+
     public void testDirectoryContents() throws Exception {
         Contribution contribution = createContribution();
         contribution.getManifest().setScanExcludes(Collections.singletonList(Pattern.compile("META-INF/.*")));
@@ -23,15 +23,22 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URLClassLoader;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.spi.classloader.ClassLoaderRegistry;
+import org.fabric3.spi.classloader.MultiParentClassLoader;
 
 /**
  * Implementation of a registry for classloaders.
  */
+@Management(name = "ClassLoaderRegistry", path = "/runtime/classloaders", group = "kernel", description = "Reports classloader statistics")
 public class ClassLoaderRegistryImpl implements ClassLoaderRegistry {
     private Map<URI, ClassLoader> registry = new ConcurrentHashMap<>();
 
@@ -50,6 +57,24 @@ public class ClassLoaderRegistryImpl implements ClassLoaderRegistry {
         return registry.get(id);
     }
 
+    @ManagementOperation(path = "/", description = "Class loading statistics by classloader")
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new TreeMap<>();
+        for (Map.Entry<URI, ClassLoader> entry : registry.entrySet()) {
+            if (!(entry.getValue() instanceof MultiParentClassLoader)) {
+                continue;
+            }
+            MultiParentClassLoader loader = (MultiParentClassLoader) entry.getValue();
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("loaded", loader.getLoadCount());
+            values.put("misses", loader.getMissCount());
+            values.put("cachedMisses", loader.getCachedMissCount());
+            values.put("loadTime", TimeUnit.NANOSECONDS.toMillis(loader.getLoadTime()));
+            statistics.put(entry.getKey().toString(), values);
+        }
+        return statistics;
+    }
+
     public void close() {
         if (registry == null || registry.isEmpty()) {
             return;
@@ -0,0 +1,325 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.fabric.container.component;
+
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
+import org.fabric3.api.annotation.management.OperationType;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.java.InstancePoolInfo;
+import org.fabric3.spi.container.component.ScopedComponent;
+
+/**
+ * A bounded pool of started instances for a stateless component.
+ *
+ * Instances are borrowed from the pool for a request and returned when the request completes. If no idle instance is available, a new one is created;
+ * borrowing never blocks. When an instance is returned and the pool already holds the maximum number of idle instances, the instance is destroyed. Idle
+ * instances that exceed the idle time are evicted as instances are returned, down to the minimum pool size.
+ *
+ * Pooled instances are injected when they are created. If a reference, property or context of the component changes, only the changed values are reinjected
+ * the next time an instance created or last reinjected before the change is borrowed. Instances that cannot be reinjected, for example because a value is
+ * constructor-injected or has been removed, are destroyed and replaced with new instances.
+ */
+@Management
+public class InstancePool {
+    private ScopedComponent component;
+    private int minSize;
+    private int maxSize;
+    private long idleTime;
+    private ScopeContainerMonitor monitor;
+
+    private Deque<Entry> idle = new ConcurrentLinkedDeque<>();
+    private AtomicInteger idleCount = new AtomicInteger();
+    private Map<Key, Entry> borrowed = new ConcurrentHashMap<>();
+    private AtomicInteger generation = new AtomicInteger();
+    // the generation at which each reference, property or context was last changed
+    private Map<String, Integer> changes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong evicted = new AtomicLong();
+    private AtomicLong discarded = new AtomicLong();
+    private AtomicLong reinjected = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param component the component to pool instances for
+     * @param info      the pool configuration
+     * @param monitor   the monitor for reporting errors destroying instances
+     */
+    public InstancePool(ScopedComponent component, InstancePoolInfo info, ScopeContainerMonitor monitor) {
+        this.component = component;
+        this.minSize = info.getMinSize();
+        this.maxSize = info.getMaxSize();
+        this.idleTime = info.getIdleTime() > 0 ? TimeUnit.MILLISECONDS.toNanos(info.getIdleTime()) : -1;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Borrows an instance from the pool, creating and starting one if no idle instance is available.
+     *
+     * @return the instance
+     * @throws Fabric3Exception if there is an error creating the instance
+     */
+    public Object borrow() throws Fabric3Exception {
+        // read the generation before creating or reinjecting an instance so that a concurrent configuration change is applied when it is next borrowed
+        int current = generation.get();
+        Entry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            if (entry.generation == current || reinject(entry, current)) {
+                break;
+            }
+            discarded.incrementAndGet();
+            destroy(entry.instance);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            Object instance = component.createInstance();
+            component.startInstance(instance);
+            entry = new Entry(instance, current);
+        } else {
+            hits.incrementAndGet();
+        }
+        borrowed.put(new Key(entry.instance), entry);
+        return entry.instance;
+    }
+
+    /**
+     * Returns an instance to the pool. The instance is destroyed if the pool is closed or the pool is full.
+     *
+     * @param instance the instance
+     * @throws Fabric3Exception if there is an error destroying the instance
+     */
+    public void release(Object instance) throws Fabric3Exception {
+        Entry entry = borrowed.remove(new Key(instance));
+        if (entry == null || closed) {
+            component.stopInstance(instance);
+            return;
+        }
+        long now = System.nanoTime();
+        if (idleTime > 0) {
+            evict(now);
+        }
+        if (idleCount.incrementAndGet() > maxSize) {
+            idleCount.decrementAndGet();
+            discarded.incrementAndGet();
+            component.stopInstance(instance);
+            return;
+        }
+        entry.lastUsed = now;
+        idle.offerFirst(entry);
+    }
+
+    /**
+     * Records that a reference, property or context of the component has changed so that it is reinjected into pooled instances before they are reused.
+     *
+     * @param name the name of the changed reference, property or context
+     */
+    public synchronized void updated(String name) {
+        // record the change before publishing the generation so that a borrower reading the new generation also sees the change
+        int next = generation.get() + 1;
+        changes.put(name, next);
+        generation.set(next);
+    }
+
+    /**
+     * Closes the pool and destroys idle instances. Borrowed instances are destroyed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        drain();
+        borrowed.clear();
+    }
+
+    @ManagementOperation(description = "The maximum number of idle instances")
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @ManagementOperation(description = "The number of idle instances retained when idle instances are evicted")
+    public int getMinSize() {
+        return minSize;
+    }
+
+    @ManagementOperation(description = "The time in milliseconds an instance may remain idle before it is evicted")
+    public long getIdleTime() {
+        return idleTime > 0 ? TimeUnit.NANOSECONDS.toMillis(idleTime) : 0;
+    }
+
+    @ManagementOperation(description = "The number of instances currently borrowed")
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    @ManagementOperation(description = "The number of idle instances in the pool")
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    @ManagementOperation(description = "The number of times an idle instance was reused")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagementOperation(description = "The number of times an instance had to be created")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagementOperation(description = "The number of idle instances destroyed because they exceeded the idle time")
+    public long getEvicted() {
+        return evicted.get();
+    }
+
+    @ManagementOperation(description = "The number of instances destroyed because they could not be reinjected or the pool was full")
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    @ManagementOperation(description = "The number of times an idle instance was reinjected with changed configuration before it was reused")
+    public long getReinjected() {
+        return reinjected.get();
+    }
+
+    @ManagementOperation(type = OperationType.POST, description = "Evicts instances that exceeded the idle time")
+    public void evict() {
+        if (idleTime > 0) {
+            evict(System.nanoTime());
+        }
+    }
+
+    @ManagementOperation(type = OperationType.POST, description = "Resets the pool statistics")
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evicted.set(0);
+        discarded.set(0);
+        reinjected.set(0);
+    }
+
+    /**
+     * Evicts instances from the tail of the idle queue, which holds the least recently used instances, until an instance that has not exceeded the idle time is
+     * found or the minimum size is reached.
+     *
+     * @param now the current time in nanoseconds
+     */
+    private void evict(long now) {
+        while (idleCount.get() > minSize) {
+            Entry entry = idle.pollLast();
+            if (entry == null) {
+                return;
+            }
+            if (now - entry.lastUsed < idleTime) {
+                idle.offerLast(entry);
+                return;
+            }
+            idleCount.decrementAndGet();
+            evicted.incrementAndGet();
+            destroy(entry.instance);
+        }
+    }
+
+    /**
+     * Reinjects the values that changed after the instance was created or last reinjected.
+     *
+     * @param entry   the pool entry
+     * @param current the current generation
+     * @return true if the instance was reinjected or false if it must be discarded
+     */
+    private boolean reinject(Entry entry, int current) {
+        Set<String> names = new HashSet<>();
+        for (Map.Entry<String, Integer> change : changes.entrySet()) {
+            if (change.getValue() > entry.generation) {
+                names.add(change.getKey());
+            }
+        }
+        try {
+            if (!component.reinject(entry.instance, names)) {
+                return false;
+            }
+        } catch (Fabric3Exception e) {
+            monitor.error(e);
+            return false;
+        }
+        entry.generation = current;
+        reinjected.incrementAndGet();
+        return true;
+    }
+
+    private void drain() {
+        Entry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            destroy(entry.instance);
+        }
+    }
+
+    private void destroy(Object instance) {
+        try {
+            component.stopInstance(instance);
+        } catch (Fabric3Exception e) {
+            monitor.destructionError(component.getUri(), component.getContributionUri(), e);
+        }
+    }
+
+    private static class Entry {
+        private Object instance;
+        private int generation;
+        private long lastUsed;
+
+        private Entry(Object instance, int generation) {
+            this.instance = instance;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Tracks borrowed instances by identity as implementations may override equals and hashCode.
+     */
+    private static class Key {
+        private Object instance;
+
+        private Key(Object instance) {
+            this.instance = instance;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(instance);
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).instance == instance;
+        }
+    }
+
+}
@@ -22,28 +22,45 @@ package org.fabric3.fabric.container.component;
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.api.annotation.monitor.Monitor;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.model.type.component.Scope;
+import org.fabric3.api.model.type.java.InstancePoolInfo;
 import org.fabric3.spi.container.component.ScopeContainer;
 import org.fabric3.spi.container.component.ScopedComponent;
+import org.fabric3.spi.management.ManagementService;
 import org.oasisopen.sca.annotation.Destroy;
 import org.oasisopen.sca.annotation.EagerInit;
 import org.oasisopen.sca.annotation.Init;
+import org.oasisopen.sca.annotation.Reference;
 import org.oasisopen.sca.annotation.Service;
 
 /**
- * A scope context which manages stateless atomic component instances in a non-pooled fashion.
+ * A scope context which manages stateless atomic component instances.
+ *
+ * By default, an instance is created and destroyed for each request. Components configured with an instance pool have instances recycled through an {@link
+ * InstancePool}, which is exported for management.
  */
 @EagerInit
 @Service(ScopeContainer.class)
 public class StatelessScopeContainer extends AbstractScopeContainer {
+    private static final String POOL_GROUP = "Runtime/instance pools";
+
+    private Map<ScopedComponent, InstancePool> pools = new ConcurrentHashMap<>();
+    private ManagementService managementService;
 
     public StatelessScopeContainer(@Monitor ScopeContainerMonitor monitor) {
         super(Scope.STATELESS, monitor);
     }
 
+    @Reference(required = false)
+    public void setManagementService(ManagementService managementService) {
+        this.managementService = managementService;
+    }
+
     @Init
     public void start() {
         super.start();
@@ -52,18 +69,68 @@ public class StatelessScopeContainer extends AbstractScopeContainer {
     @Destroy
     public void stop() {
         super.stop();
+        for (ScopedComponent component : pools.keySet()) {
+            unregister(component);
+        }
+    }
+
+    public void register(ScopedComponent component) {
+        InstancePoolInfo info = component.getPoolInfo();
+        if (info == null) {
+            return;
+        }
+        InstancePool pool = new InstancePool(component, info, monitor);
+        pools.put(component, pool);
+        if (managementService != null) {
+            try {
+                managementService.export(encodeName(component), POOL_GROUP, "Stateless instance pool", pool);
+            } catch (Fabric3Exception e) {
+                monitor.error(e);
+            }
+        }
+    }
+
+    public void unregister(ScopedComponent component) {
+        InstancePool pool = pools.remove(component);
+        if (pool == null) {
+            return;
+        }
+        pool.close();
+        if (managementService != null) {
+            try {
+                managementService.remove(encodeName(component), POOL_GROUP);
+            } catch (Fabric3Exception e) {
+                monitor.error(e);
+            }
+        }
     }
 
     public Object getInstance(ScopedComponent component) throws Fabric3Exception {
+        InstancePool pool = pools.get(component);
+        if (pool != null) {
+            return pool.borrow();
+        }
         Object instance = component.createInstance();
         component.startInstance(instance);
         return instance;
     }
 
     public void releaseInstance(ScopedComponent component, Object instance) throws Fabric3Exception {
+        InstancePool pool = pools.get(component);
+        if (pool != null) {
+            pool.release(instance);
+            return;
+        }
         component.stopInstance(instance);
     }
 
+    public void updated(ScopedComponent component, String name) {
+        InstancePool pool = pools.get(component);
+        if (pool != null) {
+            pool.updated(name);
+        }
+    }
+
     public List<Object> getActiveInstances(ScopedComponent component) {
         return Collections.emptyList();
     }
@@ -80,4 +147,8 @@ public class StatelessScopeContainer extends AbstractScopeContainer {
         // no-op
     }
 
+    private String encodeName(ScopedComponent component) {
+        return "runtime/pools" + component.getUri().getPath();
+    }
+
 }
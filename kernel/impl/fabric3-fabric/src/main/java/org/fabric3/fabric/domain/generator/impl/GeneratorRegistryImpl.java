@@ -20,6 +20,7 @@
 package org.fabric3.fabric.domain.generator.impl;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,7 +54,6 @@ public class GeneratorRegistryImpl implements GeneratorRegistry {
     @Reference(required = false)
     protected Map<Class<?>, ConnectionBindingGenerator<?>> connectionBindingGenerators = new HashMap<>();
 
-    @Reference(required = false)
     protected List<InterceptorGenerator> interceptorGenerators = new ArrayList<>();
 
     @Reference(required = false)
@@ -62,6 +62,18 @@ public class GeneratorRegistryImpl implements GeneratorRegistry {
     @Reference(required = false)
     protected Map<Class<?>, ResourceGenerator<?>> resourceGenerators = new HashMap<>();
 
+    /**
+     * Sets the interceptor generators, sorted by their order so that interceptors are placed in the invocation chain independently of registration order.
+     *
+     * @param generators the generators
+     */
+    @Reference(required = false)
+    public void setInterceptorGenerators(List<InterceptorGenerator> generators) {
+        List<InterceptorGenerator> sorted = new ArrayList<>(generators);
+        sorted.sort(Comparator.comparingInt(InterceptorGenerator::getOrder));
+        this.interceptorGenerators = sorted;
+    }
+
     public <T extends Implementation<?>> void register(Class<T> clazz, ComponentGenerator<LogicalComponent<T>> generator) {
         componentGenerators.put(clazz, generator);
     }
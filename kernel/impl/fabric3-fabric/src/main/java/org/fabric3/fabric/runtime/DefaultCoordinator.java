@@ -135,11 +135,12 @@ public class DefaultCoordinator implements RuntimeCoordinator {
             // process manifests and order the contributions
             ContributionOrder order = contributionService.processManifests(contributions);
 
-            order.getBootstrapContributions().forEach(contributionService::processContents);
+            contributionService.processContents(order.getBootstrapContributions());
             // base contributions are deployed in batch since they only rely on boot runtime capabilities
             domain.include(order.getBootstrapContributions());
 
-            order.getBaseContributions().forEach(contributionService::processContents);
+            // base contributions do not depend on each other and may be processed concurrently
+            contributionService.processContents(order.getBaseContributions());
             // base contributions are deployed in batch since they only rely on boot runtime capabilities
             domain.include(order.getBaseContributions());
 
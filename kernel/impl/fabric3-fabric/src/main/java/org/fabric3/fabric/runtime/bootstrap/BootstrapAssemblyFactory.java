@@ -267,6 +267,8 @@ public class BootstrapAssemblyFactory {
 
     private static DefaultTransformerRegistry createTransformerRegistry() {
         DefaultTransformerRegistry transformerRegistry = new DefaultTransformerRegistry();
+        // the bootstrap registry is not a contribution service listener and is therefore never notified of uninstalls
+        transformerRegistry.setCacheResolutions(false);
         List<SingleTypeTransformer<?, ?>> transformers = new ArrayList<>();
         transformers.add(new Property2StringTransformer());
         transformers.add(new Property2IntegerTransformer());
@@ -0,0 +1,110 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.fabric.container.component;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+import org.fabric3.api.model.type.java.InstancePoolInfo;
+import org.fabric3.spi.container.component.ScopedComponent;
+
+/**
+ *
+ */
+public class InstancePoolTestCase extends TestCase {
+    private IMocksControl control;
+    private ScopedComponent component;
+
+    public void testMaxSize() throws Exception {
+        Object instance1 = new Object();
+        Object instance2 = new Object();
+        EasyMock.expect(component.createInstance()).andReturn(instance1);
+        component.startInstance(instance1);
+        EasyMock.expect(component.createInstance()).andReturn(instance2);
+        component.startInstance(instance2);
+        component.stopInstance(instance2);
+        control.replay();
+
+        InstancePool pool = new InstancePool(component, new InstancePoolInfo(0, 1, 0), null);
+        assertSame(instance1, pool.borrow());
+        assertSame(instance2, pool.borrow());
+        assertEquals(2, pool.getActiveCount());
+        pool.release(instance1);
+        pool.release(instance2);
+
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(1, pool.getDiscarded());
+        assertEquals(0, pool.getActiveCount());
+        control.verify();
+    }
+
+    public void testIdleEviction() throws Exception {
+        Object instance1 = new Object();
+        Object instance2 = new Object();
+        EasyMock.expect(component.createInstance()).andReturn(instance1);
+        component.startInstance(instance1);
+        EasyMock.expect(component.createInstance()).andReturn(instance2);
+        component.startInstance(instance2);
+        component.stopInstance(instance1);
+        control.replay();
+
+        InstancePool pool = new InstancePool(component, new InstancePoolInfo(1, 2, 1), null);
+        pool.borrow();
+        pool.borrow();
+        pool.release(instance1);
+        pool.release(instance2);
+        Thread.sleep(10);
+        pool.evict();
+
+        // the least recently used instance is evicted and the minimum size retained
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(1, pool.getEvicted());
+        assertSame(instance2, pool.borrow());
+        control.verify();
+    }
+
+    public void testClose() throws Exception {
+        Object instance1 = new Object();
+        Object instance2 = new Object();
+        EasyMock.expect(component.createInstance()).andReturn(instance1);
+        component.startInstance(instance1);
+        EasyMock.expect(component.createInstance()).andReturn(instance2);
+        component.startInstance(instance2);
+        component.stopInstance(instance1);
+        component.stopInstance(instance2);
+        control.replay();
+
+        InstancePool pool = new InstancePool(component, new InstancePoolInfo(0, 2, 0), null);
+        pool.borrow();
+        pool.borrow();
+        pool.release(instance1);
+        pool.close();
+        pool.release(instance2);
+
+        assertEquals(0, pool.getIdleCount());
+        control.verify();
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        control = EasyMock.createStrictControl();
+        component = control.createMock(ScopedComponent.class);
+    }
+}
@@ -19,10 +19,13 @@
  */
 package org.fabric3.fabric.container.component;
 
+import java.util.Collections;
+
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
 import org.fabric3.api.model.type.component.Scope;
+import org.fabric3.api.model.type.java.InstancePoolInfo;
 import org.fabric3.spi.container.component.ScopedComponent;
 
 /**
@@ -59,6 +62,53 @@ public class StatelessScopeContainerTestCase extends TestCase {
         control.verify();
     }
 
+    public void testPooledInstanceReuse() throws Exception {
+        EasyMock.expect(component.getPoolInfo()).andReturn(new InstancePoolInfo(0, 1, 0));
+        EasyMock.expect(component.createInstance()).andReturn(instance);
+        component.startInstance(instance);
+        control.replay();
+
+        scopeContainer.register(component);
+        assertSame(instance, scopeContainer.getInstance(component));
+        scopeContainer.releaseInstance(component, instance);
+        assertSame(instance, scopeContainer.getInstance(component));
+        control.verify();
+    }
+
+    public void testPooledInstanceReinjectedOnUpdate() throws Exception {
+        EasyMock.expect(component.getPoolInfo()).andReturn(new InstancePoolInfo(0, 1, 0));
+        EasyMock.expect(component.createInstance()).andReturn(instance);
+        component.startInstance(instance);
+        EasyMock.expect(component.reinject(instance, Collections.singleton("reference"))).andReturn(true);
+        control.replay();
+
+        scopeContainer.register(component);
+        assertSame(instance, scopeContainer.getInstance(component));
+        scopeContainer.updated(component, "reference");
+        scopeContainer.releaseInstance(component, instance);
+        assertSame(instance, scopeContainer.getInstance(component));
+        control.verify();
+    }
+
+    public void testPooledInstanceDiscardedWhenNotReinjectable() throws Exception {
+        Object updated = new Object();
+        EasyMock.expect(component.getPoolInfo()).andReturn(new InstancePoolInfo(0, 1, 0));
+        EasyMock.expect(component.createInstance()).andReturn(instance);
+        component.startInstance(instance);
+        EasyMock.expect(component.reinject(instance, Collections.singleton("reference"))).andReturn(false);
+        component.stopInstance(instance);
+        EasyMock.expect(component.createInstance()).andReturn(updated);
+        component.startInstance(updated);
+        control.replay();
+
+        scopeContainer.register(component);
+        assertSame(instance, scopeContainer.getInstance(component));
+        scopeContainer.updated(component, "reference");
+        scopeContainer.releaseInstance(component, instance);
+        assertSame(updated, scopeContainer.getInstance(component));
+        control.verify();
+    }
+
     @SuppressWarnings("unchecked")
     protected void setUp() throws Exception {
         super.setUp();
@@ -0,0 +1,61 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.domain.generator.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import junit.framework.TestCase;
+import org.fabric3.spi.domain.generator.InterceptorGenerator;
+import org.fabric3.spi.model.instance.LogicalOperation;
+import org.fabric3.spi.model.physical.PhysicalInterceptor;
+
+/**
+ *
+ */
+public class GeneratorRegistryImplTestCase extends TestCase {
+
+    public void testInterceptorGeneratorsOrdered() throws Exception {
+        InterceptorGenerator later = new OrderedGenerator(InterceptorGenerator.TRANSACTION_ORDER + 100);
+        InterceptorGenerator transaction = new OrderedGenerator(InterceptorGenerator.TRANSACTION_ORDER);
+        InterceptorGenerator authorization = new OrderedGenerator(InterceptorGenerator.AUTHORIZATION_ORDER);
+        InterceptorGenerator unordered = new OrderedGenerator(0);
+
+        GeneratorRegistryImpl registry = new GeneratorRegistryImpl();
+        registry.setInterceptorGenerators(Arrays.asList(later, transaction, authorization, unordered));
+
+        List<InterceptorGenerator> generators = registry.getInterceptorGenerators();
+        assertEquals(Arrays.asList(unordered, authorization, transaction, later), generators);
+    }
+
+    private static class OrderedGenerator implements InterceptorGenerator {
+        private int order;
+
+        private OrderedGenerator(int order) {
+            this.order = order;
+        }
+
+        public int getOrder() {
+            return order;
+        }
+
+        public Optional<PhysicalInterceptor> generate(LogicalOperation source, LogicalOperation target) {
+            return Optional.empty();
+        }
+    }
+}
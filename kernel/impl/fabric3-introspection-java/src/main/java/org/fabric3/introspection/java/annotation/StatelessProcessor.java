@@ -21,7 +21,9 @@ package org.fabric3.introspection.java.annotation;
 
 import org.fabric3.api.annotation.scope.Stateless;
 import org.fabric3.api.model.type.java.InjectingComponentType;
+import org.fabric3.api.model.type.java.InstancePoolInfo;
 import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.java.InvalidAnnotation;
 import org.fabric3.spi.introspection.java.annotation.AbstractAnnotationProcessor;
 
 
@@ -33,5 +35,16 @@ public class StatelessProcessor extends AbstractAnnotationProcessor<Stateless> {
 
     public void visitType(Stateless annotation, Class<?> type, InjectingComponentType componentType, IntrospectionContext context) {
         componentType.setScope(org.fabric3.api.model.type.component.Scope.STATELESS);
+        int maxSize = annotation.pool();
+        if (maxSize == 0) {
+            return;
+        }
+        int minSize = annotation.poolMin();
+        if (maxSize < 0 || minSize < 0 || minSize > maxSize) {
+            InvalidAnnotation error = new InvalidAnnotation("Invalid pool size specified on " + type.getName(), type, annotation, type);
+            context.addError(error);
+            return;
+        }
+        componentType.setPoolInfo(new InstancePoolInfo(minSize, maxSize, annotation.poolIdleTime()));
     }
 }
\ No newline at end of file
@@ -23,6 +23,9 @@ import junit.framework.TestCase;
 import org.fabric3.api.annotation.scope.Stateless;
 import org.fabric3.api.model.type.component.Scope;
 import org.fabric3.api.model.type.java.InjectingComponentType;
+import org.fabric3.spi.introspection.DefaultIntrospectionContext;
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.java.InvalidAnnotation;
 
 @SuppressWarnings("unchecked")
 public class StatelessProcessorTestCase extends TestCase {
@@ -37,6 +40,32 @@ public class StatelessProcessorTestCase extends TestCase {
         processor.visitType(annotation, componentToProcess.getClass(), type, null);
 
         assertEquals(Scope.STATELESS, type.getScope());
+        assertNull(type.getPoolInfo());
+    }
+
+    public void testPoolConfiguration() throws Exception {
+        Stateless annotation = PooledAnnotated.class.getAnnotation(Stateless.class);
+        StatelessProcessor processor = new StatelessProcessor();
+        InjectingComponentType type = new InjectingComponentType();
+
+        processor.visitType(annotation, PooledAnnotated.class, type, null);
+
+        assertEquals(Scope.STATELESS, type.getScope());
+        assertEquals(2, type.getPoolInfo().getMinSize());
+        assertEquals(10, type.getPoolInfo().getMaxSize());
+        assertEquals(5000, type.getPoolInfo().getIdleTime());
+    }
+
+    public void testInvalidPoolConfiguration() throws Exception {
+        Stateless annotation = InvalidPoolAnnotated.class.getAnnotation(Stateless.class);
+        StatelessProcessor processor = new StatelessProcessor();
+        InjectingComponentType type = new InjectingComponentType();
+        IntrospectionContext context = new DefaultIntrospectionContext();
+
+        processor.visitType(annotation, InvalidPoolAnnotated.class, type, context);
+
+        assertTrue(context.getErrors().get(0) instanceof InvalidAnnotation);
+        assertNull(type.getPoolInfo());
     }
 
     @SuppressWarnings("serial")
@@ -45,4 +74,14 @@ public class StatelessProcessorTestCase extends TestCase {
 
     }
 
+    @Stateless(pool = 10, poolMin = 2, poolIdleTime = 5000)
+    public static class PooledAnnotated {
+
+    }
+
+    @Stateless(pool = 1, poolMin = 2)
+    public static class InvalidPoolAnnotated {
+
+    }
+
 }
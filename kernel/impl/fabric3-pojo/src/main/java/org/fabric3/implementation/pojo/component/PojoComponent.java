@@ -21,6 +21,7 @@ package org.fabric3.implementation.pojo.component;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
@@ -28,6 +29,7 @@ import org.fabric3.api.annotation.monitor.MonitorLevel;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.model.type.component.Scope;
 import org.fabric3.api.model.type.java.Injectable;
+import org.fabric3.api.model.type.java.InstancePoolInfo;
 import org.fabric3.implementation.pojo.manager.ImplementationManager;
 import org.fabric3.implementation.pojo.manager.ImplementationManagerFactory;
 import org.fabric3.spi.container.component.ScopeContainer;
@@ -47,6 +49,7 @@ public abstract class PojoComponent implements ScopedComponent {
     private MonitorLevel level = MonitorLevel.INFO;
     private AtomicBoolean recreate = new AtomicBoolean(true);
     private Object cachedInstance;
+    private InstancePoolInfo poolInfo;
 
     public PojoComponent(URI componentId, ImplementationManagerFactory factory, ScopeContainer scopeContainer, boolean eager, URI contributionUri) {
         this.uri = componentId;
@@ -98,6 +101,19 @@ public abstract class PojoComponent implements ScopedComponent {
         return eager;
     }
 
+    public InstancePoolInfo getPoolInfo() {
+        return poolInfo;
+    }
+
+    /**
+     * Sets the instance pool configuration. Must be called before the component is started.
+     *
+     * @param poolInfo the instance pool configuration or null if instances are not pooled
+     */
+    public void setPoolInfo(InstancePoolInfo poolInfo) {
+        this.poolInfo = poolInfo;
+    }
+
     public Object getInstance() throws Fabric3Exception {
         if (cachedInstance != null) {
             return cachedInstance;
@@ -110,10 +126,7 @@ public abstract class PojoComponent implements ScopedComponent {
     }
 
     public Object createInstance() throws Fabric3Exception {
-        if (recreate.getAndSet(false)) {
-            implementationManager = null;
-        }
-        Object instance = getImplementationManager().newInstance();
+        Object instance = getCurrentImplementationManager().newInstance();
         if (Scope.COMPOSITE == scopeContainer.getScope()) {
             cachedInstance = instance;
         }
@@ -137,6 +150,16 @@ public abstract class PojoComponent implements ScopedComponent {
         getImplementationManager().reinject(instance);
     }
 
+    public boolean reinject(Object instance, Set<String> names) throws Fabric3Exception {
+        ImplementationManager manager = getCurrentImplementationManager();
+        for (String name : names) {
+            if (!manager.inject(instance, name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public ScopeContainer getScopeContainer() {
         return scopeContainer;
     }
@@ -172,6 +195,7 @@ public abstract class PojoComponent implements ScopedComponent {
         // Clear the instance factory as it has changed and will need to be re-created. This can happen if reinjection occurs after the first
         // instance has been created.
         recreate.set(true);
+        scopeContainer.updated(this, name);
     }
 
     public void removeSupplier(Injectable injectable) {
@@ -184,6 +208,7 @@ public abstract class PojoComponent implements ScopedComponent {
         // Clear the instance factory as it has changed and will need to be re-created. This can happen if reinjection occurs after the first
         // instance has been created.
         recreate.set(true);
+        scopeContainer.updated(this, name);
     }
 
     public Supplier<?> getSupplier(Injectable injectable) {
@@ -194,6 +219,18 @@ public abstract class PojoComponent implements ScopedComponent {
         return "[" + uri.toString() + "] in state [" + super.toString() + ']';
     }
 
+    /**
+     * Returns the implementation manager, re-creating it if the instance factory has changed so that injectors use the current suppliers.
+     *
+     * @return the implementation manager
+     */
+    private ImplementationManager getCurrentImplementationManager() {
+        if (recreate.getAndSet(false)) {
+            implementationManager = null;
+        }
+        return getImplementationManager();
+    }
+
     private ImplementationManager getImplementationManager() {
         if (implementationManager == null) {
             implementationManager = factory.createManager();
@@ -58,6 +58,17 @@ public interface ImplementationManager {
      */
     void reinject(Object instance) throws Fabric3Exception;
 
+    /**
+     * Injects the current value of a reference, property or context into an existing instance. Unlike {@link #reinject(Object)}, the implementation does not
+     * need to be reinjectable.
+     *
+     * @param instance the instance
+     * @param name     the reference, property or context name
+     * @return true if the value was injected or false if the implementation has no injector for the name, for example if it is constructor-injected or removed
+     * @throws Fabric3Exception if an error is raised during injection
+     */
+    boolean inject(Object instance, String name) throws Fabric3Exception;
+
     /**
      * Updates the instance with a new reference proxy.
      *
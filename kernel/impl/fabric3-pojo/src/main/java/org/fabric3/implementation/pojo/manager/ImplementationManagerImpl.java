@@ -120,6 +120,27 @@ public class ImplementationManagerImpl implements ImplementationManager {
         updatedInjectors.clear();
     }
 
+    public boolean inject(Object instance, String name) throws Fabric3Exception {
+        ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(cl);
+        try {
+            // preserve the message content in case a setter invokes a service, as is done for new instances
+            Message message = MessageCache.getMessage();
+            Object content = message.getBody();
+            boolean injected = false;
+            for (int i = 0; i < injectables.length; i++) {
+                if (injectables[i].getName().equals(name)) {
+                    injectors[i].inject(instance);
+                    injected = true;
+                }
+            }
+            message.setBody(content);
+            return injected;
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldCl);
+        }
+    }
+
     public void updated(Object instance, String name) {
         if (instance != null && !reinjectable) {
             throw new IllegalStateException("Implementation is not reinjectable: " + instance.getClass().getName());
@@ -20,6 +20,7 @@
 package org.fabric3.implementation.pojo.provision;
 
 import org.fabric3.api.model.type.component.Scope;
+import org.fabric3.api.model.type.java.InstancePoolInfo;
 import org.fabric3.api.model.type.java.ManagementInfo;
 import org.fabric3.spi.model.physical.PhysicalComponent;
 
@@ -32,6 +33,7 @@ public abstract class PhysicalPojoComponent extends PhysicalComponent {
     private boolean eager;
     private boolean managed;
     private ManagementInfo managementInfo;
+    private InstancePoolInfo poolInfo;
 
     /**
      * Gets the instance factory provider definition.
@@ -102,4 +104,22 @@ public abstract class PhysicalPojoComponent extends PhysicalComponent {
     public void setManagementInfo(ManagementInfo managementInfo) {
         this.managementInfo = managementInfo;
     }
+
+    /**
+     * Returns the instance pool configuration or null if instances are not pooled.
+     *
+     * @return the instance pool configuration or null
+     */
+    public InstancePoolInfo getPoolInfo() {
+        return poolInfo;
+    }
+
+    /**
+     * Sets the instance pool configuration.
+     *
+     * @param poolInfo the instance pool configuration
+     */
+    public void setPoolInfo(InstancePoolInfo poolInfo) {
+        this.poolInfo = poolInfo;
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.transform;
+
+import java.util.List;
+
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.spi.transform.Transformer;
+
+/**
+ * Transforms data through a sequence of intermediate data types by applying a chain of transformers.
+ */
+public class ChainedTransformer implements Transformer<Object, Object> {
+    private Transformer<Object, Object>[] transformers;
+
+    /**
+     * Constructor.
+     *
+     * @param transformers the transformers in the order they are applied
+     */
+    @SuppressWarnings("unchecked")
+    public ChainedTransformer(List<Transformer<Object, Object>> transformers) {
+        this.transformers = transformers.toArray(new Transformer[transformers.size()]);
+    }
+
+    public Object transform(Object source, ClassLoader loader) throws Fabric3Exception {
+        Object current = source;
+        for (Transformer<Object, Object> transformer : transformers) {
+            current = transformer.transform(current, loader);
+        }
+        return current;
+    }
+
+}
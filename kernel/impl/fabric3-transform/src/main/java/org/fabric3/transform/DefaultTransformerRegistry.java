@@ -18,15 +18,23 @@
  */
 package org.fabric3.transform;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.model.type.contract.DataType;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionServiceListener;
 import org.fabric3.spi.transform.SingleTypeTransformer;
 import org.fabric3.spi.transform.Transformer;
 import org.fabric3.spi.transform.TransformerFactory;
@@ -35,22 +43,53 @@ import org.oasisopen.sca.annotation.Reference;
 
 /**
  * Default TransformerRegistry implementation.
+ *
+ * If no transformer or factory converts directly between two data types, the shortest chain of single type transformers is used, optionally followed by a
+ * factory-created transformer to the target type. Resolved transformers, including failed resolutions, are cached by data types and classes until the
+ * registered transformers or factories change. The cache is also cleared when a contribution is uninstalled so that it does not retain contribution classes.
+ * Caching can be disabled for instances that are not registered to receive contribution events.
  */
-public class DefaultTransformerRegistry implements TransformerRegistry {
+public class DefaultTransformerRegistry implements TransformerRegistry, ContributionServiceListener {
     private static final Comparator<TransformerFactory> COMPARATOR = (first, second) -> first.getOrder() - second.getOrder();
 
     // cache of single type transformers
-    private Map<Key, SingleTypeTransformer<?, ?>> transformers = new HashMap<>();
+    private volatile Map<Key, SingleTypeTransformer<?, ?>> transformers = new HashMap<>();
+
+    // single type transformers indexed by source type
+    private volatile Map<DataType, List<SingleTypeTransformer<?, ?>>> edges = new HashMap<>();
 
     // cache of transformer factories
-    private List<TransformerFactory> factories = new ArrayList<>();
+    private volatile List<TransformerFactory> factories = new ArrayList<>();
+
+    // cache of resolved transformers; replaced rather than cleared so resolutions in progress against previous registrations are discarded
+    private volatile Map<ResolutionKey, Optional<Transformer<?, ?>>> resolved = new ConcurrentHashMap<>();
+
+    private boolean cacheResolutions = true;
+
+    /**
+     * Sets whether resolved transformers are cached. Caching must be disabled if this registry is not notified when contributions are uninstalled, as the
+     * cache would otherwise retain contribution classes.
+     *
+     * @param cacheResolutions true if resolved transformers should be cached
+     */
+    public void setCacheResolutions(boolean cacheResolutions) {
+        this.cacheResolutions = cacheResolutions;
+    }
 
     @Reference(required = false)
     public void setTransformers(List<SingleTypeTransformer<?, ?>> transformers) {
+        Map<Key, SingleTypeTransformer<?, ?>> pairs = new HashMap<>();
+        Map<DataType, List<SingleTypeTransformer<?, ?>>> edges = new HashMap<>();
         for (SingleTypeTransformer<?, ?> transformer : transformers) {
             Key pair = new Key(transformer.getSourceType(), transformer.getTargetType());
-            this.transformers.put(pair, transformer);
+            pairs.put(pair, transformer);
         }
+        for (SingleTypeTransformer<?, ?> transformer : pairs.values()) {
+            edges.computeIfAbsent(transformer.getSourceType(), k -> new ArrayList<>()).add(transformer);
+        }
+        this.transformers = pairs;
+        this.edges = edges;
+        resolved = new ConcurrentHashMap<>();
     }
 
     @Reference(required = false)
@@ -58,14 +97,66 @@ public class DefaultTransformerRegistry implements TransformerRegistry {
         List<TransformerFactory> sorted = new ArrayList<>(factories);
         Collections.sort(sorted, COMPARATOR);
         this.factories = sorted;
+        resolved = new ConcurrentHashMap<>();
     }
 
     public Transformer<?, ?> getTransformer(DataType source, DataType target, List<Class<?>> inTypes, List<Class<?>> outTypes) throws Fabric3Exception {
+        if (!cacheResolutions) {
+            return resolve(source, target, inTypes, outTypes);
+        }
+        Map<ResolutionKey, Optional<Transformer<?, ?>>> resolved = this.resolved;
+        ResolutionKey key = new ResolutionKey(source, target, inTypes, outTypes);
+        Optional<Transformer<?, ?>> transformer = resolved.get(key);
+        if (transformer == null) {
+            transformer = Optional.ofNullable(resolve(source, target, inTypes, outTypes));
+            List<Class<?>> inCopy = inTypes == null ? null : new ArrayList<>(inTypes);
+            List<Class<?>> outCopy = outTypes == null ? null : new ArrayList<>(outTypes);
+            Optional<Transformer<?, ?>> previous = resolved.putIfAbsent(new ResolutionKey(source, target, inCopy, outCopy), transformer);
+            if (previous != null) {
+                transformer = previous;
+            }
+        }
+        return transformer.orElse(null);
+    }
+
+    public void onUninstall(Contribution contribution) {
+        resolved = new ConcurrentHashMap<>();
+    }
+
+    public void onStore(Contribution contribution) {
+        // no-op
+    }
+
+    public void onProcessManifest(Contribution contribution) {
+        // no-op
+    }
+
+    public void onInstall(Contribution contribution) {
+        // no-op
+    }
+
+    public void onUpdate(Contribution contribution) {
+        // no-op
+    }
+
+    public void onRemove(Contribution contribution) {
+        // no-op
+    }
+
+    private Transformer<?, ?> resolve(DataType source, DataType target, List<Class<?>> inTypes, List<Class<?>> outTypes) {
         Key key = new Key(source, target);
         Transformer<?, ?> transformer = transformers.get(key);
         if (transformer != null) {
             return transformer;
         }
+        transformer = create(source, target, inTypes, outTypes);
+        if (transformer != null) {
+            return transformer;
+        }
+        return resolveChain(source, target, outTypes);
+    }
+
+    private Transformer<?, ?> create(DataType source, DataType target, List<Class<?>> inTypes, List<Class<?>> outTypes) {
         for (TransformerFactory factory : factories) {
             boolean canTransform = factory.canTransform(source, target);
             if (canTransform) {
@@ -75,6 +166,61 @@ public class DefaultTransformerRegistry implements TransformerRegistry {
         return null;
     }
 
+    /**
+     * Performs a breadth-first search of the graph formed by single type transformers for the shortest chain from the source to the target type. The last
+     * step may be performed by a factory, in which case the out types are also used as its in types since the classes of the intermediate type are not known.
+     *
+     * @param source   the source type
+     * @param target   the target type
+     * @param outTypes the classes that must be converted to
+     * @return a chained transformer or null if no chain exists
+     */
+    @SuppressWarnings("unchecked")
+    private Transformer<?, ?> resolveChain(DataType source, DataType target, List<Class<?>> outTypes) {
+        Map<DataType, SingleTypeTransformer<?, ?>> predecessors = new HashMap<>();
+        Queue<DataType> queue = new ArrayDeque<>();
+        queue.add(source);
+        predecessors.put(source, null);
+        while (!queue.isEmpty()) {
+            DataType current = queue.remove();
+            if (current != source) {
+                Transformer<?, ?> last;
+                try {
+                    last = create(current, target, outTypes, outTypes);
+                } catch (RuntimeException e) {
+                    // the factory does not support the intermediate type; other chains may still exist
+                    last = null;
+                }
+                if (last != null) {
+                    LinkedList<Transformer<Object, Object>> chain = getPath(current, predecessors);
+                    chain.add((Transformer<Object, Object>) last);
+                    return new ChainedTransformer(chain);
+                }
+            }
+            for (SingleTypeTransformer<?, ?> transformer : edges.getOrDefault(current, Collections.emptyList())) {
+                DataType next = transformer.getTargetType();
+                if (predecessors.containsKey(next)) {
+                    continue;
+                }
+                predecessors.put(next, transformer);
+                if (next.equals(target)) {
+                    return new ChainedTransformer(getPath(next, predecessors));
+                }
+                queue.add(next);
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LinkedList<Transformer<Object, Object>> getPath(DataType end, Map<DataType, SingleTypeTransformer<?, ?>> predecessors) {
+        LinkedList<Transformer<Object, Object>> path = new LinkedList<>();
+        for (SingleTypeTransformer<?, ?> transformer = predecessors.get(end); transformer != null; transformer = predecessors.get(transformer.getSourceType())) {
+            path.addFirst((Transformer<Object, Object>) transformer);
+        }
+        return path;
+    }
+
     private static class Key {
         private final DataType source;
         private final DataType target;
@@ -106,4 +252,37 @@ public class DefaultTransformerRegistry implements TransformerRegistry {
         }
     }
 
+    private static class ResolutionKey {
+        private final DataType source;
+        private final DataType target;
+        private final List<Class<?>> inTypes;
+        private final List<Class<?>> outTypes;
+        private final int hashCode;
+
+        public ResolutionKey(DataType source, DataType target, List<Class<?>> inTypes, List<Class<?>> outTypes) {
+            this.source = source;
+            this.target = target;
+            this.inTypes = inTypes;
+            this.outTypes = outTypes;
+            this.hashCode = Objects.hash(source, target, inTypes, outTypes);
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            ResolutionKey that = (ResolutionKey) o;
+
+            return source.equals(that.source) && target.equals(that.target) && Objects.equals(inTypes, that.inTypes) && Objects.equals(outTypes, that.outTypes);
+        }
+
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
 }
@@ -0,0 +1,290 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.transform.java;
+
+import java.io.Externalizable;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractQueue;
+import java.util.AbstractSequentialList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A copy plan for a class computed once using reflection.
+ *
+ * The plan records method handles for the fields Java serialization would write so that copies read and write state directly, and creates instances with the
+ * constructor deserialization uses, which runs only the no-argument constructor of the first non-serializable superclass. Classes that customize
+ * serialization are not copyable since a field copy would not be equivalent to serialization. Neither are classes extending a non-serializable class other
+ * than {@link Object} and the JDK abstract collection classes, which hold no state set by their constructors.
+ *
+ * JDK classes are not copyable since their fields are internal and cannot be accessed on runtimes that encapsulate the JDK. A class is also not copyable if
+ * the plan cannot be computed, for example if its fields cannot be made accessible or are not writable, as is the case for records and hidden classes. The serialization constructor is obtained from the JDK reflection factory. If it is not available, no class is copyable.
+ */
+final class ClassCopier {
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType COPIER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Object REFLECTION_FACTORY;
+    private static final Method NEW_CONSTRUCTOR;
+
+    static {
+        Object factory = null;
+        Method method = null;
+        try {
+            // accessed reflectively as it is not a public API; deserialization uses it to create instances
+            Class<?> factoryClass = Class.forName("sun.reflect.ReflectionFactory");
+            factory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+            method = factoryClass.getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            factory = null;
+            method = null;
+        }
+        REFLECTION_FACTORY = factory;
+        NEW_CONSTRUCTOR = method;
+    }
+
+    private static final Set<Class<?>> STATELESS_BASES = new HashSet<>(Arrays.asList(AbstractCollection.class, AbstractList.class,
+                                                                                     AbstractSequentialList.class, AbstractSet.class, AbstractQueue.class,
+                                                                                     AbstractMap.class));
+
+    private final Class<?> type;
+    private final boolean copyable;
+    private final Constructor<?> constructor;
+    private final MethodHandle[] primitives;
+    private final MethodHandle[] getters;
+    private final MethodHandle[] setters;
+
+    // weak keys so that the plans do not pin contribution classloaders
+    private final Map<ClassLoader, Boolean> visibility = new WeakHashMap<>();
+
+    /**
+     * Returns true if the serialization constructor is available, without which no class is copyable.
+     *
+     * @return true if the serialization constructor is available
+     */
+    static boolean isSupported() {
+        return NEW_CONSTRUCTOR != null;
+    }
+
+    /**
+     * Creates a copy plan for the type.
+     *
+     * @param type the type
+     * @return the plan
+     */
+    static ClassCopier create(Class<?> type) {
+        if (!isSupported() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers()) || !Serializable.class.isAssignableFrom(type)
+            || Externalizable.class.isAssignableFrom(type) || isPlatformClass(type)) {
+            return new ClassCopier(type);
+        }
+        try {
+            List<Field> fields = new ArrayList<>();
+            Class<?> current = type;
+            for (; Serializable.class.isAssignableFrom(current); current = current.getSuperclass()) {
+                if (isCustomized(current)) {
+                    return new ClassCopier(type);
+                }
+                for (Field field : current.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                        fields.add(field);
+                    }
+                }
+            }
+            if (current != Object.class && !STATELESS_BASES.contains(current)) {
+                // deserialization would run the constructor of a stateful superclass
+                return new ClassCopier(type);
+            }
+            Constructor<?> constructor = (Constructor<?>) NEW_CONSTRUCTOR.invoke(REFLECTION_FACTORY, type, current.getDeclaredConstructor());
+            if (constructor == null) {
+                return new ClassCopier(type);
+            }
+            constructor.setAccessible(true);
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            List<MethodHandle> primitives = new ArrayList<>();
+            List<MethodHandle> getters = new ArrayList<>();
+            List<MethodHandle> setters = new ArrayList<>();
+            for (Field field : fields) {
+                field.setAccessible(true);
+                MethodHandle getter = lookup.unreflectGetter(field);
+                MethodHandle setter = lookup.unreflectSetter(field);
+                if (field.getType().isPrimitive()) {
+                    // combine into a single handle that sets the target field to the source value
+                    primitives.add(MethodHandles.collectArguments(setter, 1, getter).asType(COPIER));
+                } else {
+                    getters.add(getter.asType(GETTER));
+                    setters.add(setter.asType(SETTER));
+                }
+            }
+            return new ClassCopier(type,
+                                   constructor,
+                                   primitives.toArray(new MethodHandle[primitives.size()]),
+                                   getters.toArray(new MethodHandle[getters.size()]),
+                                   setters.toArray(new MethodHandle[setters.size()]));
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // the class cannot be introspected or its fields cannot be accessed, e.g. it is encapsulated in a module or its fields are not writable
+            return new ClassCopier(type);
+        }
+    }
+
+    private ClassCopier(Class<?> type) {
+        this(type, null, null, null, null);
+    }
+
+    private ClassCopier(Class<?> type, Constructor<?> constructor, MethodHandle[] primitives, MethodHandle[] getters, MethodHandle[] setters) {
+        this.type = type;
+        this.copyable = constructor != null;
+        this.constructor = constructor;
+        this.primitives = primitives;
+        this.getters = getters;
+        this.setters = setters;
+    }
+
+    /**
+     * Returns true if instances can be copied field by field.
+     *
+     * @return true if instances can be copied field by field
+     */
+    public boolean isCopyable() {
+        return copyable;
+    }
+
+    /**
+     * Returns true if the classloader resolves the type's name to the same class, in which case instances can be passed to it without serialization.
+     *
+     * @param loader the classloader
+     * @return true if the type is visible
+     */
+    public boolean isVisible(ClassLoader loader) {
+        ClassLoader owner = type.getClassLoader();
+        if (owner == null || owner == loader) {
+            return true;
+        }
+        synchronized (visibility) {
+            Boolean visible = visibility.get(loader);
+            if (visible == null) {
+                visible = resolve(loader);
+                visibility.put(loader, visible);
+            }
+            return visible;
+        }
+    }
+
+    /**
+     * Creates an instance without invoking its constructors, as deserialization does for serializable classes.
+     *
+     * @return the instance
+     * @throws InstantiationException if the instance cannot be created
+     */
+    public Object newInstance() throws InstantiationException {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new InstantiationException(e.getMessage());
+        }
+    }
+
+    /**
+     * Copies the fields of the source to the target, deep copying references using the strategy.
+     *
+     * @param source   the source instance
+     * @param target   the target instance
+     * @param strategy the strategy for copying referenced objects
+     * @param context  the current copy context
+     */
+    public void copyFields(Object source, Object target, FieldCopyStrategy strategy, FieldCopyStrategy.Context context) {
+        try {
+            for (MethodHandle primitive : primitives) {
+                primitive.invokeExact(target, source);
+            }
+            for (int i = 0; i < getters.length; i++) {
+                Object value = (Object) getters[i].invokeExact(source);
+                setters[i].invokeExact(target, strategy.copyGraph(value, context));
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // field accessors do not throw checked exceptions
+            throw new AssertionError(e);
+        }
+    }
+
+    private boolean resolve(ClassLoader loader) {
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static boolean isPlatformClass(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return true;
+        }
+        for (ClassLoader parent = ClassLoader.getSystemClassLoader().getParent(); parent != null; parent = parent.getParent()) {
+            if (parent == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCustomized(Class<?> type) {
+        return hasMethod(type, "writeObject", ObjectOutputStream.class) || hasMethod(type, "readObject", ObjectInputStream.class)
+               || hasMethod(type, "readObjectNoData") || hasMethod(type, "writeReplace") || hasMethod(type, "readResolve")
+               || hasField(type, "serialPersistentFields");
+    }
+
+    private static boolean hasMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            type.getDeclaredMethod(name, parameterTypes);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean hasField(Class<?> type, String name) {
+        try {
+            type.getDeclaredField(name);
+            return true;
+        } catch (NoSuchFieldException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.transform.java;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fabric3.spi.transform.CopyStrategy;
+
+/**
+ * Copies object graphs field by field using per-class plans instead of writing them through an object stream.
+ *
+ * Immutable JDK value types and enums are shared. Common JDK collections and dates are rebuilt through their public APIs. Other serializable classes are copied
+ * using a {@link ClassCopier} plan computed once per class; whether a class resolves to the same type in the target classloader is recorded per classloader.
+ * Shared references and cycles in the graph are preserved. If an object in the graph cannot be copied with the same result as serialization, or its class is
+ * not visible to the target classloader, the graph is declined.
+ */
+public class FieldCopyStrategy implements CopyStrategy {
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(String.class, Boolean.class, Byte.class, Character.class, Short.class,
+                                                                                     Integer.class, Long.class, Float.class, Double.class, BigInteger.class,
+                                                                                     BigDecimal.class, UUID.class, URI.class, Locale.class, Instant.class,
+                                                                                     Duration.class, Period.class, LocalDate.class, LocalTime.class,
+                                                                                     LocalDateTime.class, OffsetTime.class, OffsetDateTime.class,
+                                                                                     ZonedDateTime.class, Year.class, YearMonth.class, MonthDay.class));
+
+    private static final Uncopyable UNCOPYABLE = new Uncopyable();
+
+    private final ClassValue<ClassCopier> copiers = new ClassValue<ClassCopier>() {
+        protected ClassCopier computeValue(Class<?> type) {
+            return ClassCopier.create(type);
+        }
+    };
+
+    public Object copy(Object source, ClassLoader loader) {
+        if (!ClassCopier.isSupported()) {
+            return null;
+        }
+        try {
+            return copyGraph(source, new Context(loader));
+        } catch (Uncopyable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Copies an object reachable from the root of the graph.
+     *
+     * @param source  the object
+     * @param context the current copy context
+     * @return the copy
+     */
+    Object copyGraph(Object source, Context context) {
+        if (source == null) {
+            return null;
+        }
+        Class<?> type = source.getClass();
+        if (IMMUTABLE_TYPES.contains(type) || source instanceof ZoneId) {
+            return source;
+        }
+        if (source == Collections.EMPTY_LIST || source == Collections.EMPTY_SET || source == Collections.EMPTY_MAP) {
+            return source;
+        }
+        if (source instanceof Enum) {
+            checkVisible(((Enum<?>) source).getDeclaringClass(), context);
+            return source;
+        }
+        Object copy = context.get(source);
+        if (copy != null) {
+            return copy;
+        }
+        if (type.isArray()) {
+            return copyArray(source, type.getComponentType(), context);
+        } else if (type == ArrayList.class) {
+            return copyElements((Collection<?>) source, new ArrayList<>(((Collection<?>) source).size()), context);
+        } else if (type == HashMap.class) {
+            return copyEntries((Map<?, ?>) source, new HashMap<>(capacity(((Map<?, ?>) source).size())), context);
+        } else if (type == HashSet.class) {
+            return copyElements((Collection<?>) source, new HashSet<>(capacity(((Collection<?>) source).size())), context);
+        } else if (type == LinkedHashSet.class) {
+            return copyElements((Collection<?>) source, new LinkedHashSet<>(capacity(((Collection<?>) source).size())), context);
+        } else if (type == LinkedList.class) {
+            return copyElements((Collection<?>) source, new LinkedList<>(), context);
+        } else if (type == ArrayDeque.class) {
+            return copyElements((Collection<?>) source, new ArrayDeque<>(((Collection<?>) source).size()), context);
+        } else if (type == ConcurrentHashMap.class) {
+            return copyEntries((Map<?, ?>) source, new ConcurrentHashMap<>(((Map<?, ?>) source).size()), context);
+        } else if (type == TreeMap.class && ((TreeMap<?, ?>) source).comparator() == null) {
+            return copyEntries((Map<?, ?>) source, new TreeMap<>(), context);
+        } else if (type == TreeSet.class && ((TreeSet<?>) source).comparator() == null) {
+            return copyElements((Collection<?>) source, new TreeSet<>(), context);
+        } else if (type == Date.class) {
+            copy = new Date(((Date) source).getTime());
+            context.put(source, copy);
+            return copy;
+        }
+
+        ClassCopier copier = copiers.get(type);
+        if (!copier.isCopyable() || !copier.isVisible(context.loader)) {
+            throw UNCOPYABLE;
+        }
+        try {
+            copy = copier.newInstance();
+        } catch (InstantiationException e) {
+            throw UNCOPYABLE;
+        }
+        context.put(source, copy);
+        copier.copyFields(source, copy, this, context);
+        return copy;
+    }
+
+    private Object copyArray(Object source, Class<?> componentType, Context context) {
+        int length = Array.getLength(source);
+        Object copy = Array.newInstance(componentType, length);
+        context.put(source, copy);
+        if (componentType.isPrimitive()) {
+            System.arraycopy(source, 0, copy, 0, length);
+            return copy;
+        }
+        Class<?> elementType = componentType;
+        while (elementType.isArray()) {
+            elementType = elementType.getComponentType();
+        }
+        if (!elementType.isPrimitive()) {
+            checkVisible(elementType, context);
+        }
+        Object[] sourceArray = (Object[]) source;
+        Object[] copyArray = (Object[]) copy;
+        for (int i = 0; i < length; i++) {
+            copyArray[i] = copyGraph(sourceArray[i], context);
+        }
+        return copy;
+    }
+
+    private <T extends Collection<Object>> T copyElements(Collection<?> source, T copy, Context context) {
+        context.put(source, copy);
+        for (Object element : source) {
+            copy.add(copyGraph(element, context));
+        }
+        return copy;
+    }
+
+    private <T extends Map<Object, Object>> T copyEntries(Map<?, ?> source, T copy, Context context) {
+        context.put(source, copy);
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            copy.put(copyGraph(entry.getKey(), context), copyGraph(entry.getValue(), context));
+        }
+        return copy;
+    }
+
+    private void checkVisible(Class<?> type, Context context) {
+        if (!copiers.get(type).isVisible(context.loader)) {
+            throw UNCOPYABLE;
+        }
+    }
+
+    private static int capacity(int size) {
+        return Math.max((int) (size / .75f) + 1, 16);
+    }
+
+    /**
+     * Tracks objects already copied during a single copy so that shared references and cycles are preserved.
+     */
+    static final class Context {
+        private final ClassLoader loader;
+        private Map<Object, Object> copies;
+
+        private Context(ClassLoader loader) {
+            this.loader = loader;
+        }
+
+        private Object get(Object source) {
+            return copies == null ? null : copies.get(source);
+        }
+
+        private void put(Object source, Object copy) {
+            if (copies == null) {
+                copies = new IdentityHashMap<>();
+            }
+            copies.put(source, copy);
+        }
+    }
+
+    /**
+     * Raised when an object in the graph cannot be copied. A single instance without a stack trace is used since the graph is declined rather than reported.
+     */
+    private static final class Uncopyable extends RuntimeException {
+        private static final long serialVersionUID = -6014837052345211376L;
+
+        private Uncopyable() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -19,16 +19,30 @@ package org.fabric3.transform.java;
 import java.io.Serializable;
 
 import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.spi.transform.CopyStrategy;
 
 /**
- * Transforms data from one classloader to another using Java serialization.
+ * Transforms data from one classloader to another. Graphs are copied using a {@link CopyStrategy} when possible and otherwise using Java serialization.
  */
 public class Java2JavaTransformer extends AbstractSerializingTransformer<Serializable, Serializable> {
+    private CopyStrategy copyStrategy;
+
+    /**
+     * Constructor.
+     *
+     * @param copyStrategy the strategy for copying graphs without serialization
+     */
+    public Java2JavaTransformer(CopyStrategy copyStrategy) {
+        this.copyStrategy = copyStrategy;
+    }
 
     public Serializable transform(Serializable source, ClassLoader loader) throws Fabric3Exception {
+        Object copy = copyStrategy.copy(source, loader);
+        if (copy != null) {
+            return (Serializable) copy;
+        }
         byte[] bytes = serialize(source);
         return deserialize(bytes, loader);
     }
 
-
-}
\ No newline at end of file
+}
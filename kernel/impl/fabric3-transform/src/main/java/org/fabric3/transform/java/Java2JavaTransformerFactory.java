@@ -20,13 +20,22 @@ import java.util.List;
 
 import org.fabric3.api.model.type.contract.DataType;
 import org.fabric3.spi.model.type.java.JavaType;
+import org.fabric3.spi.transform.CopyStrategy;
 import org.fabric3.spi.transform.Transformer;
 import org.fabric3.spi.transform.TransformerFactory;
+import org.oasisopen.sca.annotation.Reference;
 
 /**
- * Factory for a transformer that passes Java types from one classloader to another using Java serialization.
+ * Factory for a transformer that passes Java types from one classloader to another. A {@link FieldCopyStrategy} is used unless another {@link CopyStrategy}
+ * is configured.
  */
 public class Java2JavaTransformerFactory implements TransformerFactory {
+    private CopyStrategy copyStrategy = new FieldCopyStrategy();
+
+    @Reference(required = false)
+    public void setCopyStrategy(CopyStrategy copyStrategy) {
+        this.copyStrategy = copyStrategy;
+    }
 
     public int getOrder() {
         return 10;
@@ -37,6 +46,6 @@ public class Java2JavaTransformerFactory implements TransformerFactory {
     }
 
     public Transformer<?, ?> create(DataType source, DataType target, List<Class<?>> inTypes, List<Class<?>> outTypes) {
-        return new Java2JavaTransformer();
+        return new Java2JavaTransformer(copyStrategy);
     }
 }
\ No newline at end of file
@@ -19,18 +19,22 @@
 package org.fabric3.transform;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 import junit.framework.TestCase;
 import org.fabric3.api.model.type.contract.DataType;
 import org.fabric3.spi.model.type.TypeConstants;
 import org.fabric3.spi.model.type.java.JavaType;
+import org.fabric3.spi.transform.SingleTypeTransformer;
 import org.fabric3.spi.transform.Transformer;
 import org.fabric3.spi.transform.TransformerFactory;
 
 /**
  *
  */
+@SuppressWarnings("unchecked")
 public class DefaultTransformerRegistryTestCase extends TestCase {
     private DefaultTransformerRegistry registry;
 
@@ -44,7 +48,78 @@ public class DefaultTransformerRegistryTestCase extends TestCase {
         assertNotNull(registry.getTransformer(TypeConstants.PROPERTY_TYPE, target, targets, targets));
     }
 
+    public void testFactoryTransformerCached() throws Exception {
+        MockFactory factory = new MockFactory();
+        registry.setFactories(Collections.singletonList(factory));
+        JavaType target = new JavaType(Integer.class);
+        List<Class<?>> targets = Collections.singletonList(Integer.class);
+
+        Transformer<?, ?> transformer = registry.getTransformer(TypeConstants.PROPERTY_TYPE, target, targets, targets);
+        assertSame(transformer, registry.getTransformer(TypeConstants.PROPERTY_TYPE, target, new ArrayList<>(targets), targets));
+        assertEquals(1, factory.created);
+
+        registry.setFactories(Collections.singletonList(factory));
+        assertNotSame(transformer, registry.getTransformer(TypeConstants.PROPERTY_TYPE, target, targets, targets));
+        assertEquals(2, factory.created);
+    }
+
+    public void testResolutionCachingDisabled() throws Exception {
+        MockFactory factory = new MockFactory();
+        registry.setFactories(Collections.singletonList(factory));
+        registry.setCacheResolutions(false);
+        JavaType target = new JavaType(Integer.class);
+        List<Class<?>> targets = Collections.singletonList(Integer.class);
+
+        Transformer<?, ?> transformer = registry.getTransformer(TypeConstants.PROPERTY_TYPE, target, targets, targets);
+        assertNotSame(transformer, registry.getTransformer(TypeConstants.PROPERTY_TYPE, target, targets, targets));
+        assertEquals(2, factory.created);
+    }
+
+    public void testChainedTransformers() throws Exception {
+        JavaType stringType = new JavaType(String.class);
+        JavaType integerType = new JavaType(Integer.class);
+        JavaType longType = new JavaType(Long.class);
+        JavaType doubleType = new JavaType(Double.class);
+        List<SingleTypeTransformer<?, ?>> transformers = new ArrayList<>();
+        transformers.add(new MockSingleTypeTransformer(stringType, integerType, value -> Integer.valueOf((String) value)));
+        transformers.add(new MockSingleTypeTransformer(integerType, longType, value -> ((Integer) value).longValue()));
+        transformers.add(new MockSingleTypeTransformer(longType, doubleType, value -> ((Long) value).doubleValue()));
+        transformers.add(new MockSingleTypeTransformer(stringType, longType, value -> Long.valueOf((String) value)));
+        registry.setTransformers(transformers);
+
+        List<Class<?>> types = Collections.singletonList(Double.class);
+        Transformer<Object, Object> transformer = (Transformer<Object, Object>) registry.getTransformer(stringType, doubleType, types, types);
+        assertEquals(12d, transformer.transform("12", getClass().getClassLoader()));
+
+        assertNull(registry.getTransformer(doubleType, stringType, types, types));
+    }
+
+    public void testChainEndingWithFactory() throws Exception {
+        JavaType stringType = new JavaType(String.class);
+        JavaType integerType = new JavaType(Integer.class);
+        JavaType longType = new JavaType(Long.class);
+        registry.setTransformers(Collections.singletonList(new MockSingleTypeTransformer(stringType, integerType, value -> Integer.valueOf((String) value))));
+        registry.setFactories(Collections.singletonList(new TransformerFactory() {
+            public int getOrder() {
+                return 0;
+            }
+
+            public boolean canTransform(DataType source, DataType target) {
+                return source.equals(integerType) && target.equals(longType);
+            }
+
+            public Transformer<?, ?> create(DataType source, DataType target, List<Class<?>> sourceTypes, List<Class<?>> targetTypes) {
+                return new MockSingleTypeTransformer(source, target, value -> ((Integer) value).longValue());
+            }
+        }));
+
+        List<Class<?>> types = Collections.singletonList(Long.class);
+        Transformer<Object, Object> transformer = (Transformer<Object, Object>) registry.getTransformer(stringType, longType, types, types);
+        assertEquals(12L, transformer.transform("12", getClass().getClassLoader()));
+    }
+
     private class MockFactory implements TransformerFactory {
+        private int created;
 
         public int getOrder() {
             return 0;
@@ -55,11 +130,37 @@ public class DefaultTransformerRegistryTestCase extends TestCase {
         }
 
         public Transformer<Object, Object> create(DataType source, DataType target, List<Class<?>> sourceTypes, List<Class<?>> targetTypes) {
+            created++;
             return new MockTransformer();
         }
 
     }
 
+    private class MockSingleTypeTransformer implements SingleTypeTransformer<Object, Object> {
+        private DataType source;
+        private DataType target;
+        private Function<Object, Object> function;
+
+        private MockSingleTypeTransformer(DataType source, DataType target, Function<Object, Object> function) {
+            this.source = source;
+            this.target = target;
+            this.function = function;
+        }
+
+        public DataType getSourceType() {
+            return source;
+        }
+
+        public DataType getTargetType() {
+            return target;
+        }
+
+        public Object transform(Object o, ClassLoader loader) {
+            return function.apply(o);
+        }
+
+    }
+
     private class MockTransformer implements Transformer<Object, Object> {
 
         public Object transform(Object o, ClassLoader loader) {
@@ -0,0 +1,157 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.transform.java;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class FieldCopyStrategyTestCase extends TestCase {
+    private FieldCopyStrategy strategy = new FieldCopyStrategy();
+    private ClassLoader loader = getClass().getClassLoader();
+
+    public void testImmutableTypesShared() throws Exception {
+        String string = "test";
+        assertSame(string, strategy.copy(string, loader));
+        Integer integer = 1000;
+        assertSame(integer, strategy.copy(integer, loader));
+        BigDecimal decimal = new BigDecimal("1.5");
+        assertSame(decimal, strategy.copy(decimal, loader));
+        LocalDate date = LocalDate.now();
+        assertSame(date, strategy.copy(date, loader));
+        assertSame(TimeUnit.SECONDS, strategy.copy(TimeUnit.SECONDS, loader));
+    }
+
+    public void testCopyGraph() throws Exception {
+        Node root = new Node("root", 1);
+        Node child = new Node("child", 2);
+        root.children.add(child);
+        root.children.add(child);
+        child.parent = root;
+        root.values = new int[]{1, 2, 3};
+        root.attributes.put("key", new ArrayList<>(Arrays.asList("a", "b")));
+        root.cache = "cached";
+
+        Node copy = (Node) strategy.copy(root, loader);
+
+        assertNotSame(root, copy);
+        assertEquals("root", copy.name);
+        assertEquals(1, copy.weight);
+        assertNotSame(root.values, copy.values);
+        assertTrue(Arrays.equals(root.values, copy.values));
+        assertNotSame(root.children, copy.children);
+        assertEquals(2, copy.children.size());
+        Node childCopy = copy.children.get(0);
+        assertNotSame(child, childCopy);
+        assertSame(childCopy, copy.children.get(1));
+        assertSame(copy, childCopy.parent);
+        assertEquals(Arrays.asList("a", "b"), copy.attributes.get("key"));
+        assertNotSame(root.attributes, copy.attributes);
+        assertNull(copy.cache);
+    }
+
+    public void testCopyFinalFields() throws Exception {
+        Value value = new Value("test", 10L);
+        Value copy = (Value) strategy.copy(value, loader);
+        assertNotSame(value, copy);
+        assertEquals("test", copy.name);
+        assertEquals(10L, copy.amount);
+    }
+
+    public void testDeclineJdkType() throws Exception {
+        Holder holder = new Holder();
+        holder.value = new AtomicLong(5);
+        assertNull(strategy.copy(holder, loader));
+        assertNull(strategy.copy(Arrays.asList("a", "b"), loader));
+    }
+
+    public void testDeclineTypeNotVisible() throws Exception {
+        ClassLoader isolated = new URLClassLoader(new URL[0], null);
+        assertNull(strategy.copy(new Node("root", 1), isolated));
+
+        List<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+        Object copy = strategy.copy(list, isolated);
+        assertNotSame(list, copy);
+        assertEquals(list, copy);
+    }
+
+    public void testDeclineCustomSerialization() throws Exception {
+        Node root = new Node("root", 1);
+        root.parent = new Replaced();
+        assertNull(strategy.copy(root, loader));
+    }
+
+    public void testDeclineNonSerializable() throws Exception {
+        Holder holder = new Holder();
+        holder.value = new Object();
+        assertNull(strategy.copy(holder, loader));
+    }
+
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = 4101596426893446287L;
+        private String name;
+        private int weight;
+        private int[] values;
+        private Object parent;
+        private List<Node> children = new ArrayList<>();
+        private Map<String, List<String>> attributes = new HashMap<>();
+        private transient String cache;
+
+        private Node(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    private static class Value implements Serializable {
+        private static final long serialVersionUID = -2370211457357285224L;
+        private final String name;
+        private final long amount;
+
+        private Value(String name, long amount) {
+            this.name = name;
+            this.amount = amount;
+        }
+    }
+
+    private static class Replaced implements Serializable {
+        private static final long serialVersionUID = -1930383442546738219L;
+
+        private Object readResolve() {
+            return this;
+        }
+    }
+
+    private static class Holder implements Serializable {
+        private static final long serialVersionUID = 7795264380839236414L;
+        private Object value;
+    }
+}
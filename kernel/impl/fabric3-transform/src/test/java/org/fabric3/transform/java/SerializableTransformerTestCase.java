@@ -16,6 +16,8 @@
  */
 package org.fabric3.transform.java;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 import junit.framework.TestCase;
@@ -24,7 +26,7 @@ import junit.framework.TestCase;
  *
  */
 public class SerializableTransformerTestCase extends TestCase {
-    private Java2JavaTransformer transformer = new Java2JavaTransformer();
+    private Java2JavaTransformer transformer = new Java2JavaTransformer(new FieldCopyStrategy());
 
     public void testTransform() throws Exception {
         Foo foo = new Foo();
@@ -33,7 +35,25 @@ public class SerializableTransformerTestCase extends TestCase {
         assertTrue(ret instanceof Foo);
     }
 
+    public void testTransformCustomSerialization() throws Exception {
+        Bar bar = new Bar();
+        ClassLoader loader = getClass().getClassLoader();
+        Bar ret = (Bar) transformer.transform(bar, loader);
+        assertNotSame(bar, ret);
+        assertTrue(ret.read);
+    }
+
     private static class Foo implements Serializable {
         private static final long serialVersionUID = -4552015224133581697L;
     }
+
+    private static class Bar implements Serializable {
+        private static final long serialVersionUID = 2939846577218412620L;
+        private transient boolean read;
+
+        private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+            stream.defaultReadObject();
+            read = true;
+        }
+    }
 }
\ No newline at end of file